@@ -0,0 +1,166 @@
+/*
+ *
+ * 	StreamWIDE (Team on The Run)
+ *
+ * @createdBy  AndroidTeam on Sun, 18 Oct 2026 16:31:09 +0100
+ * @copyright  Copyright (c) 2026 StreamWIDE UK Ltd (Team on the Run)
+ * @email      support@teamontherun.com
+ *
+ * 	© Copyright 2026 StreamWIDE UK Ltd (Team on the Run). StreamWIDE is the copyright holder
+ * 	of all code contained in this file. Do not redistribute or
+ *  	re-use without permission.
+ *
+ * @lastModifiedOn Sun, 18 Oct 2026 16:31:09 +0100
+ */
+
+package com.streamwide.smartms.lib.vcard.customcommons;
+
+import androidx.annotation.NonNull;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Provides Base64 encoding and decoding in a streaming fashion (unlimited size). When encoding the default lineLength
+ * is 0 (no chunking), and when decoding, whitespace and any byte outside of the alphabet are ignored.
+ * <p>
+ * The default behaviour of the Base64OutputStream is to ENCODE, but this behaviour can be overridden by using a
+ * different constructor.
+ * </p>
+ * <p>
+ * Since this class operates directly on byte streams, and not character streams, it is hard-coded to only
+ * encode/decode character encodings which are compatible with the lower 127 ASCII chart (ISO-8859-1, Windows-1252,
+ * UTF-8, etc).
+ * </p>
+ * <p>
+ * Unlike the stream of the same name in Commons Codec, the bytes produced by each write are passed to the
+ * underlying stream right away and the internal buffer is reused, so memory use does not depend on the length
+ * of the data.
+ * </p>
+ *
+ * @see <a href="http://www.ietf.org/rfc/rfc2045.txt">RFC 2045</a>
+ */
+public class Base64OutputStream extends FilterOutputStream {
+
+    private final boolean doEncode;
+
+    private final Base64 base64 = new Base64();
+
+    private final byte[] singleByte = new byte[1];
+
+    private final BaseNCodec.Context context = new BaseNCodec.Context();
+
+    /**
+     * Creates a Base64OutputStream such that all data written is Base64-encoded to the original provided OutputStream.
+     *
+     * @param out
+     *            OutputStream to wrap.
+     */
+    public Base64OutputStream(@NonNull final OutputStream out) {
+        this(out, true);
+    }
+
+    /**
+     * Creates a Base64OutputStream such that all data written is either Base64-encoded or Base64-decoded to the
+     * original provided OutputStream.
+     *
+     * @param out
+     *            OutputStream to wrap.
+     * @param doEncode
+     *            true if we should encode all data written to us, false if we should decode.
+     */
+    public Base64OutputStream(@NonNull final OutputStream out, final boolean doEncode) {
+        super(out);
+        this.doEncode = doEncode;
+    }
+
+    /**
+     * Writes the specified <code>byte</code> to this output stream.
+     *
+     * @param i
+     *            source byte
+     * @throws IOException
+     *             if an I/O error occurs.
+     */
+    @Override
+    public void write(final int i) throws IOException {
+        singleByte[0] = (byte) i;
+        write(singleByte, 0, 1);
+    }
+
+    /**
+     * Writes <code>len</code> bytes from the specified <code>b</code> array starting at <code>offset</code> to this
+     * output stream.
+     *
+     * @param b
+     *            source byte array
+     * @param offset
+     *            where to start reading the bytes
+     * @param len
+     *            maximum number of bytes to write
+     *
+     * @throws IOException
+     *             if an I/O error occurs.
+     * @throws NullPointerException
+     *             if the byte array parameter is null
+     * @throws IndexOutOfBoundsException
+     *             if offset, len or buffer size are invalid
+     */
+    @Override
+    public void write(@NonNull final byte[] b, final int offset, final int len) throws IOException {
+        if (offset < 0 || len < 0) {
+            throw new IndexOutOfBoundsException();
+        } else if (offset > b.length || offset + len > b.length) {
+            throw new IndexOutOfBoundsException();
+        } else if (len > 0) {
+            if (doEncode) {
+                base64.encode(b, offset, len, context);
+            } else {
+                base64.decode(b, offset, len, context);
+            }
+            writeResults();
+        }
+    }
+
+    /**
+     * Passes the bytes produced so far to the underlying stream, keeping the buffer of the context for the next ones.
+     */
+    private void writeResults() throws IOException {
+        final int avail = context.pos - context.readPos;
+        if (context.buffer != null && avail > 0) {
+            out.write(context.buffer, context.readPos, avail);
+        }
+        context.pos = 0;
+        context.readPos = 0;
+    }
+
+    /**
+     * Writes EOF: the remaining bits are decoded, or the padding is encoded. Nothing can be written afterwards,
+     * but unlike {@link #close()} the underlying stream is left open.
+     *
+     * @throws IOException
+     *             if an I/O error occurs.
+     */
+    public void eof() throws IOException {
+        if (doEncode) {
+            base64.encode(singleByte, 0, BaseNCodec.EOF, context);
+        } else {
+            base64.decode(singleByte, 0, BaseNCodec.EOF, context);
+        }
+        writeResults();
+    }
+
+    /**
+     * Closes this output stream and releases any system resources associated with the stream.
+     *
+     * @throws IOException
+     *             if an I/O error occurs.
+     */
+    @Override
+    public void close() throws IOException {
+        eof();
+        flush();
+        out.close();
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ *
+ * 	StreamWIDE (Team on The Run)
+ *
+ * @createdBy  AndroidTeam on Sun, 18 Oct 2026 18:21:03 +0100
+ * @copyright  Copyright (c) 2026 StreamWIDE UK Ltd (Team on the Run)
+ * @email      support@teamontherun.com
+ *
+ * 	© Copyright 2026 StreamWIDE UK Ltd (Team on the Run). StreamWIDE is the copyright holder
+ * 	of all code contained in this file. Do not redistribute or
+ *  	re-use without permission.
+ *
+ * @lastModifiedOn Sun, 18 Oct 2026 18:21:03 +0100
+ */
+
+package com.streamwide.smartms.lib.vcard.syncml.pim;
+
+import androidx.annotation.NonNull;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Decodes bytes with CharsetDecoders reused per thread, instead of creating one for each
+ * String, and remembers which charsets keep the US-ASCII delimiters of vCard.
+ */
+public final class CharsetCache {
+
+    /** Bytes which must keep their US-ASCII meaning for a byte-level scan to be valid. */
+    private static final String ASCII_PROBE = "\r\n\t :;.=\"\\,-BEGINENDVCARDbeginendvcard";
+
+    private static final Map<Charset, Boolean> sAsciiCompatible = new ConcurrentHashMap<>();
+
+    private static final ThreadLocal<Map<Charset, CharsetDecoder>> sDecoders =
+            new ThreadLocal<Map<Charset, CharsetDecoder>>() {
+                @Override
+                protected Map<Charset, CharsetDecoder> initialValue() {
+                    return new HashMap<>();
+                }
+            };
+
+    /**
+     * private constructor to hide the implicit public one.
+     */
+    private CharsetCache() {
+        // do nothing...
+    }
+
+    /**
+     * @return true when the delimiters of vCard are encoded in the charset as in US-ASCII,
+     *         so that they can be found in the bytes before decoding them.
+     */
+    public static boolean isAsciiCompatible(@NonNull Charset charset) {
+        Boolean compatible = sAsciiCompatible.get(charset);
+        if (compatible == null) {
+            compatible = charset.canEncode()
+                    && Arrays.equals(ASCII_PROBE.getBytes(StandardCharsets.US_ASCII),
+                    ASCII_PROBE.getBytes(charset));
+            sAsciiCompatible.put(charset, compatible);
+        }
+        return compatible;
+    }
+
+    /**
+     * Same as {@link String#String(byte[], int, int, Charset)}: malformed input and
+     * unmappable characters are replaced.
+     */
+    public static @NonNull String decode(@NonNull byte[] bytes, int offset, int length,
+                                         @NonNull Charset charset) {
+        if (charset.equals(StandardCharsets.UTF_8) || charset.equals(StandardCharsets.ISO_8859_1)
+                || charset.equals(StandardCharsets.US_ASCII)) {
+            // String decodes these without any CharsetDecoder.
+            return new String(bytes, offset, length, charset);
+        }
+        Map<Charset, CharsetDecoder> decoders = sDecoders.get();
+        CharsetDecoder decoder = decoders.get(charset);
+        if (decoder == null) {
+            decoder = charset.newDecoder()
+                    .onMalformedInput(CodingErrorAction.REPLACE)
+                    .onUnmappableCharacter(CodingErrorAction.REPLACE);
+            decoders.put(charset, decoder);
+        }
+        try {
+            return decoder.decode(ByteBuffer.wrap(bytes, offset, length)).toString();
+        } catch (CharacterCodingException e) {
+            // Not thrown when errors are replaced.
+            return new String(bytes, offset, length, charset);
+        }
+    }
+}
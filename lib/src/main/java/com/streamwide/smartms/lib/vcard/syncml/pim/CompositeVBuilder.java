@@ -0,0 +1,241 @@
+/*
+ *
+ * 	StreamWIDE (Team on The Run)
+ *
+ * @createdBy  AndroidTeam on Sun, 18 Oct 2026 19:07:52 +0100
+ * @copyright  Copyright (c) 2026 StreamWIDE UK Ltd (Team on the Run)
+ * @email      support@teamontherun.com
+ *
+ * 	© Copyright 2026 StreamWIDE UK Ltd (Team on the Run). StreamWIDE is the copyright holder
+ * 	of all code contained in this file. Do not redistribute or
+ *  	re-use without permission.
+ *
+ * @lastModifiedOn Sun, 18 Oct 2026 19:07:52 +0100
+ */
+
+package com.streamwide.smartms.lib.vcard.syncml.pim;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Forwards the events of one parse to several builders, in the order they were given, so
+ * that e.g. a VCardSourceDetector and a {@link VDataBuilder} are filled by a single pass
+ * over the source.
+ *
+ * The builders may disagree on how a value is received:
+ * <ul>
+ * <li>a BASE64 value is decoded into sinks only when every builder gives one, all of them
+ * receiving the same bytes. Otherwise every builder receives it through
+ * {@link #propertyValues(List)}, and the sinks which were given stay empty,</li>
+ * <li>a BASE64 value is skipped only when every builder defers it,</li>
+ * <li>the rest of a record is skipped only when every builder rejects it,</li>
+ * <li>when the builders ask for different charsets, the value is decoded as ISO-8859-1
+ * and converted for each of them.</li>
+ * </ul>
+ */
+public class CompositeVBuilder implements VBuilder {
+
+    private final VBuilder[] mBuilders;
+
+    // Charset of the values of the current property for each builder, when they differ.
+    private Charset[] mValueCharsets;
+
+    public CompositeVBuilder(@NonNull VBuilder... builders) {
+        mBuilders = builders.clone();
+    }
+
+    public CompositeVBuilder(@NonNull List<? extends VBuilder> builders) {
+        mBuilders = builders.toArray(new VBuilder[0]);
+    }
+
+    public @NonNull List<VBuilder> getBuilders() {
+        return Arrays.asList(mBuilders.clone());
+    }
+
+    public void start() {
+        for (VBuilder builder : mBuilders) {
+            builder.start();
+        }
+    }
+
+    public void end() {
+        for (VBuilder builder : mBuilders) {
+            builder.end();
+        }
+    }
+
+    public void startRecord(@NonNull String type) {
+        for (VBuilder builder : mBuilders) {
+            builder.startRecord(type);
+        }
+    }
+
+    public void endRecord() {
+        for (VBuilder builder : mBuilders) {
+            builder.endRecord();
+        }
+    }
+
+    public void startProperty() {
+        mValueCharsets = null;
+        for (VBuilder builder : mBuilders) {
+            builder.startProperty();
+        }
+    }
+
+    public void endProperty() {
+        for (VBuilder builder : mBuilders) {
+            builder.endProperty();
+        }
+    }
+
+    public void propertyGroup(@NonNull String group) {
+        for (VBuilder builder : mBuilders) {
+            builder.propertyGroup(group);
+        }
+    }
+
+    public void propertyName(@NonNull String name) {
+        for (VBuilder builder : mBuilders) {
+            builder.propertyName(name);
+        }
+    }
+
+    public void propertyParamType(@NonNull String type) {
+        for (VBuilder builder : mBuilders) {
+            builder.propertyParamType(type);
+        }
+    }
+
+    public void propertyParamValue(@NonNull String value) {
+        for (VBuilder builder : mBuilders) {
+            builder.propertyParamValue(value);
+        }
+    }
+
+    public void propertyValues(@Nullable List<String> values) {
+        if (values == null) {
+            for (VBuilder builder : mBuilders) {
+                builder.propertyValues(null);
+            }
+            return;
+        }
+        // Each builder gets its own list, which it may keep.
+        int last = mBuilders.length - 1;
+        for (int i = 0; i <= last; i++) {
+            List<String> builderValues;
+            if (mValueCharsets != null) {
+                builderValues = new ArrayList<>(values.size());
+                for (String value : values) {
+                    byte[] bytes = value.getBytes(StandardCharsets.ISO_8859_1);
+                    builderValues.add(CharsetCache.decode(bytes, 0, bytes.length, mValueCharsets[i]));
+                }
+            } else {
+                builderValues = i == last ? values : new ArrayList<>(values);
+            }
+            mBuilders[i].propertyValues(builderValues);
+        }
+    }
+
+    public @Nullable Charset propertyValueCharset(@NonNull Charset sourceCharset) {
+        Charset[] charsets = new Charset[mBuilders.length];
+        boolean same = true;
+        for (int i = 0; i < mBuilders.length; i++) {
+            Charset charset = mBuilders[i].propertyValueCharset(sourceCharset);
+            charsets[i] = charset != null ? charset : sourceCharset;
+            same &= charsets[i].equals(charsets[0]);
+        }
+        if (charsets.length == 0 || same) {
+            return charsets.length == 0 || charsets[0].equals(sourceCharset) ? null : charsets[0];
+        }
+        // ISO-8859-1 keeps the bytes, which are decoded again for each builder.
+        mValueCharsets = charsets;
+        return StandardCharsets.ISO_8859_1;
+    }
+
+    public @Nullable OutputStream propertyBinarySink() {
+        OutputStream[] sinks = new OutputStream[mBuilders.length];
+        for (int i = 0; i < mBuilders.length; i++) {
+            sinks[i] = mBuilders[i].propertyBinarySink();
+            if (sinks[i] == null) {
+                return null;
+            }
+        }
+        if (sinks.length == 0) {
+            return null;
+        }
+        return sinks.length == 1 ? sinks[0] : new TeeOutputStream(sinks);
+    }
+
+    public boolean propertyBinaryDeferred() {
+        for (VBuilder builder : mBuilders) {
+            if (!builder.propertyBinaryDeferred()) {
+                return false;
+            }
+        }
+        return mBuilders.length > 0;
+    }
+
+    public void propertyBinaryRange(long start, long end) {
+        for (VBuilder builder : mBuilders) {
+            builder.propertyBinaryRange(start, end);
+        }
+    }
+
+    public boolean recordRejected() {
+        for (VBuilder builder : mBuilders) {
+            if (!builder.recordRejected()) {
+                return false;
+            }
+        }
+        return mBuilders.length > 0;
+    }
+
+    /**
+     * Writes the same bytes into several streams.
+     */
+    private static final class TeeOutputStream extends OutputStream {
+        private final OutputStream[] mSinks;
+
+        TeeOutputStream(@NonNull OutputStream[] sinks) {
+            mSinks = sinks;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            for (OutputStream sink : mSinks) {
+                sink.write(b);
+            }
+        }
+
+        @Override
+        public void write(@NonNull byte[] b, int off, int len) throws IOException {
+            for (OutputStream sink : mSinks) {
+                sink.write(b, off, len);
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            for (OutputStream sink : mSinks) {
+                sink.flush();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            for (OutputStream sink : mSinks) {
+                sink.close();
+            }
+        }
+    }
+}
@@ -22,6 +22,11 @@ import com.streamwide.smartms.lib.vcard.com.android.internal.util.CollectionUtil
 import com.streamwide.smartms.lib.vcard.content.ContentValues;
 import com.streamwide.smartms.lib.vcard.customcommons.Base64;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
@@ -33,6 +38,49 @@ import java.util.regex.Pattern;
 
 public class PropertyNode {
 
+    /**
+     * Source from which values are read again when they are decoded lazily.
+     * See {@link #setPropValueRange(ValueSource, long, long, String)}.
+     */
+    public interface ValueSource {
+        /**
+         * @return the bytes of the source from start (inclusive) to end (exclusive).
+         */
+        @NonNull byte[] read(long start, long end) throws IOException;
+
+        /**
+         * The returned source throws IllegalArgumentException when the range is not in data.
+         */
+        static @NonNull ValueSource of(@NonNull final byte[] data) {
+            return (start, end) -> {
+                if (start < 0 || start > end || end > data.length) {
+                    throw new IllegalArgumentException("Range [" + start + ", " + end
+                            + ") out of the " + data.length + " bytes of the source");
+                }
+                return Arrays.copyOfRange(data, (int) start, (int) end);
+            };
+        }
+
+        /**
+         * The channel is not moved. The returned source throws IllegalArgumentException when
+         * the range is negative or longer than a byte array.
+         */
+        static @NonNull ValueSource of(@NonNull final FileChannel channel) {
+            return (start, end) -> {
+                if (start < 0 || start > end || end - start > Integer.MAX_VALUE) {
+                    throw new IllegalArgumentException("Invalid range [" + start + ", " + end + ")");
+                }
+                ByteBuffer buffer = ByteBuffer.allocate((int) (end - start));
+                while (buffer.hasRemaining()) {
+                    if (channel.read(buffer, start + buffer.position()) < 0) {
+                        throw new IOException("The channel is shorter than the value range");
+                    }
+                }
+                return buffer.array();
+            };
+        }
+    }
+
     private String mPropName;
 
     private String mPropValue;
@@ -44,6 +92,23 @@ public class PropertyNode {
      */
     private byte[] mPropValueBytes;
 
+    /**
+     * When not null, mPropValueBytes is decoded from this range on first use, or read again
+     * on each use when mValueEncoding is null (spilled value).
+     */
+    private ValueSource mValueSource;
+    private long mValueStart;
+    private long mValueEnd;
+    private String mValueEncoding;
+
+    /**
+     * When not null, propValue and its single element propValueVector are read from this range
+     * as UTF-8 on each use (spilled value), and the fields are not used.
+     */
+    private ValueSource mTextSource;
+    private long mTextStart;
+    private long mTextEnd;
+
     /** param store: key=paramType, value=paramValue
      * Note that currently PropertyNode class does not support multiple param-values
      * defined in vCard 3.0 (See also RFC 2426). multiple-values are stored as
@@ -74,28 +139,126 @@ public class PropertyNode {
         this.mPropName = propName;
     }
 
+    /**
+     * @throws UncheckedIOException when the value is spilled and cannot be read.
+     */
     public @NonNull String getPropValue() {
-        return mPropValue;
+        return mTextSource != null ? readText() : mPropValue;
     }
 
     public void setPropValue(@NonNull String propValue) {
+        unspillText();
         this.mPropValue = propValue;
     }
 
+    /**
+     * @throws UncheckedIOException when the value is spilled and cannot be read.
+     */
     public @NonNull List<String> getPropValueVector() {
+        if (mTextSource != null) {
+            List<String> vector = new ArrayList<>(1);
+            vector.add(readText());
+            return vector;
+        }
         return CollectionUtils.copyList(mPropValueVector);
     }
 
     public void setPropValueVector(@NonNull List<String> propValueVector) {
+        unspillText();
         this.mPropValueVector = CollectionUtils.copyList(propValueVector);
     }
 
+    /**
+     * Makes the value, which is also the only element of the value vector, be read from the
+     * source as UTF-8 text each time it is asked for, instead of being held by this node.
+     */
+    void setPropValueSpilled(@NonNull ValueSource source, long start, long end) {
+        this.mPropValue = "";
+        this.mPropValueVector = new ArrayList<>();
+        this.mTextSource = source;
+        this.mTextStart = start;
+        this.mTextEnd = end;
+    }
+
+    private String readText() {
+        try {
+            return new String(mTextSource.read(mTextStart, mTextEnd), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void unspillText() {
+        if (mTextSource != null) {
+            String text = readText();
+            mPropValue = text;
+            mPropValueVector = new ArrayList<>();
+            mPropValueVector.add(text);
+            mTextSource = null;
+        }
+    }
+
+    /**
+     * @throws UncheckedIOException when the value is decoded lazily and its source cannot be read.
+     */
     public @Nullable byte[] getPropValueBytes() {
-        return mPropValueBytes != null ? mPropValueBytes.clone() : null;
+        byte[] bytes = decodedBytes();
+        return bytes != null ? bytes.clone() : null;
     }
 
     public void setPropValueBytes(@Nullable byte[] propValueBytes) {
         this.mPropValueBytes = propValueBytes != null ? propValueBytes.clone() : null;
+        this.mValueSource = null;
+    }
+
+    /**
+     * Makes the value bytes be read from the source and decoded on first use, instead of
+     * being held by this node.
+     *
+     * @param start    The offset of the first byte of the encoded value in the source.
+     * @param end      The offset following the encoded value. Line breaks and folding
+     *                 whitespace in the range are ignored.
+     * @param encoding "BASE64" or "B". Other encodings are kept as is.
+     */
+    public void setPropValueRange(@NonNull ValueSource source, long start, long end,
+                                  @NonNull String encoding) {
+        this.mPropValueBytes = null;
+        this.mValueSource = source;
+        this.mValueStart = start;
+        this.mValueEnd = end;
+        this.mValueEncoding = encoding;
+    }
+
+    /**
+     * Makes the value bytes be read from the source each time they are asked for, instead of
+     * being held by this node.
+     */
+    void setPropValueBytesSpilled(@NonNull ValueSource source, long start, long end) {
+        this.mPropValueBytes = null;
+        this.mValueSource = source;
+        this.mValueStart = start;
+        this.mValueEnd = end;
+        this.mValueEncoding = null;
+    }
+
+    private byte[] decodedBytes() {
+        if (mValueSource != null) {
+            byte[] bytes;
+            try {
+                bytes = mValueSource.read(mValueStart, mValueEnd);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            if (mValueEncoding == null) {
+                return bytes;
+            }
+            if (mValueEncoding.equalsIgnoreCase("BASE64") || mValueEncoding.equalsIgnoreCase("B")) {
+                bytes = Base64.decodeBase64(bytes);
+            }
+            mPropValueBytes = bytes;
+            mValueSource = null;
+        }
+        return mPropValueBytes;
     }
 
     public @NonNull ContentValues getParamMap() {
@@ -167,10 +330,11 @@ public class PropertyNode {
             return false;
         }
 
-        if (mPropValueBytes != null && Arrays.equals(mPropValueBytes, node.mPropValueBytes)) {
+        byte[] bytes = decodedBytes();
+        if (bytes != null && Arrays.equals(bytes, node.decodedBytes())) {
             return true;
         } else {
-            if (!mPropValue.equals(node.mPropValue)) {
+            if (!getPropValue().equals(node.getPropValue())) {
                 return false;
             }
 
@@ -178,6 +342,10 @@ public class PropertyNode {
             // decoded by BASE64 or QUOTED-PRINTABLE. When the size of propValue_vector
             // is 1, the encoded value is stored in propValue, so we do not have to
             // check it.
+            // A spilled value is a single element vector.
+            if (mTextSource != null || node.mTextSource != null) {
+                return true;
+            }
             return (mPropValueVector.equals(node.mPropValueVector) ||
                     mPropValueVector.size() == 1 ||
                     node.mPropValueVector.size() == 1);
@@ -205,12 +373,20 @@ public class PropertyNode {
             builder.append(", propValue_vector size: ");
             builder.append(mPropValueVector.size());
         }
-        if (mPropValueBytes != null) {
+        if (mValueSource != null) {
+            builder.append(", propValue_bytes range: ");
+            builder.append(mValueStart).append('-').append(mValueEnd);
+        } else if (mPropValueBytes != null) {
             builder.append(", propValue_bytes size: ");
             builder.append(mPropValueBytes.length);
         }
-        builder.append(", propValue: ");
-        builder.append(mPropValue);
+        if (mTextSource != null) {
+            builder.append(", propValue range: ");
+            builder.append(mTextStart).append('-').append(mTextEnd);
+        } else {
+            builder.append(", propValue: ");
+            builder.append(mPropValue);
+        }
         return builder.toString();
     }
 
@@ -289,10 +465,10 @@ public class PropertyNode {
             builder.append("],");
         }
 
-        size = mPropValueVector.size();
+        List<String> list = mTextSource != null ? getPropValueVector() : mPropValueVector;
+        size = list.size();
         if (size > 0) {
             builder.append("propValue:[");
-            List<String> list = mPropValueVector;
             for (int i = 0; i < size; i++) {
                 builder.append(list.get(i)
                         .replaceAll("\\\\", "\\\\\\\\")
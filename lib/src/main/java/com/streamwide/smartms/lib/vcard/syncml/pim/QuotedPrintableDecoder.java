@@ -0,0 +1,152 @@
+/*
+ *
+ * 	StreamWIDE (Team on The Run)
+ *
+ * @createdBy  AndroidTeam on Sun, 18 Oct 2026 17:48:26 +0100
+ * @copyright  Copyright (c) 2026 StreamWIDE UK Ltd (Team on the Run)
+ * @email      support@teamontherun.com
+ *
+ * 	© Copyright 2026 StreamWIDE UK Ltd (Team on the Run). StreamWIDE is the copyright holder
+ * 	of all code contained in this file. Do not redistribute or
+ *  	re-use without permission.
+ *
+ * @lastModifiedOn Sun, 18 Oct 2026 17:48:26 +0100
+ */
+
+package com.streamwide.smartms.lib.vcard.syncml.pim;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+/**
+ * Decodes QUOTED-PRINTABLE values in a single pass:
+ * <ul>
+ * <li>line breaks are removed, with the '=' preceding them (soft line breaks),</li>
+ * <li>'=' followed by a space or a tab (transport padding) is removed,</li>
+ * <li>"=XX" is decoded, and any other '=' makes the value invalid.</li>
+ * </ul>
+ * The decoded bytes are written into a buffer reused from one value to the next, and turned
+ * into a String once. The result is the one of the line splitting formerly done by
+ * VDataBuilder followed by {@link com.streamwide.smartms.lib.vcard.customcommons.QuotedPrintableCodec},
+ * in both line break modes.
+ */
+final class QuotedPrintableDecoder {
+    private static final int STATE_TEXT = 0;
+    // After '='.
+    private static final int STATE_ESCAPE = 1;
+    // After '=' and the first hex digit.
+    private static final int STATE_DIGIT = 2;
+
+    private final Charset mSourceCharset;
+    private final boolean mStrictLineBreaks;
+
+    private byte[] mBuffer = new byte[256];
+    private int mLength;
+
+    // Non-ASCII chars not encoded yet, so that the ones separated by line breaks are encoded
+    // together.
+    private final StringBuilder mPending = new StringBuilder();
+
+    /**
+     * @param sourceCharset    The charset of the non-ASCII chars left unencoded in the values.
+     * @param strictLineBreaks true when only CRLF separates lines, false when CR and LF do too.
+     */
+    QuotedPrintableDecoder(@NonNull Charset sourceCharset, boolean strictLineBreaks) {
+        mSourceCharset = sourceCharset;
+        mStrictLineBreaks = strictLineBreaks;
+    }
+
+    /**
+     * @param value   The value, whose lines are kept as read by the parser.
+     * @param charset The charset of the decoded bytes.
+     * @return the decoded value, or null when it is not valid quoted-printable.
+     */
+    @Nullable String decode(@NonNull String value, @NonNull Charset charset) {
+        mLength = 0;
+        mPending.setLength(0);
+        final int length = value.length();
+        int state = STATE_TEXT;
+        int high = 0;
+        for (int i = 0; i < length; i++) {
+            int breakLength = lineBreakLength(value, i);
+            if (breakLength > 0) {
+                i += breakLength - 1;
+                continue;
+            }
+            char ch = value.charAt(i);
+            if (ch == '=' && (i + 1 == length || isPadding(value.charAt(i + 1))
+                    || lineBreakLength(value, i + 1) > 0)) {
+                continue;
+            }
+            if (state == STATE_TEXT && ch >= 0x80) {
+                mPending.append(ch);
+                continue;
+            }
+            flushPending();
+            if (state == STATE_TEXT) {
+                if (ch == '=') {
+                    state = STATE_ESCAPE;
+                } else if (ch != '\r' && ch != '\n') {
+                    // Lone CR and LF left by strict line breaks are dropped, as
+                    // QuotedPrintableCodec#decodeQuotedPrintable does.
+                    append((byte) ch);
+                }
+            } else if (state == STATE_ESCAPE && ch == '\r') {
+                // "=\r" not followed by LF is a soft line break for QuotedPrintableCodec too.
+                state = STATE_TEXT;
+            } else {
+                int digit = ch < 0x80 ? Character.digit(ch, 16) : -1;
+                if (digit < 0) {
+                    return null;
+                }
+                if (state == STATE_ESCAPE) {
+                    high = digit;
+                    state = STATE_DIGIT;
+                } else {
+                    append((byte) ((high << 4) + digit));
+                    state = STATE_TEXT;
+                }
+            }
+        }
+        if (state != STATE_TEXT) {
+            return null;
+        }
+        flushPending();
+        return CharsetCache.decode(mBuffer, 0, mLength, charset);
+    }
+
+    private void flushPending() {
+        if (mPending.length() > 0) {
+            for (byte b : mPending.toString().getBytes(mSourceCharset)) {
+                append(b);
+            }
+            mPending.setLength(0);
+        }
+    }
+
+    private int lineBreakLength(String value, int index) {
+        if (index >= value.length()) {
+            return 0;
+        }
+        char ch = value.charAt(index);
+        boolean crlf = ch == '\r' && index + 1 < value.length() && value.charAt(index + 1) == '\n';
+        if (crlf) {
+            return 2;
+        }
+        return !mStrictLineBreaks && (ch == '\r' || ch == '\n') ? 1 : 0;
+    }
+
+    private static boolean isPadding(char ch) {
+        return ch == ' ' || ch == '\t';
+    }
+
+    private void append(byte b) {
+        if (mLength == mBuffer.length) {
+            mBuffer = Arrays.copyOf(mBuffer, mLength * 2);
+        }
+        mBuffer[mLength++] = b;
+    }
+}
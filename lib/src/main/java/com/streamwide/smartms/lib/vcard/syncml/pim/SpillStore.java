@@ -0,0 +1,79 @@
+/*
+ *
+ * 	StreamWIDE (Team on The Run)
+ *
+ * @createdBy  AndroidTeam on Sun, 18 Oct 2026 17:12:44 +0100
+ * @copyright  Copyright (c) 2026 StreamWIDE UK Ltd (Team on the Run)
+ * @email      support@teamontherun.com
+ *
+ * 	© Copyright 2026 StreamWIDE UK Ltd (Team on the Run). StreamWIDE is the copyright holder
+ * 	of all code contained in this file. Do not redistribute or
+ *  	re-use without permission.
+ *
+ * @lastModifiedOn Sun, 18 Oct 2026 17:12:44 +0100
+ */
+
+package com.streamwide.smartms.lib.vcard.syncml.pim;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Temporary file to which the values too large to be kept in memory are appended.
+ * Values are read back by range, and the file is deleted when the store is closed.
+ */
+final class SpillStore implements PropertyNode.ValueSource, Closeable {
+
+    private final File mFile;
+    private final FileChannel mChannel;
+    private final PropertyNode.ValueSource mReader;
+    private long mSize;
+
+    /**
+     * @param directory The directory of the file, or null for the default temporary directory.
+     */
+    SpillStore(@Nullable File directory) throws IOException {
+        mFile = File.createTempFile("vcard", ".spill", directory);
+        try {
+            mChannel = new RandomAccessFile(mFile, "rw").getChannel();
+        } catch (IOException e) {
+            mFile.delete();
+            throw e;
+        }
+        mReader = PropertyNode.ValueSource.of(mChannel);
+    }
+
+    /**
+     * @return the offset of the data in the store. The data ends at offset + data.length.
+     */
+    long append(@NonNull byte[] data) throws IOException {
+        long offset = mSize;
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        while (buffer.hasRemaining()) {
+            mChannel.write(buffer, offset + buffer.position());
+        }
+        mSize += data.length;
+        return offset;
+    }
+
+    @Override
+    public @NonNull byte[] read(long start, long end) throws IOException {
+        return mReader.read(start, end);
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            mChannel.close();
+        } finally {
+            mFile.delete();
+        }
+    }
+}
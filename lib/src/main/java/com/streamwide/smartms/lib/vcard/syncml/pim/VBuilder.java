@@ -20,6 +20,8 @@ package com.streamwide.smartms.lib.vcard.syncml.pim;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
+import java.io.OutputStream;
+import java.nio.charset.Charset;
 import java.util.List;
 
 public interface VBuilder {
@@ -67,5 +69,67 @@ public interface VBuilder {
      */
     void propertyParamValue(@NonNull String value);
 
+    /**
+     * @param values
+     *            The values of the property. The list is not used by the caller once
+     *            this method returns, so implementations may keep it.
+     */
     void propertyValues(@Nullable List<String> values);
+
+    /**
+     * Called once the params of a property are known, before its value is decoded from the
+     * bytes of the source. Not called when the parser reads a String or a charset which is
+     * not compatible with US-ASCII.
+     *
+     * @param sourceCharset The charset given to the parser.
+     * @return the charset in which the value is decoded (e.g. the one of its CHARSET param),
+     *         which must be compatible with US-ASCII, or null to decode it in sourceCharset.
+     */
+    default @Nullable Charset propertyValueCharset(@NonNull Charset sourceCharset) {
+        return null;
+    }
+
+    /**
+     * Called before a BASE64 value is read, so that it can be decoded into a sink
+     * (e.g. a file or a digest) instead of being kept in memory as a whole.
+     *
+     * @return the stream receiving the decoded bytes, or null to receive the value with
+     *         {@link #propertyValues(List)} as usual. The stream is not closed by the parser.
+     *         When a stream is returned, {@link #propertyValues(List)} is called with an empty
+     *         list once the whole value has been written into it.
+     */
+    default @Nullable OutputStream propertyBinarySink() {
+        return null;
+    }
+
+    /**
+     * Called before a BASE64 value is read, when the parser knows the offsets of the
+     * value in its source (i.e. the source is not a String, and its charset is compatible
+     * with US-ASCII). Checked before {@link #propertyBinarySink()}.
+     *
+     * @return true to skip the value without decoding it: {@link #propertyBinaryRange(long, long)}
+     *         is then called instead of {@link #propertyValues(List)}.
+     */
+    default boolean propertyBinaryDeferred() {
+        return false;
+    }
+
+    /**
+     * @param start The offset in the source of the first byte of the encoded value.
+     * @param end   The offset following the encoded value, whose line breaks and folding
+     *              whitespace are included in the range.
+     */
+    default void propertyBinaryRange(long start, long end) {
+    }
+
+    /**
+     * Called after each property of a record.
+     *
+     * @return true when the rest of the current record is not needed: the parser then skips its
+     *         lines up to END without decoding them, and calls {@link #endRecord()}. Properties
+     *         which are always parsed (e.g. AGENT) may still be received in the meantime.
+     */
+    default boolean recordRejected() {
+        return false;
+    }
 }
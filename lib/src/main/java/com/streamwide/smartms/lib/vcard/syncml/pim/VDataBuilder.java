@@ -21,10 +21,13 @@ import androidx.annotation.Nullable;
 
 import com.streamwide.smartms.lib.vcard.content.ContentValues;
 import com.streamwide.smartms.lib.vcard.customcommons.Base64;
-import com.streamwide.smartms.lib.vcard.customcommons.DecoderException;
-import com.streamwide.smartms.lib.vcard.customcommons.QuotedPrintableCodec;
 import com.streamwide.smartms.lib.vcard.logger.Logger;
 
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.io.UnsupportedEncodingException;
 import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
@@ -38,7 +41,47 @@ import java.util.List;
  * VNode: standy by a vcard instance.
  * PropertyNode: standy by a property line of a card.
  */
-public class VDataBuilder implements VBuilder {
+public class VDataBuilder implements VBuilder, Closeable {
+
+    /** Chooses where the BASE64 values are decoded. See {@link #setBinarySinkFactory}. */
+    public interface BinarySinkFactory {
+        /**
+         * @param propertyNode The property whose value is about to be decoded. Its name and
+         *                     params are set.
+         * @return the stream receiving the decoded bytes, or null to keep them in the
+         *         PropertyNode. The stream is not closed by the parser.
+         */
+        @Nullable OutputStream createSink(@NonNull PropertyNode propertyNode);
+    }
+
+    /**
+     * Decides which records are kept, from their properties as they are parsed.
+     * See {@link #setRecordFilter}.
+     */
+    public interface RecordFilter {
+        /** More properties are needed to decide. */
+        int UNDECIDED = 0;
+        /** The record is kept, and the filter is not called anymore for it. */
+        int ACCEPT = 1;
+        /** The record is dropped, and its next properties are skipped. */
+        int REJECT = 2;
+
+        /**
+         * @param record       The record being parsed.
+         * @param propertyNode The property just parsed, already added to the record.
+         * @return {@link #UNDECIDED}, {@link #ACCEPT} or {@link #REJECT}.
+         */
+        int onProperty(@NonNull VNode record, @NonNull PropertyNode propertyNode);
+
+        /**
+         * Called at the end of a record for which every call to
+         * {@link #onProperty(VNode, PropertyNode)} returned {@link #UNDECIDED}.
+         *
+         * @return true to keep the record.
+         */
+        boolean acceptRecord(@NonNull VNode record);
+    }
+
     private static final String LOG_TAG = "VDATABuilder";
     private static String mLog="Failed to encode: charset=";
 
@@ -58,8 +101,29 @@ public class VDataBuilder implements VBuilder {
      * The charset using which VParser parses the text.
      */
     private String mSourceCharset;
+    /** mSourceCharset, resolved once. */
+    private final Charset mResolvedSourceCharset;
 
-    private boolean mStrictLineBreakParsing;
+    // True when the parser has decoded the values of the current property with
+    // propertyValueCharset(), so that they need no transcoding.
+    private boolean mValuesDecoded;
+
+    private final boolean mStrictLineBreakParsing;
+    private final QuotedPrintableDecoder mQuotedPrintableDecoder;
+
+    private BinarySinkFactory mBinarySinkFactory;
+
+    private PropertyNode.ValueSource mLazyValueSource;
+
+    private int mSpillThreshold = -1;
+    private File mSpillDirectory;
+    private SpillStore mSpillStore;
+    // The builder whose file receives the spilled values, when it is not this one.
+    private VDataBuilder mSpillOwner;
+
+    private RecordFilter mRecordFilter;
+    // Decision of mRecordFilter for the current record.
+    private int mRecordVerdict;
 
     public @NonNull List<VNode> getVNodeList() {
         return mVNodeList;
@@ -88,7 +152,116 @@ public class VDataBuilder implements VBuilder {
             mSourceCharset = DEFAULT_CHARSET;
         }
 
+        Charset charset;
+        try {
+            charset = Charset.forName(mSourceCharset);
+        } catch (IllegalArgumentException e) {
+            Logger.error(LOG_TAG, mLog + mSourceCharset);
+            charset = Charset.defaultCharset();
+        }
+        mResolvedSourceCharset = charset;
         mStrictLineBreakParsing = strictLineBreakParsing;
+        mQuotedPrintableDecoder = new QuotedPrintableDecoder(charset, strictLineBreakParsing);
+    }
+
+    /**
+     * Creates a builder with the configuration of the given one (charsets, binary sink factory,
+     * lazy value source, spill threshold and record filter), e.g. to build a part of a source on
+     * another thread before appending its VNodes to the given builder. The factory and the
+     * filter are then called from several threads.
+     *
+     * The values spilled by the new builder are written to the file of the given builder, so
+     * they stay readable until the given builder is closed, whether the new one is or not.
+     */
+    public VDataBuilder(@NonNull VDataBuilder configuration) {
+        this(configuration.mSourceCharset, null, configuration.mStrictLineBreakParsing);
+        mBinarySinkFactory = configuration.mBinarySinkFactory;
+        mLazyValueSource = configuration.mLazyValueSource;
+        mSpillThreshold = configuration.mSpillThreshold;
+        mSpillDirectory = configuration.mSpillDirectory;
+        mSpillOwner = configuration.mSpillOwner != null ? configuration.mSpillOwner : configuration;
+        mRecordFilter = configuration.mRecordFilter;
+    }
+
+    /**
+     * Makes BASE64 values be decoded into the streams created by the factory while they are
+     * parsed, so that memory use does not depend on their size. The PropertyNodes of such
+     * values have no bytes and an empty value.
+     *
+     * @param factory The factory, or null to keep the decoded bytes in the PropertyNodes.
+     */
+    public void setBinarySinkFactory(@Nullable BinarySinkFactory factory) {
+        mBinarySinkFactory = factory;
+    }
+
+    /**
+     * Makes BASE64 values be decoded only when {@link PropertyNode#getPropValueBytes()} is
+     * called: the PropertyNodes record the range of the value in the source, and have an
+     * empty value. The source must be the one given to the parser (e.g.
+     * {@link PropertyNode.ValueSource#of(java.nio.channels.FileChannel)} for a file).
+     * Values are still decoded while parsing when the parser cannot give offsets.
+     *
+     * @param source The source, or null to decode values while parsing.
+     */
+    public void setLazyValueSource(@Nullable PropertyNode.ValueSource source) {
+        mLazyValueSource = source;
+    }
+
+    /**
+     * Makes the values larger than the threshold be written to a temporary file while they are
+     * parsed, the PropertyNodes keeping only their position in the file: decoded BASE64 bytes
+     * longer than threshold bytes, and single values longer than threshold chars. Such values
+     * are read from the file each time they are asked for, until {@link #close()} is called.
+     *
+     * @param threshold The size above which values are spilled, or a negative number to keep
+     *                  all values in memory.
+     * @param directory The directory of the temporary file (e.g. the cache directory of the
+     *                  application), or null for the default temporary directory.
+     */
+    public void setSpillThreshold(int threshold, @Nullable File directory) {
+        mSpillThreshold = threshold;
+        mSpillDirectory = directory;
+    }
+
+    /**
+     * Keeps only the records accepted by the filter. Once a record is rejected, its
+     * properties are dropped, the parser skips the rest of it, and no VNode is added for it.
+     * Records are assumed not to nest, as in vCard.
+     *
+     * @param filter The filter, or null to keep all the records.
+     */
+    public void setRecordFilter(@Nullable RecordFilter filter) {
+        mRecordFilter = filter;
+    }
+
+    /**
+     * Clears the state of the previous parsing so that this builder can be reused: a new
+     * VNode list is started, and the one returned so far by {@link #getVNodeList()} is left
+     * as is. The configuration (sinks, record filter, spill threshold) is kept, and values
+     * spilled so far stay readable until {@link #close()}.
+     */
+    public void reset() {
+        mVNodeList = new ArrayList<>();
+        mNodeListPos = 0;
+        mCurrentVNode = null;
+        mCurrentPropNode = null;
+        mCurrentParamType = null;
+        mValuesDecoded = false;
+        mRecordVerdict = RecordFilter.UNDECIDED;
+    }
+
+    /**
+     * Deletes the temporary file of the spilled values, which cannot be read anymore.
+     */
+    public synchronized void close() {
+        if (mSpillStore != null) {
+            try {
+                mSpillStore.close();
+            } catch (IOException e) {
+                Logger.error(LOG_TAG, "Failed to close the spill file: " + e);
+            }
+            mSpillStore = null;
+        }
     }
 
     public void start() {
@@ -125,9 +298,11 @@ public class VDataBuilder implements VBuilder {
         mVNodeList.add(vnode);
         mNodeListPos = mVNodeList.size() - 1;
         mCurrentVNode = mVNodeList.get(mNodeListPos);
+        mRecordVerdict = RecordFilter.UNDECIDED;
     }
 
     public void endRecord() {
+        int endPos = mNodeListPos;
         VNode endNode = mVNodeList.get(mNodeListPos);
         endNode.setParseStatus(0);
         while(mNodeListPos > 0){
@@ -136,14 +311,33 @@ public class VDataBuilder implements VBuilder {
                 break;
         }
         mCurrentVNode = mVNodeList.get(mNodeListPos);
+        if (mRecordFilter != null && (mRecordVerdict == RecordFilter.REJECT
+                || (mRecordVerdict == RecordFilter.UNDECIDED && !mRecordFilter.acceptRecord(endNode)))) {
+            // mNodeListPos is before endPos (or equal to 0), so it stays valid.
+            mVNodeList.remove(endPos);
+        }
     }
 
     public void startProperty() {
         mCurrentPropNode = new PropertyNode();
+        mValuesDecoded = false;
     }
 
     public void endProperty() {
+        if (mRecordVerdict == RecordFilter.REJECT) {
+            return;
+        }
         mCurrentVNode.getPropList().add(mCurrentPropNode);
+        if (mRecordFilter != null && mRecordVerdict == RecordFilter.UNDECIDED) {
+            mRecordVerdict = mRecordFilter.onProperty(mCurrentVNode, mCurrentPropNode);
+            if (mRecordVerdict == RecordFilter.REJECT) {
+                mCurrentVNode.getPropList().clear();
+            }
+        }
+    }
+
+    public boolean recordRejected() {
+        return mRecordVerdict == RecordFilter.REJECT;
     }
 
     public void propertyName(@NonNull String name) {
@@ -174,8 +368,7 @@ public class VDataBuilder implements VBuilder {
         if (mSourceCharset.equalsIgnoreCase(targetCharset)) {
             return originalString;
         }
-        Charset charset = Charset.forName(mSourceCharset);
-        ByteBuffer byteBuffer = charset.encode(originalString);
+        ByteBuffer byteBuffer = mResolvedSourceCharset.encode(originalString);
         // byteBuffer.array() "may" return byte array which is larger than
         // byteBuffer.remaining(). Here, we keep on the safe side.
         byte[] bytes = new byte[byteBuffer.remaining()];
@@ -188,78 +381,45 @@ public class VDataBuilder implements VBuilder {
         }
     }
 
+    /**
+     * @return the charset given by the CHARSET param of the current property, or UTF-8.
+     */
+    private Charset propertyCharset() {
+        String name = mCurrentPropNode.getParamMap().getAsString("CHARSET");
+        if (name != null) {
+            try {
+                return Charset.forName(name);
+            } catch (IllegalArgumentException e) {
+                Logger.error(LOG_TAG, mLog + name);
+            }
+        }
+        return StandardCharsets.UTF_8;
+    }
+
     private String handleOneValue(String value, String targetCharset, String encoding) {
         if (encoding != null) {
             if (encoding.equals("BASE64") || encoding.equals("B")) {
                 // Assume BASE64 is used only when the number of values is 1.
-                mCurrentPropNode.setPropValueBytes(Base64.decodeBase64(value.getBytes()));
-                return value;
-            } else if (encoding.equals("QUOTED-PRINTABLE")) {
-                String quotedPrintable = value
-                        .replaceAll("= ", " ").replaceAll("=\t", "\t");
-                String[] lines;
-                if (mStrictLineBreakParsing) {
-                    lines = quotedPrintable.split("\r\n");
+                byte[] bytes = Base64.decodeBase64(value.getBytes());
+                long offset = spill(bytes);
+                if (offset >= 0) {
+                    mCurrentPropNode.setPropValueBytesSpilled(spillStore(), offset,
+                            offset + bytes.length);
                 } else {
-                    StringBuilder builder = new StringBuilder();
-                    int length = quotedPrintable.length();
-                    ArrayList<String> list = new ArrayList<>();
-                    for (int i = 0; i < length; i++) {
-                        char ch = quotedPrintable.charAt(i);
-                        if (ch == '\n') {
-                            list.add(builder.toString());
-                            builder = new StringBuilder();
-                        } else if (ch == '\r') {
-                            list.add(builder.toString());
-                            builder = new StringBuilder();
-                            if (i < length - 1) {
-                                char nextCh = quotedPrintable.charAt(i + 1);
-                                if (nextCh == '\n') {
-                                    i++;
-                                }
-                            }
-                        } else {
-                            builder.append(ch);
-                        }
-                    }
-                    String finalLine = builder.toString();
-                    if (finalLine.length() > 0) {
-                        list.add(finalLine);
-                    }
-                    lines = list.toArray(new String[0]);
-                }
-                StringBuilder builder = new StringBuilder();
-                for (String line : lines) {
-                    if (line.endsWith("=")) {
-                        line = line.substring(0, line.length() - 1);
-                    }
-                    builder.append(line);
+                    mCurrentPropNode.setPropValueBytes(bytes);
                 }
-                byte[] bytes;
-                try {
-                    bytes = builder.toString().getBytes(mSourceCharset);
-                } catch (UnsupportedEncodingException e1) {
-                    Logger.error(LOG_TAG, mLog + mSourceCharset);
-                    bytes = builder.toString().getBytes();
-                }
-
-                try {
-                    bytes = QuotedPrintableCodec.decodeQuotedPrintable(bytes);
-                } catch (DecoderException e) {
-                    Logger.error(LOG_TAG, "Failed to decode quoted-printable: " + e);
+                return value;
+            } else if (encoding.equals("QUOTED-PRINTABLE")) {
+                String decoded = mQuotedPrintableDecoder.decode(value, propertyCharset());
+                if (decoded == null) {
+                    Logger.error(LOG_TAG, "Failed to decode quoted-printable: invalid encoding");
                     return "";
                 }
-
-                try {
-                    return new String(bytes, targetCharset);
-                } catch (UnsupportedEncodingException e) {
-                    Logger.error(LOG_TAG, mLog + targetCharset);
-                    return new String(bytes);
-                }
+                return decoded;
             }
             // Unknown encoding. Fall back to default.
         }
-        return encodeString(value, targetCharset);
+        return mValuesDecoded ? value : encodeString(value, targetCharset);
     }
 
     public void propertyValues(@Nullable List<String> values) {
@@ -282,7 +442,91 @@ public class VDataBuilder implements VBuilder {
             propValueVector.add(oneValue);
         }
         mCurrentPropNode.setPropValueVector(propValueVector);
-        mCurrentPropNode.setPropValue(listToString(propValueVector));
+        String propValue = listToString(propValueVector);
+        mCurrentPropNode.setPropValue(propValue);
+        if (propValueVector.size() == 1 && isSpilled(propValue.length())) {
+            byte[] bytes = propValue.getBytes(StandardCharsets.UTF_8);
+            long offset = spill(bytes);
+            if (offset >= 0) {
+                mCurrentPropNode.setPropValueSpilled(spillStore(), offset, offset + bytes.length);
+            }
+        }
+    }
+
+    private boolean isSpilled(int length) {
+        return mSpillThreshold >= 0 && length > mSpillThreshold;
+    }
+
+    /**
+     * @return the offset of the data in the spill file, or -1 when it is kept in memory.
+     */
+    private long spill(byte[] data) {
+        if (!isSpilled(data.length)) {
+            return -1;
+        }
+        try {
+            return (mSpillOwner != null ? mSpillOwner : this).appendSpilled(data);
+        } catch (IOException e) {
+            Logger.error(LOG_TAG, "Failed to spill a value, keeping it in memory: " + e);
+            return -1;
+        }
+    }
+
+    // Synchronized, as the builders created from this one append to its file from their threads.
+    private synchronized long appendSpilled(byte[] data) throws IOException {
+        if (mSpillStore == null) {
+            mSpillStore = new SpillStore(mSpillDirectory);
+        }
+        return mSpillStore.append(data);
+    }
+
+    private SpillStore spillStore() {
+        VDataBuilder owner = mSpillOwner != null ? mSpillOwner : this;
+        synchronized (owner) {
+            return owner.mSpillStore;
+        }
+    }
+
+    public @Nullable Charset propertyValueCharset(@NonNull Charset sourceCharset) {
+        String encoding = mCurrentPropNode.getParamMap().getAsString("ENCODING");
+        // Same as handleOneValue(): these values are ASCII and decoded there.
+        if (encoding != null && (encoding.equals("BASE64") || encoding.equals("B")
+                || encoding.equals("QUOTED-PRINTABLE"))) {
+            return null;
+        }
+        Charset charset;
+        if (mCurrentPropNode.getParamMap().getAsString("CHARSET") != null) {
+            charset = propertyCharset();
+        } else if (mSourceCharset.equalsIgnoreCase(DEFAULT_CHARSET)) {
+            // Kept as decoded by the parser, see encodeString().
+            return null;
+        } else {
+            charset = StandardCharsets.UTF_8;
+        }
+        if (!CharsetCache.isAsciiCompatible(charset)) {
+            return null;
+        }
+        mValuesDecoded = true;
+        return charset;
+    }
+
+    public boolean propertyBinaryDeferred() {
+        if (mLazyValueSource == null) {
+            return false;
+        }
+        // Same as handleOneValue().
+        String encoding = mCurrentPropNode.getParamMap().getAsString("ENCODING");
+        return encoding != null && (encoding.equals("BASE64") || encoding.equals("B"));
+    }
+
+    public void propertyBinaryRange(long start, long end) {
+        propertyValues(null);
+        mCurrentPropNode.setPropValueRange(mLazyValueSource, start, end,
+                mCurrentPropNode.getParamMap().getAsString("ENCODING"));
+    }
+
+    public @Nullable OutputStream propertyBinarySink() {
+        return mBinarySinkFactory != null ? mBinarySinkFactory.createSink(mCurrentPropNode) : null;
     }
 
     private String listToString(List<String> list){
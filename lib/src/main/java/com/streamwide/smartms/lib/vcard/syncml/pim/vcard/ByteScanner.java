@@ -0,0 +1,104 @@
+/*
+ *
+ * 	StreamWIDE (Team on The Run)
+ *
+ * @createdBy  AndroidTeam on Sun, 18 Oct 2026 19:36:15 +0100
+ * @copyright  Copyright (c) 2026 StreamWIDE UK Ltd (Team on the Run)
+ * @email      support@teamontherun.com
+ *
+ * 	© Copyright 2026 StreamWIDE UK Ltd (Team on the Run). StreamWIDE is the copyright holder
+ * 	of all code contained in this file. Do not redistribute or
+ *  	re-use without permission.
+ *
+ * @lastModifiedOn Sun, 18 Oct 2026 19:36:15 +0100
+ */
+
+package com.streamwide.smartms.lib.vcard.syncml.pim.vcard;
+
+import androidx.annotation.NonNull;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Finds the delimiters of {@link VCardLexer} in a byte array 8 bytes at a time: each long
+ * read from the array is compared with all the wanted bytes at once (SWAR, SIMD within a
+ * register), and bytes are checked one by one only at the end of the range.
+ */
+final class ByteScanner {
+    private static final long ONES = 0x0101010101010101L;
+    private static final long HIGHS = 0x8080808080808080L;
+
+    private static final long CR = ONES * '\r';
+    private static final long LF = ONES * '\n';
+    private static final long COLON = ONES * ':';
+    private static final long SEMICOLON = ONES * ';';
+    private static final long DOT = ONES * '.';
+    private static final long DQUOTE = ONES * '"';
+
+    private final byte[] mBuffer;
+    // Little endian, so that the first byte of a range is the lowest one of its long.
+    private final ByteBuffer mWords;
+
+    ByteScanner(@NonNull byte[] buffer) {
+        mBuffer = buffer;
+        mWords = ByteBuffer.wrap(buffer).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * @return the index of the first CR or LF from 'from' (inclusive) to 'to' (exclusive),
+     *         or -1.
+     */
+    int indexOfLineBreak(int from, int to) {
+        int i = from;
+        for (; i <= to - 8; i += 8) {
+            long word = mWords.getLong(i);
+            long found = matches(word, CR) | matches(word, LF);
+            if (found != 0) {
+                return i + (Long.numberOfTrailingZeros(found) >>> 3);
+            }
+        }
+        final byte[] buffer = mBuffer;
+        for (; i < to; i++) {
+            byte b = buffer[i];
+            if (b == '\r' || b == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return the index of the first ':', ';', '.' or '"' from 'from' (inclusive) to 'to'
+     *         (exclusive), or -1.
+     */
+    int indexOfDelimiter(int from, int to) {
+        int i = from;
+        for (; i <= to - 8; i += 8) {
+            long word = mWords.getLong(i);
+            long found = matches(word, COLON) | matches(word, SEMICOLON)
+                    | matches(word, DOT) | matches(word, DQUOTE);
+            if (found != 0) {
+                return i + (Long.numberOfTrailingZeros(found) >>> 3);
+            }
+        }
+        final byte[] buffer = mBuffer;
+        for (; i < to; i++) {
+            byte b = buffer[i];
+            if (b == ':' || b == ';' || b == '.' || b == '"') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return a long whose bytes have their high bit set where the bytes of word are equal to
+     *         the ones of pattern. Bytes following a match may be set wrongly, but the lowest
+     *         set byte is always the first match.
+     */
+    private static long matches(long word, long pattern) {
+        long x = word ^ pattern;
+        return (x - ONES) & ~x & HIGHS;
+    }
+}
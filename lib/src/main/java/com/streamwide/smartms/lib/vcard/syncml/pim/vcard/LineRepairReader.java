@@ -0,0 +1,169 @@
+/*
+ *
+ * 	StreamWIDE (Team on The Run)
+ *
+ * @createdBy  AndroidTeam on Sun, 18 Oct 2026 16:05:31 +0100
+ * @copyright  Copyright (c) 2026 StreamWIDE UK Ltd (Team on the Run)
+ * @email      support@teamontherun.com
+ *
+ * 	© Copyright 2026 StreamWIDE UK Ltd (Team on the Run). StreamWIDE is the copyright holder
+ * 	of all code contained in this file. Do not redistribute or
+ *  	re-use without permission.
+ *
+ * @lastModifiedOn Sun, 18 Oct 2026 16:05:31 +0100
+ */
+
+package com.streamwide.smartms.lib.vcard.syncml.pim.vcard;
+
+import androidx.annotation.NonNull;
+
+import java.io.Reader;
+
+/**
+ * Reads a vCard string while making sure it has proper wrap characters, line by line,
+ * instead of rebuilding the whole string:
+ * <ul>
+ * <li>lines are separated by LF or CRLF, and each line is terminated by CRLF,</li>
+ * <li>lines without ':' are indented with a space, so that they continue the previous line,
+ * except empty lines followed by a line with ':' after its first character,</li>
+ * <li>empty lines at the end are dropped.</li>
+ * </ul>
+ */
+final class LineRepairReader extends Reader {
+    private static final String CRLF = "\r\n";
+    private static final String SPACE = " ";
+    private static final String SPACE_CRLF = " \r\n";
+
+    private static final int STEP_SEGMENT = 0;
+    private static final int STEP_EMPTY_LINES = 1;
+    private static final int STEP_INDENT = 2;
+    private static final int STEP_LINE = 3;
+    private static final int STEP_TERMINATOR = 4;
+
+    private final String mText;
+    // Start of the next line of mText.
+    private int mPosition;
+
+    private int mStep = STEP_SEGMENT;
+    // Empty lines preceding the current line.
+    private int mEmptyLines;
+    private int mLineStart;
+    private int mLineEnd;
+
+    // Chars being copied.
+    private String mPiece = "";
+    private int mPieceFrom;
+    private int mPieceTo;
+
+    LineRepairReader(@NonNull String text) {
+        mText = text;
+    }
+
+    @Override
+    public int read(@NonNull char[] cbuf, int off, int len) {
+        if (len == 0) {
+            return 0;
+        }
+        int count = 0;
+        while (count < len) {
+            if (mPieceFrom == mPieceTo && !nextPiece()) {
+                break;
+            }
+            int n = Math.min(len - count, mPieceTo - mPieceFrom);
+            mPiece.getChars(mPieceFrom, mPieceFrom + n, cbuf, off + count);
+            mPieceFrom += n;
+            count += n;
+        }
+        return count == 0 ? -1 : count;
+    }
+
+    /**
+     * @return false at the end of the text.
+     */
+    private boolean nextPiece() {
+        while (true) {
+            switch (mStep) {
+                case STEP_SEGMENT:
+                    if (!nextLine()) {
+                        return false;
+                    }
+                    mStep = STEP_EMPTY_LINES;
+                    break;
+                case STEP_EMPTY_LINES:
+                    if (mEmptyLines > 0) {
+                        mEmptyLines--;
+                        // Only the last empty line is followed by the current line.
+                        boolean kept = mEmptyLines == 0 && indexOfColon(mLineStart, mLineEnd) > mLineStart;
+                        return setPiece(kept ? CRLF : SPACE_CRLF, 0, kept ? 2 : 3);
+                    }
+                    mStep = STEP_INDENT;
+                    break;
+                case STEP_INDENT:
+                    mStep = STEP_LINE;
+                    if (indexOfColon(mLineStart, mLineEnd) < 0) {
+                        return setPiece(SPACE, 0, 1);
+                    }
+                    break;
+                case STEP_LINE:
+                    mStep = STEP_TERMINATOR;
+                    return setPiece(mText, mLineStart, mLineEnd);
+                case STEP_TERMINATOR:
+                default:
+                    mStep = STEP_SEGMENT;
+                    return setPiece(CRLF, 0, 2);
+            }
+        }
+    }
+
+    private boolean setPiece(String piece, int from, int to) {
+        mPiece = piece;
+        mPieceFrom = from;
+        mPieceTo = to;
+        return true;
+    }
+
+    /**
+     * Moves to the next line which is not empty, counting the empty lines skipped.
+     *
+     * @return false when only empty lines are left.
+     */
+    private boolean nextLine() {
+        final String text = mText;
+        final int length = text.length();
+        while (mPosition < length) {
+            int start = mPosition;
+            int end = text.indexOf('\n', start);
+            if (end < 0) {
+                end = length;
+                mPosition = length;
+            } else {
+                mPosition = end + 1;
+                if (end > start && text.charAt(end - 1) == '\r') {
+                    end--;
+                }
+            }
+            if (end > start) {
+                mLineStart = start;
+                mLineEnd = end;
+                return true;
+            }
+            mEmptyLines++;
+        }
+        return false;
+    }
+
+    private int indexOfColon(int from, int to) {
+        final String text = mText;
+        for (int i = from; i < to; i++) {
+            if (text.charAt(i) == ':') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public void close() {
+        // Nothing to release.
+    }
+}
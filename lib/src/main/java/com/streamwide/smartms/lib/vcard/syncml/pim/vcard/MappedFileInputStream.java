@@ -0,0 +1,138 @@
+/*
+ *
+ * 	StreamWIDE (Team on The Run)
+ *
+ * @createdBy  AndroidTeam on Sun, 18 Oct 2026 11:02:47 +0100
+ * @copyright  Copyright (c) 2026 StreamWIDE UK Ltd (Team on the Run)
+ * @email      support@teamontherun.com
+ *
+ * 	© Copyright 2026 StreamWIDE UK Ltd (Team on the Run). StreamWIDE is the copyright holder
+ * 	of all code contained in this file. Do not redistribute or
+ *  	re-use without permission.
+ *
+ * @lastModifiedOn Sun, 18 Oct 2026 11:02:47 +0100
+ */
+
+package com.streamwide.smartms.lib.vcard.syncml.pim.vcard;
+
+import androidx.annotation.NonNull;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Reads a region of a file through read-only memory mappings.
+ *
+ * The region is mapped window by window, so files larger than 2 GB can be read even though
+ * a single {@link MappedByteBuffer} is limited to {@link Integer#MAX_VALUE} bytes. Bytes are
+ * copied from the mapping straight into the caller's buffer, without read() system calls.
+ * Closing this stream does not close the channel.
+ *
+ * There is no API to unmap a {@link MappedByteBuffer}: a window stays mapped until it is
+ * garbage collected, even after the channel is closed. This stream only references the
+ * window being read, and none once closed, but the windows read so far may still use up to
+ * {@link #DEFAULT_WINDOW_SIZE} bytes of address space each (not of heap) until the next
+ * collections. Callers close the stream as soon as it is read, since a lexer keeps it.
+ */
+final class MappedFileInputStream extends InputStream {
+    static final long DEFAULT_WINDOW_SIZE = 64L * 1024 * 1024;
+
+    private final FileChannel mChannel;
+    private final long mEnd;
+    private final long mWindowSize;
+    private long mWindowStart;
+    private MappedByteBuffer mWindow;
+    private boolean mClosed;
+
+    /**
+     * @param channel The channel to read from.
+     * @param start   The offset of the first byte to read.
+     * @param end     The offset following the last byte to read.
+     */
+    MappedFileInputStream(@NonNull FileChannel channel, long start, long end) {
+        this(channel, start, end, DEFAULT_WINDOW_SIZE);
+    }
+
+    MappedFileInputStream(@NonNull FileChannel channel, long start, long end, long windowSize) {
+        if (start < 0 || end < start || windowSize <= 0 || windowSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Invalid region: " + start + "-" + end);
+        }
+        mChannel = channel;
+        mEnd = end;
+        mWindowSize = windowSize;
+        mWindowStart = start;
+    }
+
+    private boolean ensureWindow() throws IOException {
+        if (mClosed) {
+            throw new IOException("Stream closed");
+        }
+        if (mWindow != null) {
+            if (mWindow.hasRemaining()) {
+                return true;
+            }
+            mWindowStart += mWindow.capacity();
+            mWindow = null;
+        }
+        if (mWindowStart >= mEnd) {
+            return false;
+        }
+        long size = Math.min(mWindowSize, mEnd - mWindowStart);
+        mWindow = mChannel.map(FileChannel.MapMode.READ_ONLY, mWindowStart, size);
+        return true;
+    }
+
+    @Override
+    public int read() throws IOException {
+        return ensureWindow() ? mWindow.get() & 0xff : -1;
+    }
+
+    @Override
+    public int read(@NonNull byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (!ensureWindow()) {
+            return -1;
+        }
+        int count = Math.min(len, mWindow.remaining());
+        mWindow.get(b, off, count);
+        return count;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        if (mClosed) {
+            throw new IOException("Stream closed");
+        }
+        if (n <= 0) {
+            return 0;
+        }
+        long position = mWindowStart + (mWindow != null ? mWindow.position() : 0);
+        long skipped = Math.min(n, mEnd - position);
+        mWindowStart = position + skipped;
+        mWindow = null;
+        return skipped;
+    }
+
+    @Override
+    public int available() {
+        if (mClosed) {
+            return 0;
+        }
+        long position = mWindowStart + (mWindow != null ? mWindow.position() : 0);
+        return (int) Math.min(Integer.MAX_VALUE, mEnd - position);
+    }
+
+    /**
+     * Drops the reference to the current window, so that it can be unmapped by the next
+     * garbage collection. The channel is not closed.
+     */
+    @Override
+    public void close() {
+        mClosed = true;
+        mWindow = null;
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ *
+ * 	StreamWIDE (Team on The Run)
+ *
+ * @createdBy  AndroidTeam on Sun, 18 Oct 2026 14:22:05 +0100
+ * @copyright  Copyright (c) 2026 StreamWIDE UK Ltd (Team on the Run)
+ * @email      support@teamontherun.com
+ *
+ * 	© Copyright 2026 StreamWIDE UK Ltd (Team on the Run). StreamWIDE is the copyright holder
+ * 	of all code contained in this file. Do not redistribute or
+ *  	re-use without permission.
+ *
+ * @lastModifiedOn Sun, 18 Oct 2026 14:22:05 +0100
+ */
+
+package com.streamwide.smartms.lib.vcard.syncml.pim.vcard;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Receives measurements from {@link VCardParserV21}. See
+ * {@link VCardParserV21#setParseMetrics(ParseMetrics)}.
+ *
+ * Durations are in nanoseconds, measured with {@link System#nanoTime()}. When {@link #NONE}
+ * is used (the default), the parser does not read the clock at all.
+ *
+ * Methods are called on the parsing thread. {@link ParseStatistics} aggregates them.
+ */
+public interface ParseMetrics {
+    /** builder.startRecord() */
+    int STAGE_START_RECORD = 0;
+    /** builder.endRecord() */
+    int STAGE_END_RECORD = 1;
+    /** Tokenization of a line: groups, name and params. */
+    int STAGE_SEPARATE_LINE = 2;
+    /** Properties with one value, including their decoding. */
+    int STAGE_SINGLE_VALUE = 3;
+    /** "ADR", "ORG" and "N" properties. */
+    int STAGE_MULTIPLE_VALUE = 4;
+
+    int STAGE_COUNT = 5;
+
+    /** Ignores everything. */
+    ParseMetrics NONE = new ParseMetrics() {
+    };
+
+    /**
+     * @param stage One of STAGE_*.
+     * @param nanos The time spent in the stage.
+     */
+    default void onStage(int stage, long nanos) {
+    }
+
+    /**
+     * Called for each property, after its value is handled.
+     *
+     * @param propertyName The upper case name of the property.
+     */
+    default void onProperty(@NonNull String propertyName) {
+    }
+
+    /**
+     * Called for each property value decoded.
+     *
+     * @param encoding The upper case encoding of the value (e.g. "8BIT", "BASE64").
+     * @param nanos    The time spent decoding the value.
+     */
+    default void onDecode(@NonNull String encoding, long nanos) {
+    }
+
+    /** Called after each vCard entry. */
+    default void onRecord() {
+    }
+
+    /**
+     * Called when the end of the source is reached (or when parsing is canceled).
+     *
+     * @param bytes The number of bytes read.
+     * @param nanos The time elapsed since the beginning of parsing.
+     */
+    default void onFinished(long bytes, long nanos) {
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ *
+ * 	StreamWIDE (Team on The Run)
+ *
+ * @createdBy  AndroidTeam on Sun, 18 Oct 2026 14:22:05 +0100
+ * @copyright  Copyright (c) 2026 StreamWIDE UK Ltd (Team on the Run)
+ * @email      support@teamontherun.com
+ *
+ * 	© Copyright 2026 StreamWIDE UK Ltd (Team on the Run). StreamWIDE is the copyright holder
+ * 	of all code contained in this file. Do not redistribute or
+ *  	re-use without permission.
+ *
+ * @lastModifiedOn Sun, 18 Oct 2026 14:22:05 +0100
+ */
+
+package com.streamwide.smartms.lib.vcard.syncml.pim.vcard;
+
+import androidx.annotation.NonNull;
+
+import com.streamwide.smartms.lib.vcard.logger.Logger;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * {@link ParseMetrics} aggregating the measurements of one or more parsings:
+ * per-stage histograms, property counts, decoding time per encoding and throughput.
+ *
+ * Histograms have 64 buckets: bucket i counts the durations d such that
+ * 2^i <= d < 2^(i+1) nanoseconds (bucket 0 also counts 0).
+ *
+ * This class is not thread-safe.
+ */
+public class ParseStatistics implements ParseMetrics {
+    private static final String LOG_TAG = "VCardParseStatistics";
+
+    private static final int BUCKET_COUNT = 64;
+
+    private final long[][] mStageHistograms = new long[STAGE_COUNT][BUCKET_COUNT];
+    private final long[] mStageNanos = new long[STAGE_COUNT];
+    private final long[] mStageCounts = new long[STAGE_COUNT];
+    private final HashMap<String, Long> mPropertyCounts = new HashMap<>();
+    private final HashMap<String, Long> mDecodeNanos = new HashMap<>();
+    private long mRecordCount;
+    private long mByteCount;
+    private long mElapsedNanos;
+
+    @Override
+    public void onStage(int stage, long nanos) {
+        mStageHistograms[stage][bucketOf(nanos)]++;
+        mStageNanos[stage] += nanos;
+        mStageCounts[stage]++;
+    }
+
+    private static int bucketOf(long nanos) {
+        return nanos <= 0 ? 0 : 63 - Long.numberOfLeadingZeros(nanos);
+    }
+
+    @Override
+    public void onProperty(@NonNull String propertyName) {
+        Long count = mPropertyCounts.get(propertyName);
+        mPropertyCounts.put(propertyName, count == null ? 1 : count + 1);
+    }
+
+    @Override
+    public void onDecode(@NonNull String encoding, long nanos) {
+        Long total = mDecodeNanos.get(encoding);
+        mDecodeNanos.put(encoding, total == null ? nanos : total + nanos);
+    }
+
+    @Override
+    public void onRecord() {
+        mRecordCount++;
+    }
+
+    @Override
+    public void onFinished(long bytes, long nanos) {
+        mByteCount += bytes;
+        mElapsedNanos += nanos;
+    }
+
+    /**
+     * @return a copy of the histogram of the given stage.
+     */
+    public @NonNull long[] getStageHistogram(int stage) {
+        return mStageHistograms[stage].clone();
+    }
+
+    public long getStageNanos(int stage) {
+        return mStageNanos[stage];
+    }
+
+    public long getStageCount(int stage) {
+        return mStageCounts[stage];
+    }
+
+    /**
+     * @return a copy of the number of properties by upper case name.
+     */
+    public @NonNull Map<String, Long> getPropertyCounts() {
+        return new HashMap<>(mPropertyCounts);
+    }
+
+    /**
+     * @return a copy of the decoding time in nanoseconds by upper case encoding.
+     */
+    public @NonNull Map<String, Long> getDecodeNanos() {
+        return new HashMap<>(mDecodeNanos);
+    }
+
+    public long getRecordCount() {
+        return mRecordCount;
+    }
+
+    public long getByteCount() {
+        return mByteCount;
+    }
+
+    public long getElapsedNanos() {
+        return mElapsedNanos;
+    }
+
+    public double getBytesPerSecond() {
+        return mElapsedNanos == 0 ? 0 : mByteCount * 1e9 / mElapsedNanos;
+    }
+
+    public double getRecordsPerSecond() {
+        return mElapsedNanos == 0 ? 0 : mRecordCount * 1e9 / mElapsedNanos;
+    }
+
+    /**
+     * Writes a summary to {@link Logger}.
+     */
+    public void log() {
+        Logger.debug(LOG_TAG, "total parsing time: " + mElapsedNanos + " ns, " + mRecordCount
+                + " records, " + mByteCount + " bytes (" + (long) getRecordsPerSecond()
+                + " records/s, " + (long) getBytesPerSecond() + " bytes/s)");
+        for (int stage = 0; stage < STAGE_COUNT; stage++) {
+            Logger.debug(LOG_TAG, "stage " + stage + ": " + mStageNanos[stage] + " ns in "
+                    + mStageCounts[stage] + " calls");
+        }
+        for (Map.Entry<String, Long> entry : mDecodeNanos.entrySet()) {
+            Logger.debug(LOG_TAG, "decoding " + entry.getKey() + ": " + entry.getValue() + " ns");
+        }
+        Logger.debug(LOG_TAG, "properties: " + mPropertyCounts);
+    }
+}
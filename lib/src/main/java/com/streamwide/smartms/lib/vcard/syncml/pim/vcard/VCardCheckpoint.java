@@ -0,0 +1,78 @@
+/*
+ *
+ * 	StreamWIDE (Team on The Run)
+ *
+ * @createdBy  AndroidTeam on Sun, 18 Oct 2026 14:51:37 +0100
+ * @copyright  Copyright (c) 2026 StreamWIDE UK Ltd (Team on the Run)
+ * @email      support@teamontherun.com
+ *
+ * 	© Copyright 2026 StreamWIDE UK Ltd (Team on the Run). StreamWIDE is the copyright holder
+ * 	of all code contained in this file. Do not redistribute or
+ *  	re-use without permission.
+ *
+ * @lastModifiedOn Sun, 18 Oct 2026 14:51:37 +0100
+ */
+
+package com.streamwide.smartms.lib.vcard.syncml.pim.vcard;
+
+import androidx.annotation.NonNull;
+
+import java.io.Serializable;
+
+/**
+ * Position of the parser just after a vCard entry, from which parsing can be resumed.
+ *
+ * Checkpoints are immutable and serializable, so they can be persisted along with the
+ * entries already imported. See {@link VCardParserV21#getCheckpoint()}.
+ */
+public final class VCardCheckpoint implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final long mOffset;
+    private final boolean mSkipLineFeed;
+    private final long mRecordCount;
+    private final String mVersion;
+
+    VCardCheckpoint(long offset, boolean skipLineFeed, long recordCount, @NonNull String version) {
+        mOffset = offset;
+        mSkipLineFeed = skipLineFeed;
+        mRecordCount = recordCount;
+        mVersion = version;
+    }
+
+    /**
+     * @return the offset from the beginning of the source of the byte following the entry.
+     */
+    public long getOffset() {
+        return mOffset;
+    }
+
+    /**
+     * @return true when the entry ended with CR, so that an LF at the offset must be skipped.
+     */
+    boolean skipLineFeed() {
+        return mSkipLineFeed;
+    }
+
+    /**
+     * @return the number of entries parsed from the beginning of the source.
+     */
+    public long getRecordCount() {
+        return mRecordCount;
+    }
+
+    /**
+     * @return the vCard version of the parser which made this checkpoint.
+     */
+    @NonNull
+    public String getVersion() {
+        return mVersion;
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return "VCardCheckpoint{offset=" + mOffset + ", records=" + mRecordCount
+                + ", version=" + mVersion + "}";
+    }
+}
@@ -0,0 +1,317 @@
+/*
+ *
+ * 	StreamWIDE (Team on The Run)
+ *
+ * @createdBy  AndroidTeam on Sun, 18 Oct 2026 20:05:31 +0100
+ * @copyright  Copyright (c) 2026 StreamWIDE UK Ltd (Team on the Run)
+ * @email      support@teamontherun.com
+ *
+ * 	© Copyright 2026 StreamWIDE UK Ltd (Team on the Run). StreamWIDE is the copyright holder
+ * 	of all code contained in this file. Do not redistribute or
+ *  	re-use without permission.
+ *
+ * @lastModifiedOn Sun, 18 Oct 2026 20:05:31 +0100
+ */
+
+package com.streamwide.smartms.lib.vcard.syncml.pim.vcard;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.streamwide.smartms.lib.vcard.syncml.pim.PropertyNode;
+import com.streamwide.smartms.lib.vcard.syncml.pim.VDataBuilder;
+import com.streamwide.smartms.lib.vcard.syncml.pim.VNode;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Offsets of the vCard entries of a file, so that one entry can be parsed without parsing
+ * the ones before it. Entries can be found by ordinal, UID, FN or phone number.
+ *
+ * The index is built by a single pass over the file, parsing only UID, FN and TEL, and can be
+ * saved next to the file with {@link #write(File)}. It must be rebuilt when the file changes,
+ * see {@link #isUpToDate(File)}.
+ */
+public final class VCardIndex {
+
+    // "VCIX"
+    private static final int MAGIC = 0x56434958;
+    private static final int FORMAT_VERSION = 1;
+
+    // Keys longer than this are not indexed, so that they fit in DataOutput#writeUTF.
+    private static final int MAX_KEY_LENGTH = 4096;
+
+    private static final int[] NO_RECORDS = new int[0];
+
+    private final String mCharset;
+    private final int mVersion;
+    private final long mSourceLength;
+    private final long mSourceLastModified;
+
+    // (offset << 1) | skipLineFeed of the checkpoint preceding each entry.
+    private long[] mStarts;
+    private int mRecordCount;
+
+    private final Map<String, int[]> mUids = new HashMap<>();
+    private final Map<String, int[]> mNames = new HashMap<>();
+    private final Map<String, int[]> mPhoneNumbers = new HashMap<>();
+
+    private VCardIndex(@NonNull String charset, int version, long sourceLength,
+                       long sourceLastModified, int capacity) {
+        mCharset = charset;
+        mVersion = version;
+        mSourceLength = sourceLength;
+        mSourceLastModified = sourceLastModified;
+        mStarts = new long[Math.max(capacity, 16)];
+    }
+
+    /**
+     * Parses the file once to index its entries.
+     *
+     * @param charset The charset of the file, which must be compatible with US-ASCII.
+     * @param version {@link VCardParser#VERSION_VCARD21_INT} or {@link VCardParser#VERSION_VCARD30_INT}.
+     */
+    public static @NonNull VCardIndex build(@NonNull File file, @NonNull String charset, int version)
+            throws IOException, VCardException {
+        VCardIndex index = new VCardIndex(charset, version, file.length(), file.lastModified(), 0);
+        VCardParserV21 parser = newParser(version);
+        parser.setPropertyFilter(Arrays.asList("UID", "FN", "TEL"));
+        try (VCardReader reader = new VCardReader(
+                new BufferedInputStream(new FileInputStream(file)), charset, parser, new VDataBuilder())) {
+            while (true) {
+                VCardCheckpoint checkpoint = reader.getCheckpoint();
+                if (checkpoint == null && index.mRecordCount > 0) {
+                    throw new IllegalArgumentException(
+                            "Offsets cannot be computed in " + charset);
+                }
+                VNode vnode = reader.next();
+                if (vnode == null) {
+                    break;
+                }
+                index.add(checkpoint, vnode);
+            }
+        }
+        return index;
+    }
+
+    private void add(@Nullable VCardCheckpoint checkpoint, @NonNull VNode vnode) {
+        int ordinal = mRecordCount;
+        if (ordinal == mStarts.length) {
+            mStarts = Arrays.copyOf(mStarts, ordinal * 2);
+        }
+        // The first entry is parsed from the beginning, where nested entries are skipped.
+        mStarts[ordinal] = checkpoint == null ? -1
+                : checkpoint.getOffset() << 1 | (checkpoint.skipLineFeed() ? 1 : 0);
+        mRecordCount++;
+        for (PropertyNode propertyNode : vnode.getPropList()) {
+            String value = propertyNode.getPropValue();
+            switch (propertyNode.getPropName()) {
+                case "UID":
+                    put(mUids, value.trim(), ordinal);
+                    break;
+                case "FN":
+                    put(mNames, value, ordinal);
+                    break;
+                case "TEL":
+                    put(mPhoneNumbers, normalizePhoneNumber(value), ordinal);
+                    break;
+                default:
+            }
+        }
+    }
+
+    private static void put(Map<String, int[]> map, String key, int ordinal) {
+        if (key.isEmpty() || key.length() > MAX_KEY_LENGTH) {
+            return;
+        }
+        int[] ordinals = map.get(key);
+        if (ordinals == null) {
+            map.put(key, new int[] {ordinal});
+        } else if (ordinals[ordinals.length - 1] != ordinal) {
+            ordinals = Arrays.copyOf(ordinals, ordinals.length + 1);
+            ordinals[ordinals.length - 1] = ordinal;
+            map.put(key, ordinals);
+        }
+    }
+
+    /**
+     * @return the digits of the phone number, preceded by "+" when it starts with one.
+     */
+    public static @NonNull String normalizePhoneNumber(@NonNull String phoneNumber) {
+        StringBuilder builder = new StringBuilder(phoneNumber.length());
+        for (int i = 0; i < phoneNumber.length(); i++) {
+            char ch = phoneNumber.charAt(i);
+            if (ch >= '0' && ch <= '9') {
+                builder.append(ch);
+            } else if (ch == '+' && builder.length() == 0) {
+                builder.append(ch);
+            }
+        }
+        return builder.toString();
+    }
+
+    public int getRecordCount() {
+        return mRecordCount;
+    }
+
+    /** @return the ordinals of the entries with the given UID, in file order. */
+    public @NonNull int[] findByUid(@NonNull String uid) {
+        return find(mUids, uid.trim());
+    }
+
+    /** @return the ordinals of the entries with the given FN, in file order. */
+    public @NonNull int[] findByName(@NonNull String formattedName) {
+        return find(mNames, formattedName);
+    }
+
+    /**
+     * @return the ordinals of the entries with a TEL equal to the given phone number once both
+     *         are normalized by {@link #normalizePhoneNumber(String)}, in file order.
+     */
+    public @NonNull int[] findByPhoneNumber(@NonNull String phoneNumber) {
+        return find(mPhoneNumbers, normalizePhoneNumber(phoneNumber));
+    }
+
+    private static int[] find(Map<String, int[]> map, String key) {
+        int[] ordinals = map.get(key);
+        return ordinals != null ? ordinals.clone() : NO_RECORDS;
+    }
+
+    /**
+     * @return the checkpoint from which the parsers resume at the given entry, or null for an
+     *         entry to be parsed from the beginning of the file.
+     */
+    public @Nullable VCardCheckpoint getCheckpoint(int ordinal) {
+        if (ordinal < 0 || ordinal >= mRecordCount) {
+            throw new IndexOutOfBoundsException("No entry " + ordinal + " in " + mRecordCount);
+        }
+        long start = mStarts[ordinal];
+        if (start < 0) {
+            return null;
+        }
+        return new VCardCheckpoint(start >>> 1, (start & 1) != 0, ordinal,
+                newParser(mVersion).getVersion());
+    }
+
+    /**
+     * Same as {@link #readRecord(File, int, VDataBuilder)} with a new {@link VDataBuilder}.
+     */
+    public @Nullable VNode readRecord(@NonNull File file, int ordinal)
+            throws IOException, VCardException {
+        return readRecord(file, ordinal, new VDataBuilder());
+    }
+
+    /**
+     * Parses only the given entry, reading the file from the offset of the entry.
+     *
+     * @param file    The indexed file.
+     * @param builder The builder of the entry. Its VNode list is cleared.
+     * @return the entry, or null when it is not in the file anymore.
+     */
+    public @Nullable VNode readRecord(@NonNull File file, int ordinal, @NonNull VDataBuilder builder)
+            throws IOException, VCardException {
+        VCardCheckpoint checkpoint = getCheckpoint(ordinal);
+        try (VCardReader reader = new VCardReader(
+                new BufferedInputStream(new FileInputStream(file)), mCharset, newParser(mVersion),
+                builder, checkpoint)) {
+            return reader.next();
+        }
+    }
+
+    /**
+     * @return true when the file has the size and the modification time it had when the index
+     *         was built.
+     */
+    public boolean isUpToDate(@NonNull File file) {
+        return file.length() == mSourceLength && file.lastModified() == mSourceLastModified;
+    }
+
+    /**
+     * Saves the index, e.g. in "contacts.vcf.idx" next to "contacts.vcf".
+     */
+    public void write(@NonNull File indexFile) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(indexFile)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeUTF(mCharset);
+            out.writeInt(mVersion);
+            out.writeLong(mSourceLength);
+            out.writeLong(mSourceLastModified);
+            out.writeInt(mRecordCount);
+            for (int i = 0; i < mRecordCount; i++) {
+                out.writeLong(mStarts[i]);
+            }
+            writeKeys(out, mUids);
+            writeKeys(out, mNames);
+            writeKeys(out, mPhoneNumbers);
+        }
+    }
+
+    private static void writeKeys(DataOutputStream out, Map<String, int[]> map) throws IOException {
+        out.writeInt(map.size());
+        for (Map.Entry<String, int[]> entry : map.entrySet()) {
+            out.writeUTF(entry.getKey());
+            int[] ordinals = entry.getValue();
+            out.writeInt(ordinals.length);
+            for (int ordinal : ordinals) {
+                out.writeInt(ordinal);
+            }
+        }
+    }
+
+    /**
+     * Loads an index saved by {@link #write(File)}.
+     *
+     * @throws IOException when the file is not an index written by this version of the class.
+     */
+    public static @NonNull VCardIndex read(@NonNull File indexFile) throws IOException {
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(new FileInputStream(indexFile)))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+                throw new IOException("Not a vCard index: " + indexFile);
+            }
+            String charset = in.readUTF();
+            int version = in.readInt();
+            long sourceLength = in.readLong();
+            long sourceLastModified = in.readLong();
+            int recordCount = in.readInt();
+            VCardIndex index = new VCardIndex(charset, version, sourceLength, sourceLastModified,
+                    recordCount);
+            for (int i = 0; i < recordCount; i++) {
+                index.mStarts[i] = in.readLong();
+            }
+            index.mRecordCount = recordCount;
+            readKeys(in, index.mUids);
+            readKeys(in, index.mNames);
+            readKeys(in, index.mPhoneNumbers);
+            return index;
+        }
+    }
+
+    private static void readKeys(DataInputStream in, Map<String, int[]> map) throws IOException {
+        int size = in.readInt();
+        for (int i = 0; i < size; i++) {
+            String key = in.readUTF();
+            int[] ordinals = new int[in.readInt()];
+            for (int j = 0; j < ordinals.length; j++) {
+                ordinals[j] = in.readInt();
+            }
+            map.put(key, ordinals);
+        }
+    }
+
+    private static VCardParserV21 newParser(int version) {
+        return version == VCardParser.VERSION_VCARD30_INT ? new VCardParserV30() : new VCardParserV21();
+    }
+}
@@ -0,0 +1,724 @@
+/*
+ *
+ * 	StreamWIDE (Team on The Run)
+ *
+ * @createdBy  AndroidTeam on Sun, 18 Oct 2026 10:12:31 +0100
+ * @copyright  Copyright (c) 2026 StreamWIDE UK Ltd (Team on the Run)
+ * @email      support@teamontherun.com
+ *
+ * 	© Copyright 2026 StreamWIDE UK Ltd (Team on the Run). StreamWIDE is the copyright holder
+ * 	of all code contained in this file. Do not redistribute or
+ *  	re-use without permission.
+ *
+ * @lastModifiedOn Sun, 18 Oct 2026 10:12:31 +0100
+ */
+
+package com.streamwide.smartms.lib.vcard.syncml.pim.vcard;
+
+import androidx.annotation.NonNull;
+
+import com.streamwide.smartms.lib.vcard.syncml.pim.CharsetCache;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.IllegalCharsetNameException;
+import java.nio.charset.StandardCharsets;
+import java.nio.charset.UnsupportedCharsetException;
+import java.util.Arrays;
+
+/**
+ * Byte-level line lexer used by {@link VCardParserV21}.
+ *
+ * Lines are scanned directly in a reusable byte buffer: line terminators (CR, LF, CRLF)
+ * and folding whitespace are found while reading, and the group/name/params/value
+ * delimiters (".", ";", ":" and double quotes in params) are located lazily in one pass
+ * over the beginning of the line. Bytes are decoded to chars only when a part of the line
+ * is actually requested.
+ *
+ * The current line stays valid until the next call to {@link #next(boolean)}.
+ */
+final class VCardLexer {
+    private static final int DEFAULT_BUFFER_SIZE = 8192;
+    // Larger buffers are not kept by reset(), so that one long line does not hold memory.
+    private static final int MAX_RETAINED_BUFFER_SIZE = 64 * 1024;
+
+    private static final int STATE_GROUP_OR_PROPNAME = 0;
+    private static final int STATE_PARAMS = 1;
+    private static final int STATE_PARAMS_IN_DQUOTE = 2;
+
+    private InputStream mInput;
+    private Charset mCharset;
+
+    private byte[] mBuffer = new byte[DEFAULT_BUFFER_SIZE];
+    private ByteScanner mScanner = new ByteScanner(mBuffer);
+    private int mPosition;
+    private int mLimit;
+    private long mBufferOffset;
+    private boolean mEndOfStream;
+    private boolean mSkipLineFeed;
+    private boolean mPushedBack;
+
+    private int mLineStart;
+    private int mLineEnd;
+    private long mLineOffset;
+    // Offset of the end of the first physical line of the current line, before unfolding.
+    private long mFoldOffset;
+
+    private boolean mTokensScanned;
+    private int mNameStart;
+    private int mNameEnd;
+    private int mValueStart;
+    private int[] mGroupEnds = new int[4];
+    private int mGroupCount;
+    // Positions of the ';' separators, followed by the position of ':' when it was found.
+    private int[] mParamSeparators = new int[8];
+    private int mParamSeparatorCount;
+
+    VCardLexer(@NonNull InputStream input, @NonNull String charset) throws UnsupportedEncodingException {
+        reset(input, charset);
+    }
+
+    /**
+     * Reads chars, encoded while reading as if the source had been encoded with the
+     * given charset (or with UTF-8 when it is not compatible with US-ASCII).
+     */
+    VCardLexer(@NonNull Reader input, @NonNull String charset) throws UnsupportedEncodingException {
+        reset(input, charset);
+    }
+
+    /**
+     * Makes this lexer read another source from its beginning, keeping its buffers.
+     */
+    void reset(@NonNull InputStream input, @NonNull String charset) throws UnsupportedEncodingException {
+        Charset cs = forName(charset);
+        if (CharsetCache.isAsciiCompatible(cs)) {
+            mInput = input;
+            mCharset = cs;
+        } else {
+            // e.g. UTF-16. Delimiters cannot be found at byte level, so transcode to UTF-8 first.
+            mInput = new TranscodingInputStream(new InputStreamReader(input, cs), StandardCharsets.UTF_8);
+            mCharset = StandardCharsets.UTF_8;
+        }
+        resetState();
+    }
+
+    /**
+     * Same as {@link #reset(InputStream, String)} for the chars of a Reader.
+     * See {@link #VCardLexer(Reader, String)}.
+     */
+    void reset(@NonNull Reader input, @NonNull String charset) throws UnsupportedEncodingException {
+        Charset cs = forName(charset);
+        mCharset = CharsetCache.isAsciiCompatible(cs) ? cs : StandardCharsets.UTF_8;
+        mInput = new TranscodingInputStream(input, mCharset);
+        resetState();
+    }
+
+    private void resetState() {
+        if (mBuffer.length > MAX_RETAINED_BUFFER_SIZE) {
+            mBuffer = new byte[DEFAULT_BUFFER_SIZE];
+            mScanner = new ByteScanner(mBuffer);
+        }
+        mPosition = 0;
+        mLimit = 0;
+        mBufferOffset = 0;
+        mEndOfStream = false;
+        mSkipLineFeed = false;
+        mPushedBack = false;
+        mLineStart = 0;
+        mLineEnd = 0;
+        mLineOffset = 0;
+        mFoldOffset = 0;
+        mTokensScanned = false;
+    }
+
+    private static Charset forName(String charset) throws UnsupportedEncodingException {
+        try {
+            return Charset.forName(charset);
+        } catch (IllegalCharsetNameException | UnsupportedCharsetException e) {
+            throw new UnsupportedEncodingException(charset);
+        }
+    }
+
+    @NonNull
+    Charset getCharset() {
+        return mCharset;
+    }
+
+    /**
+     * Makes offsets count from the given value, for sources which do not start at the
+     * beginning of the data. Must be called before reading.
+     *
+     * @param skipLineFeed True when the preceding line ended with CR, so that an LF
+     *                     starting the source belongs to its terminator.
+     */
+    void setStartOffset(long offset, boolean skipLineFeed) {
+        mBufferOffset = offset;
+        mSkipLineFeed = skipLineFeed;
+    }
+
+    /** @return true when the current line ended with CR, and the following LF is not read yet. */
+    boolean isLineFeedPending() {
+        return mSkipLineFeed;
+    }
+
+    /** @return true when offsets are those of transcoded bytes, not of the source. */
+    boolean isTranscoding() {
+        return mInput instanceof TranscodingInputStream;
+    }
+
+    /**
+     * Moves to the next line.
+     *
+     * @param unfold When true, following lines starting with a space or a tab are appended
+     *               to this line without their first character (See RFC 2425 5.8.1).
+     * @return false when the end of the stream is reached.
+     */
+    boolean next(boolean unfold) throws IOException {
+        if (mPushedBack) {
+            mPushedBack = false;
+        } else {
+            skipPendingLineFeed();
+            mLineStart = mPosition;
+            mLineEnd = mPosition;
+            if (!ensureAvailable()) {
+                return false;
+            }
+            mLineStart = mPosition;
+            mLineOffset = mBufferOffset + mPosition;
+            mLineEnd = scanLineEnd();
+            mFoldOffset = mBufferOffset + mLineEnd;
+        }
+        if (unfold) {
+            unfold();
+        }
+        mTokensScanned = false;
+        return true;
+    }
+
+    /**
+     * Makes the next call to {@link #next(boolean)} return the current line again.
+     */
+    void pushBack() {
+        mPushedBack = true;
+    }
+
+    private void unfold() throws IOException {
+        while (true) {
+            skipPendingLineFeed();
+            if (!ensureAvailable()) {
+                return;
+            }
+            byte first = mBuffer[mPosition];
+            if (first != ' ' && first != '\t') {
+                return;
+            }
+            int continuationStart = mPosition + 1 - mLineStart;
+            mPosition++;
+            int continuationEnd = scanLineEnd();
+            continuationStart += mLineStart;
+            int length = continuationEnd - continuationStart;
+            System.arraycopy(mBuffer, continuationStart, mBuffer, mLineEnd, length);
+            mLineEnd += length;
+        }
+    }
+
+    private void skipPendingLineFeed() throws IOException {
+        if (mSkipLineFeed) {
+            mSkipLineFeed = false;
+            if (ensureAvailable() && mBuffer[mPosition] == '\n') {
+                mPosition++;
+            }
+        }
+    }
+
+    /**
+     * Finds the end of the line starting at mPosition and moves mPosition after its terminator.
+     * @return the index of the terminator (or of the end of data).
+     */
+    private int scanLineEnd() throws IOException {
+        int i = mPosition;
+        while (true) {
+            int end = mScanner.indexOfLineBreak(i, mLimit);
+            if (end >= 0) {
+                mPosition = end + 1;
+                mSkipLineFeed = (mBuffer[end] == '\r');
+                return end;
+            }
+            int scanned = mLimit - mLineStart;
+            if (!fill()) {
+                mPosition = mLimit;
+                return mLimit;
+            }
+            i = mLineStart + scanned;
+        }
+    }
+
+    private boolean ensureAvailable() throws IOException {
+        while (mPosition >= mLimit) {
+            if (!fill()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Reads more bytes, keeping everything from the start of the current line.
+     * @return false when no byte could be read.
+     */
+    private boolean fill() throws IOException {
+        if (mEndOfStream) {
+            return false;
+        }
+        if (mLineStart > 0) {
+            int keep = mLimit - mLineStart;
+            System.arraycopy(mBuffer, mLineStart, mBuffer, 0, keep);
+            mBufferOffset += mLineStart;
+            mPosition -= mLineStart;
+            mLineEnd -= mLineStart;
+            mLimit = keep;
+            mLineStart = 0;
+        } else if (mLimit == mBuffer.length) {
+            mBuffer = Arrays.copyOf(mBuffer, mBuffer.length * 2);
+            mScanner = new ByteScanner(mBuffer);
+        }
+        int read = mInput.read(mBuffer, mLimit, mBuffer.length - mLimit);
+        if (read <= 0) {
+            mEndOfStream = true;
+            return false;
+        }
+        mLimit += read;
+        return true;
+    }
+
+    /** @return the offset in the source stream of the first byte of the current line. */
+    long getLineOffset() {
+        return mLineOffset;
+    }
+
+    /**
+     * @return the offset in the source stream of the byte following the current line
+     * and its terminator (an LF following CR may not be counted yet).
+     */
+    long getPosition() {
+        return mBufferOffset + mPosition;
+    }
+
+    int length() {
+        return mLineEnd - mLineStart;
+    }
+
+    /** Same as {@code getLine().trim().length() == 0}. */
+    boolean isBlank() {
+        for (int i = mLineStart; i < mLineEnd; i++) {
+            if ((mBuffer[i] & 0xff) > ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Same as {@code getLine().trim().endsWith(String.valueOf((char) ch))}. */
+    boolean endsWith(byte ch) {
+        int end = trimEnd(mBuffer, mLineStart, mLineEnd);
+        return end > mLineStart && mBuffer[end - 1] == ch;
+    }
+
+    boolean startsWithFoldingWhitespace() {
+        return mLineEnd > mLineStart &&
+                (mBuffer[mLineStart] == ' ' || mBuffer[mLineStart] == '\t');
+    }
+
+    @NonNull
+    String getLine() {
+        return decode(mLineStart, mLineEnd);
+    }
+
+    /** Writes the bytes of the current line, without decoding them. */
+    void writeLine(@NonNull OutputStream out) throws IOException {
+        out.write(mBuffer, mLineStart, mLineEnd - mLineStart);
+    }
+
+    /**
+     * Same as {@code key.equalsIgnoreCase(strArray[0].trim()) &&
+     * value.equalsIgnoreCase(strArray[1].trim())} where {@code strArray} is
+     * {@code getLine().split(":", 2)}. Both key and value must be in US-ASCII.
+     */
+    boolean matches(@NonNull String key, @NonNull String value) {
+        return matches(mBuffer, mLineStart, mLineEnd, key, value);
+    }
+
+    /**
+     * Same as {@link #matches(String, String)} for the line in [from, to) of the given buffer.
+     */
+    static boolean matches(@NonNull byte[] buffer, int from, int to,
+                           @NonNull String key, @NonNull String value) {
+        // Neither key nor value contains ':' or white spaces, so the line can be checked
+        // from left to right and rejected at the first byte which does not match.
+        int i = skipWhitespaces(buffer, from, to);
+        int keyLength = key.length();
+        if (to - i < keyLength || !equalsIgnoreCase(buffer, i, i + keyLength, key)) {
+            return false;
+        }
+        i = skipWhitespaces(buffer, i + keyLength, to);
+        if (i == to || buffer[i] != ':') {
+            return false;
+        }
+        int valueStart = skipWhitespaces(buffer, i + 1, to);
+        return equalsIgnoreCase(buffer, valueStart, trimEnd(buffer, valueStart, to), value);
+    }
+
+    private static int skipWhitespaces(byte[] buffer, int from, int to) {
+        while (from < to && (buffer[from] & 0xff) <= ' ') {
+            from++;
+        }
+        return from;
+    }
+
+    private static int trimEnd(byte[] buffer, int from, int to) {
+        while (to > from && (buffer[to - 1] & 0xff) <= ' ') {
+            to--;
+        }
+        return to;
+    }
+
+    private static boolean equalsIgnoreCase(byte[] buffer, int from, int to, String expected) {
+        int length = expected.length();
+        if (to - from != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            int b = buffer[from + i];
+            if (b >= 'a' && b <= 'z') {
+                b -= 'a' - 'A';
+            }
+            int ch = expected.charAt(i);
+            if (ch >= 'a' && ch <= 'z') {
+                ch -= 'a' - 'A';
+            }
+            if (b != ch) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Locates groups, property name, params and value of the current line.
+     *
+     * item      = [groups "."] name    [params] ":" value CRLF
+     */
+    private void scanTokens() {
+        if (mTokensScanned) {
+            return;
+        }
+        mTokensScanned = true;
+        mGroupCount = 0;
+        mParamSeparatorCount = 0;
+        mNameStart = mLineStart;
+        mNameEnd = -1;
+        mValueStart = -1;
+
+        final byte[] buffer = mBuffer;
+        final ByteScanner scanner = mScanner;
+        int state = STATE_GROUP_OR_PROPNAME;
+        for (int i = scanner.indexOfDelimiter(mLineStart, mLineEnd); i >= 0;
+                i = scanner.indexOfDelimiter(i + 1, mLineEnd)) {
+            byte b = buffer[i];
+            switch (state) {
+                case STATE_GROUP_OR_PROPNAME:
+                    if (b == ':') {
+                        mNameEnd = i;
+                        mValueStart = i + 1;
+                        return;
+                    } else if (b == '.') {
+                        if (mGroupCount == mGroupEnds.length) {
+                            mGroupEnds = Arrays.copyOf(mGroupEnds, mGroupCount * 2);
+                        }
+                        mGroupEnds[mGroupCount++] = i;
+                        mNameStart = i + 1;
+                    } else if (b == ';') {
+                        mNameEnd = i;
+                        addParamSeparator(i);
+                        state = STATE_PARAMS;
+                    }
+                    break;
+                case STATE_PARAMS:
+                    if (b == '"') {
+                        state = STATE_PARAMS_IN_DQUOTE;
+                    } else if (b == ';') {
+                        addParamSeparator(i);
+                    } else if (b == ':') {
+                        addParamSeparator(i);
+                        mValueStart = i + 1;
+                        return;
+                    }
+                    break;
+                case STATE_PARAMS_IN_DQUOTE:
+                    if (b == '"') {
+                        state = STATE_PARAMS;
+                    }
+                    break;
+                default:
+            }
+        }
+    }
+
+    private void addParamSeparator(int index) {
+        if (mParamSeparatorCount == mParamSeparators.length) {
+            mParamSeparators = Arrays.copyOf(mParamSeparators, mParamSeparatorCount * 2);
+        }
+        mParamSeparators[mParamSeparatorCount++] = index;
+    }
+
+    int getGroupCount() {
+        scanTokens();
+        return mGroupCount;
+    }
+
+    @NonNull
+    String getGroup(int index) {
+        scanTokens();
+        int start = index == 0 ? mLineStart : mGroupEnds[index - 1] + 1;
+        return decode(start, mGroupEnds[index]);
+    }
+
+    /** @return true when a property name terminated by ";" or ":" exists. */
+    boolean hasPropertyName() {
+        scanTokens();
+        return mNameEnd >= 0;
+    }
+
+    /**
+     * @return the {@link VCardSymbol} of the property name, or {@link VCardSymbol#NONE}.
+     */
+    int getPropertyNameSymbol() {
+        scanTokens();
+        return mNameEnd >= 0 ? VCardSymbol.lookup(mBuffer, mNameStart, mNameEnd) : VCardSymbol.NONE;
+    }
+
+    @NonNull
+    String getPropertyName() {
+        scanTokens();
+        return decodeName(mNameStart, mNameEnd);
+    }
+
+    int getParamCount() {
+        scanTokens();
+        return mParamSeparatorCount > 0 ? mParamSeparatorCount - 1 : 0;
+    }
+
+    @NonNull
+    String getParam(int index) {
+        scanTokens();
+        return decodeName(mParamSeparators[index] + 1, mParamSeparators[index + 1]);
+    }
+
+    /** @return true when the param has the form "name=value". */
+    boolean paramHasValue(int index) {
+        scanTokens();
+        return findParamEquals(index) >= 0;
+    }
+
+    /**
+     * @return the {@link VCardSymbol} of the trimmed param name, compared case-sensitively,
+     * or {@link VCardSymbol#NONE} when the param has no "=".
+     */
+    int getParamNameSymbol(int index) {
+        scanTokens();
+        int equals = findParamEquals(index);
+        if (equals < 0) {
+            return VCardSymbol.NONE;
+        }
+        int from = skipWhitespaces(mBuffer, mParamSeparators[index] + 1, equals);
+        return VCardSymbol.lookupExact(mBuffer, from, trimEnd(mBuffer, from, equals));
+    }
+
+    /**
+     * @return the part of a "name=value" param before "=".
+     */
+    @NonNull
+    String getParamName(int index, boolean trim) {
+        scanTokens();
+        int from = mParamSeparators[index] + 1;
+        int to = findParamEquals(index);
+        if (trim) {
+            from = skipWhitespaces(mBuffer, from, to);
+            to = trimEnd(mBuffer, from, to);
+        }
+        return decodeName(from, to);
+    }
+
+    /**
+     * @return the part of a "name=value" param after "=".
+     */
+    @NonNull
+    String getParamValue(int index, boolean trim) {
+        scanTokens();
+        int from = findParamEquals(index) + 1;
+        int to = mParamSeparators[index + 1];
+        if (trim) {
+            from = skipWhitespaces(mBuffer, from, to);
+            to = trimEnd(mBuffer, from, to);
+        }
+        return decodeName(from, to);
+    }
+
+    /**
+     * @return the {@link VCardSymbol} of the trimmed part of a "name=value" param after "=",
+     * compared case-insensitively.
+     */
+    int getParamValueSymbol(int index) {
+        scanTokens();
+        int from = skipWhitespaces(mBuffer, findParamEquals(index) + 1, mParamSeparators[index + 1]);
+        return VCardSymbol.lookup(mBuffer, from, trimEnd(mBuffer, from, mParamSeparators[index + 1]));
+    }
+
+    private int findParamEquals(int index) {
+        final byte[] buffer = mBuffer;
+        int end = mParamSeparators[index + 1];
+        for (int i = mParamSeparators[index] + 1; i < end; i++) {
+            if (buffer[i] == '=') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return the number of BASE64 digits in the value of the line, or in the whole line when
+     * fromValue is false, so that the size of the decoded bytes is known without decoding them.
+     */
+    int countBase64Digits(boolean fromValue) {
+        int from = mLineStart;
+        if (fromValue) {
+            scanTokens();
+            from = mValueStart;
+        }
+        final byte[] buffer = mBuffer;
+        int count = 0;
+        for (int i = from; i < mLineEnd; i++) {
+            byte b = buffer[i];
+            if ((b >= 'A' && b <= 'Z') || (b >= 'a' && b <= 'z') || (b >= '0' && b <= '9')
+                    || b == '+' || b == '/') {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /** @return true when the ":" separating the value was found. */
+    boolean hasValue() {
+        scanTokens();
+        return mValueStart >= 0;
+    }
+
+    /**
+     * @return the offset in the source of the value, or -1 when the ":" separating it is
+     * in a folded part of the line (whose bytes were moved by unfolding).
+     */
+    long getValueOffset() {
+        scanTokens();
+        long colon = mBufferOffset + mValueStart - 1;
+        return colon < mFoldOffset ? colon + 1 : -1;
+    }
+
+    @NonNull
+    String getValue() {
+        scanTokens();
+        return decode(mValueStart, mLineEnd);
+    }
+
+    /**
+     * Same as {@link #getValue()}, but decodes the bytes of the value in the given charset,
+     * which must be compatible with US-ASCII, so that they are decoded only once.
+     * Meaningful only when the lexer is not transcoding.
+     */
+    @NonNull
+    String getValue(@NonNull Charset charset) {
+        scanTokens();
+        return CharsetCache.decode(mBuffer, mValueStart, mLineEnd - mValueStart, charset);
+    }
+
+    @NonNull
+    private String decode(int from, int to) {
+        return CharsetCache.decode(mBuffer, from, to - from, mCharset);
+    }
+
+    /**
+     * Same as {@link #decode(int, int)}, but returns the shared String of known names
+     * (e.g. "TEL", "ENCODING", "HOME") instead of allocating a new one.
+     */
+    @NonNull
+    private String decodeName(int from, int to) {
+        int symbol = VCardSymbol.lookupExact(mBuffer, from, to);
+        return symbol != VCardSymbol.NONE ? VCardSymbol.getName(symbol) : decode(from, to);
+    }
+
+    /**
+     * Encodes the chars of a reader. Used for charsets in which US-ASCII delimiters cannot
+     * be found byte by byte (encoding to UTF-8), and for sources which are already chars.
+     */
+    private static final class TranscodingInputStream extends InputStream {
+        private final Reader mReader;
+        private final CharsetEncoder mEncoder;
+        private final CharBuffer mChars = CharBuffer.allocate(DEFAULT_BUFFER_SIZE);
+        private final ByteBuffer mBytes;
+        private boolean mEndOfInput;
+
+        TranscodingInputStream(Reader reader, Charset charset) {
+            mReader = reader;
+            mEncoder = charset.newEncoder()
+                    .onMalformedInput(CodingErrorAction.REPLACE)
+                    .onUnmappableCharacter(CodingErrorAction.REPLACE);
+            mBytes = ByteBuffer.allocate((int) Math.ceil(DEFAULT_BUFFER_SIZE * mEncoder.maxBytesPerChar()));
+            mChars.flip();
+            mBytes.flip();
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] one = new byte[1];
+            return read(one, 0, 1) < 0 ? -1 : one[0] & 0xff;
+        }
+
+        @Override
+        public int read(@NonNull byte[] b, int off, int len) throws IOException {
+            while (!mBytes.hasRemaining()) {
+                if (mEndOfInput && !mChars.hasRemaining()) {
+                    return -1;
+                }
+                mChars.compact();
+                int read = mEndOfInput ? -1 : mReader.read(mChars);
+                mChars.flip();
+                if (read < 0) {
+                    mEndOfInput = true;
+                }
+                mBytes.clear();
+                CoderResult result = mEncoder.encode(mChars, mBytes, mEndOfInput);
+                if (mEndOfInput && result.isUnderflow()) {
+                    mEncoder.flush(mBytes);
+                }
+                mBytes.flip();
+            }
+            int count = Math.min(len, mBytes.remaining());
+            mBytes.get(b, off, count);
+            return count;
+        }
+
+        @Override
+        public void close() throws IOException {
+            mReader.close();
+        }
+    }
+}
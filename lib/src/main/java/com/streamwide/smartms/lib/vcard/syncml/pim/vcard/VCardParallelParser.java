@@ -0,0 +1,331 @@
+/*
+ *
+ * 	StreamWIDE (Team on The Run)
+ *
+ * @createdBy  AndroidTeam on Sun, 18 Oct 2026 11:58:22 +0100
+ * @copyright  Copyright (c) 2026 StreamWIDE UK Ltd (Team on the Run)
+ * @email      support@teamontherun.com
+ *
+ * 	© Copyright 2026 StreamWIDE UK Ltd (Team on the Run). StreamWIDE is the copyright holder
+ * 	of all code contained in this file. Do not redistribute or
+ *  	re-use without permission.
+ *
+ * @lastModifiedOn Sun, 18 Oct 2026 11:58:22 +0100
+ */
+
+package com.streamwide.smartms.lib.vcard.syncml.pim.vcard;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.streamwide.smartms.lib.vcard.syncml.pim.VDataBuilder;
+import com.streamwide.smartms.lib.vcard.syncml.pim.VNode;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Parses vCard records on several cores.
+ *
+ * A cheap pre-scan finds the byte range of each record ("BEGIN:VCARD" to "END:VCARD"),
+ * then batches of consecutive records are parsed in a {@link ForkJoinPool}, each batch
+ * with its own parser and {@link VDataBuilder}. The resulting {@link VNode}s are appended
+ * to the given builder in file order.
+ *
+ * By default, the builders of the batches have the configuration of the given builder (see
+ * {@link VDataBuilder#VDataBuilder(VDataBuilder)}), so that the result is the one of a
+ * sequential parse: its record filter, binary sink factory and lazy value source are called
+ * from several threads, and values are spilled to its file.
+ *
+ * The source must be available randomly, so only byte arrays and files are accepted.
+ */
+public class VCardParallelParser {
+
+    /** Creates the builders used for each batch of records. */
+    public interface BuilderFactory {
+        /**
+         * @param target The builder given to parse, to which the VNodes of the batch are
+         *               appended.
+         * @return a new builder. It is closed once its VNodes are appended, so its values must
+         *         not be spilled to its own file.
+         */
+        @NonNull VDataBuilder createBuilder(@NonNull VDataBuilder target);
+    }
+
+    private static final int MAX_RECORDS_PER_TASK = 256;
+
+    private final int mVersion;
+    private final int mNestCount;
+    private final ForkJoinPool mPool;
+    private BuilderFactory mBuilderFactory = VDataBuilder::new;
+    private @Nullable Collection<String> mPropertyFilter;
+
+    private volatile boolean mCanceled;
+
+    /**
+     * @param version {@link VCardParser#VERSION_VCARD21_INT} or {@link VCardParser#VERSION_VCARD30_INT}.
+     */
+    public VCardParallelParser(int version) {
+        this(version, null, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param version  {@link VCardParser#VERSION_VCARD21_INT} or {@link VCardParser#VERSION_VCARD30_INT}.
+     * @param detector Same as {@link VCardParserV21#VCardParserV21(VCardSourceDetector)}.
+     * @param pool     The pool running the parsing tasks.
+     */
+    public VCardParallelParser(int version, @Nullable VCardSourceDetector detector,
+                               @NonNull ForkJoinPool pool) {
+        mVersion = version;
+        mNestCount = VCardRecordScanner.getNestCount(detector);
+        mPool = pool;
+    }
+
+    /**
+     * Sets the factory of the builders used for each batch of records. By default,
+     * {@link VDataBuilder#VDataBuilder(VDataBuilder)} is used.
+     */
+    public void setBuilderFactory(@NonNull BuilderFactory builderFactory) {
+        mBuilderFactory = builderFactory;
+    }
+
+    /**
+     * Same as {@link VCardParserV21#setPropertyFilter(Collection)} for the parsers of the
+     * batches.
+     */
+    public void setPropertyFilter(@Nullable Collection<String> propertyNames) {
+        mPropertyFilter = propertyNames;
+    }
+
+    /**
+     * Parse the given data and append the resulting VNodes to the builder.
+     *
+     * @param charset The charset, which must be compatible with US-ASCII (not e.g. UTF-16).
+     * @return Return true for success, false when canceled.
+     * @throws VCardException when any record fails. In that case, nothing is appended.
+     */
+    public boolean parse(@NonNull final byte[] data, @NonNull String charset, @NonNull VDataBuilder builder)
+            throws IOException, VCardException {
+        return parse(new RangeSource() {
+            @Override
+            public InputStream open(long start, long end) {
+                return new ByteArrayInputStream(data, (int) start, (int) (end - start));
+            }
+        }, data.length, charset, builder);
+    }
+
+    /**
+     * Parse the given file and append the resulting VNodes to the builder.
+     * The file is read through memory mappings.
+     *
+     * @param charset The charset, which must be compatible with US-ASCII (not e.g. UTF-16).
+     * @return Return true for success, false when canceled.
+     * @throws VCardException when any record fails. In that case, nothing is appended.
+     */
+    public boolean parse(@NonNull File file, @NonNull String charset, @NonNull VDataBuilder builder)
+            throws IOException, VCardException {
+        try (FileInputStream fis = new FileInputStream(file)) {
+            return parse(fis.getChannel(), charset, builder);
+        }
+    }
+
+    /**
+     * Parse the given channel from its beginning and append the resulting VNodes to the builder.
+     * The channel is neither moved nor closed.
+     *
+     * @param charset The charset, which must be compatible with US-ASCII (not e.g. UTF-16).
+     * @return Return true for success, false when canceled.
+     * @throws VCardException when any record fails. In that case, nothing is appended.
+     */
+    public boolean parse(@NonNull final FileChannel channel, @NonNull String charset,
+                         @NonNull VDataBuilder builder) throws IOException, VCardException {
+        return parse(new RangeSource() {
+            @Override
+            public InputStream open(long start, long end) {
+                return new MappedFileInputStream(channel, start, end);
+            }
+        }, channel.size(), charset, builder);
+    }
+
+    /**
+     * Cancel parsing. Batches which have already started are completed, and only the records
+     * preceding the first batch which did not run are appended.
+     */
+    public void cancel() {
+        mCanceled = true;
+    }
+
+    private boolean parse(RangeSource source, long length, String charset, VDataBuilder builder)
+            throws IOException, VCardException {
+        mCanceled = false;
+        RecordRanges ranges = new RecordRanges();
+        try (InputStream is = source.open(0, length)) {
+            VCardLexer lexer = new VCardLexer(is, charset);
+            if (lexer.isTranscoding()) {
+                // The ranges would be offsets in the transcoded bytes, not in the source.
+                throw new IllegalArgumentException(
+                        "Charset not compatible with US-ASCII: " + charset);
+            }
+            VCardRecordScanner scanner = new VCardRecordScanner(lexer, mNestCount);
+            while (scanner.next()) {
+                if (mCanceled) {
+                    return false;
+                }
+                ranges.add(scanner.getRecordStart(), scanner.getRecordEnd());
+            }
+        }
+
+        builder.start();
+        if (ranges.mCount > 0) {
+            int batchSize = Math.max(1, Math.min(MAX_RECORDS_PER_TASK,
+                    ranges.mCount / (mPool.getParallelism() * 4)));
+            // The builder of each batch is in the slot of its first record.
+            VDataBuilder[] builders = new VDataBuilder[ranges.mCount];
+            ParseTask task = new ParseTask(source, charset, ranges, builder, builders, batchSize,
+                    0, ranges.mCount);
+            try {
+                mPool.invoke(task);
+
+                // The batches which did not run have no builder: stop at the first one, so that
+                // the appended records have no gap.
+                List<VNode> vNodeList = builder.getVNodeList();
+                for (int i = 0; i < ranges.mCount; i += task.batchLength(i)) {
+                    if (builders[i] == null) {
+                        break;
+                    }
+                    vNodeList.addAll(builders[i].getVNodeList());
+                }
+            } catch (TaskException e) {
+                // ForkJoinPool may wrap exceptions thrown by other workers once more.
+                Throwable cause = e.getCause();
+                while (cause instanceof TaskException) {
+                    cause = cause.getCause();
+                }
+                if (cause instanceof VCardException) {
+                    throw (VCardException) cause;
+                }
+                throw (IOException) cause;
+            } finally {
+                for (VDataBuilder batchBuilder : builders) {
+                    if (batchBuilder != null) {
+                        batchBuilder.close();
+                    }
+                }
+            }
+        }
+        builder.end();
+        return !mCanceled;
+    }
+
+    private interface RangeSource {
+        InputStream open(long start, long end) throws IOException;
+    }
+
+    private static final class RecordRanges {
+        long[] mStarts = new long[64];
+        long[] mEnds = new long[64];
+        int mCount;
+
+        void add(long start, long end) {
+            if (mCount == mStarts.length) {
+                mStarts = Arrays.copyOf(mStarts, mCount * 2);
+                mEnds = Arrays.copyOf(mEnds, mCount * 2);
+            }
+            mStarts[mCount] = start;
+            mEnds[mCount] = end;
+            mCount++;
+        }
+    }
+
+    /** Carries checked exceptions out of {@link ForkJoinPool#invoke}. */
+    private static final class TaskException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        TaskException(Exception cause) {
+            super(cause);
+        }
+    }
+
+    private final class ParseTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final transient RangeSource mSource;
+        private final String mCharset;
+        private final transient RecordRanges mRanges;
+        private final transient VDataBuilder mTarget;
+        private final transient VDataBuilder[] mBuilders;
+        private final int mBatchSize;
+        private final int mFrom;
+        private final int mTo;
+
+        ParseTask(RangeSource source, String charset, RecordRanges ranges, VDataBuilder target,
+                  VDataBuilder[] builders, int batchSize, int from, int to) {
+            mSource = source;
+            mCharset = charset;
+            mRanges = ranges;
+            mTarget = target;
+            mBuilders = builders;
+            mBatchSize = batchSize;
+            mFrom = from;
+            mTo = to;
+        }
+
+        /**
+         * @return the number of records of the batch starting at the given record, as split by
+         *         {@link #compute()}.
+         */
+        int batchLength(int start) {
+            int from = mFrom;
+            int to = mTo;
+            while (to - from > mBatchSize) {
+                int middle = (from + to) >>> 1;
+                if (start < middle) {
+                    to = middle;
+                } else {
+                    from = middle;
+                }
+            }
+            return to - start;
+        }
+
+        @Override
+        protected void compute() {
+            if (mTo - mFrom > mBatchSize) {
+                int middle = (mFrom + mTo) >>> 1;
+                invokeAll(new ParseTask(mSource, mCharset, mRanges, mTarget, mBuilders, mBatchSize,
+                                mFrom, middle),
+                        new ParseTask(mSource, mCharset, mRanges, mTarget, mBuilders, mBatchSize,
+                                middle, mTo));
+                return;
+            }
+            if (mCanceled) {
+                return;
+            }
+            // Records of a batch are contiguous except for blank lines, so one parser reads them all.
+            VCardParserV21 parser = mVersion == VCardParser.VERSION_VCARD30_INT
+                    ? new VCardParserV30() : new VCardParserV21();
+            parser.setPropertyFilter(mPropertyFilter);
+            // Set before parsing, so that parse() closes it whatever happens.
+            VDataBuilder builder = mBuilderFactory.createBuilder(mTarget);
+            mBuilders[mFrom] = builder;
+            long start = mRanges.mStarts[mFrom];
+            try (InputStream is = mSource.open(start, mRanges.mEnds[mTo - 1])) {
+                VCardLexer lexer = new VCardLexer(is, mCharset);
+                // Offsets of the source, e.g. for the lazy values of the builder.
+                lexer.setStartOffset(start, false);
+                parser.parse(lexer, builder, null);
+            } catch (IOException | VCardException e) {
+                throw new TaskException(e);
+            }
+        }
+    }
+}
@@ -18,9 +18,8 @@ package com.streamwide.smartms.lib.vcard.syncml.pim.vcard;
 
 import androidx.annotation.NonNull;
 
-import com.streamwide.smartms.lib.vcard.syncml.pim.VDataBuilder;
+import com.streamwide.smartms.lib.vcard.syncml.pim.VBuilder;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
 
 public class VCardParser {
@@ -35,77 +34,10 @@ public class VCardParser {
 
     public static final   int VERSION_VCARD30_INT = 2;
 
-    String mVersion = null;
-
-
     public VCardParser() {
         //Public Vcard Parser
     }
 
-    /**
-     * If version not given. Search from vcard string of the VERSION property.
-     * Then instance mParser to appropriate parser.
-     *
-     * @param vcardStr
-     *            the content of vcard data
-     */
-    private void judgeVersion(String vcardStr) {
-        if (mVersion == null) {// auto judge
-            int verIdx = vcardStr.indexOf("\nVERSION:");
-            if (verIdx == -1) // if not have VERSION, v2.1 default
-                mVersion = VERSION_VCARD21;
-            else {
-                String verStr = vcardStr.substring(verIdx, vcardStr.indexOf(
-                        '\n', verIdx + 1));
-                if (verStr.indexOf("2.1") > 0)
-                    mVersion = VERSION_VCARD21;
-                else if (verStr.indexOf("3.0") > 0)
-                    mVersion = VERSION_VCARD30;
-                else
-                    mVersion = VERSION_VCARD21;
-            }
-        }
-        if (mVersion.equals(VERSION_VCARD21))
-            mParser = new VCardParserV21();
-        if (mVersion.equals(VERSION_VCARD30))
-            mParser = new VCardParserV30();
-    }
-
-    /**
-     * To make sure the vcard string has proper wrap character
-     *
-     * @param vcardStr
-     *            the string to be checked
-     * @return string after verified
-     */
-    private String verifyVCard(String vcardStr) {
-        this.judgeVersion(vcardStr);
-        // -- indent line:
-        vcardStr = vcardStr.replaceAll("\r\n", "\n");
-        String[] strlist = vcardStr.split("\n");
-        StringBuilder v21str = new StringBuilder("");
-        for (int i = 0; i < strlist.length; i++) {
-            if (strlist[i].indexOf(':') < 0) {
-                if (strlist[i].length() == 0 && strlist[i + 1].indexOf(':') > 0)
-                    v21str.append(strlist[i]).append("\r\n");
-                else
-                    v21str.append(" ").append(strlist[i]).append("\r\n");
-            } else
-                v21str.append(strlist[i]).append("\r\n");
-        }
-        return v21str.toString();
-    }
-
-    /**
-     * Set current version
-     *
-     * @param version
-     *            the new version
-     */
-    private void setVersion(String version) {
-        this.mVersion = version;
-    }
-
     /**
      * Parse the given vcard string
      *
@@ -119,24 +51,16 @@ public class VCardParser {
      * @throws VCardException
      * @throws IOException
      */
-    public boolean parse(@NonNull String vcardStr, @NonNull String encoding, @NonNull VDataBuilder builder)
+    public boolean parse(@NonNull String vcardStr, @NonNull String encoding, @NonNull VBuilder builder)
             throws VCardException, IOException {
-
-        vcardStr = this.verifyVCard(vcardStr);
-
-        boolean isSuccess = mParser.parse(new ByteArrayInputStream(vcardStr
-                .getBytes(encoding)), encoding, builder);
-        if (!isSuccess) {
-            if (mVersion.equals(VERSION_VCARD21)) {
-
-
-                this.setVersion(VERSION_VCARD30);
-
-                return this.parse(vcardStr, builder);
-            }
-            throw new VCardException("parse failed.(even use 3.0 parser)");
+        // The version of each entry is read from its VERSION property, in a single pass.
+        if (mParser == null) {
+            mParser = new VCardVersionDispatcher();
+        } else {
+            mParser.reset();
         }
-        return true;
+        // Lines are given proper wrap characters while they are read, without copying the string.
+        return mParser.parse(new VCardLexer(new LineRepairReader(vcardStr), encoding), builder, null);
     }
 
     /**
@@ -150,7 +74,7 @@ public class VCardParser {
      * @throws VCardException
      * @throws IOException
      */
-    public boolean parse(@NonNull String vcardStr, @NonNull VDataBuilder builder)
+    public boolean parse(@NonNull String vcardStr, @NonNull VBuilder builder)
             throws VCardException, IOException {
         return parse(vcardStr, "US-ASCII", builder);
     }
@@ -0,0 +1,147 @@
+/*
+ *
+ * 	StreamWIDE (Team on The Run)
+ *
+ * @createdBy  AndroidTeam on Sun, 18 Oct 2026 21:02:47 +0100
+ * @copyright  Copyright (c) 2026 StreamWIDE UK Ltd (Team on the Run)
+ * @email      support@teamontherun.com
+ *
+ * 	© Copyright 2026 StreamWIDE UK Ltd (Team on the Run). StreamWIDE is the copyright holder
+ * 	of all code contained in this file. Do not redistribute or
+ *  	re-use without permission.
+ *
+ * @lastModifiedOn Sun, 18 Oct 2026 21:02:47 +0100
+ */
+
+package com.streamwide.smartms.lib.vcard.syncml.pim.vcard;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.streamwide.smartms.lib.vcard.syncml.pim.VBuilder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Parses many small sources (e.g. one contact per request) without setting up a parser for
+ * each of them. The configuration is immutable and shared, while each thread reuses its own
+ * parser and lexer, which are reset between sources.
+ *
+ * This class is thread-safe. Builders are not shared: each call is given its own, which may
+ * be reused after {@link com.streamwide.smartms.lib.vcard.syncml.pim.VDataBuilder#reset()}.
+ */
+public final class VCardParserFactory {
+
+    /** Detects the version of each entry from its VERSION property, as {@link VCardParser} does. */
+    public static final int VERSION_DETECT = 0;
+
+    private final int mVersion;
+    private final @Nullable List<String> mPropertyFilter;
+
+    private final ThreadLocal<ThreadState> mThreadStates = new ThreadLocal<ThreadState>() {
+        @Override
+        protected ThreadState initialValue() {
+            return new ThreadState(newParser());
+        }
+    };
+
+    /**
+     * @param version {@link #VERSION_DETECT}, {@link VCardParser#VERSION_VCARD21_INT} or
+     *                {@link VCardParser#VERSION_VCARD30_INT}.
+     */
+    public VCardParserFactory(int version) {
+        this(version, null);
+    }
+
+    /**
+     * @param propertyNames See {@link VCardParserV21#setPropertyFilter(Collection)}.
+     */
+    public VCardParserFactory(int version, @Nullable Collection<String> propertyNames) {
+        mVersion = version;
+        mPropertyFilter = propertyNames != null
+                ? Collections.unmodifiableList(new ArrayList<>(propertyNames)) : null;
+    }
+
+    /**
+     * @return a new parser with the configuration of this factory, not shared with any thread.
+     */
+    public @NonNull VCardParserV21 newParser() {
+        VCardParserV21 parser;
+        if (mVersion == VCardParser.VERSION_VCARD21_INT) {
+            parser = new VCardParserV21();
+        } else if (mVersion == VCardParser.VERSION_VCARD30_INT) {
+            parser = new VCardParserV30();
+        } else {
+            parser = new VCardVersionDispatcher();
+        }
+        parser.setPropertyFilter(mPropertyFilter);
+        return parser;
+    }
+
+    /**
+     * Same as {@link VCardParserV21#parse(InputStream, String, VBuilder)}, with the parser of
+     * the calling thread.
+     */
+    public boolean parse(@NonNull InputStream is, @NonNull String charset, @NonNull VBuilder builder)
+            throws IOException, VCardException {
+        ThreadState state = mThreadStates.get();
+        if (state.mBusy) {
+            // Called from a builder of this thread: the state is in use.
+            return newParser().parse(new VCardLexer(is, charset), builder, null);
+        }
+        if (state.mLexer == null) {
+            state.mLexer = new VCardLexer(is, charset);
+        } else {
+            state.mLexer.reset(is, charset);
+        }
+        return parse(state, builder);
+    }
+
+    /**
+     * Same as {@link VCardParser#parse(String, String, VBuilder)}, with the parser of the calling
+     * thread.
+     */
+    public boolean parse(@NonNull String vcardStr, @NonNull String encoding, @NonNull VBuilder builder)
+            throws IOException, VCardException {
+        ThreadState state = mThreadStates.get();
+        if (state.mBusy) {
+            // Called from a builder of this thread: the state is in use.
+            return newParser().parse(new VCardLexer(new LineRepairReader(vcardStr), encoding),
+                    builder, null);
+        }
+        if (state.mLexer == null) {
+            state.mLexer = new VCardLexer(new LineRepairReader(vcardStr), encoding);
+        } else {
+            state.mLexer.reset(new LineRepairReader(vcardStr), encoding);
+        }
+        return parse(state, builder);
+    }
+
+    private static boolean parse(ThreadState state, VBuilder builder)
+            throws IOException, VCardException {
+        state.mBusy = true;
+        try {
+            state.mParser.reset();
+            return state.mParser.parse(state.mLexer, builder, null);
+        } finally {
+            // The builder is not kept until the next call.
+            state.mParser.reset();
+            state.mBusy = false;
+        }
+    }
+
+    private static final class ThreadState {
+        final VCardParserV21 mParser;
+        VCardLexer mLexer;
+        boolean mBusy;
+
+        ThreadState(@NonNull VCardParserV21 parser) {
+            mParser = parser;
+        }
+    }
+}
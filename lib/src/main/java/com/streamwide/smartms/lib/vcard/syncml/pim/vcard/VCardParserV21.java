@@ -18,19 +18,27 @@ package com.streamwide.smartms.lib.vcard.syncml.pim.vcard;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
+import com.streamwide.smartms.lib.vcard.customcommons.Base64OutputStream;
 import com.streamwide.smartms.lib.vcard.logger.Logger;
 import com.streamwide.smartms.lib.vcard.syncml.pim.VBuilder;
-import com.streamwide.smartms.lib.vcard.syncml.pim.VDataBuilder;
 
-import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.io.Reader;
+import java.io.OutputStream;
+import java.io.SequenceInputStream;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Locale;
+import java.util.Set;
 
 /**
  * This class is used to parse vcard. Please refer to vCard Specification 2.1.
@@ -40,36 +48,8 @@ public class VCardParserV21 {
 
     public static final String DEFAULT_CHARSET = "UTF-8";
 
-    /** Store the known-type */
-    private static final HashSet<String> sKnownTypeSet = new HashSet<>(
-            Arrays.asList("DOM", "INTL", "POSTAL", "PARCEL", "HOME", "WORK",
-                    "PREF", "VOICE", "FAX", "MSG", "CELL", "PAGER", "BBS",
-                    "MODEM", "CAR", "ISDN", "VIDEO", "AOL", "APPLELINK",
-                    "ATTMAIL", "CIS", "EWORLD", "INTERNET", "IBMMAIL",
-                    "MCIMAIL", "POWERSHARE", "PRODIGY", "TLX", "X400", "GIF",
-                    "CGM", "WMF", "BMP", "MET", "PMB", "DIB", "PICT", "TIFF",
-                    "PDF", "PS", "JPEG", "QTIME", "MPEG", "MPEG2", "AVI",
-                    "WAVE", "AIFF", "PCM", "X509", "PGP"));
-
-    /** Store the known-value */
-    private static final HashSet<String> sKnownValueSet = new HashSet<>(
-            Arrays.asList("INLINE", "URL", "CONTENT-ID", "CID"));
-
-    /** Store the property names available in vCard 2.1 */
-    private static final HashSet<String> sAvailablePropertyNameV21 =
-            new HashSet<>(Arrays.asList(
-                    "BEGIN", "LOGO", "PHOTO", "LABEL", "FN", "TITLE", "SOUND",
-                    "VERSION", "TEL", "EMAIL", "TZ", "GEO", "NOTE", "URL",
-                    "BDAY", "ROLE", "REV", "UID", "KEY", "MAILER"));
-
-    // Though vCard 2.1 specification does not allow "B" encoding, some data may have it.
-    // We allow it for safety...
-    private static final HashSet<String> sAvailableEncodingV21 =
-            new HashSet<>(Arrays.asList(
-                    "7BIT", "8BIT", "QUOTED-PRINTABLE", "BASE64", "B"));
-
     // Used only for parsing END:VCARD.
-    private String mPreviousLine;
+    String mPreviousLine;
 
     /** The builder to build parsed data */
     protected @Nullable VBuilder mBuilder = null;
@@ -77,13 +57,26 @@ public class VCardParserV21 {
     /** The encoding type */
     protected @Nullable String mEncoding = null;
 
+    /** The {@link VCardSymbol} of mEncoding */
+    int mEncodingSymbol = VCardSymbol.NONE;
+
+    /** The {@link VCardSymbol} of the property name of the current line */
+    private int mPropertyNameSymbol = VCardSymbol.NONE;
+
+    // Reused to build values. Must not be kept across calls.
+    final StringBuilder mTextBuilder = new StringBuilder();
+
     protected final String sDefaultEncoding = "8BIT";
 
-    // Should not directly read a line from this. Use getLine() instead.
-    protected @Nullable BufferedReader mReader;
+    // Should not directly read a line from this. Use getLine() or readNonEmptyLine() instead.
+    @Nullable VCardLexer mLexer;
 
     private boolean mCanceled;
 
+    // State of parseNextVCard().
+    private boolean mFirstReading;
+    private boolean mFinished;
+
     // In some cases, vCard is nested. Currently, we only consider the most interior vCard data.
     // See v21_foma_1.vcf in test directory for more information.
     private int mNestCount;
@@ -92,16 +85,19 @@ public class VCardParserV21 {
     // emit a warning message.
     protected @NonNull HashSet<String> mWarningValueMap = new HashSet<>();
 
-    // Just for debugging
-    private long mTimeTotal;
-    private long mTimeStartRecord;
-    private long mTimeEndRecord;
-    private long mTimeParseItem1;
-    private long mTimeParseItem2;
-    private long mTimeParseItem3;
-    private long mTimeHandlePropertyValue1;
-    private long mTimeHandlePropertyValue2;
-    private long mTimeHandlePropertyValue3;
+    // Upper-cased names of the properties given to the builder, or null for all of them.
+    private @Nullable Set<String> mPropertyFilter;
+
+    private @NonNull ParseMetrics mMetrics = ParseMetrics.NONE;
+    // False with ParseMetrics.NONE, so that the clock is not read.
+    private boolean mMeasuring;
+    private long mStartNanos;
+    private long mStartOffset;
+
+    // Position after the last entry, -1 when unknown. See getCheckpoint().
+    private long mCheckpointOffset;
+    private boolean mCheckpointSkipLineFeed;
+    private long mRecordCount;
 
     /**
      * Create a new VCard parser.
@@ -122,12 +118,137 @@ public class VCardParserV21 {
      * vcard_file   = [wsls] vcard [wsls]
      */
     protected void parseVCardFile() throws IOException, VCardException {
-        boolean firstReading = true;
-        while (true) {
-            if (mCanceled || !parseOneVCard(firstReading)) {
-                break;
+        while (parseNextVCard()) {
+            // Keep on parsing until the end of the file.
+        }
+    }
+
+    /**
+     * Prepares {@link #parseNextVCard()} to read from the given lexer.
+     *
+     * @param checkpoint When not null, the lexer reads the source from the offset of
+     *                   the checkpoint.
+     */
+    void startParsing(@NonNull VCardLexer lexer, @Nullable VBuilder builder,
+                      @Nullable VCardCheckpoint checkpoint) {
+        mLexer = lexer;
+        mBuilder = builder;
+        mFinished = false;
+        if (checkpoint != null) {
+            if (!checkpoint.getVersion().equals(getVersion())) {
+                throw new IllegalArgumentException("Checkpoint of a vCard " + checkpoint.getVersion()
+                        + " parser given to a vCard " + getVersion() + " parser");
             }
-            firstReading = false;
+            lexer.setStartOffset(checkpoint.getOffset(), checkpoint.skipLineFeed());
+            mFirstReading = false;
+            mCheckpointOffset = checkpoint.getOffset();
+            mCheckpointSkipLineFeed = checkpoint.skipLineFeed();
+            mRecordCount = checkpoint.getRecordCount();
+        } else {
+            mFirstReading = true;
+            mCheckpointOffset = -1;
+            mRecordCount = 0;
+        }
+        mStartOffset = lexer.getPosition();
+        if (mMeasuring) {
+            mStartNanos = System.nanoTime();
+        }
+    }
+
+    /**
+     * @return the number of outer vCards wrapping the entries (0 in most cases).
+     */
+    int getNestCount() {
+        return mNestCount;
+    }
+
+    /**
+     * Returns the position just after the last vCard entry read, from which parsing can be
+     * resumed with the parse() methods taking a checkpoint. It may be called between entries
+     * of a {@link VCardReader}, or from {@link VBuilder#endRecord()}.
+     *
+     * @return null when no entry has been read yet, or when the charset is not compatible with
+     * US-ASCII (e.g. UTF-16), in which case offsets cannot be computed.
+     */
+    public @Nullable VCardCheckpoint getCheckpoint() {
+        if (mCheckpointOffset < 0) {
+            return null;
+        }
+        return new VCardCheckpoint(mCheckpointOffset, mCheckpointSkipLineFeed, mRecordCount,
+                getVersion());
+    }
+
+    /**
+     * Sets the listener receiving the measurements of the next parsings.
+     *
+     * @param metrics The listener, or null for {@link ParseMetrics#NONE}.
+     */
+    public void setParseMetrics(@Nullable ParseMetrics metrics) {
+        mMetrics = metrics != null ? metrics : ParseMetrics.NONE;
+        mMeasuring = mMetrics != ParseMetrics.NONE;
+    }
+
+    /**
+     * Clears the state left by the previous parsing (cancellation, warnings already logged,
+     * checkpoint, lexer and builder), so that this parser can be reused for another source.
+     * Its configuration (property filter, metrics listener, nesting) is kept.
+     */
+    public void reset() {
+        mLexer = null;
+        mBuilder = null;
+        mCanceled = false;
+        mFirstReading = false;
+        mFinished = false;
+        mPreviousLine = null;
+        mEncoding = null;
+        mEncodingSymbol = VCardSymbol.NONE;
+        mPropertyNameSymbol = VCardSymbol.NONE;
+        mTextBuilder.setLength(0);
+        mWarningValueMap.clear();
+        mCheckpointOffset = -1;
+        mCheckpointSkipLineFeed = false;
+        mRecordCount = 0;
+    }
+
+    /**
+     * Restricts the next parsings to the given properties, e.g. "TEL": the lines of the other
+     * ones, including their QUOTED-PRINTABLE and BASE64 continuation lines, are skipped
+     * without decoding them, and the builder receives no event for them.
+     * BEGIN, END and AGENT are always parsed.
+     *
+     * @param propertyNames The property names, compared case-insensitively, or null to parse
+     *                      every property.
+     */
+    public void setPropertyFilter(@Nullable Collection<String> propertyNames) {
+        if (propertyNames == null) {
+            mPropertyFilter = null;
+            return;
+        }
+        mPropertyFilter = new HashSet<>();
+        for (String name : propertyNames) {
+            mPropertyFilter.add(name.toUpperCase(Locale.ENGLISH));
+        }
+    }
+
+    /**
+     * Parses one vCard entry, so that callers can handle entries one by one.
+     *
+     * @return false when there is no more entry (or when parsing is canceled).
+     */
+    boolean parseNextVCard() throws IOException, VCardException {
+        if (mFinished) {
+            return false;
+        }
+        if (!mCanceled && parseOneVCard(mFirstReading)) {
+            mFirstReading = false;
+            if (mMeasuring) {
+                mMetrics.onRecord();
+            }
+            return true;
+        }
+        mFinished = true;
+        if (mMeasuring) {
+            mMetrics.onFinished(mLexer.getPosition() - mStartOffset, System.nanoTime() - mStartNanos);
         }
 
         if (mNestCount > 0) {
@@ -137,6 +258,7 @@ public class VCardParserV21 {
                 useCache = false;
             }
         }
+        return false;
     }
 
     protected @NonNull String getVersion() {
@@ -144,10 +266,11 @@ public class VCardParserV21 {
     }
 
     /**
+     * @param symbol The {@link VCardSymbol} of the property name.
      * @return true when the propertyName is a valid property name.
      */
-    protected boolean isValidPropertyName(@NonNull String propertyName) {
-        if (!(sAvailablePropertyNameV21.contains(propertyName.toUpperCase(Locale.ENGLISH)) ||
+    protected boolean isValidPropertyName(int symbol, @NonNull String propertyName) {
+        if (!(VCardSymbol.hasFlag(symbol, VCardSymbol.FLAG_PROPERTY_V21) ||
                 propertyName.startsWith("X-")) &&
                 !mWarningValueMap.contains(propertyName)) {
             mWarningValueMap.add(propertyName);
@@ -157,10 +280,11 @@ public class VCardParserV21 {
     }
 
     /**
+     * @param symbol The {@link VCardSymbol} of the encoding.
      * @return true when the encoding is a valid encoding.
      */
-    protected boolean isValidEncoding(@NonNull String encoding) {
-        return sAvailableEncodingV21.contains(encoding.toUpperCase(Locale.ENGLISH));
+    protected boolean isValidEncoding(int symbol) {
+        return VCardSymbol.hasFlag(symbol, VCardSymbol.FLAG_ENCODING_V21);
     }
 
     /**
@@ -168,22 +292,20 @@ public class VCardParserV21 {
      * @throws IOException
      */
     protected @Nullable String getLine() throws IOException {
-        return mReader.readLine();
+        return mLexer.next(false) ? mLexer.getLine() : null;
     }
 
     /**
-     * @return String with it's length > 0
+     * Moves the lexer to the next line which is not blank.
      * @throws IOException
      * @throws VCardException when the stream reached end of line
      */
-    protected @NonNull String getNonEmptyLine() throws IOException, VCardException {
-        String line;
+    protected void readNonEmptyLine() throws IOException, VCardException {
         while (true) {
-            line = getLine();
-            if (line == null) {
+            if (!mLexer.next(false)) {
                 throw new VCardException("Reached end of buffer.");
-            } else if (line.trim().length() > 0) {
-                return line;
+            } else if (!mLexer.isBlank()) {
+                return;
             }
         }
     }
@@ -211,17 +333,25 @@ public class VCardParserV21 {
         }
         long start;
         if (mBuilder != null) {
-            start = System.currentTimeMillis();
+            start = mMeasuring ? System.nanoTime() : 0;
             mBuilder.startRecord("VCARD");
-            mTimeStartRecord += System.currentTimeMillis() - start;
+            if (mMeasuring) {
+                mMetrics.onStage(ParseMetrics.STAGE_START_RECORD, System.nanoTime() - start);
+            }
         }
-        start = System.currentTimeMillis();
         parseItems();
         readEndVCard(true, false);
+        mRecordCount++;
+        if (!mLexer.isTranscoding()) {
+            mCheckpointOffset = mLexer.getPosition();
+            mCheckpointSkipLineFeed = mLexer.isLineFeedPending();
+        }
         if (mBuilder != null) {
-            start = System.currentTimeMillis();
+            start = mMeasuring ? System.nanoTime() : 0;
             mBuilder.endRecord();
-            mTimeEndRecord += System.currentTimeMillis() - start;
+            if (mMeasuring) {
+                mMetrics.onStage(ParseMetrics.STAGE_END_RECORD, System.nanoTime() - start);
+            }
         }
         return true;
     }
@@ -233,18 +363,14 @@ public class VCardParserV21 {
      */
     protected boolean readBeginVCard(boolean allowGarbage)
             throws IOException, VCardException {
-        String line;
         do {
             while (true) {
-                line = getLine();
-                if (line == null) {
+                if (!mLexer.next(false)) {
                     return false;
-                } else if (line.trim().length() > 0) {
+                } else if (!mLexer.isBlank()) {
                     break;
                 }
             }
-            String[] strArray = line.split(":", 2);
-            int length = strArray.length;
 
             // Though vCard 2.1/3.0 specification does not allow lower cases,
             // some data may have them, so we allow it (Actually, previous code
@@ -268,18 +394,16 @@ public class VCardParserV21 {
             // ... (Valid. Must parse this)
             // END:VCARD
             // INVALID_STRING (VCardException should be thrown)
-            if (length == 2 &&
-                    strArray[0].trim().equalsIgnoreCase("BEGIN") &&
-                    strArray[1].trim().equalsIgnoreCase("VCARD")) {
+            if (mLexer.matches("BEGIN", "VCARD")) {
                 return true;
             } else if (!allowGarbage) {
                 if (mNestCount > 0) {
-                    mPreviousLine = line;
+                    mPreviousLine = mLexer.getLine();
                     return false;
                 } else {
                     throw new VCardException(
                             "Expected String \"BEGIN:VCARD\" did not come "
-                                    + "(Instead, \"" + line + "\" came)");
+                                    + "(Instead, \"" + mLexer.getLine() + "\" came)");
                 }
             }
         } while(allowGarbage);
@@ -299,27 +423,27 @@ public class VCardParserV21 {
      */
     protected void readEndVCard(boolean useCache, boolean allowGarbage)
             throws IOException, VCardException {
-        String line;
         do {
+            boolean isEndVCard;
             if (useCache) {
                 // Though vCard specification does not allow lower cases,
                 // some data may have them, so we allow it.
-                line = mPreviousLine;
+                String[] strArray = mPreviousLine.split(":", 2);
+                isEndVCard = strArray.length == 2 &&
+                        strArray[0].trim().equalsIgnoreCase("END") &&
+                        strArray[1].trim().equalsIgnoreCase("VCARD");
             } else {
                 while (true) {
-                    line = getLine();
-                    if (line == null) {
+                    if (!mLexer.next(false)) {
                         throw new VCardException("Expected END:VCARD was not found.");
-                    } else if (line.trim().length() > 0) {
+                    } else if (!mLexer.isBlank()) {
                         break;
                     }
                 }
+                isEndVCard = mLexer.matches("END", "VCARD");
             }
 
-            String[] strArray = line.split(":", 2);
-            if (strArray.length == 2 &&
-                    strArray[0].trim().equalsIgnoreCase("END") &&
-                    strArray[1].trim().equalsIgnoreCase("VCARD")) {
+            if (isEndVCard) {
                 return;
             } else if (!allowGarbage) {
                 throw new VCardException("END:VCARD != \"" + mPreviousLine + "\"");
@@ -335,16 +459,11 @@ public class VCardParserV21 {
     protected void parseItems() throws IOException, VCardException {
         /* items *CRLF item / item */
         boolean ended = false;
-
-        if (mBuilder != null) {
-            mBuilder.startProperty();
-        }
-        ended = parseItem();
-        if (mBuilder != null && !ended) {
-            mBuilder.endProperty();
-        }
+        // See VBuilder#recordRejected().
+        boolean rejected = false;
 
         while (!ended) {
+            skipUnselectedItems(rejected);
             // follow VCARD ,it wont reach endProperty
             if (mBuilder != null) {
                 mBuilder.startProperty();
@@ -352,8 +471,68 @@ public class VCardParserV21 {
             ended = parseItem();
             if (mBuilder != null && !ended) {
                 mBuilder.endProperty();
+                rejected = rejected || mBuilder.recordRejected();
+            }
+        }
+    }
+
+    /**
+     * Skips the items whose property is not selected by {@link #setPropertyFilter(Collection)}.
+     *
+     * @param all true to skip all the items up to END, whatever their property.
+     */
+    private void skipUnselectedItems(boolean all) throws IOException, VCardException {
+        if (mPropertyFilter != null || all) {
+            while (skipUnselectedItem(all)) {
+                // Keep on skipping until a selected item.
+            }
+        }
+    }
+
+    /**
+     * Reads the next item and skips it, with its continuation lines, when its property is not
+     * selected. Otherwise, the item is pushed back to be read by {@link #parseItem()}.
+     *
+     * @param all true when only the properties which are always parsed are selected.
+     * @return true when the item was skipped.
+     */
+    boolean skipUnselectedItem(boolean all) throws IOException, VCardException {
+        readNonEmptyLine();
+        VCardLexer lexer = mLexer;
+        // Invalid lines are left to parseItem(), which reports them.
+        if (!lexer.hasPropertyName() || !lexer.hasValue()) {
+            lexer.pushBack();
+            return false;
+        }
+        int symbol = lexer.getPropertyNameSymbol();
+        if (symbol == VCardSymbol.BEGIN || symbol == VCardSymbol.END || symbol == VCardSymbol.AGENT
+                || !all && mPropertyFilter.contains(symbol != VCardSymbol.NONE ? VCardSymbol.getName(symbol)
+                : lexer.getPropertyName().toUpperCase(Locale.ENGLISH))) {
+            lexer.pushBack();
+            return false;
+        }
+        int encodingSymbol = VCardSymbol.NONE;
+        int paramCount = lexer.getParamCount();
+        for (int i = 0; i < paramCount; i++) {
+            if (lexer.getParamNameSymbol(i) == VCardSymbol.ENCODING) {
+                encodingSymbol = lexer.getParamValueSymbol(i);
+            }
+        }
+        if (encodingSymbol == VCardSymbol.ENCODING_QUOTED_PRINTABLE) {
+            // Same lines as getQuotedPrintable(String).
+            while (lexer.endsWith((byte) '=')) {
+                if (!lexer.next(false)) {
+                    throw new VCardException(
+                            "File ended during parsing quoted-printable String");
+                }
             }
+        } else if ((encodingSymbol == VCardSymbol.ENCODING_BASE64
+                || encodingSymbol == VCardSymbol.ENCODING_B)
+                && symbol != VCardSymbol.ADR && symbol != VCardSymbol.ORG && symbol != VCardSymbol.N) {
+            // Same lines as handlePropertyValue(String, String).
+            skipBase64();
         }
+        return true;
     }
 
     /**
@@ -365,43 +544,57 @@ public class VCardParserV21 {
      */
     protected boolean parseItem() throws IOException, VCardException {
         mEncoding = sDefaultEncoding;
+        mEncodingSymbol = VCardSymbol.ENCODING_8BIT;
 
-        String line = getNonEmptyLine();
-        long start = System.currentTimeMillis();
+        readNonEmptyLine();
+        long start = mMeasuring ? System.nanoTime() : 0;
 
-        String[] propertyNameAndValue = separateLineAndHandleGroup(line);
-        if (propertyNameAndValue == null) {
+        String propertyValue = separateLineAndHandleGroup();
+        if (propertyValue == null) {
             return true;
         }
-        if (propertyNameAndValue.length != 2) {
-            throw new VCardException("Invalid line \"" + line + "\"");
+        int symbol = mPropertyNameSymbol;
+        String propertyName;
+        if (symbol != VCardSymbol.NONE) {
+            propertyName = VCardSymbol.getName(symbol);
+        } else {
+            propertyName = mLexer.getPropertyName().toUpperCase(Locale.ENGLISH);
+            if (!propertyName.startsWith("X-")) {
+                // Non-ASCII letters such as dotless i may be upper cased into a known name.
+                symbol = VCardSymbol.lookupExact(propertyName);
+            }
+        }
+        if (mMeasuring) {
+            long now = System.nanoTime();
+            mMetrics.onStage(ParseMetrics.STAGE_SEPARATE_LINE, now - start);
+            start = now;
         }
-        String propertyName = propertyNameAndValue[0].toUpperCase(Locale.ENGLISH);
-        String propertyValue = propertyNameAndValue[1];
 
-        mTimeParseItem1 += System.currentTimeMillis() - start;
-
-        if (propertyName.equals("ADR") ||
-                propertyName.equals("ORG") ||
-                propertyName.equals("N")) {
-            start = System.currentTimeMillis();
+        if (symbol == VCardSymbol.ADR ||
+                symbol == VCardSymbol.ORG ||
+                symbol == VCardSymbol.N) {
             handleMultiplePropertyValue(propertyName, propertyValue);
-            mTimeParseItem3 += System.currentTimeMillis() - start;
+            if (mMeasuring) {
+                mMetrics.onStage(ParseMetrics.STAGE_MULTIPLE_VALUE, System.nanoTime() - start);
+                mMetrics.onProperty(propertyName);
+            }
             return false;
-        } else if (propertyName.equals("AGENT")) {
+        } else if (symbol == VCardSymbol.AGENT) {
             handleAgent(propertyValue);
             return false;
-        } else if (isValidPropertyName(propertyName)) {
-            if (propertyName.equals("BEGIN")) {
+        } else if (isValidPropertyName(symbol, propertyName)) {
+            if (symbol == VCardSymbol.BEGIN) {
                 if (propertyValue.equals("VCARD")) {
                     throw new VCardNestedException("This vCard has nested vCard data in it.");
                 } else {
                     throw new VCardException("Unknown BEGIN type: " + propertyValue);
                 }
             }
-            start = System.currentTimeMillis();
             handlePropertyValue(propertyName, propertyValue);
-            mTimeParseItem2 += System.currentTimeMillis() - start;
+            if (mMeasuring) {
+                mMetrics.onStage(ParseMetrics.STAGE_SINGLE_VALUE, System.nanoTime() - start);
+                mMetrics.onProperty(propertyName);
+            }
             return false;
         }
 
@@ -409,86 +602,44 @@ public class VCardParserV21 {
                 propertyName + "\"");
     }
 
-    private static final int STATE_GROUP_OR_PROPNAME = 0;
-    private static  final int STATE_PARAMS = 1;
-    // vCard 3.1 specification allows double-quoted param-value, while vCard 2.1 does not.
-    // This is just for safety.
-    private static final int STATE_PARAMS_IN_DQUOTE = 2;
-
-    protected @Nullable String[] separateLineAndHandleGroup(@NonNull String line) throws VCardException {
-        int length = line.length();
-        int state = STATE_GROUP_OR_PROPNAME;
-        int nameIndex = 0;
-
-        String[] propertyNameAndValue = new String[2];
-
-        for (int i = 0; i < length; i++) {
-            char ch = line.charAt(i);
-            switch (state) {
-                case STATE_GROUP_OR_PROPNAME:
-                    if (ch == ':') {
-                        String propertyName = line.substring(nameIndex, i);
-                        if (propertyName.equalsIgnoreCase("END")) {
-                            mPreviousLine = line;
-                            return null;
-                        }
-                        if (mBuilder != null) {
-                            mBuilder.propertyName(propertyName);
-                        }
-                        propertyNameAndValue[0] = propertyName;
-                        if (i < length - 1) {
-                            propertyNameAndValue[1] = line.substring(i + 1);
-                        } else {
-                            propertyNameAndValue[1] = "";
-                        }
-                        return propertyNameAndValue;
-                    } else if (ch == '.') {
-                        String groupName = line.substring(nameIndex, i);
-                        if (mBuilder != null) {
-                            mBuilder.propertyGroup(groupName);
-                        }
-                        nameIndex = i + 1;
-                    } else if (ch == ';') {
-                        String propertyName = line.substring(nameIndex, i);
-                        if (propertyName.equalsIgnoreCase("END")) {
-                            mPreviousLine = line;
-                            return null;
-                        }
-                        if (mBuilder != null) {
-                            mBuilder.propertyName(propertyName);
-                        }
-                        propertyNameAndValue[0] = propertyName;
-                        nameIndex = i + 1;
-                        state = STATE_PARAMS;
-                    }
-                    break;
-                case STATE_PARAMS:
-                    if (ch == '"') {
-                        state = STATE_PARAMS_IN_DQUOTE;
-                    } else if (ch == ';') {
-                        handleParams(line.substring(nameIndex, i));
-                        nameIndex = i + 1;
-                    } else if (ch == ':') {
-                        handleParams(line.substring(nameIndex, i));
-                        if (i < length - 1) {
-                            propertyNameAndValue[1] = line.substring(i + 1);
-                        } else {
-                            propertyNameAndValue[1] = "";
-                        }
-                        return propertyNameAndValue;
-                    }
-                    break;
-                case STATE_PARAMS_IN_DQUOTE:
-                    if (ch == '"') {
-                        state = STATE_PARAMS;
-                    }
-                    break;
-
-                    default:
+    /**
+     * Handles groups, property name and params of the current line of the lexer.
+     *
+     * @return the (still encoded) property value, or null when the line is "END".
+     */
+    protected @Nullable String separateLineAndHandleGroup() throws VCardException {
+        VCardLexer lexer = mLexer;
+        int groupCount = lexer.getGroupCount();
+        for (int i = 0; i < groupCount; i++) {
+            if (mBuilder != null) {
+                mBuilder.propertyGroup(lexer.getGroup(i));
             }
         }
+        if (!lexer.hasPropertyName()) {
+            throw new VCardException("Invalid line: \"" + lexer.getLine() + "\"");
+        }
+        mPropertyNameSymbol = lexer.getPropertyNameSymbol();
+        if (mPropertyNameSymbol == VCardSymbol.END) {
+            mPreviousLine = lexer.getLine();
+            return null;
+        }
 
-        throw new VCardException("Invalid line: \"" + line + "\"");
+        if (mBuilder != null) {
+            mBuilder.propertyName(lexer.getPropertyName());
+        }
+        // vCard 3.1 specification allows double-quoted param-value, while vCard 2.1 does not.
+        // The lexer skips ';' and ':' inside double quotes just for safety.
+        int paramCount = lexer.getParamCount();
+        for (int i = 0; i < paramCount; i++) {
+            handleParams(i);
+        }
+        if (!lexer.hasValue()) {
+            throw new VCardException("Invalid line: \"" + lexer.getLine() + "\"");
+        }
+        // Byte offsets of a transcoding lexer do not belong to the source charset.
+        Charset valueCharset = mBuilder != null && !lexer.isTranscoding()
+                ? mBuilder.propertyValueCharset(lexer.getCharset()) : null;
+        return valueCharset != null ? lexer.getValue(valueCharset) : lexer.getValue();
     }
 
 
@@ -503,29 +654,38 @@ public class VCardParserV21 {
      *             / "LANGUAGE" [ws] "=" [ws] langval
      *             / "X-" word [ws] "=" [ws] word
      *             / knowntype
+     *
+     * @param index The index of the param in the current line of the lexer.
      */
-    protected void handleParams(@NonNull String params) throws VCardException {
-        String[] strArray = params.split("=", 2);
-        if (strArray.length == 2) {
-            String paramName = strArray[0].trim();
-            String paramValue = strArray[1].trim();
-            if (paramName.equals("TYPE")) {
-                handleType(paramValue);
-            } else if (paramName.equals("VALUE")) {
-                handleValue(paramValue);
-            } else if (paramName.equals("ENCODING")) {
-                handleEncoding(paramValue);
-            } else if (paramName.equals("CHARSET")) {
-                handleCharset(paramValue);
-            } else if (paramName.equals("LANGUAGE")) {
-                handleLanguage(paramValue);
-            } else if (paramName.startsWith("X-")) {
-                handleAnyParam(paramName, paramValue);
-            } else {
-                throw new VCardException("Unknown type \"" + paramName + "\"");
-            }
-        } else {
-            handleType(strArray[0]);
+    protected void handleParams(int index) throws VCardException {
+        VCardLexer lexer = mLexer;
+        if (!lexer.paramHasValue(index)) {
+            handleType(lexer.getParam(index));
+            return;
+        }
+        switch (lexer.getParamNameSymbol(index)) {
+            case VCardSymbol.TYPE:
+                handleType(lexer.getParamValue(index, true));
+                break;
+            case VCardSymbol.VALUE:
+                handleValue(lexer.getParamValue(index, true));
+                break;
+            case VCardSymbol.ENCODING:
+                handleEncoding(lexer.getParamValue(index, true));
+                break;
+            case VCardSymbol.CHARSET:
+                handleCharset(lexer.getParamValue(index, true));
+                break;
+            case VCardSymbol.LANGUAGE:
+                handleLanguage(lexer.getParamValue(index, true));
+                break;
+            default:
+                String paramName = lexer.getParamName(index, true);
+                if (paramName.startsWith("X-")) {
+                    handleAnyParam(paramName, lexer.getParamValue(index, true));
+                } else {
+                    throw new VCardException("Unknown type \"" + paramName + "\"");
+                }
         }
     }
 
@@ -534,7 +694,8 @@ public class VCardParserV21 {
      */
     protected void handleType(@NonNull String ptypeval) {
         String upperTypeValue = ptypeval;
-        if (!(sKnownTypeSet.contains(upperTypeValue) || upperTypeValue.startsWith("X-")) &&
+        if (!(VCardSymbol.hasFlag(VCardSymbol.lookupExact(upperTypeValue), VCardSymbol.FLAG_TYPE) ||
+                upperTypeValue.startsWith("X-")) &&
                 !mWarningValueMap.contains(ptypeval)) {
             mWarningValueMap.add(ptypeval);
             Logger.error(LOG_TAG, "Type unsupported by vCard 2.1: " + ptypeval);
@@ -549,7 +710,7 @@ public class VCardParserV21 {
      * pvalueval = "INLINE" / "URL" / "CONTENT-ID" / "CID" / "X-" word
      */
     protected void handleValue(@NonNull String pvalueval) throws VCardException {
-        if (sKnownValueSet.contains(pvalueval.toUpperCase(Locale.ENGLISH)) ||
+        if (VCardSymbol.hasFlag(VCardSymbol.lookup(pvalueval), VCardSymbol.FLAG_VALUE) ||
                 pvalueval.startsWith("X-")) {
             if (mBuilder != null) {
                 mBuilder.propertyParamType("VALUE");
@@ -564,13 +725,15 @@ public class VCardParserV21 {
      * pencodingval = "7BIT" / "8BIT" / "QUOTED-PRINTABLE" / "BASE64" / "X-" word
      */
     protected void handleEncoding(@NonNull String pencodingval) throws VCardException {
-        if (isValidEncoding(pencodingval) ||
+        int symbol = VCardSymbol.lookup(pencodingval);
+        if (isValidEncoding(symbol) ||
                 pencodingval.startsWith("X-")) {
             if (mBuilder != null) {
                 mBuilder.propertyParamType("ENCODING");
                 mBuilder.propertyParamValue(pencodingval);
             }
             mEncoding = pencodingval;
+            mEncodingSymbol = symbol;
         } else {
             throw new VCardException("Unknown encoding \"" + pencodingval + "\"");
         }
@@ -634,48 +797,52 @@ public class VCardParserV21 {
     protected void handlePropertyValue(
             @NonNull String propertyName, @NonNull String propertyValue) throws
             IOException, VCardException {
-        if (mEncoding.equalsIgnoreCase("QUOTED-PRINTABLE")) {
-            long start = System.currentTimeMillis();
+        int encodingSymbol = mEncodingSymbol;
+        long start = mMeasuring ? System.nanoTime() : 0;
+        if (encodingSymbol == VCardSymbol.ENCODING_QUOTED_PRINTABLE) {
             String result = getQuotedPrintable(propertyValue);
             if (mBuilder != null) {
-                ArrayList<String> v = new ArrayList<>();
-                v.add(result);
-                mBuilder.propertyValues(v);
+                mBuilder.propertyValues(singleValue(result));
             }
-            mTimeHandlePropertyValue2 += System.currentTimeMillis() - start;
-        } else if (mEncoding.equalsIgnoreCase("BASE64") ||
-                mEncoding.equalsIgnoreCase("B")) {
-            long start = System.currentTimeMillis();
-            // It is very rare, but some BASE64 data may be so big that
-            // OutOfMemoryError occurs. To ignore such cases, use try-catch.
-            try {
-                String result = getBase64(propertyValue);
-                if (mBuilder != null) {
-                    ArrayList<String> v = new ArrayList<>();
-                    v.add(result);
-                    mBuilder.propertyValues(v);
-                }
-            } catch (OutOfMemoryError error) {
-                Logger.error(LOG_TAG, "OutOfMemoryError happened during parsing BASE64 data!");
-                if (mBuilder != null) {
-                    mBuilder.propertyValues(null);
+        } else if (encodingSymbol == VCardSymbol.ENCODING_BASE64 ||
+                encodingSymbol == VCardSymbol.ENCODING_B) {
+            long valueOffset = mBuilder != null && !mLexer.isTranscoding() ? mLexer.getValueOffset() : -1;
+            OutputStream sink = null;
+            if (valueOffset >= 0 && mBuilder.propertyBinaryDeferred()) {
+                mBuilder.propertyBinaryRange(valueOffset, skipBase64());
+            } else if (mBuilder != null && (sink = mBuilder.propertyBinarySink()) != null) {
+                decodeBase64(propertyValue, sink);
+                mBuilder.propertyValues(new ArrayList<>(0));
+            } else {
+                // It is very rare, but some BASE64 data may be so big that
+                // OutOfMemoryError occurs. To ignore such cases, use try-catch.
+                try {
+                    String result = getBase64(propertyValue);
+                    if (mBuilder != null) {
+                        mBuilder.propertyValues(singleValue(result));
+                    }
+                } catch (OutOfMemoryError error) {
+                    Logger.error(LOG_TAG, "OutOfMemoryError happened during parsing BASE64 data!");
+                    if (mBuilder != null) {
+                        mBuilder.propertyValues(null);
+                    }
                 }
             }
-            mTimeHandlePropertyValue3 += System.currentTimeMillis() - start;
         } else {
-            if (!(mEncoding == null || mEncoding.equalsIgnoreCase("7BIT")
-                    || mEncoding.equalsIgnoreCase("8BIT")
-                    || mEncoding.toUpperCase(Locale.ENGLISH).startsWith("X-"))) {
+            if (!(mEncoding == null || encodingSymbol == VCardSymbol.ENCODING_7BIT
+                    || encodingSymbol == VCardSymbol.ENCODING_8BIT
+                    || mEncoding.regionMatches(true, 0, "X-", 0, 2))) {
                 Logger.error(LOG_TAG, "The encoding unsupported by vCard spec: \"" + mEncoding + "\".");
             }
 
-            long start = System.currentTimeMillis();
             if (mBuilder != null) {
-                ArrayList<String> v = new ArrayList<>();
-                v.add(maybeUnescapeText(propertyValue));
-                mBuilder.propertyValues(v);
+                mBuilder.propertyValues(singleValue(maybeUnescapeText(propertyValue)));
             }
-            mTimeHandlePropertyValue1 += System.currentTimeMillis() - start;
+        }
+        if (mMeasuring) {
+            mMetrics.onDecode(encodingSymbol != VCardSymbol.NONE
+                            ? VCardSymbol.getName(encodingSymbol) : mEncoding.toUpperCase(Locale.ENGLISH),
+                    System.nanoTime() - start);
         }
     }
 
@@ -725,21 +892,54 @@ public class VCardParserV21 {
         StringBuilder builder = new StringBuilder();
         builder.append(firstString);
 
-        while (true) {
-            String line = getLine();
-            if (line == null) {
-                throw new VCardException(
-                        "File ended during parsing BASE64 binary");
-            }
-            if (line.length() == 0) {
-                break;
-            }
-            builder.append(line);
+        while (nextBase64Line()) {
+            builder.append(mLexer.getLine());
         }
 
         return builder.toString();
     }
 
+    /**
+     * Same as {@link #getBase64(String)}, but the value is decoded into the sink line by line
+     * instead of being returned.
+     */
+    private void decodeBase64(@NonNull String firstString, @NonNull OutputStream sink)
+            throws IOException, VCardException {
+        Base64OutputStream decoder = new Base64OutputStream(sink, false);
+        decoder.write(firstString.getBytes(StandardCharsets.US_ASCII));
+        while (nextBase64Line()) {
+            mLexer.writeLine(decoder);
+        }
+        decoder.eof();
+        decoder.flush();
+    }
+
+    /**
+     * Same as {@link #getBase64(String)}, but the lines are only skipped.
+     *
+     * @return the offset in the source following the last line of the value.
+     */
+    private long skipBase64() throws IOException, VCardException {
+        long end = mLexer.getPosition();
+        while (nextBase64Line()) {
+            end = mLexer.getPosition();
+        }
+        return end;
+    }
+
+    /**
+     * Moves the lexer to the next line of the current BASE64 value.
+     *
+     * @return false when the value has no more line.
+     */
+    boolean nextBase64Line() throws IOException, VCardException {
+        if (!mLexer.next(false)) {
+            throw new VCardException(
+                    "File ended during parsing BASE64 binary");
+        }
+        return mLexer.length() != 0;
+    }
+
     /**
      * Mainly for "ADR", "ORG", and "N"
      * We do not care the number of strnosemi here.
@@ -763,13 +963,17 @@ public class VCardParserV21 {
     protected void handleMultiplePropertyValue(
             @NonNull String propertyName, @NonNull String propertyValue) throws IOException, VCardException {
         // vCard 2.1 does not allow QUOTED-PRINTABLE here, but some data have it.
-        if (mEncoding.equalsIgnoreCase("QUOTED-PRINTABLE")) {
+        if (mEncodingSymbol == VCardSymbol.ENCODING_QUOTED_PRINTABLE) {
             propertyValue = getQuotedPrintable(propertyValue);
         }
 
         if (mBuilder != null) {
-            StringBuilder builder = new StringBuilder();
+            // Components without escaped chars are taken as substrings; the builder is only
+            // used from the first escaped char of a component.
+            StringBuilder builder = mTextBuilder;
             ArrayList<String> list = new ArrayList<>();
+            boolean useBuilder = false;
+            int componentStart = 0;
             int length = propertyValue.length();
             for (int i = 0; i < length; i++) {
                 char ch = propertyValue.charAt(i);
@@ -777,19 +981,25 @@ public class VCardParserV21 {
                     char nextCh = propertyValue.charAt(i + 1);
                     String unescapedString = maybeUnescape(nextCh);
                     if (unescapedString != null) {
+                        if (!useBuilder) {
+                            builder.setLength(0);
+                            builder.append(propertyValue, componentStart, i);
+                            useBuilder = true;
+                        }
                         builder.append(unescapedString);
                         i++;
-                    } else {
+                    } else if (useBuilder) {
                         builder.append(ch);
                     }
                 } else if (ch == ';') {
-                    list.add(builder.toString());
-                    builder = new StringBuilder();
-                } else {
+                    list.add(useBuilder ? builder.toString() : propertyValue.substring(componentStart, i));
+                    useBuilder = false;
+                    componentStart = i + 1;
+                } else if (useBuilder) {
                     builder.append(ch);
                 }
             }
-            list.add(builder.toString());
+            list.add(useBuilder ? builder.toString() : propertyValue.substring(componentStart));
             mBuilder.propertyValues(list);
         }
     }
@@ -823,13 +1033,27 @@ public class VCardParserV21 {
         // Original vCard 2.1 specification does not allow transformation
         // "\:" -> ":", "\," -> ",", and "\\" -> "\", but previous implementation of
         // this class allowed them, so keep it as is.
-        if (ch == '\\' || ch == ';' || ch == ':' || ch == ',') {
-            return String.valueOf(ch);
-        } else {
-            return null;
+        switch (ch) {
+            case '\\':
+                return "\\";
+            case ';':
+                return ";";
+            case ':':
+                return ":";
+            case ',':
+                return ",";
+            default:
+                return null;
         }
     }
 
+    // A new list for each property: builders may keep it. See VBuilder#propertyValues(List).
+    private static @NonNull List<String> singleValue(@NonNull String value) {
+        ArrayList<String> list = new ArrayList<>(1);
+        list.add(value);
+        return list;
+    }
+
     /**
      * Parse the given stream and constructs VCardDataBuilder object.
      * Note that vCard 2.1 specification allows "CHARSET" parameter, and some career sets
@@ -856,13 +1080,163 @@ public class VCardParserV21 {
      * @return Return true for success, otherwise false.
      * @throws IOException
      */
-    public boolean parse(@NonNull InputStream is, @NonNull String charset, @Nullable VDataBuilder builder)
+    public boolean parse(@NonNull InputStream is, @NonNull String charset, @Nullable VBuilder builder)
             throws IOException, VCardException {
-        mReader = new CustomBufferedReader(new InputStreamReader(is, charset));
+        return parse(new VCardLexer(is, charset), builder, null);
+    }
 
-        mBuilder = builder;
+    /**
+     * Resume parsing the given stream from a checkpoint.
+     *
+     * @param is
+     *            The source to parse, from its beginning. Bytes before the offset of the
+     *            checkpoint are skipped.
+     * @param checkpoint
+     *            A checkpoint obtained from {@link #getCheckpoint()} while parsing the same source,
+     *            or null to parse from the beginning.
+     * @see #parse(InputStream, String, VBuilder)
+     */
+    public boolean parse(@NonNull InputStream is, @NonNull String charset, @Nullable VBuilder builder,
+                         @Nullable VCardCheckpoint checkpoint) throws IOException, VCardException {
+        if (checkpoint != null) {
+            skipFully(is, checkpoint.getOffset());
+        }
+        return parse(new VCardLexer(is, charset), builder, checkpoint);
+    }
+
+    static void skipFully(@NonNull InputStream is, long count) throws IOException {
+        while (count > 0) {
+            long skipped = is.skip(count);
+            if (skipped <= 0) {
+                // skip() may not detect the end of the stream.
+                if (is.read() < 0) {
+                    throw new EOFException("The source is shorter than the checkpoint offset");
+                }
+                skipped = 1;
+            }
+            count -= skipped;
+        }
+    }
+
+    public boolean parse(@NonNull InputStream is, @Nullable VBuilder builder) throws IOException, VCardException {
+        return parse(is, DEFAULT_CHARSET, builder);
+    }
+
+    /**
+     * Parse the given stream in the charset estimated by {@link VCardSourceDetector} from its
+     * first records, in one call: the sample given to the detector is read once from the
+     * stream, and parsed again from memory before the rest of the stream. The rules of the
+     * detected source (e.g. FOMA) are applied to this parser.
+     *
+     * @param defaultCharset
+     *            The charset used when the source does not tell its charset.
+     * @see VCardSourceDetector#detect(InputStream, int, int)
+     */
+    public boolean parseDetectingSource(@NonNull InputStream is, @NonNull String defaultCharset,
+                                        @Nullable VBuilder builder) throws IOException, VCardException {
+        byte[] sample = VCardSourceDetector.readSample(is, VCardSourceDetector.DEFAULT_SAMPLE_SIZE);
+        VCardSourceDetector detector = VCardSourceDetector.detect(sample,
+                sample.length == VCardSourceDetector.DEFAULT_SAMPLE_SIZE,
+                VCardSourceDetector.DEFAULT_SAMPLE_RECORDS);
+        mNestCount = Math.max(mNestCount, VCardRecordScanner.getNestCount(detector));
+        return parse(new SequenceInputStream(new ByteArrayInputStream(sample), is),
+                detector.getEstimatedCharset(defaultCharset), builder);
+    }
+
+    /**
+     * Same as {@link #parseDetectingSource(InputStream, String, VBuilder)}, but the
+     * beginning of the file is read by the detector, and the file is then parsed from its
+     * start through memory mappings.
+     */
+    public boolean parseDetectingSource(@NonNull File file, @NonNull String defaultCharset,
+                                        @Nullable VBuilder builder) throws IOException, VCardException {
+        VCardSourceDetector detector;
+        try (FileInputStream fis = new FileInputStream(file)) {
+            detector = VCardSourceDetector.detect(fis, VCardSourceDetector.DEFAULT_SAMPLE_SIZE,
+                    VCardSourceDetector.DEFAULT_SAMPLE_RECORDS);
+        }
+        mNestCount = Math.max(mNestCount, VCardRecordScanner.getNestCount(detector));
+        return parse(file, detector.getEstimatedCharset(defaultCharset), builder);
+    }
+
+    /**
+     * Parse the given file through memory mappings instead of an {@link InputStream}.
+     * This is intended for very large exports (files larger than 2 GB are supported).
+     *
+     * @param file
+     *            The file to parse.
+     * @param charset
+     *            The charset.
+     * @param builder
+     *            The v builder which used to construct data.
+     * @return Return true for success, otherwise false.
+     * @throws IOException
+     */
+    public boolean parse(@NonNull File file, @NonNull String charset, @Nullable VBuilder builder)
+            throws IOException, VCardException {
+        return parse(file, charset, builder, null);
+    }
+
+    /**
+     * Resume parsing the given file from a checkpoint.
+     *
+     * @param checkpoint
+     *            A checkpoint obtained from {@link #getCheckpoint()} while parsing the same file,
+     *            or null to parse from the beginning.
+     * @see #parse(File, String, VBuilder)
+     */
+    public boolean parse(@NonNull File file, @NonNull String charset, @Nullable VBuilder builder,
+                         @Nullable VCardCheckpoint checkpoint) throws IOException, VCardException {
+        try (FileInputStream fis = new FileInputStream(file)) {
+            return parse(fis.getChannel(), charset, builder, checkpoint);
+        }
+    }
+
+    /**
+     * Parse the given channel, from its current position to its end, through memory mappings.
+     * The channel is neither moved nor closed.
+     *
+     * @param channel
+     *            The source to parse.
+     * @param charset
+     *            The charset.
+     * @param builder
+     *            The v builder which used to construct data.
+     * @return Return true for success, otherwise false.
+     * @throws IOException
+     */
+    public boolean parse(@NonNull FileChannel channel, @NonNull String charset, @Nullable VBuilder builder)
+            throws IOException, VCardException {
+        try (MappedFileInputStream is = new MappedFileInputStream(channel, channel.position(), channel.size())) {
+            VCardLexer lexer = new VCardLexer(is, charset);
+            // Checkpoint offsets are positions in the channel.
+            lexer.setStartOffset(channel.position(), false);
+            return parse(lexer, builder, null);
+        }
+    }
+
+    /**
+     * Resume parsing the given channel from a checkpoint. The channel is neither moved nor closed.
+     *
+     * @param checkpoint
+     *            A checkpoint obtained from {@link #getCheckpoint()} while parsing the same channel,
+     *            or null to parse from the current position of the channel.
+     * @see #parse(FileChannel, String, VBuilder)
+     */
+    public boolean parse(@NonNull FileChannel channel, @NonNull String charset, @Nullable VBuilder builder,
+                         @Nullable VCardCheckpoint checkpoint) throws IOException, VCardException {
+        if (checkpoint == null) {
+            return parse(channel, charset, builder);
+        }
+        try (MappedFileInputStream is = new MappedFileInputStream(channel, checkpoint.getOffset(), channel.size())) {
+            return parse(new VCardLexer(is, charset), builder, checkpoint);
+        }
+    }
+
+    boolean parse(@NonNull VCardLexer lexer, @Nullable VBuilder builder,
+                          @Nullable VCardCheckpoint checkpoint) throws IOException, VCardException {
+        startParsing(lexer, builder, checkpoint);
 
-        long start = System.currentTimeMillis();
         if (mBuilder != null) {
             mBuilder.start();
         }
@@ -870,15 +1244,10 @@ public class VCardParserV21 {
         if (mBuilder != null) {
             mBuilder.end();
         }
-        mTimeTotal += System.currentTimeMillis() - start;
 
         return true;
     }
 
-    public boolean parse(@NonNull InputStream is, @Nullable VDataBuilder builder) throws IOException, VCardException {
-        return parse(is, DEFAULT_CHARSET, builder);
-    }
-
     /**
      * Cancel parsing.
      * Actual cancel is done after the end of the current one vcard entry parsing.
@@ -895,23 +1264,21 @@ public class VCardParserV21 {
     public void parse(@NonNull InputStream is, @NonNull String charset, @Nullable VBuilder builder, boolean canceled)
             throws IOException, VCardException {
         mCanceled = canceled;
-        parse(is, charset, (VDataBuilder) builder);
+        // The builder may be a VCardSourceDetector.
+        parse(new VCardLexer(is, charset), builder, null);
     }
 
+    /**
+     * Logs the measurements when a {@link ParseStatistics} was given to
+     * {@link #setParseMetrics(ParseMetrics)}.
+     *
+     * @deprecated Use {@link ParseStatistics} directly.
+     */
+    @Deprecated
     public void showDebugInfo() {
-        Logger.debug(LOG_TAG, "total parsing time:  " + mTimeTotal + " ms");
-        if (mReader instanceof CustomBufferedReader) {
-            Logger.debug(LOG_TAG, "total readLine time: " +
-                    ((CustomBufferedReader)mReader).getTotalmillisecond() + " ms");
+        if (mMetrics instanceof ParseStatistics) {
+            ((ParseStatistics) mMetrics).log();
         }
-        Logger.debug(LOG_TAG, "mTimeStartRecord: " + mTimeStartRecord + " ms");
-        Logger.debug(LOG_TAG, "mTimeEndRecord: " + mTimeEndRecord + " ms");
-        Logger.debug(LOG_TAG, "mTimeParseItem1: " + mTimeParseItem1 + " ms");
-        Logger.debug(LOG_TAG, "mTimeParseItem2: " + mTimeParseItem2 + " ms");
-        Logger.debug(LOG_TAG, "mTimeParseItem3: " + mTimeParseItem3 + " ms");
-        Logger.debug(LOG_TAG, "mTimeHandlePropertyValue1: " + mTimeHandlePropertyValue1 + " ms");
-        Logger.debug(LOG_TAG, "mTimeHandlePropertyValue2: " + mTimeHandlePropertyValue2 + " ms");
-        Logger.debug(LOG_TAG, "mTimeHandlePropertyValue3: " + mTimeHandlePropertyValue3 + " ms");
     }
 
     private boolean isLetter(char ch)
@@ -919,24 +1286,3 @@ public class VCardParserV21 {
         return ((ch >= 'a' && ch <= 'z') || (ch >= 'A' && ch <= 'Z'));
     }
 }
-
-class CustomBufferedReader extends BufferedReader {
-    private long mTime;
-
-    public CustomBufferedReader(Reader in) {
-        super(in);
-    }
-
-    @Override
-    public String readLine() throws IOException {
-        long start = System.currentTimeMillis();
-        String ret = super.readLine();
-        long end = System.currentTimeMillis();
-        mTime += end - start;
-        return ret;
-    }
-
-    public long getTotalmillisecond() {
-        return mTime;
-    }
-}
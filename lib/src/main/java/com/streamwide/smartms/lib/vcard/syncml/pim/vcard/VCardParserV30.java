@@ -22,9 +22,6 @@ import androidx.annotation.Nullable;
 import com.streamwide.smartms.lib.vcard.logger.Logger;
 
 import java.io.IOException;
-import java.util.Arrays;
-import java.util.HashSet;
-import java.util.Locale;
 
 /**
  * This class is used to parse vcard3.0. <br>
@@ -33,23 +30,7 @@ import java.util.Locale;
 public class VCardParserV30 extends VCardParserV21 {
     private static final String LOG_TAG = "VCardParser_V30";
 
-    private static final HashSet<String> acceptablePropsWithParam = new HashSet<>(
-            Arrays.asList(
-                    "BEGIN", "LOGO", "PHOTO", "LABEL", "FN", "TITLE", "SOUND",
-                    "VERSION", "TEL", "EMAIL", "TZ", "GEO", "NOTE", "URL",
-                    "BDAY", "ROLE", "REV", "UID", "KEY", "MAILER", // 2.1
-                    "NAME", "PROFILE", "SOURCE", "NICKNAME", "CLASS",
-                    "SORT-STRING", "CATEGORIES", "PRODID")); // 3.0
-
-    // Although "7bit" and "BASE64" is not allowed in vCard 3.0, we allow it for safety.
-    private static final HashSet<String> sAcceptableEncodingV30 = new HashSet<>(
-            Arrays.asList("7BIT", "8BIT", "BASE64", "B"));
-
-    // Although RFC 2426 specifies some property must not have parameters, we allow it,
-    // since there may be some careers which violates the RFC...
-    private static final HashSet<String> acceptablePropsWithoutParam = new HashSet<>();
-
-    private String mPreviousLine;
+    // Property names and encodings acceptable in vCard 3.0 are flagged in VCardSymbol.
 
     @Override
     @NonNull
@@ -58,9 +39,8 @@ public class VCardParserV30 extends VCardParserV21 {
     }
 
     @Override
-    protected boolean isValidPropertyName(@NonNull String propertyName) {
-        if (!(acceptablePropsWithParam.contains(propertyName) ||
-                acceptablePropsWithoutParam.contains(propertyName) ||
+    protected boolean isValidPropertyName(int symbol, @NonNull String propertyName) {
+        if (!(VCardSymbol.hasFlag(symbol, VCardSymbol.FLAG_PROPERTY_V30) ||
                 propertyName.startsWith("X-")) &&
                 !mWarningValueMap.contains(propertyName)) {
             mWarningValueMap.add(propertyName);
@@ -70,87 +50,39 @@ public class VCardParserV30 extends VCardParserV21 {
     }
 
     @Override
-    protected boolean isValidEncoding(@NonNull String encoding) {
-        return sAcceptableEncodingV30.contains(encoding.toUpperCase(Locale.ENGLISH));
-    }
-
-    @Override
-    @Nullable
-    protected String getLine() throws IOException {
-        if (mPreviousLine != null) {
-            String ret = mPreviousLine;
-            mPreviousLine = null;
-            return ret;
-        } else {
-            return mReader.readLine();
-        }
+    protected boolean isValidEncoding(int symbol) {
+        return VCardSymbol.hasFlag(symbol, VCardSymbol.FLAG_ENCODING_V30);
     }
 
     /**
      * vCard 3.0 requires that the line with space at the beginning of the line
      * must be combined with previous line.
+     *
+     * See Section 5.8.1 of RFC 2425 (MIME-DIR document).
+     * Following is the excerpts from it.
+     *
+     * DESCRIPTION:This is a long description that exists on a long line.
+     *
+     * Can be represented as:
+     *
+     * DESCRIPTION:This is a long description
+     *  that exists on a long line.
+     *
+     * It could also be represented as:
+     *
+     * DESCRIPTION:This is a long descrip
+     *  tion that exists o
+     *  n a long line.
      */
     @Override
-    @NonNull
-    protected String getNonEmptyLine() throws IOException, VCardException {
-        String line;
-        StringBuilder builder = null;
+    protected void readNonEmptyLine() throws IOException, VCardException {
         while (true) {
-            line = mReader.readLine();
-            if (line == null) {
-                if (builder != null) {
-                    return builder.toString();
-                } else if (mPreviousLine != null) {
-                    String ret = mPreviousLine;
-                    mPreviousLine = null;
-                    return ret;
-                }
+            if (!mLexer.next(true)) {
                 throw new VCardException("Reached end of buffer.");
-            } else if (line.length() == 0) {
-                if (builder != null) {
-                    return builder.toString();
-                } else if (mPreviousLine != null) {
-                    String ret = mPreviousLine;
-                    mPreviousLine = null;
-                    return ret;
-                }
-            } else if (line.charAt(0) == ' ' || line.charAt(0) == '\t') {
-                if (builder != null) {
-                    // See Section 5.8.1 of RFC 2425 (MIME-DIR document).
-                    // Following is the excerpts from it.
-                    //
-                    // DESCRIPTION:This is a long description that exists on a long line.
-                    //
-                    // Can be represented as:
-                    //
-                    // DESCRIPTION:This is a long description
-                    //  that exists on a long line.
-                    //
-                    // It could also be represented as:
-                    //
-                    // DESCRIPTION:This is a long descrip
-                    //  tion that exists o
-                    //  n a long line.
-                    builder.append(line.substring(1));
-                } else if (mPreviousLine != null) {
-                    builder = new StringBuilder();
-                    builder.append(mPreviousLine);
-                    mPreviousLine = null;
-                    builder.append(line.substring(1));
-                } else {
-                    throw new VCardException("Space exists at the beginning of the line");
-                }
-            } else {
-                if (mPreviousLine == null) {
-                    mPreviousLine = line;
-                    if (builder != null) {
-                        return builder.toString();
-                    }
-                } else {
-                    String ret = mPreviousLine;
-                    mPreviousLine = line;
-                    return ret;
-                }
+            } else if (mLexer.startsWithFoldingWhitespace()) {
+                throw new VCardException("Space exists at the beginning of the line");
+            } else if (mLexer.length() > 0) {
+                return;
             }
         }
     }
@@ -177,18 +109,17 @@ public class VCardParserV30 extends VCardParserV21 {
      * vCard 3.0 allows iana-token as paramType, while vCard 2.1 does not.
      */
     @Override
-    protected void handleParams(@NonNull String params) throws VCardException {
+    protected void handleParams(int index) throws VCardException {
         try {
-            super.handleParams(params);
+            super.handleParams(index);
         } catch (VCardException e) {
             // maybe IANA type
-            String[] strArray = params.split("=", 2);
-            if (strArray.length == 2) {
-                handleAnyParam(strArray[0], strArray[1]);
+            if (mLexer.paramHasValue(index)) {
+                handleAnyParam(mLexer.getParamName(index, false), mLexer.getParamValue(index, false));
             } else {
                 // Must not come here in the current implementation.
                 throw new VCardException(
-                        "Unknown params value: " + params);
+                        "Unknown params value: " + mLexer.getParam(index));
             }
         }
     }
@@ -212,15 +143,33 @@ public class VCardParserV30 extends VCardParserV21 {
      */
     @Override
     protected void handleType(@NonNull String ptypevalues) {
-        String[] ptypeArray = ptypevalues.split(",");
         mBuilder.propertyParamType("TYPE");
-        for (String value : ptypeArray) {
-            int length = value.length();
-            if (length >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
-                mBuilder.propertyParamValue(value.substring(1, value.length() - 1));
-            } else {
-                mBuilder.propertyParamValue(value);
+        // Same as ptypevalues.split(","), without the array: trailing empty values are dropped.
+        int length = ptypevalues.length();
+        if (ptypevalues.indexOf(',') < 0) {
+            handleTypeValue(ptypevalues);
+            return;
+        }
+        while (length > 0 && ptypevalues.charAt(length - 1) == ',') {
+            length--;
+        }
+        int start = 0;
+        while (start < length) {
+            int end = ptypevalues.indexOf(',', start);
+            if (end < 0 || end > length) {
+                end = length;
             }
+            handleTypeValue(ptypevalues.substring(start, end));
+            start = end + 1;
+        }
+    }
+
+    private void handleTypeValue(String value) {
+        int length = value.length();
+        if (length >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+            mBuilder.propertyParamValue(value.substring(1, value.length() - 1));
+        } else {
+            mBuilder.propertyParamValue(value);
         }
     }
 
@@ -249,26 +198,18 @@ public class VCardParserV30 extends VCardParserV21 {
      * It only requires that data should be MIME-encoded.
      */
     @Override
-    protected @NonNull String getBase64(@NonNull String firstString) throws IOException, VCardException {
-        StringBuilder builder = new StringBuilder();
-        builder.append(firstString);
-
-        while (true) {
-            String line = getLine();
-            if (line == null) {
-                throw new VCardException(
-                        "File ended during parsing BASE64 binary");
-            }
-            if (line.length() == 0) {
-                break;
-            } else if (!line.startsWith(" ") && !line.startsWith("\t")) {
-                mPreviousLine = line;
-                break;
-            }
-            builder.append(line);
+    boolean nextBase64Line() throws IOException, VCardException {
+        if (!mLexer.next(false)) {
+            throw new VCardException(
+                    "File ended during parsing BASE64 binary");
         }
-
-        return builder.toString();
+        if (mLexer.length() == 0) {
+            return false;
+        } else if (!mLexer.startsWithFoldingWhitespace()) {
+            mLexer.pushBack();
+            return false;
+        }
+        return true;
     }
 
     /**
@@ -281,9 +222,15 @@ public class VCardParserV30 extends VCardParserV21 {
     @Override
     @NonNull
     protected String maybeUnescapeText(@NonNull String text) {
-        StringBuilder builder = new StringBuilder();
+        int i = text.indexOf('\\');
+        if (i < 0) {
+            return text;
+        }
+        StringBuilder builder = mTextBuilder;
+        builder.setLength(0);
+        builder.append(text, 0, i);
         int length = text.length();
-        for (int i = 0; i < length; i++) {
+        for (; i < length; i++) {
             char ch = text.charAt(i);
             if (ch == '\\' && i < length - 1) {
                 char next_ch = text.charAt(++i);
@@ -0,0 +1,255 @@
+/*
+ *
+ * 	StreamWIDE (Team on The Run)
+ *
+ * @createdBy  AndroidTeam on Sun, 18 Oct 2026 13:05:16 +0100
+ * @copyright  Copyright (c) 2026 StreamWIDE UK Ltd (Team on the Run)
+ * @email      support@teamontherun.com
+ *
+ * 	© Copyright 2026 StreamWIDE UK Ltd (Team on the Run). StreamWIDE is the copyright holder
+ * 	of all code contained in this file. Do not redistribute or
+ *  	re-use without permission.
+ *
+ * @lastModifiedOn Sun, 18 Oct 2026 13:05:16 +0100
+ */
+
+package com.streamwide.smartms.lib.vcard.syncml.pim.vcard;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.RequiresApi;
+
+import com.streamwide.smartms.lib.vcard.logger.Logger;
+import com.streamwide.smartms.lib.vcard.syncml.pim.VNode;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Publishes the vCard entries of a stream with backpressure.
+ *
+ * Entries are read by a {@link VCardReader} only when the subscriber requests them, so at most
+ * one entry is held in memory whatever the speed of the subscriber. All the signals are sent
+ * from the given executor.
+ *
+ * As the stream can be read only once, only one subscriber is accepted. The stream is closed
+ * when the publication completes, fails or is canceled.
+ *
+ * @param <T> The type of the published items.
+ */
+@RequiresApi(30)
+public class VCardPublisher<T> implements Flow.Publisher<T> {
+    private static final String LOG_TAG = VCardPublisher.class.getSimpleName();
+
+    /** Converts the entries before they are published. */
+    public interface Mapper<T> {
+        /**
+         * @return the item to publish, or null to skip the entry.
+         */
+        @Nullable T map(@NonNull VNode node);
+    }
+
+    private final InputStream mInputStream;
+    private final String mCharset;
+    private final int mVersion;
+    private final Executor mExecutor;
+    private final Mapper<T> mMapper;
+    private final AtomicBoolean mSubscribed = new AtomicBoolean();
+
+    /**
+     * @param is       The source to read.
+     * @param charset  The charset.
+     * @param version  {@link VCardParser#VERSION_VCARD21_INT} or {@link VCardParser#VERSION_VCARD30_INT}.
+     * @param executor The executor reading the source and sending the signals.
+     * @param mapper   The conversion applied to each entry.
+     */
+    public VCardPublisher(@NonNull InputStream is, @NonNull String charset, int version,
+                          @NonNull Executor executor, @NonNull Mapper<T> mapper) {
+        mInputStream = is;
+        mCharset = charset;
+        mVersion = version;
+        mExecutor = executor;
+        mMapper = mapper;
+    }
+
+    /**
+     * @return a publisher of the VNodes of the given stream, running on
+     * {@link ForkJoinPool#commonPool()}.
+     */
+    public static @NonNull VCardPublisher<VNode> ofVNodes(@NonNull InputStream is,
+                                                          @NonNull String charset, int version) {
+        return new VCardPublisher<>(is, charset, version, ForkJoinPool.commonPool(),
+                node -> node);
+    }
+
+    /**
+     * @return a publisher of the contacts of the given stream, running on
+     * {@link ForkJoinPool#commonPool()}.
+     * @see ContactStruct#constructContactFromVNode(VNode, int)
+     */
+    public static @NonNull VCardPublisher<ContactStruct> ofContacts(@NonNull InputStream is,
+                                                                    @NonNull String charset,
+                                                                    int version, int nameOrderType) {
+        return new VCardPublisher<>(is, charset, version, ForkJoinPool.commonPool(),
+                node -> ContactStruct.constructContactFromVNode(node, nameOrderType));
+    }
+
+    @Override
+    public void subscribe(@NonNull Flow.Subscriber<? super T> subscriber) {
+        if (!mSubscribed.compareAndSet(false, true)) {
+            mExecutor.execute(() -> {
+                subscriber.onSubscribe(new Flow.Subscription() {
+                    @Override
+                    public void request(long n) {
+                    }
+
+                    @Override
+                    public void cancel() {
+                    }
+                });
+                subscriber.onError(new IllegalStateException("Only one subscriber is accepted."));
+            });
+            return;
+        }
+        new VCardSubscription(subscriber).schedule();
+    }
+
+    private final class VCardSubscription implements Flow.Subscription, Runnable {
+        private final Flow.Subscriber<? super T> mSubscriber;
+        private final AtomicLong mRequested = new AtomicLong();
+        // Number of pending runs, so only one thread drains at a time.
+        private final AtomicInteger mWip = new AtomicInteger();
+        private volatile boolean mCanceled;
+        private volatile Throwable mPendingError;
+
+        // Only touched by the draining thread.
+        private boolean mStarted;
+        private boolean mDone;
+        private VCardReader mReader;
+
+        VCardSubscription(Flow.Subscriber<? super T> subscriber) {
+            mSubscriber = subscriber;
+        }
+
+        void schedule() {
+            if (mWip.getAndIncrement() == 0) {
+                mExecutor.execute(this);
+            }
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                mPendingError = new IllegalArgumentException("Non-positive request: " + n);
+            } else {
+                long current;
+                do {
+                    current = mRequested.get();
+                    if (current == Long.MAX_VALUE) {
+                        break;
+                    }
+                } while (!mRequested.compareAndSet(current, current + n < 0 ? Long.MAX_VALUE : current + n));
+            }
+            schedule();
+        }
+
+        @Override
+        public void cancel() {
+            mCanceled = true;
+            schedule();
+        }
+
+        @Override
+        public void run() {
+            int missed = 1;
+            do {
+                try {
+                    if (!mStarted) {
+                        mStarted = true;
+                        mSubscriber.onSubscribe(this);
+                    }
+                    drain();
+                } catch (Throwable e) {
+                    // Thrown by the subscriber: the subscription is over, and the loop goes on
+                    // so that the pending runs are accounted for.
+                    onSubscriberFailure(e);
+                }
+                missed = mWip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private void drain() {
+            while (!mDone) {
+                if (mCanceled) {
+                    terminate();
+                    return;
+                }
+                Throwable error = mPendingError;
+                if (error != null) {
+                    fail(error);
+                    return;
+                }
+                long requested = mRequested.get();
+                if (requested == 0) {
+                    return;
+                }
+                VNode node;
+                T item;
+                try {
+                    if (mReader == null) {
+                        mReader = new VCardReader(mInputStream, mCharset, mVersion);
+                    }
+                    node = mReader.next();
+                    item = node != null ? mMapper.map(node) : null;
+                } catch (IOException | VCardException | RuntimeException e) {
+                    fail(e);
+                    return;
+                }
+                if (node == null) {
+                    terminate();
+                    mSubscriber.onComplete();
+                    return;
+                }
+                if (item != null) {
+                    if (requested != Long.MAX_VALUE) {
+                        mRequested.decrementAndGet();
+                    }
+                    mSubscriber.onNext(item);
+                }
+            }
+        }
+
+        private void onSubscriberFailure(Throwable error) {
+            if (!mDone) {
+                terminate();
+                try {
+                    mSubscriber.onError(error);
+                    return;
+                } catch (Throwable e) {
+                    error = e;
+                }
+            }
+            Logger.error(LOG_TAG, "Failed to signal the subscriber", error);
+        }
+
+        private void fail(Throwable error) {
+            terminate();
+            mSubscriber.onError(error);
+        }
+
+        private void terminate() {
+            mDone = true;
+            try {
+                mInputStream.close();
+            } catch (IOException e) {
+                Logger.error(LOG_TAG, "Failed to close the stream", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,317 @@
+/*
+ *
+ * 	StreamWIDE (Team on The Run)
+ *
+ * @createdBy  AndroidTeam on Sun, 18 Oct 2026 15:20:48 +0100
+ * @copyright  Copyright (c) 2026 StreamWIDE UK Ltd (Team on the Run)
+ * @email      support@teamontherun.com
+ *
+ * 	© Copyright 2026 StreamWIDE UK Ltd (Team on the Run). StreamWIDE is the copyright holder
+ * 	of all code contained in this file. Do not redistribute or
+ *  	re-use without permission.
+ *
+ * @lastModifiedOn Sun, 18 Oct 2026 15:20:48 +0100
+ */
+
+package com.streamwide.smartms.lib.vcard.syncml.pim.vcard;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.streamwide.smartms.lib.vcard.syncml.pim.VBuilder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Non-blocking parser fed with chunks of data as they arrive, e.g. from NIO channels.
+ *
+ * Bytes are buffered until a whole vCard entry ("BEGIN:VCARD" to "END:VCARD") is available,
+ * then the entry is parsed at once and the builder is driven as with
+ * {@link VCardParserV21#parse(InputStream, String, com.streamwide.smartms.lib.vcard.syncml.pim.VBuilder)}.
+ * Since an entry is never parsed before it is complete, folded lines, quoted-printable
+ * soft line breaks and multi-line BASE64 values may be split across chunks anywhere.
+ * The lexer keeps its state between entries, so a CRLF split across chunks is handled too.
+ * As with {@link VCardRecordScanner}, the "END:VCARD" lines of nested vCards do not end an
+ * entry, nor do folded lines and quoted-printable soft line breaks looking like one.
+ *
+ * Only the bytes of entries not parsed yet are kept in memory. The charset must be
+ * compatible with US-ASCII (e.g. UTF-8, ISO-8859-1, Shift_JIS).
+ *
+ * A push parser must not be used anymore after one of its methods has thrown an exception.
+ */
+public class VCardPushParser {
+    private final VCardParserV21 mParser;
+    private final VBuilder mBuilder;
+    private final ChunkInputStream mInput = new ChunkInputStream();
+
+    // Scan of the lines received but not parsed yet, looking for "END:VCARD".
+    private final int mNestCount;
+    private int mScanLineStart;
+    private int mScanPosition;
+    private boolean mScanAfterCr;
+    // Number of vCards begun and not ended yet.
+    private int mScanDepth;
+    private boolean mScanRecordBegun;
+    private boolean mScanSoftLineBreak;
+    // Indexes in the buffer of the terminators of the "END:VCARD" lines not parsed yet.
+    private int[] mEndLines = new int[8];
+    private int mEndLineCount;
+
+    private boolean mFinished;
+
+    /**
+     * @param parser  The parser to use. It must not be used by anything else while this
+     *                push parser is used.
+     * @param charset The charset.
+     * @param builder The builder, which may be null.
+     */
+    public VCardPushParser(@NonNull VCardParserV21 parser, @NonNull String charset,
+                           @Nullable VBuilder builder) throws IOException {
+        VCardLexer lexer = new VCardLexer(mInput, charset);
+        if (lexer.isTranscoding()) {
+            throw new IllegalArgumentException(
+                    "Charset not compatible with US-ASCII: " + charset);
+        }
+        mParser = parser;
+        mBuilder = builder;
+        mNestCount = parser.getNestCount();
+        parser.startParsing(lexer, builder, null);
+        if (builder != null) {
+            builder.start();
+        }
+    }
+
+    /**
+     * Consumes all the remaining bytes of the chunk, and parses the entries completed by it.
+     */
+    public void feed(@NonNull ByteBuffer chunk) throws IOException, VCardException {
+        if (mInput.mEnded) {
+            throw new IllegalStateException("endOfInput() was already called");
+        }
+        if (mFinished) {
+            // Nothing else will be parsed.
+            chunk.position(chunk.limit());
+            return;
+        }
+        mInput.append(chunk);
+        scanLines();
+        while (mEndLineCount > 0 && isReady(mEndLines[0])) {
+            parseNext();
+        }
+    }
+
+    /**
+     * Parses the remaining data, then ends the builder.
+     */
+    public void endOfInput() throws IOException, VCardException {
+        if (mInput.mEnded) {
+            return;
+        }
+        mInput.mEnded = true;
+        while (!mFinished) {
+            parseNext();
+        }
+        if (mBuilder != null) {
+            mBuilder.end();
+        }
+    }
+
+    /**
+     * @see VCardParserV21#getCheckpoint()
+     */
+    public @Nullable VCardCheckpoint getCheckpoint() {
+        return mParser.getCheckpoint();
+    }
+
+    /**
+     * Stops parsing after the current entry. See {@link VCardParserV21#cancel()}.
+     */
+    public void cancel() {
+        mParser.cancel();
+    }
+
+    private void parseNext() throws IOException, VCardException {
+        if (mFinished || !mParser.parseNextVCard()) {
+            mFinished = true;
+        }
+        // parseNextVCard() reads up to the next "END:VCARD" line, included.
+        if (mEndLineCount > 0) {
+            mEndLineCount--;
+            System.arraycopy(mEndLines, 1, mEndLines, 0, mEndLineCount);
+        }
+        if (mFinished) {
+            // Nothing else will be read.
+            mEndLineCount = 0;
+        }
+    }
+
+    /**
+     * @return true when the bytes following the line terminator at the given index are
+     * available, so that the lexer does not need more data to read the whole line,
+     * including the look-ahead for folded lines.
+     */
+    private boolean isReady(int terminator) {
+        byte[] data = mInput.mData;
+        int limit = mInput.mLimit;
+        int next = terminator + 1;
+        if (data[terminator] == '\r') {
+            if (next >= limit) {
+                return false;
+            }
+            if (data[next] == '\n') {
+                next++;
+            }
+        }
+        return next < limit;
+    }
+
+    private void scanLines() {
+        byte[] data = mInput.mData;
+        int limit = mInput.mLimit;
+        for (int i = mScanPosition; i < limit; i++) {
+            byte b = data[i];
+            if (b == '\n' && mScanAfterCr && i == mScanLineStart) {
+                // The LF of CRLF.
+                mScanLineStart = i + 1;
+                mScanAfterCr = false;
+            } else if (b == '\n' || b == '\r') {
+                scanLine(data, mScanLineStart, i);
+                mScanLineStart = i + 1;
+                mScanAfterCr = b == '\r';
+            }
+        }
+        mScanPosition = limit;
+    }
+
+    /**
+     * Records the line when it ends an entry. Lines which might not end one for the parser
+     * are not recorded: the entry is then parsed with the following one, or by
+     * {@link #endOfInput()}, but the parser never reads beyond the bytes received.
+     */
+    private void scanLine(byte[] data, int start, int terminator) {
+        if (mScanSoftLineBreak) {
+            // Read by getQuotedPrintable() as a part of the previous line.
+            mScanSoftLineBreak = endsWithEqualSign(data, start, terminator);
+        } else if (start < terminator && (data[start] == ' ' || data[start] == '\t')) {
+            // Folded line.
+        } else if (VCardLexer.matches(data, start, terminator, "BEGIN", "VCARD")) {
+            mScanDepth++;
+            // Before, the parser skips anything up to the innermost "BEGIN:VCARD".
+            mScanRecordBegun |= mScanDepth > mNestCount;
+        } else if (VCardLexer.matches(data, start, terminator, "END", "VCARD")) {
+            if (mScanDepth > 0) {
+                mScanDepth--;
+            }
+            // Ends a record, or an outer vCard after which nothing else is parsed.
+            if (mScanRecordBegun && mScanDepth <= mNestCount) {
+                if (mEndLineCount == mEndLines.length) {
+                    mEndLines = Arrays.copyOf(mEndLines, mEndLineCount * 2);
+                }
+                mEndLines[mEndLineCount++] = terminator;
+            }
+        } else {
+            mScanSoftLineBreak = endsWithEqualSign(data, start, terminator)
+                    && isQuotedPrintable(data, start, terminator);
+        }
+    }
+
+    private static boolean endsWithEqualSign(byte[] data, int start, int end) {
+        while (end > start && (data[end - 1] & 0xff) <= ' ') {
+            end--;
+        }
+        return end > start && data[end - 1] == '=';
+    }
+
+    /**
+     * @return true when "QUOTED-PRINTABLE" (in any case) comes before the first ':' of the
+     * line. It may be a part of another param, which only delays parsing.
+     */
+    private static boolean isQuotedPrintable(byte[] data, int start, int end) {
+        String encoding = "QUOTED-PRINTABLE";
+        int length = encoding.length();
+        for (int i = start; i + length <= end && data[i] != ':'; i++) {
+            int j = 0;
+            while (j < length && Character.toUpperCase((char) data[i + j]) == encoding.charAt(j)) {
+                j++;
+            }
+            if (j == length) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Stream of the bytes received so far. Bytes already read by the lexer are discarded
+     * when more room is needed.
+     */
+    private final class ChunkInputStream extends InputStream {
+        byte[] mData = new byte[8192];
+        int mPosition;
+        int mLimit;
+        boolean mEnded;
+
+        void append(ByteBuffer chunk) {
+            int length = chunk.remaining();
+            if (mLimit + length > mData.length) {
+                // Keep the line being scanned and everything not read yet.
+                int discard = Math.min(mPosition, mScanLineStart);
+                if (mEndLineCount > 0) {
+                    discard = Math.min(discard, mEndLines[0]);
+                }
+                int kept = mLimit - discard;
+                byte[] data = kept + length > mData.length
+                        ? new byte[Math.max(mData.length * 2, kept + length)] : mData;
+                System.arraycopy(mData, discard, data, 0, kept);
+                mData = data;
+                mPosition -= discard;
+                mLimit = kept;
+                mScanLineStart -= discard;
+                mScanPosition -= discard;
+                for (int i = 0; i < mEndLineCount; i++) {
+                    mEndLines[i] -= discard;
+                }
+            }
+            chunk.get(mData, mLimit, length);
+            mLimit += length;
+        }
+
+        @Override
+        public int read() {
+            if (mPosition < mLimit) {
+                return mData[mPosition++] & 0xff;
+            }
+            return endOfData();
+        }
+
+        @Override
+        public int read(@NonNull byte[] b, int off, int len) {
+            if (len == 0) {
+                return 0;
+            }
+            int count = Math.min(len, mLimit - mPosition);
+            if (count <= 0) {
+                return endOfData();
+            }
+            System.arraycopy(mData, mPosition, b, off, count);
+            mPosition += count;
+            return count;
+        }
+
+        private int endOfData() {
+            if (!mEnded) {
+                // Entries are parsed only when they are complete, so this cannot happen.
+                throw new IllegalStateException("No data available yet");
+            }
+            return -1;
+        }
+
+        @Override
+        public int available() {
+            return mLimit - mPosition;
+        }
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ *
+ * 	StreamWIDE (Team on The Run)
+ *
+ * @createdBy  AndroidTeam on Sun, 18 Oct 2026 12:34:50 +0100
+ * @copyright  Copyright (c) 2026 StreamWIDE UK Ltd (Team on the Run)
+ * @email      support@teamontherun.com
+ *
+ * 	© Copyright 2026 StreamWIDE UK Ltd (Team on the Run). StreamWIDE is the copyright holder
+ * 	of all code contained in this file. Do not redistribute or
+ *  	re-use without permission.
+ *
+ * @lastModifiedOn Sun, 18 Oct 2026 12:34:50 +0100
+ */
+
+package com.streamwide.smartms.lib.vcard.syncml.pim.vcard;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.streamwide.smartms.lib.vcard.syncml.pim.VDataBuilder;
+import com.streamwide.smartms.lib.vcard.syncml.pim.VNode;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+/**
+ * Pull-style reader returning the vCard entries of a stream one by one.
+ *
+ * Unlike {@link VCardParserV21#parse(InputStream, String,
+ * com.streamwide.smartms.lib.vcard.syncml.pim.VBuilder)}, which keeps every entry in the
+ * builder until the end of the stream, only the entry being returned is held, so the memory
+ * used does not depend on the size of the stream. Callers may stop reading at any time.
+ *
+ * A reader must not be used anymore after one of its methods has thrown an exception.
+ */
+public class VCardReader implements Closeable {
+    private final InputStream mInputStream;
+    private final VCardParserV21 mParser;
+    private final VDataBuilder mBuilder;
+    private int mVNodeListPos;
+    private boolean mEnded;
+
+    /**
+     * @param is
+     *            The source to read.
+     * @param charset
+     *            The charset.
+     * @param version
+     *            {@link VCardParser#VERSION_VCARD21_INT} or {@link VCardParser#VERSION_VCARD30_INT}.
+     */
+    public VCardReader(@NonNull InputStream is, @NonNull String charset, int version)
+            throws IOException {
+        this(is, charset, version == VCardParser.VERSION_VCARD30_INT
+                ? new VCardParserV30() : new VCardParserV21(), new VDataBuilder());
+    }
+
+    /**
+     * @param is
+     *            The source to read.
+     * @param charset
+     *            The charset.
+     * @param parser
+     *            The parser to use. It must not be used by anything else while this reader is used.
+     * @param builder
+     *            The builder used for each entry. Its VNode list is cleared before each entry.
+     *            It may be {@link VDataBuilder#reset() reset} between two calls to
+     *            {@link #next()}: the next entry is then added to the new list.
+     */
+    public VCardReader(@NonNull InputStream is, @NonNull String charset,
+                       @NonNull VCardParserV21 parser, @NonNull VDataBuilder builder)
+            throws IOException {
+        this(is, charset, parser, builder, null);
+    }
+
+    /**
+     * Resumes reading from a checkpoint obtained from {@link #getCheckpoint()}.
+     *
+     * @param is
+     *            The source to read, from its beginning. Bytes before the offset of the
+     *            checkpoint are skipped.
+     * @param checkpoint
+     *            The checkpoint, or null to read from the beginning.
+     */
+    public VCardReader(@NonNull InputStream is, @NonNull String charset,
+                       @NonNull VCardParserV21 parser, @NonNull VDataBuilder builder,
+                       @Nullable VCardCheckpoint checkpoint) throws IOException {
+        mInputStream = is;
+        mParser = parser;
+        mBuilder = builder;
+        builder.getVNodeList().clear();
+        if (checkpoint != null) {
+            VCardParserV21.skipFully(is, checkpoint.getOffset());
+        }
+        parser.startParsing(new VCardLexer(is, charset), builder, checkpoint);
+        builder.start();
+    }
+
+    /**
+     * @return the next vCard entry, or null when the end of the stream is reached.
+     */
+    public @Nullable VNode next() throws IOException, VCardException {
+        // Not kept in a field, since VDataBuilder.reset() replaces the list.
+        List<VNode> vnodes = mBuilder.getVNodeList();
+        while (mVNodeListPos >= vnodes.size()) {
+            if (mEnded) {
+                return null;
+            }
+            vnodes.clear();
+            mVNodeListPos = 0;
+            if (!mParser.parseNextVCard()) {
+                mEnded = true;
+                mBuilder.end();
+            }
+            vnodes = mBuilder.getVNodeList();
+        }
+        return vnodes.get(mVNodeListPos++);
+    }
+
+    /**
+     * @return the position after the last entry returned by {@link #next()}.
+     * See {@link VCardParserV21#getCheckpoint()}.
+     */
+    public @Nullable VCardCheckpoint getCheckpoint() {
+        return mParser.getCheckpoint();
+    }
+
+    /**
+     * Stops reading after the current entry. See {@link VCardParserV21#cancel()}.
+     */
+    public void cancel() {
+        mParser.cancel();
+    }
+
+    @Override
+    public void close() throws IOException {
+        mInputStream.close();
+    }
+}
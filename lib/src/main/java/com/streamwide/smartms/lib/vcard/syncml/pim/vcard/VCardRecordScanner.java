@@ -0,0 +1,132 @@
+/*
+ *
+ * 	StreamWIDE (Team on The Run)
+ *
+ * @createdBy  AndroidTeam on Sun, 18 Oct 2026 11:41:09 +0100
+ * @copyright  Copyright (c) 2026 StreamWIDE UK Ltd (Team on the Run)
+ * @email      support@teamontherun.com
+ *
+ * 	© Copyright 2026 StreamWIDE UK Ltd (Team on the Run). StreamWIDE is the copyright holder
+ * 	of all code contained in this file. Do not redistribute or
+ *  	re-use without permission.
+ *
+ * @lastModifiedOn Sun, 18 Oct 2026 11:41:09 +0100
+ */
+
+package com.streamwide.smartms.lib.vcard.syncml.pim.vcard;
+
+import androidx.annotation.NonNull;
+
+import java.io.IOException;
+
+/**
+ * Finds the byte ranges of the vCard records of a stream without parsing them.
+ *
+ * Only "BEGIN:VCARD" and "END:VCARD" lines are looked at. A range starts at the first byte
+ * of "BEGIN:VCARD" and ends after the terminator of the matching "END:VCARD", so it can be
+ * given as is to a {@link VCardParserV21} created without {@link VCardSourceDetector}.
+ *
+ * As {@link VCardParserV21} does, the outermost vCards are skipped for nested data such as
+ * the one emitted by FOMA phones (See v21_foma_1.vcf in test directory).
+ */
+final class VCardRecordScanner {
+    private final VCardLexer mLexer;
+    private final int mNestCount;
+    private boolean mFirstReading = true;
+    private boolean mFinished;
+
+    private long mRecordStart;
+    private long mRecordEnd;
+
+    /**
+     * @param lexer     The lexer to read lines from.
+     * @param nestCount The number of outer vCards wrapping the records (0 in most cases).
+     */
+    VCardRecordScanner(@NonNull VCardLexer lexer, int nestCount) {
+        mLexer = lexer;
+        mNestCount = nestCount;
+    }
+
+    static int getNestCount(VCardSourceDetector detector) {
+        return detector != null && detector.getType() == VCardSourceDetector.TYPE_FOMA ? 1 : 0;
+    }
+
+    /**
+     * Moves to the next record.
+     *
+     * @return false when there is no more record.
+     * @throws VCardException when something other than "BEGIN:VCARD" comes between records,
+     * when a record contains another one, or when the last record is not terminated.
+     */
+    boolean next() throws IOException, VCardException {
+        if (mFinished) {
+            return false;
+        }
+        boolean allowGarbage = false;
+        if (mFirstReading) {
+            mFirstReading = false;
+            for (int i = 0; i < mNestCount; i++) {
+                if (!readBeginVCard(allowGarbage)) {
+                    return finish();
+                }
+                allowGarbage = true;
+            }
+        }
+        if (!readBeginVCard(allowGarbage)) {
+            return finish();
+        }
+
+        mRecordStart = mLexer.getLineOffset();
+        while (true) {
+            if (!mLexer.next(false)) {
+                throw new VCardException("Expected END:VCARD was not found.");
+            }
+            if (mLexer.matches("END", "VCARD")) {
+                break;
+            } else if (mLexer.matches("BEGIN", "VCARD")) {
+                // VCardParserV21 would fail on this record too.
+                throw new VCardNestedException("This vCard has nested vCard data in it.");
+            }
+        }
+        mRecordEnd = mLexer.getPosition();
+        return true;
+    }
+
+    private boolean readBeginVCard(boolean allowGarbage) throws IOException, VCardException {
+        do {
+            while (true) {
+                if (!mLexer.next(false)) {
+                    return false;
+                } else if (!mLexer.isBlank()) {
+                    break;
+                }
+            }
+            if (mLexer.matches("BEGIN", "VCARD")) {
+                return true;
+            } else if (!allowGarbage) {
+                if (mNestCount > 0) {
+                    // Most probably "END:VCARD" of an outer vCard.
+                    return false;
+                }
+                throw new VCardException(
+                        "Expected String \"BEGIN:VCARD\" did not come "
+                                + "(Instead, \"" + mLexer.getLine() + "\" came)");
+            }
+        } while (true);
+    }
+
+    private boolean finish() {
+        mFinished = true;
+        return false;
+    }
+
+    /** @return the offset of the first byte of the current record. */
+    long getRecordStart() {
+        return mRecordStart;
+    }
+
+    /** @return the offset following the last byte of the current record. */
+    long getRecordEnd() {
+        return mRecordEnd;
+    }
+}
@@ -0,0 +1,201 @@
+/*
+ *
+ * 	StreamWIDE (Team on The Run)
+ *
+ * @createdBy  AndroidTeam on Sun, 18 Oct 2026 20:41:09 +0100
+ * @copyright  Copyright (c) 2026 StreamWIDE UK Ltd (Team on the Run)
+ * @email      support@teamontherun.com
+ *
+ * 	© Copyright 2026 StreamWIDE UK Ltd (Team on the Run). StreamWIDE is the copyright holder
+ * 	of all code contained in this file. Do not redistribute or
+ *  	re-use without permission.
+ *
+ * @lastModifiedOn Sun, 18 Oct 2026 20:41:09 +0100
+ */
+
+package com.streamwide.smartms.lib.vcard.syncml.pim.vcard;
+
+import androidx.annotation.NonNull;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Figures of a vCard source computed by a scan of its lines, without parsing its values nor
+ * building any VNode or PropertyNode, e.g. to size an import before running it.
+ *
+ * The scan does not validate the source: lines which are not properties are ignored, and
+ * nested vCards are counted as records. Sizes are counted in bytes of the charset, or of
+ * UTF-8 for the charsets which are not compatible with US-ASCII (e.g. UTF-16).
+ */
+public final class VCardScanStatistics {
+
+    private long mRecordCount;
+    // long[1] counters, so that counting does not box.
+    private final HashMap<String, long[]> mPropertyCounts = new HashMap<>();
+    private final HashMap<String, long[]> mEncodingCounts = new HashMap<>();
+    private final HashMap<String, long[]> mCharsetCounts = new HashMap<>();
+    private int mMaxLineLength;
+    private long mBinaryByteCount;
+    private long mByteCount;
+
+    private VCardScanStatistics() {
+    }
+
+    /**
+     * Same as {@link #scan(InputStream, String)} for a file.
+     */
+    public static @NonNull VCardScanStatistics scan(@NonNull File file, @NonNull String charset)
+            throws IOException {
+        try (InputStream is = new BufferedInputStream(new FileInputStream(file))) {
+            return scan(is, charset);
+        }
+    }
+
+    /**
+     * Reads the stream up to its end. The stream is not closed.
+     */
+    public static @NonNull VCardScanStatistics scan(@NonNull InputStream is, @NonNull String charset)
+            throws IOException {
+        VCardScanStatistics statistics = new VCardScanStatistics();
+        statistics.scan(new VCardLexer(is, charset));
+        return statistics;
+    }
+
+    private void scan(VCardLexer lexer) throws IOException {
+        boolean inQuotedPrintable = false;
+        boolean inBase64 = false;
+        long base64Digits = 0;
+        while (lexer.next(false)) {
+            mMaxLineLength = Math.max(mMaxLineLength, lexer.length());
+            if (inQuotedPrintable) {
+                inQuotedPrintable = lexer.endsWith((byte) '=');
+                continue;
+            }
+            if (inBase64) {
+                // BASE64 lines have no ':', and vCard 3.0 folds them.
+                if (!lexer.isBlank() && (lexer.startsWithFoldingWhitespace() || !lexer.hasValue())) {
+                    base64Digits += lexer.countBase64Digits(false);
+                    continue;
+                }
+                inBase64 = false;
+                mBinaryByteCount += base64Digits * 3 / 4;
+            }
+            if (lexer.isBlank() || lexer.startsWithFoldingWhitespace()
+                    || !lexer.hasPropertyName() || !lexer.hasValue()) {
+                continue;
+            }
+            int symbol = lexer.getPropertyNameSymbol();
+            if (symbol == VCardSymbol.BEGIN) {
+                if (lexer.matches("BEGIN", "VCARD")) {
+                    mRecordCount++;
+                }
+                continue;
+            } else if (symbol == VCardSymbol.END) {
+                continue;
+            }
+            count(mPropertyCounts, symbol != VCardSymbol.NONE ? VCardSymbol.getName(symbol)
+                    : lexer.getPropertyName().toUpperCase(Locale.ENGLISH));
+
+            int encodingSymbol = VCardSymbol.NONE;
+            int paramCount = lexer.getParamCount();
+            for (int i = 0; i < paramCount; i++) {
+                int paramSymbol = lexer.getParamNameSymbol(i);
+                if (paramSymbol == VCardSymbol.ENCODING) {
+                    encodingSymbol = lexer.getParamValueSymbol(i);
+                    count(mEncodingCounts, encodingSymbol != VCardSymbol.NONE
+                            ? VCardSymbol.getName(encodingSymbol)
+                            : lexer.getParamValue(i, true).toUpperCase(Locale.ENGLISH));
+                } else if (paramSymbol == VCardSymbol.CHARSET) {
+                    count(mCharsetCounts, lexer.getParamValue(i, true).toUpperCase(Locale.ENGLISH));
+                }
+            }
+            if (encodingSymbol == VCardSymbol.ENCODING_QUOTED_PRINTABLE) {
+                inQuotedPrintable = lexer.endsWith((byte) '=');
+            } else if (encodingSymbol == VCardSymbol.ENCODING_BASE64
+                    || encodingSymbol == VCardSymbol.ENCODING_B) {
+                inBase64 = true;
+                base64Digits = lexer.countBase64Digits(true);
+            }
+        }
+        if (inBase64) {
+            mBinaryByteCount += base64Digits * 3 / 4;
+        }
+        mByteCount = lexer.getPosition();
+    }
+
+    private static void count(HashMap<String, long[]> counts, String key) {
+        long[] count = counts.get(key);
+        if (count == null) {
+            counts.put(key, new long[] {1});
+        } else {
+            count[0]++;
+        }
+    }
+
+    private static Map<String, Long> copy(HashMap<String, long[]> counts) {
+        HashMap<String, Long> copy = new HashMap<>();
+        for (Map.Entry<String, long[]> entry : counts.entrySet()) {
+            copy.put(entry.getKey(), entry.getValue()[0]);
+        }
+        return copy;
+    }
+
+    /** @return the number of "BEGIN:VCARD" lines. */
+    public long getRecordCount() {
+        return mRecordCount;
+    }
+
+    /**
+     * @return the number of properties by upper case name, BEGIN and END excluded.
+     */
+    public @NonNull Map<String, Long> getPropertyCounts() {
+        return copy(mPropertyCounts);
+    }
+
+    /**
+     * @return the number of properties by upper case ENCODING param. Properties without
+     *         ENCODING param are not counted.
+     */
+    public @NonNull Map<String, Long> getEncodingCounts() {
+        return copy(mEncodingCounts);
+    }
+
+    /**
+     * @return the number of properties by upper case CHARSET param. Properties without
+     *         CHARSET param are not counted.
+     */
+    public @NonNull Map<String, Long> getCharsetCounts() {
+        return copy(mCharsetCounts);
+    }
+
+    /** @return the length in bytes of the longest line, without its terminator nor unfolding. */
+    public int getMaxLineLength() {
+        return mMaxLineLength;
+    }
+
+    /** @return the size of the BASE64 values once decoded. */
+    public long getBinaryByteCount() {
+        return mBinaryByteCount;
+    }
+
+    /** @return the number of bytes read. */
+    public long getByteCount() {
+        return mByteCount;
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return "VCardScanStatistics{records=" + mRecordCount + ", bytes=" + mByteCount
+                + ", maxLineLength=" + mMaxLineLength + ", binaryBytes=" + mBinaryByteCount
+                + ", properties=" + getPropertyCounts() + ", encodings=" + getEncodingCounts()
+                + ", charsets=" + getCharsetCounts() + "}";
+    }
+}
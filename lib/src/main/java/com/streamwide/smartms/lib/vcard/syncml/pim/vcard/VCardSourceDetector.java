@@ -21,6 +21,10 @@ import androidx.annotation.Nullable;
 
 import com.streamwide.smartms.lib.vcard.syncml.pim.VBuilder;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
@@ -32,6 +36,11 @@ import java.util.Set;
  * @hide
  */
 public class VCardSourceDetector implements VBuilder {
+    /** Default number of bytes read by {@link #detect(InputStream, int, int)}. */
+    public static final int DEFAULT_SAMPLE_SIZE = 64 * 1024;
+    /** Default number of records parsed by {@link #detect(InputStream, int, int)}. */
+    public static final int DEFAULT_SAMPLE_RECORDS = 8;
+
     // Should only be used in package.
     static final int TYPE_UNKNOWN = 0;
     static final int TYPE_APPLE = 1;
@@ -61,6 +70,67 @@ public class VCardSourceDetector implements VBuilder {
     private boolean mNeedParseSpecifiedCharset;
     private String mSpecifiedCharset;
 
+    // Set while a sample is parsed, to stop it once enough records have been seen.
+    private VCardParserV21 mSampleParser;
+    private int mSampleRecordsLeft;
+
+    /**
+     * Detects the source from its beginning only, instead of parsing it as a whole: at most
+     * sampleSize bytes are read from the stream, and parsing stops at the end of the last
+     * line starting in them, or after maxRecords records. Properties are found whatever the
+     * version of the records, and the sample is read as ISO-8859-1.
+     *
+     * @param maxRecords The number of records to parse at most, or 0 for no limit.
+     * @return the detector, on which {@link #getEstimatedCharset()} can be called.
+     */
+    public static @NonNull VCardSourceDetector detect(@NonNull InputStream is, int sampleSize,
+                                                      int maxRecords) throws IOException {
+        byte[] sample = readSample(is, sampleSize);
+        return detect(sample, sample.length == sampleSize, maxRecords);
+    }
+
+    /**
+     * @param truncated true when the sample may end in the middle of a line.
+     */
+    static @NonNull VCardSourceDetector detect(@NonNull byte[] sample, boolean truncated,
+                                               int maxRecords) throws IOException {
+        int length = sample.length;
+        if (truncated) {
+            while (length > 0 && sample[length - 1] != '\n' && sample[length - 1] != '\r') {
+                length--;
+            }
+        }
+        VCardSourceDetector detector = new VCardSourceDetector();
+        VCardParserV21 parser = new VCardVersionDispatcher();
+        detector.mSampleParser = maxRecords > 0 ? parser : null;
+        detector.mSampleRecordsLeft = maxRecords;
+        try {
+            parser.parse(new VCardLexer(new ByteArrayInputStream(sample, 0, length), "ISO-8859-1"),
+                    detector, null);
+        } catch (VCardException e) {
+            // The sample may end in the middle of a record. What precedes is enough.
+        } finally {
+            detector.mSampleParser = null;
+        }
+        return detector;
+    }
+
+    /**
+     * @return the first size bytes of the stream, or all of them when it is shorter.
+     */
+    static @NonNull byte[] readSample(@NonNull InputStream is, int size) throws IOException {
+        byte[] sample = new byte[size];
+        int length = 0;
+        while (length < size) {
+            int count = is.read(sample, length, size - length);
+            if (count < 0) {
+                return Arrays.copyOf(sample, length);
+            }
+            length += count;
+        }
+        return sample;
+    }
+
     public void start() {
         // Start
     }
@@ -81,7 +151,10 @@ public class VCardSourceDetector implements VBuilder {
     }
 
     public void endRecord() {
-        // End Record
+        if (mSampleParser != null && --mSampleRecordsLeft == 0) {
+            // Stops at the end of the current vCard.
+            mSampleParser.cancel();
+        }
     }
 
     public void propertyGroup(@NonNull String group) {
@@ -117,7 +190,7 @@ public class VCardSourceDetector implements VBuilder {
     }
 
     public void propertyValues(@Nullable List<String> values) {
-        if (mNeedParseSpecifiedCharset && !values.isEmpty()) {
+        if (mNeedParseSpecifiedCharset && values != null && !values.isEmpty()) {
             mSpecifiedCharset = values.get(0);
         }
     }
@@ -146,4 +219,20 @@ public class VCardSourceDetector implements VBuilder {
                 return null;
         }
     }
+
+    /**
+     * Same as {@link #getEstimatedCharset()}, but returns the given charset when guessing
+     * the source fails or when the charset it tells is not supported.
+     */
+    public @NonNull String getEstimatedCharset(@NonNull String defaultCharset) {
+        String charset = getEstimatedCharset();
+        try {
+            if (charset != null && Charset.isSupported(charset)) {
+                return charset;
+            }
+        } catch (IllegalArgumentException e) {
+            // Illegal charset name.
+        }
+        return defaultCharset;
+    }
 }
@@ -0,0 +1,242 @@
+/*
+ *
+ * 	StreamWIDE (Team on The Run)
+ *
+ * @createdBy  AndroidTeam on Sun, 18 Oct 2026 13:31:40 +0100
+ * @copyright  Copyright (c) 2026 StreamWIDE UK Ltd (Team on the Run)
+ * @email      support@teamontherun.com
+ *
+ * 	© Copyright 2026 StreamWIDE UK Ltd (Team on the Run). StreamWIDE is the copyright holder
+ * 	of all code contained in this file. Do not redistribute or
+ *  	re-use without permission.
+ *
+ * @lastModifiedOn Sun, 18 Oct 2026 13:31:40 +0100
+ */
+
+package com.streamwide.smartms.lib.vcard.syncml.pim.vcard;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Table of the names known by the parsers (property names, parameter names, TYPE and VALUE
+ * values, encodings), so that each token is resolved to a small int once, and then compared
+ * with a switch instead of string comparisons and set look-ups.
+ *
+ * Look-ups are done on ASCII bytes or chars, optionally folding lower case letters, without
+ * allocating anything.
+ */
+final class VCardSymbol {
+    static final int NONE = -1;
+
+    static final int BEGIN = 0;
+    static final int END = 1;
+    static final int ADR = 2;
+    static final int ORG = 3;
+    static final int N = 4;
+    static final int AGENT = 5;
+
+    static final int TYPE = 6;
+    static final int VALUE = 7;
+    static final int ENCODING = 8;
+    static final int CHARSET = 9;
+    static final int LANGUAGE = 10;
+
+    static final int ENCODING_7BIT = 11;
+    static final int ENCODING_8BIT = 12;
+    static final int ENCODING_QUOTED_PRINTABLE = 13;
+    static final int ENCODING_BASE64 = 14;
+    static final int ENCODING_B = 15;
+
+    /** Property names available in vCard 2.1 */
+    static final int FLAG_PROPERTY_V21 = 1;
+    /** Property names available in vCard 3.0 */
+    static final int FLAG_PROPERTY_V30 = 1 << 1;
+    /** Known TYPE values */
+    static final int FLAG_TYPE = 1 << 2;
+    /** Known VALUE values */
+    static final int FLAG_VALUE = 1 << 3;
+    /** Encodings available in vCard 2.1 */
+    static final int FLAG_ENCODING_V21 = 1 << 4;
+    /** Encodings available in vCard 3.0 */
+    static final int FLAG_ENCODING_V30 = 1 << 5;
+
+    private static final int MAX_SYMBOLS = 128;
+    private static final int TABLE_MASK = 511;
+
+    private static final String[] sNames = new String[MAX_SYMBOLS];
+    private static final int[] sFlags = new int[MAX_SYMBOLS];
+    // Open addressing table of symbol + 1, 0 meaning an empty slot.
+    private static final short[] sTable = new short[TABLE_MASK + 1];
+    private static int sCount;
+
+    static {
+        final int property = FLAG_PROPERTY_V21 | FLAG_PROPERTY_V30;
+        define(BEGIN, "BEGIN", property);
+        define(END, "END", 0);
+        define(ADR, "ADR", 0);
+        define(ORG, "ORG", 0);
+        define(N, "N", 0);
+        define(AGENT, "AGENT", 0);
+        define(TYPE, "TYPE", 0);
+        define(VALUE, "VALUE", 0);
+        define(ENCODING, "ENCODING", 0);
+        define(CHARSET, "CHARSET", 0);
+        define(LANGUAGE, "LANGUAGE", 0);
+        // Though vCard 2.1 specification does not allow "B" encoding, some data may have it.
+        // Although "7bit" and "BASE64" is not allowed in vCard 3.0, we allow it for safety.
+        define(ENCODING_7BIT, "7BIT", FLAG_ENCODING_V21 | FLAG_ENCODING_V30);
+        define(ENCODING_8BIT, "8BIT", FLAG_ENCODING_V21 | FLAG_ENCODING_V30);
+        define(ENCODING_QUOTED_PRINTABLE, "QUOTED-PRINTABLE", FLAG_ENCODING_V21);
+        define(ENCODING_BASE64, "BASE64", FLAG_ENCODING_V21 | FLAG_ENCODING_V30);
+        define(ENCODING_B, "B", FLAG_ENCODING_V21 | FLAG_ENCODING_V30);
+
+        for (String name : new String[] {
+                "LOGO", "PHOTO", "LABEL", "FN", "TITLE", "SOUND", "VERSION", "TEL", "EMAIL",
+                "TZ", "GEO", "NOTE", "URL", "BDAY", "ROLE", "REV", "UID", "KEY", "MAILER"}) {
+            define(name, property);
+        }
+        for (String name : new String[] {
+                "NAME", "PROFILE", "SOURCE", "NICKNAME", "CLASS", "SORT-STRING", "CATEGORIES",
+                "PRODID"}) {
+            define(name, FLAG_PROPERTY_V30);
+        }
+        for (String name : new String[] {
+                "DOM", "INTL", "POSTAL", "PARCEL", "HOME", "WORK", "PREF", "VOICE", "FAX", "MSG",
+                "CELL", "PAGER", "BBS", "MODEM", "CAR", "ISDN", "VIDEO", "AOL", "APPLELINK",
+                "ATTMAIL", "CIS", "EWORLD", "INTERNET", "IBMMAIL", "MCIMAIL", "POWERSHARE",
+                "PRODIGY", "TLX", "X400", "GIF", "CGM", "WMF", "BMP", "MET", "PMB", "DIB", "PICT",
+                "TIFF", "PDF", "PS", "JPEG", "QTIME", "MPEG", "MPEG2", "AVI", "WAVE", "AIFF",
+                "PCM", "X509", "PGP"}) {
+            define(name, FLAG_TYPE);
+        }
+        for (String name : new String[] {"INLINE", "URL", "CONTENT-ID", "CID"}) {
+            define(name, FLAG_VALUE);
+        }
+    }
+
+    private VCardSymbol() {
+    }
+
+    private static void define(String name, int flags) {
+        int symbol = lookup(name, true);
+        define(symbol != NONE ? symbol : sCount, name, flags);
+    }
+
+    private static void define(int symbol, String name, int flags) {
+        sFlags[symbol] |= flags;
+        if (sNames[symbol] != null) {
+            return;
+        }
+        sNames[symbol] = name;
+        sCount = Math.max(sCount, symbol + 1);
+        int slot = hash(name) & TABLE_MASK;
+        while (sTable[slot] != 0) {
+            slot = (slot + 1) & TABLE_MASK;
+        }
+        sTable[slot] = (short) (symbol + 1);
+    }
+
+    private static int fold(int c) {
+        return c >= 'a' && c <= 'z' ? c - ('a' - 'A') : c;
+    }
+
+    private static int hash(String s) {
+        int h = 0;
+        int length = s.length();
+        for (int i = 0; i < length; i++) {
+            h = 31 * h + fold(s.charAt(i));
+        }
+        return h ^ (h >>> 9);
+    }
+
+    private static int hash(byte[] b, int start, int end) {
+        int h = 0;
+        for (int i = start; i < end; i++) {
+            h = 31 * h + fold(b[i] & 0xff);
+        }
+        return h ^ (h >>> 9);
+    }
+
+    /**
+     * @return the symbol of the ASCII bytes in [start, end), compared case-insensitively,
+     * or {@link #NONE}.
+     */
+    static int lookup(@NonNull byte[] b, int start, int end) {
+        return lookup(b, start, end, true);
+    }
+
+    /**
+     * @return the symbol of the ASCII bytes in [start, end), compared case-sensitively,
+     * or {@link #NONE}.
+     */
+    static int lookupExact(@NonNull byte[] b, int start, int end) {
+        return lookup(b, start, end, false);
+    }
+
+    private static int lookup(byte[] b, int start, int end, boolean ignoreCase) {
+        int slot = hash(b, start, end) & TABLE_MASK;
+        int entry;
+        while ((entry = sTable[slot]) != 0) {
+            String name = sNames[entry - 1];
+            if (name.length() == end - start && equals(name, b, start, ignoreCase)) {
+                return entry - 1;
+            }
+            slot = (slot + 1) & TABLE_MASK;
+        }
+        return NONE;
+    }
+
+    private static boolean equals(String name, byte[] b, int start, boolean ignoreCase) {
+        int length = name.length();
+        for (int i = 0; i < length; i++) {
+            int c = b[start + i] & 0xff;
+            if ((ignoreCase ? fold(c) : c) != name.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the symbol of the given string, compared case-insensitively, or {@link #NONE}.
+     */
+    static int lookup(@NonNull String s) {
+        return lookup(s, true);
+    }
+
+    /**
+     * @return the symbol of the given string, compared case-sensitively, or {@link #NONE}.
+     */
+    static int lookupExact(@NonNull String s) {
+        return lookup(s, false);
+    }
+
+    private static int lookup(String s, boolean ignoreCase) {
+        int length = s.length();
+        int slot = hash(s) & TABLE_MASK;
+        int entry;
+        while ((entry = sTable[slot]) != 0) {
+            String name = sNames[entry - 1];
+            if (name.length() == length && name.regionMatches(ignoreCase, 0, s, 0, length)) {
+                return entry - 1;
+            }
+            slot = (slot + 1) & TABLE_MASK;
+        }
+        return NONE;
+    }
+
+    /**
+     * @return the upper case name of the symbol.
+     */
+    @NonNull
+    static String getName(int symbol) {
+        return sNames[symbol];
+    }
+
+    /**
+     * @return true when the symbol is not {@link #NONE} and has the given flag.
+     */
+    static boolean hasFlag(int symbol, int flag) {
+        return symbol != NONE && (sFlags[symbol] & flag) != 0;
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ *
+ * 	StreamWIDE (Team on The Run)
+ *
+ * @createdBy  AndroidTeam on Sun, 18 Oct 2026 15:48:12 +0100
+ * @copyright  Copyright (c) 2026 StreamWIDE UK Ltd (Team on the Run)
+ * @email      support@teamontherun.com
+ *
+ * 	© Copyright 2026 StreamWIDE UK Ltd (Team on the Run). StreamWIDE is the copyright holder
+ * 	of all code contained in this file. Do not redistribute or
+ *  	re-use without permission.
+ *
+ * @lastModifiedOn Sun, 18 Oct 2026 15:48:12 +0100
+ */
+
+package com.streamwide.smartms.lib.vcard.syncml.pim.vcard;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.streamwide.smartms.lib.vcard.syncml.pim.VBuilder;
+
+import java.io.IOException;
+import java.util.Collection;
+
+/**
+ * Parser applying the rules of vCard 2.1 or vCard 3.0 to each entry according to its
+ * VERSION property, in a single pass, so that exports mixing both versions are supported.
+ *
+ * The items following a "VERSION:3.0" line are parsed with the rules of {@link VCardParserV30},
+ * and the items following a "VERSION:2.1" line with the rules of {@link VCardParserV21}.
+ * Each entry starts with the rules of the previous one (vCard 2.1 for the first entry),
+ * which matters only for the items placed before VERSION.
+ */
+public class VCardVersionDispatcher extends VCardParserV21 {
+
+    // Shares the lexer and the builder of this parser.
+    private final VCardParserV30 mParserV30 = new VCardParserV30() {
+        @Override
+        protected void readNonEmptyLine() throws IOException, VCardException {
+            super.readNonEmptyLine();
+            detectVersion();
+        }
+    };
+
+    // The parser whose rules apply to the current item: this or mParserV30.
+    private VCardParserV21 mRules = this;
+
+    public VCardVersionDispatcher() {
+        super();
+    }
+
+    public VCardVersionDispatcher(@Nullable VCardSourceDetector detector) {
+        super(detector);
+    }
+
+    @Override
+    void startParsing(@NonNull VCardLexer lexer, @Nullable VBuilder builder,
+                      @Nullable VCardCheckpoint checkpoint) {
+        super.startParsing(lexer, builder, checkpoint);
+        mParserV30.mLexer = lexer;
+        mParserV30.mBuilder = builder;
+        mRules = this;
+    }
+
+    @Override
+    public void setParseMetrics(@Nullable ParseMetrics metrics) {
+        super.setParseMetrics(metrics);
+        mParserV30.setParseMetrics(metrics);
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        mParserV30.reset();
+        mRules = this;
+    }
+
+    @Override
+    public void setPropertyFilter(@Nullable Collection<String> propertyNames) {
+        super.setPropertyFilter(propertyNames);
+        mParserV30.setPropertyFilter(propertyNames);
+    }
+
+    @Override
+    boolean skipUnselectedItem(boolean all) throws IOException, VCardException {
+        return mRules == this ? super.skipUnselectedItem(all) : mParserV30.skipUnselectedItem(all);
+    }
+
+    @Override
+    protected boolean parseItem() throws IOException, VCardException {
+        if (mRules == this) {
+            return super.parseItem();
+        }
+        if (mParserV30.parseItem()) {
+            // Checked by readEndVCard().
+            mPreviousLine = mParserV30.mPreviousLine;
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    protected void readNonEmptyLine() throws IOException, VCardException {
+        super.readNonEmptyLine();
+        detectVersion();
+    }
+
+    /**
+     * Switches the rules for the next items when the current line is a VERSION property.
+     */
+    private void detectVersion() {
+        VCardLexer lexer = mLexer;
+        if (lexer.matches("VERSION", "3.0")) {
+            mRules = mParserV30;
+        } else if (lexer.matches("VERSION", "2.1")) {
+            mRules = this;
+        }
+    }
+}
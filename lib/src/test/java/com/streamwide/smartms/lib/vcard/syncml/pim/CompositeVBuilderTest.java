@@ -0,0 +1,274 @@
+/*
+ *
+ * 	StreamWIDE (Team on The Run)
+ *
+ * @createdBy  AndroidTeam on Mon, 19 Oct 2026 03:04:27 +0100
+ * @copyright  Copyright (c) 2026 StreamWIDE UK Ltd (Team on the Run)
+ * @email      support@teamontherun.com
+ *
+ * 	© Copyright 2026 StreamWIDE UK Ltd (Team on the Run). StreamWIDE is the copyright holder
+ * 	of all code contained in this file. Do not redistribute or
+ *  	re-use without permission.
+ *
+ * @lastModifiedOn Mon, 19 Oct 2026 03:04:27 +0100
+ */
+
+package com.streamwide.smartms.lib.vcard.syncml.pim;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.streamwide.smartms.lib.vcard.logger.Logger;
+import com.streamwide.smartms.lib.vcard.syncml.pim.vcard.VCardException;
+import com.streamwide.smartms.lib.vcard.syncml.pim.vcard.VCardParserV21;
+import com.streamwide.smartms.lib.vcard.syncml.pim.vcard.VCardSourceDetector;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+
+class CompositeVBuilderTest {
+
+    private static final byte[] GIF = Base64.getDecoder().decode(
+            "R0lGODlhAQABAIAAAP///wAAACH5BAEAAAAALAAAAAABAAEAAAICRAEAOw==");
+    private static final String VCARD = "BEGIN:VCARD\r\n"
+            + "VERSION:2.1\r\n"
+            + "N:Doe;John\r\n"
+            + "NOTE:日本\r\n"
+            + "PHOTO;ENCODING=BASE64:R0lGODlhAQABAIAAAP///wAAACH5BAEAAAAALAAAAAABAAEAAAICRAEAOw==\r\n"
+            + "\r\n"
+            + "X-ABUID:1\r\n"
+            + "END:VCARD\r\n"
+            + "BEGIN:VCARD\r\n"
+            + "VERSION:2.1\r\n"
+            + "FN:Jane\r\n"
+            + "END:VCARD\r\n";
+
+    @BeforeAll
+    static void setUpLogger() {
+        Logger.setLogLevel(Logger.LogLevel.OFF);
+    }
+
+    private static void parse(VBuilder builder) throws IOException, VCardException {
+        new VCardParserV21().parse(new ByteArrayInputStream(VCARD.getBytes(StandardCharsets.UTF_8)),
+                "UTF-8", builder);
+    }
+
+    /** Records the events it receives, and answers the questions of the parser as it is told. */
+    private static class RecordingBuilder implements VBuilder {
+        final List<String> mEvents = new ArrayList<>();
+        final List<List<String>> mValueLists = new ArrayList<>();
+        final ByteArrayOutputStream mSink = new ByteArrayOutputStream();
+        Charset mCharset;
+        boolean mGivesSink;
+        boolean mDefers;
+        boolean mRejects;
+
+        public void start() {
+            mEvents.add("start");
+        }
+
+        public void end() {
+            mEvents.add("end");
+        }
+
+        public void startRecord(@NonNull String type) {
+            mEvents.add("startRecord " + type);
+        }
+
+        public void endRecord() {
+            mEvents.add("endRecord");
+        }
+
+        public void startProperty() {
+        }
+
+        public void endProperty() {
+        }
+
+        public void propertyGroup(@NonNull String group) {
+            mEvents.add("group " + group);
+        }
+
+        public void propertyName(@NonNull String name) {
+            mEvents.add("name " + name);
+        }
+
+        public void propertyParamType(@NonNull String type) {
+            mEvents.add("type " + type);
+        }
+
+        public void propertyParamValue(@NonNull String value) {
+            mEvents.add("value " + value);
+        }
+
+        public void propertyValues(@Nullable List<String> values) {
+            mEvents.add("values " + values);
+            mValueLists.add(values);
+        }
+
+        @Override
+        public @Nullable Charset propertyValueCharset(@NonNull Charset sourceCharset) {
+            return mCharset;
+        }
+
+        @Override
+        public @Nullable OutputStream propertyBinarySink() {
+            return mGivesSink ? mSink : null;
+        }
+
+        @Override
+        public boolean propertyBinaryDeferred() {
+            return mDefers;
+        }
+
+        @Override
+        public void propertyBinaryRange(long start, long end) {
+            mEvents.add("range");
+        }
+
+        @Override
+        public boolean recordRejected() {
+            return mRejects;
+        }
+    }
+
+    @Test
+    void testSameNodesAsSeparateParses() throws IOException, VCardException {
+        VDataBuilder expected = new VDataBuilder();
+        parse(expected);
+        VDataBuilder first = new VDataBuilder();
+        VDataBuilder second = new VDataBuilder();
+        VCardSourceDetector detector = new VCardSourceDetector();
+        CompositeVBuilder composite = new CompositeVBuilder(first, detector, second);
+        assertEquals(Arrays.asList(first, detector, second), composite.getBuilders());
+        parse(composite);
+
+        assertEquals("UTF-8", detector.getEstimatedCharset());
+        for (VDataBuilder builder : Arrays.asList(first, second)) {
+            assertEquals(expected.getVNodeList().size(), builder.getVNodeList().size());
+            for (int i = 0; i < expected.getVNodeList().size(); i++) {
+                assertEquals(expected.getVNodeList().get(i).getPropList(),
+                        builder.getVNodeList().get(i).getPropList());
+            }
+        }
+        assertNotSame(first.getVNodeList().get(0).getPropList().get(1).getPropValueVector(),
+                second.getVNodeList().get(0).getPropList().get(1).getPropValueVector());
+    }
+
+    @Test
+    void testEventsInOrder() throws IOException, VCardException {
+        RecordingBuilder expected = new RecordingBuilder();
+        parse(expected);
+        RecordingBuilder first = new RecordingBuilder();
+        RecordingBuilder second = new RecordingBuilder();
+        parse(new CompositeVBuilder(Arrays.asList(first, second)));
+        assertEquals(expected.mEvents, first.mEvents);
+        assertEquals(expected.mEvents, second.mEvents);
+        // Each builder gets its own list.
+        for (int i = 0; i < first.mValueLists.size(); i++) {
+            assertNotSame(first.mValueLists.get(i), second.mValueLists.get(i));
+        }
+    }
+
+    @Test
+    void testDifferentCharsets() throws IOException, VCardException {
+        RecordingBuilder utf8 = new RecordingBuilder();
+        RecordingBuilder latin1 = new RecordingBuilder();
+        latin1.mCharset = StandardCharsets.ISO_8859_1;
+        RecordingBuilder shiftJis = new RecordingBuilder();
+        shiftJis.mCharset = Charset.forName("Shift_JIS");
+        parse(new CompositeVBuilder(utf8, latin1, shiftJis));
+
+        byte[] note = "日本".getBytes(StandardCharsets.UTF_8);
+        assertTrue(utf8.mEvents.contains("values [日本]"));
+        assertTrue(latin1.mEvents.contains("values [" + new String(note, StandardCharsets.ISO_8859_1) + "]"));
+        assertTrue(shiftJis.mEvents.contains("values [" + new String(note, Charset.forName("Shift_JIS")) + "]"));
+        assertTrue(shiftJis.mEvents.contains("values [Doe, John]"));
+    }
+
+    @Test
+    void testSinks() throws IOException, VCardException {
+        RecordingBuilder first = new RecordingBuilder();
+        first.mGivesSink = true;
+        RecordingBuilder second = new RecordingBuilder();
+        second.mGivesSink = true;
+        parse(new CompositeVBuilder(first, second));
+        assertArrayEquals(GIF, first.mSink.toByteArray());
+        assertArrayEquals(GIF, second.mSink.toByteArray());
+        assertTrue(first.mValueLists.contains(Collections.emptyList()));
+
+        // One builder without sink: both receive the value.
+        first = new RecordingBuilder();
+        first.mGivesSink = true;
+        second = new RecordingBuilder();
+        parse(new CompositeVBuilder(first, second));
+        assertEquals(0, first.mSink.size());
+        assertEquals(first.mEvents, second.mEvents);
+        assertTrue(first.mEvents.stream().anyMatch(event -> event.startsWith("values [R0lGOD")));
+    }
+
+    @Test
+    void testDeferred() throws IOException, VCardException {
+        RecordingBuilder first = new RecordingBuilder();
+        first.mDefers = true;
+        RecordingBuilder second = new RecordingBuilder();
+        second.mDefers = true;
+        parse(new CompositeVBuilder(first, second));
+        assertTrue(first.mEvents.contains("range"));
+        assertTrue(second.mEvents.contains("range"));
+
+        first = new RecordingBuilder();
+        first.mDefers = true;
+        second = new RecordingBuilder();
+        parse(new CompositeVBuilder(first, second));
+        assertFalse(first.mEvents.contains("range"));
+        assertEquals(first.mEvents, second.mEvents);
+    }
+
+    @Test
+    void testRecordRejected() throws IOException, VCardException {
+        RecordingBuilder first = new RecordingBuilder();
+        first.mRejects = true;
+        RecordingBuilder second = new RecordingBuilder();
+        second.mRejects = true;
+        parse(new CompositeVBuilder(first, second));
+        // Only VERSION and the first property of each record.
+        assertEquals(Arrays.asList("start", "startRecord VCARD", "name VERSION", "values [2.1]",
+                "endRecord", "startRecord VCARD", "name VERSION", "values [2.1]", "endRecord", "end"),
+                first.mEvents);
+        assertEquals(first.mEvents, second.mEvents);
+
+        RecordingBuilder expected = new RecordingBuilder();
+        parse(expected);
+        first = new RecordingBuilder();
+        first.mRejects = true;
+        second = new RecordingBuilder();
+        parse(new CompositeVBuilder(first, second));
+        assertEquals(expected.mEvents, first.mEvents);
+    }
+
+    @Test
+    void testNoBuilders() throws IOException, VCardException {
+        CompositeVBuilder composite = new CompositeVBuilder();
+        parse(composite);
+        assertTrue(composite.getBuilders().isEmpty());
+    }
+}
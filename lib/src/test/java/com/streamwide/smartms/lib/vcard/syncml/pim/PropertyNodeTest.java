@@ -0,0 +1,160 @@
+/*
+ *
+ * 	StreamWIDE (Team on The Run)
+ *
+ * @createdBy  AndroidTeam on Mon, 19 Oct 2026 00:08:14 +0100
+ * @copyright  Copyright (c) 2026 StreamWIDE UK Ltd (Team on the Run)
+ * @email      support@teamontherun.com
+ *
+ * 	© Copyright 2026 StreamWIDE UK Ltd (Team on the Run). StreamWIDE is the copyright holder
+ * 	of all code contained in this file. Do not redistribute or
+ *  	re-use without permission.
+ *
+ * @lastModifiedOn Mon, 19 Oct 2026 00:08:14 +0100
+ */
+
+package com.streamwide.smartms.lib.vcard.syncml.pim;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class PropertyNodeTest {
+
+    private static final byte[] SOURCE = "PHOTO;ENCODING=BASE64:AAEC\r\n A/8=\r\n\r\n"
+            .getBytes(StandardCharsets.US_ASCII);
+    private static final int VALUE_START = 22;
+    private static final int VALUE_END = 34;
+    private static final byte[] VALUE = {0, 1, 2, 3, (byte) 0xFF};
+
+    private static PropertyNode photo() {
+        PropertyNode propertyNode = new PropertyNode();
+        propertyNode.setPropName("PHOTO");
+        propertyNode.getParamMap().put("ENCODING", "BASE64");
+        return propertyNode;
+    }
+
+    @Test
+    void testLazyValueIsReadOnce() {
+        AtomicInteger reads = new AtomicInteger();
+        PropertyNode.ValueSource source = PropertyNode.ValueSource.of(SOURCE);
+        PropertyNode propertyNode = photo();
+        propertyNode.setPropValueRange((start, end) -> {
+            reads.incrementAndGet();
+            return source.read(start, end);
+        }, VALUE_START, VALUE_END, "BASE64");
+
+        assertEquals(0, reads.get());
+        assertArrayEquals(VALUE, propertyNode.getPropValueBytes());
+        assertArrayEquals(VALUE, propertyNode.getPropValueBytes());
+        assertEquals(1, reads.get());
+        assertEquals("", propertyNode.getPropValue());
+    }
+
+    @Test
+    void testLazyValueFromChannel(@TempDir File directory) throws IOException {
+        File file = new File(directory, "photo.vcf");
+        Files.write(file.toPath(), SOURCE);
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            PropertyNode propertyNode = photo();
+            propertyNode.setPropValueRange(PropertyNode.ValueSource.of(channel),
+                    VALUE_START, VALUE_END, "B");
+            assertArrayEquals(VALUE, propertyNode.getPropValueBytes());
+            assertEquals(0, channel.position());
+        }
+    }
+
+    @Test
+    void testLazyValueFromShortChannel(@TempDir File directory) throws IOException {
+        File file = new File(directory, "photo.vcf");
+        Files.write(file.toPath(), SOURCE);
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            PropertyNode propertyNode = photo();
+            propertyNode.setPropValueRange(PropertyNode.ValueSource.of(channel),
+                    VALUE_START, SOURCE.length + 1, "BASE64");
+            assertThrows(UncheckedIOException.class, propertyNode::getPropValueBytes);
+        }
+    }
+
+    @Test
+    void testLazyValueWithOtherEncodingIsKept() {
+        PropertyNode propertyNode = photo();
+        propertyNode.setPropValueRange(PropertyNode.ValueSource.of(SOURCE), 0, 5, "8BIT");
+        assertArrayEquals("PHOTO".getBytes(StandardCharsets.US_ASCII),
+                propertyNode.getPropValueBytes());
+    }
+
+    @Test
+    void testLazyValueEquals() {
+        PropertyNode eager = photo();
+        eager.setPropValueBytes(VALUE);
+        PropertyNode lazy = photo();
+        lazy.setPropValueRange(PropertyNode.ValueSource.of(SOURCE), VALUE_START, VALUE_END, "BASE64");
+        PropertyNode other = photo();
+        other.setPropValueRange(PropertyNode.ValueSource.of(SOURCE), VALUE_START, 26, "BASE64");
+        other.setPropName("LOGO");
+
+        assertEquals(eager, lazy);
+        assertEquals(lazy, eager);
+        assertNotEquals(lazy, other);
+    }
+
+    @Test
+    void testLazyValueEqualsAsDecoded() {
+        // Nodes whose bytes differ are compared by their values, as for decoded values.
+        PropertyNode eager = photo();
+        eager.setPropValueBytes(VALUE);
+        PropertyNode eagerOther = photo();
+        eagerOther.setPropValueBytes(new byte[] {0, 1, 2});
+        PropertyNode lazyOther = photo();
+        lazyOther.setPropValueRange(PropertyNode.ValueSource.of(SOURCE), VALUE_START, 26, "BASE64");
+
+        assertArrayEquals(eagerOther.getPropValueBytes(), lazyOther.getPropValueBytes());
+        assertEquals(eagerOther.equals(eager), lazyOther.equals(eager));
+        assertEquals(eager.equals(eagerOther), eager.equals(lazyOther));
+    }
+
+    @Test
+    void testByteArraySourceRejectsInvalidRanges() {
+        PropertyNode.ValueSource source = PropertyNode.ValueSource.of(SOURCE);
+        assertArrayEquals(new byte[0], read(source, SOURCE.length, SOURCE.length));
+        assertThrows(IllegalArgumentException.class, () -> source.read(-1, 2));
+        assertThrows(IllegalArgumentException.class, () -> source.read(3, 2));
+        assertThrows(IllegalArgumentException.class, () -> source.read(0, SOURCE.length + 1));
+        // Would be truncated to [0, 1) by a cast to int.
+        assertThrows(IllegalArgumentException.class, () -> source.read(1L << 32, (1L << 32) + 1));
+    }
+
+    @Test
+    void testChannelSourceRejectsInvalidRanges(@TempDir File directory) throws IOException {
+        File file = new File(directory, "photo.vcf");
+        Files.write(file.toPath(), SOURCE);
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            PropertyNode.ValueSource source = PropertyNode.ValueSource.of(channel);
+            assertThrows(IllegalArgumentException.class, () -> source.read(-1, 2));
+            assertThrows(IllegalArgumentException.class, () -> source.read(3, 2));
+            assertThrows(IllegalArgumentException.class, () -> source.read(0, (1L << 32) + 1));
+        }
+    }
+
+    private static byte[] read(PropertyNode.ValueSource source, long start, long end) {
+        try {
+            return source.read(start, end);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
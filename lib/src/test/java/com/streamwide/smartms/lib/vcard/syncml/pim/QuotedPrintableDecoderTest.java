@@ -0,0 +1,146 @@
+/*
+ *
+ * 	StreamWIDE (Team on The Run)
+ *
+ * @createdBy  AndroidTeam on Sun, 18 Oct 2026 23:02:40 +0100
+ * @copyright  Copyright (c) 2026 StreamWIDE UK Ltd (Team on the Run)
+ * @email      support@teamontherun.com
+ *
+ * 	© Copyright 2026 StreamWIDE UK Ltd (Team on the Run). StreamWIDE is the copyright holder
+ * 	of all code contained in this file. Do not redistribute or
+ *  	re-use without permission.
+ *
+ * @lastModifiedOn Sun, 18 Oct 2026 23:02:40 +0100
+ */
+
+package com.streamwide.smartms.lib.vcard.syncml.pim;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import com.streamwide.smartms.lib.vcard.customcommons.DecoderException;
+import com.streamwide.smartms.lib.vcard.customcommons.QuotedPrintableCodec;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+class QuotedPrintableDecoderTest {
+
+    private static final String[] VALUES = {
+            "caf=C3=A9",
+            "caf=c3=a9",
+            // Lone CR and lone LF.
+            "a\rb", "a\nb", "=C3\r=A9", "=C3\n=A9", "\r", "\n", "\n\r",
+            // Soft line breaks.
+            "a=\r\nb", "a=\rb", "a=\nb", "=C3=\r\n=A9", "=C3=\r=A9", "=\r\n", "=\r", "=\n",
+            "=\rX", "=\r\r\n", "=C=\r\n3", "=C\r\n3",
+            // Trailing '='.
+            "a=", "=", "a==", "==\r\nb", "=C3=A9=",
+            // Transport padding.
+            "a= b", "a=\tb", "== b", "=  \r\nb", "a= \r\nb",
+            // Invalid escapes.
+            "=ZZ", "=C", "=C\r", "=\r\n=", "a=b", "=é9",
+            // Non-ASCII chars left unencoded.
+            "été", "é\r\nté", "é=\r\nt=C3=A9", "é\rt",
+    };
+
+    /**
+     * The decoding of VDataBuilder before QuotedPrintableDecoder: padding removal, split into
+     * lines, removal of the '=' ending each line, then {@link QuotedPrintableCodec}.
+     */
+    private static String decodeWithCodec(String value, Charset sourceCharset, boolean strict) {
+        String quotedPrintable = value.replaceAll("= ", " ").replaceAll("=\t", "\t");
+        String[] lines;
+        if (strict) {
+            lines = quotedPrintable.split("\r\n");
+        } else {
+            StringBuilder builder = new StringBuilder();
+            int length = quotedPrintable.length();
+            List<String> list = new ArrayList<>();
+            for (int i = 0; i < length; i++) {
+                char ch = quotedPrintable.charAt(i);
+                if (ch == '\n') {
+                    list.add(builder.toString());
+                    builder = new StringBuilder();
+                } else if (ch == '\r') {
+                    list.add(builder.toString());
+                    builder = new StringBuilder();
+                    if (i < length - 1 && quotedPrintable.charAt(i + 1) == '\n') {
+                        i++;
+                    }
+                } else {
+                    builder.append(ch);
+                }
+            }
+            if (builder.length() > 0) {
+                list.add(builder.toString());
+            }
+            lines = list.toArray(new String[0]);
+        }
+        StringBuilder builder = new StringBuilder();
+        for (String line : lines) {
+            if (line.endsWith("=")) {
+                line = line.substring(0, line.length() - 1);
+            }
+            builder.append(line);
+        }
+        try {
+            byte[] bytes = QuotedPrintableCodec.decodeQuotedPrintable(
+                    builder.toString().getBytes(sourceCharset));
+            return new String(bytes, StandardCharsets.UTF_8);
+        } catch (DecoderException e) {
+            return null;
+        }
+    }
+
+    private static void assertSameAsCodec(String value, boolean strict) {
+        QuotedPrintableDecoder decoder = new QuotedPrintableDecoder(StandardCharsets.UTF_8, strict);
+        assertEquals(decodeWithCodec(value, StandardCharsets.UTF_8, strict),
+                decoder.decode(value, StandardCharsets.UTF_8),
+                () -> "strict=" + strict + ", value=" + value.replace("\r", "\\r").replace("\n", "\\n"));
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {true, false})
+    void testSameAsCodec(boolean strict) {
+        for (String value : VALUES) {
+            assertSameAsCodec(value, strict);
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {true, false})
+    void testRandomValuesSameAsCodec(boolean strict) {
+        char[] alphabet = {'=', '=', '\r', '\n', ' ', '\t', 'A', 'c', '3', '9', 'x', 'é'};
+        Random random = new Random(16);
+        for (int n = 0; n < 20000; n++) {
+            char[] chars = new char[random.nextInt(10)];
+            for (int i = 0; i < chars.length; i++) {
+                chars[i] = alphabet[random.nextInt(alphabet.length)];
+            }
+            assertSameAsCodec(new String(chars), strict);
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {true, false})
+    void testDecoderIsReusable(boolean strict) {
+        QuotedPrintableDecoder decoder = new QuotedPrintableDecoder(StandardCharsets.UTF_8, strict);
+        assertNull(decoder.decode("=Z", StandardCharsets.UTF_8));
+        assertEquals("café", decoder.decode("caf=C3=A9", StandardCharsets.UTF_8));
+        assertEquals("a", decoder.decode("a", StandardCharsets.UTF_8));
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {true, false})
+    void testTargetCharset(boolean strict) {
+        QuotedPrintableDecoder decoder = new QuotedPrintableDecoder(StandardCharsets.UTF_8, strict);
+        assertEquals("café", decoder.decode("caf=E9", StandardCharsets.ISO_8859_1));
+    }
+}
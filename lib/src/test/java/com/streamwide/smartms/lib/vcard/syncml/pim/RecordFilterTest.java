@@ -0,0 +1,201 @@
+/*
+ *
+ * 	StreamWIDE (Team on The Run)
+ *
+ * @createdBy  AndroidTeam on Mon, 19 Oct 2026 03:21:10 +0100
+ * @copyright  Copyright (c) 2026 StreamWIDE UK Ltd (Team on the Run)
+ * @email      support@teamontherun.com
+ *
+ * 	© Copyright 2026 StreamWIDE UK Ltd (Team on the Run). StreamWIDE is the copyright holder
+ * 	of all code contained in this file. Do not redistribute or
+ *  	re-use without permission.
+ *
+ * @lastModifiedOn Mon, 19 Oct 2026 03:21:10 +0100
+ */
+
+package com.streamwide.smartms.lib.vcard.syncml.pim;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import androidx.annotation.NonNull;
+
+import com.streamwide.smartms.lib.vcard.logger.Logger;
+import com.streamwide.smartms.lib.vcard.syncml.pim.vcard.ParseStatistics;
+import com.streamwide.smartms.lib.vcard.syncml.pim.vcard.VCardException;
+import com.streamwide.smartms.lib.vcard.syncml.pim.vcard.VCardParserV21;
+import com.streamwide.smartms.lib.vcard.syncml.pim.vcard.VCardVersionDispatcher;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+class RecordFilterTest {
+
+    private static final int COUNT = 20;
+
+    @BeforeAll
+    static void setUpLogger() {
+        Logger.setLogLevel(Logger.LogLevel.OFF);
+    }
+
+    /** @return COUNT entries, every 3rd one with a French mobile phone number. */
+    private static String entries(String version) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < COUNT; i++) {
+            builder.append("BEGIN:VCARD\r\n")
+                    .append("VERSION:").append(version).append("\r\n")
+                    .append("UID:uid-").append(i).append("\r\n")
+                    .append("TEL;CELL:").append(i % 3 == 0 ? "+33 6 " : "+1 555 ").append(i).append("\r\n")
+                    .append("FN:Name ").append(i).append("\r\n")
+                    .append(version.equals("3.0") ? "NOTE:café\r\n  au lait\r\n"
+                            : "NOTE;ENCODING=QUOTED-PRINTABLE:caf=C3=A9 =\r\nau lait\r\n")
+                    .append(version.equals("3.0") ? "PHOTO;ENCODING=b:\r\n" : "PHOTO;ENCODING=BASE64:\r\n")
+                    .append(" R0lGODlhAQABAIAAAP///wAAACH5BAEAAAAALAAAAAABAAEAAAICRAEAOw==\r\n")
+                    .append("\r\n")
+                    .append("END:VCARD\r\n");
+        }
+        return builder.toString();
+    }
+
+    private static List<VNode> parse(VCardParserV21 parser, VDataBuilder builder, String text)
+            throws IOException, VCardException {
+        parser.parse(new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)), "UTF-8", builder);
+        return builder.getVNodeList();
+    }
+
+    private static String value(VNode node, String name) {
+        for (PropertyNode propertyNode : node.getPropList()) {
+            if (propertyNode.getPropName().equals(name)) {
+                return propertyNode.getPropValue();
+            }
+        }
+        return null;
+    }
+
+    /** Decides on the first TEL, and counts its calls. */
+    private static class FrenchMobileFilter implements VDataBuilder.RecordFilter {
+        final List<String> mProperties = new ArrayList<>();
+        int mAcceptRecordCount;
+
+        public int onProperty(@NonNull VNode record, @NonNull PropertyNode propertyNode) {
+            mProperties.add(propertyNode.getPropName());
+            if (!propertyNode.getPropName().equals("TEL")) {
+                return UNDECIDED;
+            }
+            return propertyNode.getPropValue().startsWith("+33") ? ACCEPT : REJECT;
+        }
+
+        public boolean acceptRecord(@NonNull VNode record) {
+            mAcceptRecordCount++;
+            return false;
+        }
+    }
+
+    private static void assertSameNodes(List<VNode> expected, List<VNode> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getPropList(), actual.get(i).getPropList());
+        }
+    }
+
+    /** @return the records of the unfiltered parse for which the TEL is French. */
+    private static List<VNode> expected(VCardParserV21 parser, String text) throws IOException, VCardException {
+        List<VNode> nodes = new ArrayList<>();
+        for (VNode node : parse(parser, new VDataBuilder(), text)) {
+            if (value(node, "TEL").startsWith("+33")) {
+                nodes.add(node);
+            }
+        }
+        return nodes;
+    }
+
+    @Test
+    void testRejectedRecords() throws IOException, VCardException {
+        String text = entries("2.1");
+        FrenchMobileFilter filter = new FrenchMobileFilter();
+        VDataBuilder builder = new VDataBuilder();
+        builder.setRecordFilter(filter);
+        ParseStatistics statistics = new ParseStatistics();
+        VCardParserV21 parser = new VCardParserV21();
+        parser.setParseMetrics(statistics);
+        List<VNode> nodes = parse(parser, builder, text);
+
+        assertSameNodes(expected(new VCardParserV21(), text), nodes);
+        assertEquals(7, nodes.size());
+        // VERSION, UID and TEL of each record, and nothing once it is decided.
+        assertEquals(3 * COUNT, filter.mProperties.size());
+        assertEquals(0, filter.mAcceptRecordCount);
+        // The rest of the rejected records is skipped.
+        assertEquals(7, (long) statistics.getPropertyCounts().get("NOTE"));
+        assertEquals(7, (long) statistics.getPropertyCounts().get("PHOTO"));
+        assertEquals(COUNT, statistics.getRecordCount());
+    }
+
+    @Test
+    void testUndecidedRecords() throws IOException, VCardException {
+        String text = entries("2.1").replace("TEL;CELL", "X-TEL");
+        FrenchMobileFilter filter = new FrenchMobileFilter();
+        VDataBuilder builder = new VDataBuilder();
+        builder.setRecordFilter(filter);
+        assertEquals(0, parse(new VCardParserV21(), builder, text).size());
+        assertEquals(COUNT, filter.mAcceptRecordCount);
+        assertEquals(6 * COUNT, filter.mProperties.size());
+
+        builder = new VDataBuilder();
+        builder.setRecordFilter(new VDataBuilder.RecordFilter() {
+            public int onProperty(@NonNull VNode record, @NonNull PropertyNode propertyNode) {
+                return UNDECIDED;
+            }
+
+            public boolean acceptRecord(@NonNull VNode record) {
+                return value(record, "UID").equals("uid-4");
+            }
+        });
+        List<VNode> nodes = parse(new VCardParserV21(), builder, text);
+        assertEquals(1, nodes.size());
+        assertEquals("Name 4", value(nodes.get(0), "FN"));
+    }
+
+    @Test
+    void testVersionDispatcher() throws IOException, VCardException {
+        String text = entries("2.1") + entries("3.0");
+        VDataBuilder builder = new VDataBuilder();
+        builder.setRecordFilter(new FrenchMobileFilter());
+        List<VNode> nodes = parse(new VCardVersionDispatcher(), builder, text);
+        assertSameNodes(expected(new VCardVersionDispatcher(), text), nodes);
+        assertEquals(14, nodes.size());
+    }
+
+    @Test
+    void testWithPropertyFilter() throws IOException, VCardException {
+        VDataBuilder builder = new VDataBuilder();
+        builder.setRecordFilter(new FrenchMobileFilter());
+        VCardParserV21 parser = new VCardParserV21();
+        parser.setPropertyFilter(Arrays.asList("TEL", "FN"));
+        List<VNode> nodes = parse(parser, builder, entries("2.1"));
+        assertEquals(7, nodes.size());
+        assertEquals("Name 3", value(nodes.get(1), "FN"));
+        assertNull(value(nodes.get(1), "NOTE"));
+    }
+
+    @Test
+    void testResetKeepsTheFilter() throws IOException, VCardException {
+        String text = entries("2.1");
+        VDataBuilder builder = new VDataBuilder();
+        builder.setRecordFilter(new FrenchMobileFilter());
+        parse(new VCardParserV21(), builder, text);
+        builder.reset();
+        assertEquals(7, parse(new VCardParserV21(), builder, text).size());
+
+        builder.setRecordFilter(null);
+        builder.reset();
+        assertEquals(COUNT, parse(new VCardParserV21(), builder, text).size());
+    }
+}
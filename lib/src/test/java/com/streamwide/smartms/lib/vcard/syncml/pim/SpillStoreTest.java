@@ -0,0 +1,157 @@
+/*
+ *
+ * 	StreamWIDE (Team on The Run)
+ *
+ * @createdBy  AndroidTeam on Mon, 19 Oct 2026 02:39:44 +0100
+ * @copyright  Copyright (c) 2026 StreamWIDE UK Ltd (Team on the Run)
+ * @email      support@teamontherun.com
+ *
+ * 	© Copyright 2026 StreamWIDE UK Ltd (Team on the Run). StreamWIDE is the copyright holder
+ * 	of all code contained in this file. Do not redistribute or
+ *  	re-use without permission.
+ *
+ * @lastModifiedOn Mon, 19 Oct 2026 02:39:44 +0100
+ */
+
+package com.streamwide.smartms.lib.vcard.syncml.pim;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.streamwide.smartms.lib.vcard.logger.Logger;
+import com.streamwide.smartms.lib.vcard.syncml.pim.vcard.VCardException;
+import com.streamwide.smartms.lib.vcard.syncml.pim.vcard.VCardParserV21;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Objects;
+
+class SpillStoreTest {
+
+    private static final String LONG_NOTE = "A note which is longer than the threshold, été";
+    private static final String VCARD = "BEGIN:VCARD\r\n"
+            + "VERSION:2.1\r\n"
+            + "FN:Short\r\n"
+            + "N:A name which is longer;than the threshold;;;\r\n"
+            + "NOTE:" + LONG_NOTE + "\r\n"
+            + "NOTE;ENCODING=QUOTED-PRINTABLE;CHARSET=UTF-8:caf=C3=A9 au lait, and some more text\r\n"
+            + "PHOTO;ENCODING=BASE64:R0lGODlhAQABAIAAAP///wAAACH5BAEAAAAALAAAAAABAAEAAAICRAEAOw==\r\n"
+            + "\r\n"
+            + "END:VCARD\r\n";
+
+    @TempDir
+    File mDirectory;
+
+    @BeforeAll
+    static void setUpLogger() {
+        Logger.setLogLevel(Logger.LogLevel.OFF);
+    }
+
+    private static List<VNode> parse(VDataBuilder builder) throws IOException, VCardException {
+        new VCardParserV21().parse(new ByteArrayInputStream(VCARD.getBytes(StandardCharsets.UTF_8)),
+                "UTF-8", builder);
+        return builder.getVNodeList();
+    }
+
+    private int fileCount() {
+        return Objects.requireNonNull(mDirectory.list()).length;
+    }
+
+    @Test
+    void testAppendAndRead() throws IOException {
+        SpillStore store = new SpillStore(mDirectory);
+        assertEquals(1, fileCount());
+        assertEquals(0, store.append(new byte[] {1, 2, 3}));
+        assertEquals(3, store.append(new byte[0]));
+        assertEquals(3, store.append(new byte[] {4, 5}));
+        assertArrayEquals(new byte[] {3, 4}, store.read(2, 4));
+        assertArrayEquals(new byte[] {1, 2, 3, 4, 5}, store.read(0, 5));
+        store.close();
+        assertEquals(0, fileCount());
+        assertThrows(IOException.class, () -> store.read(0, 1));
+    }
+
+    @Test
+    void testSpilledValues() throws IOException, VCardException {
+        List<VNode> expected = parse(new VDataBuilder());
+        VDataBuilder builder = new VDataBuilder();
+        builder.setSpillThreshold(16, mDirectory);
+        List<VNode> vnodes = parse(builder);
+        assertEquals(1, fileCount());
+
+        assertEquals(expected.get(0).getPropList(), vnodes.get(0).getPropList());
+        for (int i = 0; i < expected.get(0).getPropList().size(); i++) {
+            PropertyNode expectedNode = expected.get(0).getPropList().get(i);
+            PropertyNode propertyNode = vnodes.get(0).getPropList().get(i);
+            assertEquals(expectedNode.getPropValue(), propertyNode.getPropValue());
+            assertEquals(expectedNode.getPropValueVector(), propertyNode.getPropValueVector());
+            assertArrayEquals(expectedNode.getPropValueBytes(), propertyNode.getPropValueBytes());
+        }
+
+        builder.close();
+        assertEquals(0, fileCount());
+        PropertyNode note = vnodes.get(0).getPropList().get(3);
+        assertThrows(UncheckedIOException.class, note::getPropValue);
+        PropertyNode photo = vnodes.get(0).getPropList().get(5);
+        assertThrows(UncheckedIOException.class, photo::getPropValueBytes);
+        // Values which were not spilled are still there.
+        assertEquals("Short", vnodes.get(0).getPropList().get(1).getPropValue());
+        assertEquals(5, vnodes.get(0).getPropList().get(2).getPropValueVector().size());
+    }
+
+    @Test
+    void testSetValueKeepsItInMemory() throws IOException, VCardException {
+        VDataBuilder builder = new VDataBuilder();
+        builder.setSpillThreshold(16, mDirectory);
+        PropertyNode note = parse(builder).get(0).getPropList().get(3);
+        note.setPropValueVector(note.getPropValueVector());
+        builder.close();
+        assertEquals(LONG_NOTE, note.getPropValue());
+        assertEquals(LONG_NOTE, note.getPropValueVector().get(0));
+    }
+
+    @Test
+    void testResetKeepsTheFile() throws IOException, VCardException {
+        VDataBuilder builder = new VDataBuilder();
+        builder.setSpillThreshold(16, mDirectory);
+        PropertyNode note = parse(builder).get(0).getPropList().get(3);
+        builder.reset();
+        PropertyNode other = parse(builder).get(0).getPropList().get(3);
+        assertEquals(1, fileCount());
+        assertEquals(LONG_NOTE, note.getPropValue());
+        assertEquals(LONG_NOTE, other.getPropValue());
+        builder.close();
+        builder.close();
+        assertEquals(0, fileCount());
+    }
+
+    @Test
+    void testNoFileWithoutThreshold() throws IOException, VCardException {
+        VDataBuilder builder = new VDataBuilder();
+        builder.setSpillThreshold(1000, mDirectory);
+        parse(builder);
+        assertEquals(0, fileCount());
+        builder.setSpillThreshold(-1, mDirectory);
+        parse(builder);
+        assertEquals(0, fileCount());
+    }
+
+    @Test
+    void testValuesKeptWhenTheFileCannotBeCreated() throws IOException, VCardException {
+        VDataBuilder builder = new VDataBuilder();
+        builder.setSpillThreshold(16, new File(mDirectory, "missing"));
+        List<VNode> vnodes = parse(builder);
+        builder.close();
+        assertEquals(LONG_NOTE, vnodes.get(0).getPropList().get(3).getPropValue());
+        assertEquals(43, vnodes.get(0).getPropList().get(5).getPropValueBytes().length);
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ *
+ * 	StreamWIDE (Team on The Run)
+ *
+ * @createdBy  AndroidTeam on Sun, 18 Oct 2026 23:52:37 +0100
+ * @copyright  Copyright (c) 2026 StreamWIDE UK Ltd (Team on the Run)
+ * @email      support@teamontherun.com
+ *
+ * 	© Copyright 2026 StreamWIDE UK Ltd (Team on the Run). StreamWIDE is the copyright holder
+ * 	of all code contained in this file. Do not redistribute or
+ *  	re-use without permission.
+ *
+ * @lastModifiedOn Sun, 18 Oct 2026 23:52:37 +0100
+ */
+
+package com.streamwide.smartms.lib.vcard.syncml.pim.vcard;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import com.streamwide.smartms.lib.vcard.syncml.pim.PropertyNode;
+import com.streamwide.smartms.lib.vcard.syncml.pim.VDataBuilder;
+import com.streamwide.smartms.lib.vcard.syncml.pim.VNode;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+class BinarySinkTest {
+
+    private static final int COUNT = 20;
+
+    @BeforeAll
+    static void setUpLogger() {
+        VCardTestUtils.disableLogger();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"UTF-8", "ISO-8859-1", "UTF-16LE"})
+    void testSinkReceivesTheDecodedBytes(String charset) throws IOException, VCardException {
+        byte[] bytes = new String(VCardTestUtils.vcard21Entries(COUNT), StandardCharsets.UTF_8)
+                .getBytes(charset);
+        VDataBuilder expected = new VDataBuilder();
+        new VCardParserV21().parse(new ByteArrayInputStream(bytes), charset, expected);
+
+        List<ByteArrayOutputStream> sinks = new ArrayList<>();
+        VDataBuilder builder = new VDataBuilder();
+        builder.setBinarySinkFactory(propertyNode -> {
+            ByteArrayOutputStream sink = new ByteArrayOutputStream();
+            sinks.add(sink);
+            return sink;
+        });
+        new VCardParserV21().parse(new ByteArrayInputStream(bytes), charset, builder);
+
+        assertEquals(COUNT / 5, sinks.size());
+        int n = 0;
+        List<VNode> vnodes = builder.getVNodeList();
+        for (int i = 0; i < COUNT; i++) {
+            List<PropertyNode> expectedProperties = expected.getVNodeList().get(i).getPropList();
+            List<PropertyNode> properties = vnodes.get(i).getPropList();
+            assertEquals(expectedProperties.size(), properties.size());
+            for (int j = 0; j < properties.size(); j++) {
+                PropertyNode propertyNode = properties.get(j);
+                if (!propertyNode.getPropName().equals("PHOTO")) {
+                    assertEquals(expectedProperties.get(j), propertyNode);
+                    continue;
+                }
+                assertArrayEquals(expectedProperties.get(j).getPropValueBytes(),
+                        sinks.get(n++).toByteArray());
+                assertNull(propertyNode.getPropValueBytes());
+                assertEquals("", propertyNode.getPropValue());
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {true, false})
+    void testNullSinkKeepsTheBytes(boolean firstLineEmpty) throws IOException, VCardException {
+        String photo = firstLineEmpty
+                ? "PHOTO;ENCODING=BASE64:\r\n AAEC\r\n A/8=\r\n\r\n"
+                : "PHOTO;ENCODING=BASE64:AAEC\r\n A/8=\r\n\r\n";
+        byte[] bytes = ("BEGIN:VCARD\r\nVERSION:2.1\r\n" + photo + "END:VCARD\r\n")
+                .getBytes(StandardCharsets.US_ASCII);
+        VDataBuilder builder = new VDataBuilder();
+        builder.setBinarySinkFactory(propertyNode -> null);
+        new VCardParserV21().parse(new ByteArrayInputStream(bytes), "UTF-8", builder);
+
+        PropertyNode propertyNode = builder.getVNodeList().get(0).getPropList().get(1);
+        assertArrayEquals(new byte[] {0, 1, 2, 3, (byte) 0xFF}, propertyNode.getPropValueBytes());
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ *
+ * 	StreamWIDE (Team on The Run)
+ *
+ * @createdBy  AndroidTeam on Sun, 18 Oct 2026 22:14:05 +0100
+ * @copyright  Copyright (c) 2026 StreamWIDE UK Ltd (Team on the Run)
+ * @email      support@teamontherun.com
+ *
+ * 	© Copyright 2026 StreamWIDE UK Ltd (Team on the Run). StreamWIDE is the copyright holder
+ * 	of all code contained in this file. Do not redistribute or
+ *  	re-use without permission.
+ *
+ * @lastModifiedOn Sun, 18 Oct 2026 22:14:05 +0100
+ */
+
+package com.streamwide.smartms.lib.vcard.syncml.pim.vcard;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+class ByteScannerTest {
+
+    // The wanted bytes, bytes differing from them by one bit, and bytes with the high bit set.
+    private static final byte[] ALPHABET = {
+            '\r', '\n', ':', ';', '.', '"',
+            '\f', '\u000b', '\t', '\u000e', (byte) (';' ^ 0x80), ':' ^ 0x40, '/', '*', '#',
+            'a', 'Z', '0', ' ', 0, (byte) 0x80, (byte) 0x8d, (byte) 0xba, (byte) 0xff,
+    };
+
+    private static int indexOfLineBreak(byte[] buffer, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (buffer[i] == '\r' || buffer[i] == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int indexOfDelimiter(byte[] buffer, int from, int to) {
+        for (int i = from; i < to; i++) {
+            byte b = buffer[i];
+            if (b == ':' || b == ';' || b == '.' || b == '"') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static void assertScans(byte[] buffer) {
+        ByteScanner scanner = new ByteScanner(buffer);
+        for (int from = 0; from <= buffer.length; from++) {
+            for (int to = from; to <= buffer.length; to++) {
+                assertEquals(indexOfLineBreak(buffer, from, to), scanner.indexOfLineBreak(from, to),
+                        "indexOfLineBreak(" + from + ", " + to + ")");
+                assertEquals(indexOfDelimiter(buffer, from, to), scanner.indexOfDelimiter(from, to),
+                        "indexOfDelimiter(" + from + ", " + to + ")");
+            }
+        }
+    }
+
+    @Test
+    void testSingleMatchAtEveryAlignment() {
+        for (byte wanted : new byte[] {'\r', '\n', ':', ';', '.', '"'}) {
+            for (int position = 0; position < 24; position++) {
+                byte[] buffer = new byte[24];
+                Arrays.fill(buffer, (byte) 'x');
+                buffer[position] = wanted;
+                assertScans(buffer);
+            }
+        }
+    }
+
+    @Test
+    void testNoMatch() {
+        byte[] buffer = new byte[40];
+        for (int i = 0; i < buffer.length; i++) {
+            buffer[i] = ALPHABET[6 + i % (ALPHABET.length - 6)];
+        }
+        assertScans(buffer);
+    }
+
+    @Test
+    void testRandomBuffers() {
+        Random random = new Random(42);
+        for (int n = 0; n < 200; n++) {
+            byte[] buffer = new byte[random.nextInt(48)];
+            // Mostly other bytes, so that matches are found at any distance from 'from'.
+            for (int i = 0; i < buffer.length; i++) {
+                buffer[i] = random.nextInt(8) == 0
+                        ? ALPHABET[random.nextInt(6)]
+                        : ALPHABET[6 + random.nextInt(ALPHABET.length - 6)];
+            }
+            assertScans(buffer);
+        }
+    }
+}
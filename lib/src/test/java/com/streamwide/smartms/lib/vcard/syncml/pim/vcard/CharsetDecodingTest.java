@@ -0,0 +1,150 @@
+/*
+ *
+ * 	StreamWIDE (Team on The Run)
+ *
+ * @createdBy  AndroidTeam on Mon, 19 Oct 2026 02:48:19 +0100
+ * @copyright  Copyright (c) 2026 StreamWIDE UK Ltd (Team on the Run)
+ * @email      support@teamontherun.com
+ *
+ * 	© Copyright 2026 StreamWIDE UK Ltd (Team on the Run). StreamWIDE is the copyright holder
+ * 	of all code contained in this file. Do not redistribute or
+ *  	re-use without permission.
+ *
+ * @lastModifiedOn Mon, 19 Oct 2026 02:48:19 +0100
+ */
+
+package com.streamwide.smartms.lib.vcard.syncml.pim.vcard;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.streamwide.smartms.lib.vcard.syncml.pim.CharsetCache;
+import com.streamwide.smartms.lib.vcard.syncml.pim.PropertyNode;
+import com.streamwide.smartms.lib.vcard.syncml.pim.VDataBuilder;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+class CharsetDecodingTest {
+
+    private static final Charset SHIFT_JIS = Charset.forName("Shift_JIS");
+
+    @BeforeAll
+    static void setUpLogger() {
+        VCardTestUtils.disableLogger();
+    }
+
+    /** @return the lines, each one encoded in the charset which follows it. */
+    private static byte[] vcard(Object... linesAndCharsets) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] begin = "BEGIN:VCARD\r\nVERSION:2.1\r\n".getBytes(StandardCharsets.US_ASCII);
+        out.write(begin, 0, begin.length);
+        for (int i = 0; i < linesAndCharsets.length; i += 2) {
+            byte[] line = (linesAndCharsets[i] + "\r\n").getBytes((Charset) linesAndCharsets[i + 1]);
+            out.write(line, 0, line.length);
+        }
+        byte[] end = "END:VCARD\r\n".getBytes(StandardCharsets.US_ASCII);
+        out.write(end, 0, end.length);
+        return out.toByteArray();
+    }
+
+    private static List<PropertyNode> parse(byte[] bytes, String charset, VDataBuilder builder)
+            throws IOException, VCardException {
+        new VCardParserV21().parse(new ByteArrayInputStream(bytes), charset, builder);
+        List<PropertyNode> propertyNodes = builder.getVNodeList().get(0).getPropList();
+        // Without VERSION.
+        return propertyNodes.subList(1, propertyNodes.size());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"UTF-8", "ISO-8859-1", "Shift_JIS", "windows-1252"})
+    void testValuesInTheParserCharset(String charset) throws IOException, VCardException {
+        String name = "José 日本 €";
+        Charset parserCharset = Charset.forName(charset);
+        String expected = new String(name.getBytes(parserCharset), parserCharset);
+        byte[] bytes = vcard("FN:" + name, parserCharset, "N:" + name + ";b", parserCharset);
+        List<PropertyNode> propertyNodes = parse(bytes, charset, new VDataBuilder());
+        assertEquals(expected, propertyNodes.get(0).getPropValue());
+        assertEquals(Arrays.asList(expected, "b"), propertyNodes.get(1).getPropValueVector());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"ISO-8859-1", "Shift_JIS"})
+    void testSourceCharsetOfTheBuilder(String charset) throws IOException, VCardException {
+        // The builder reads the bytes as UTF-8, as it did by encoding the values back in the
+        // charset of the parser.
+        byte[] bytes = vcard("FN:José 日本", StandardCharsets.UTF_8, "N:日本;é", StandardCharsets.UTF_8);
+        List<PropertyNode> propertyNodes = parse(bytes, charset, new VDataBuilder(charset, "UTF-8", false));
+        assertEquals("José 日本", propertyNodes.get(0).getPropValue());
+        assertEquals(Arrays.asList("日本", "é"), propertyNodes.get(1).getPropValueVector());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"UTF-8", "ISO-8859-1"})
+    void testCharsetParam(String charset) throws IOException, VCardException {
+        byte[] bytes = vcard(
+                "NOTE;CHARSET=ISO-8859-1:café", StandardCharsets.ISO_8859_1,
+                "NOTE;CHARSET=SHIFT_JIS:日本", SHIFT_JIS,
+                "NOTE;CHARSET=UTF-8:été", StandardCharsets.UTF_8,
+                "N;CHARSET=SHIFT_JIS:日;本", SHIFT_JIS,
+                "NOTE;ENCODING=QUOTED-PRINTABLE;CHARSET=ISO-8859-1:caf=E9", StandardCharsets.US_ASCII);
+        List<PropertyNode> propertyNodes = parse(bytes, charset, new VDataBuilder());
+        assertEquals("café", propertyNodes.get(0).getPropValue());
+        assertEquals("日本", propertyNodes.get(1).getPropValue());
+        assertEquals("été", propertyNodes.get(2).getPropValue());
+        assertEquals(Arrays.asList("日", "本"), propertyNodes.get(3).getPropValueVector());
+        assertEquals("café", propertyNodes.get(4).getPropValue());
+    }
+
+    @Test
+    void testCharsetParamNotCompatibleWithAscii() throws IOException, VCardException {
+        // The value cannot be decoded alone in UTF-16, and is decoded in the charset of the parser.
+        byte[] bytes = vcard("NOTE;CHARSET=UTF-16:é", StandardCharsets.UTF_8);
+        assertEquals("é", parse(bytes, "UTF-8", new VDataBuilder()).get(0).getPropValue());
+    }
+
+    @Test
+    void testStringSource() throws IOException, VCardException {
+        VDataBuilder builder = new VDataBuilder();
+        new VCardParser().parse("BEGIN:VCARD\r\nVERSION:2.1\r\nNOTE;CHARSET=SHIFT_JIS:日本\r\nEND:VCARD\r\n",
+                "UTF-8", builder);
+        assertEquals("日本", builder.getVNodeList().get(0).getPropList().get(1).getPropValue());
+    }
+
+    @Test
+    void testAsciiCompatibility() {
+        for (String charset : new String[] {"UTF-8", "US-ASCII", "ISO-8859-1", "windows-1252", "Shift_JIS", "EUC-JP"}) {
+            assertTrue(CharsetCache.isAsciiCompatible(Charset.forName(charset)), charset);
+        }
+        for (String charset : new String[] {"UTF-16", "UTF-16LE", "UTF-32", "IBM037"}) {
+            assertFalse(CharsetCache.isAsciiCompatible(Charset.forName(charset)), charset);
+        }
+    }
+
+    @Test
+    void testDecodeIsSameAsString() {
+        Random random = new Random(3);
+        for (String charset : new String[] {"UTF-8", "ISO-8859-1", "US-ASCII", "Shift_JIS", "windows-1252", "UTF-16LE"}) {
+            for (int i = 0; i < 200; i++) {
+                byte[] bytes = new byte[random.nextInt(32)];
+                random.nextBytes(bytes);
+                int offset = bytes.length == 0 ? 0 : random.nextInt(bytes.length);
+                int length = random.nextInt(bytes.length - offset + 1);
+                assertEquals(new String(bytes, offset, length, Charset.forName(charset)),
+                        CharsetCache.decode(bytes, offset, length, Charset.forName(charset)), charset);
+            }
+        }
+    }
+}
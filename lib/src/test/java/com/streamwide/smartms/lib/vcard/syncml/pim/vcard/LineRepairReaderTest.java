@@ -0,0 +1,133 @@
+/*
+ *
+ * 	StreamWIDE (Team on The Run)
+ *
+ * @createdBy  AndroidTeam on Mon, 19 Oct 2026 02:31:08 +0100
+ * @copyright  Copyright (c) 2026 StreamWIDE UK Ltd (Team on the Run)
+ * @email      support@teamontherun.com
+ *
+ * 	© Copyright 2026 StreamWIDE UK Ltd (Team on the Run). StreamWIDE is the copyright holder
+ * 	of all code contained in this file. Do not redistribute or
+ *  	re-use without permission.
+ *
+ * @lastModifiedOn Mon, 19 Oct 2026 02:31:08 +0100
+ */
+
+package com.streamwide.smartms.lib.vcard.syncml.pim.vcard;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.streamwide.smartms.lib.vcard.syncml.pim.VDataBuilder;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+class LineRepairReaderTest {
+
+    private static final String VCARD = "BEGIN:VCARD\n"
+            + "VERSION:2.1\r\n"
+            + "N:Doe;John\n"
+            + "NOTE;ENCODING=QUOTED-PRINTABLE:caf=C3=A9 =\r\n"
+            + "au lait\n"
+            + "PHOTO;ENCODING=BASE64:\n"
+            + "R0lGODlhAQABAIAAAP///wAAACH5BAEAAAAALAAAAAABAAEAAAICRAEAOw==\n"
+            + "\n"
+            + "\n"
+            + "FN:John Doe\n"
+            + "\n"
+            + "END:VCARD\n"
+            + "\n";
+
+    @BeforeAll
+    static void setUpLogger() {
+        VCardTestUtils.disableLogger();
+    }
+
+    /** VCardParser.verifyVCard() as it was, without the version detection. */
+    private static String verifyVCard(String vcardStr) {
+        vcardStr = vcardStr.replaceAll("\r\n", "\n");
+        String[] strlist = vcardStr.split("\n");
+        StringBuilder v21str = new StringBuilder("");
+        for (int i = 0; i < strlist.length; i++) {
+            if (strlist[i].indexOf(':') < 0) {
+                if (strlist[i].length() == 0 && strlist[i + 1].indexOf(':') > 0)
+                    v21str.append(strlist[i]).append("\r\n");
+                else
+                    v21str.append(" ").append(strlist[i]).append("\r\n");
+            } else
+                v21str.append(strlist[i]).append("\r\n");
+        }
+        return v21str.toString();
+    }
+
+    private static String readAll(String text, int bufferSize) {
+        LineRepairReader reader = new LineRepairReader(text);
+        StringBuilder builder = new StringBuilder();
+        char[] buffer = new char[bufferSize];
+        int count;
+        while ((count = reader.read(buffer, 0, buffer.length)) >= 0) {
+            builder.append(buffer, 0, count);
+        }
+        return builder.toString();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 2, 5, 4096})
+    void testSameAsVerifyVCard(int bufferSize) {
+        assertEquals(verifyVCard(VCARD), readAll(VCARD, bufferSize));
+    }
+
+    @Test
+    void testRandomText() {
+        char[] alphabet = {'a', ':', ' ', '\r', '\n', '\n'};
+        Random random = new Random(7);
+        for (int i = 0; i < 5000; i++) {
+            char[] chars = new char[1 + random.nextInt(20)];
+            for (int j = 0; j < chars.length; j++) {
+                chars[j] = alphabet[random.nextInt(alphabet.length)];
+            }
+            String text = new String(chars);
+            assertEquals(verifyVCard(text), readAll(text, 1 + random.nextInt(8)),
+                    text.replace("\r", "\\r").replace("\n", "\\n"));
+        }
+    }
+
+    @Test
+    void testEmptyText() {
+        assertEquals("", readAll("", 16));
+        assertEquals("", readAll("\n\r\n", 16));
+        assertEquals(0, new LineRepairReader("a").read(new char[4], 0, 0));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"UTF-8", "ISO-8859-1", "US-ASCII", "Shift_JIS"})
+    void testSameNodesAsRepairedBytes(String charset) throws IOException, VCardException {
+        String text = VCARD.replace("FN:John Doe", "FN:Jöhn 日本 \uD83D\uDE00");
+        VDataBuilder expected = new VDataBuilder();
+        new VCardVersionDispatcher().parse(
+                new ByteArrayInputStream(verifyVCard(text).getBytes(charset)), charset, expected);
+        VDataBuilder actual = new VDataBuilder();
+        new VCardParser().parse(text, charset, actual);
+        VCardTestUtils.assertSameNodes(expected.getVNodeList(), actual.getVNodeList());
+    }
+
+    @Test
+    void testLongText() throws IOException, VCardException {
+        String text = new String(VCardTestUtils.vcard21Entries(200), StandardCharsets.UTF_8).replace("\r\n", "\n");
+        assertEquals(verifyVCard(text), readAll(text, 1000));
+        VDataBuilder expected = new VDataBuilder();
+        new VCardVersionDispatcher().parse(new ByteArrayInputStream(
+                verifyVCard(text).getBytes(StandardCharsets.UTF_8)), "UTF-8", expected);
+        VDataBuilder actual = new VDataBuilder();
+        new VCardParser().parse(text, "UTF-8", actual);
+        assertEquals(200, actual.getVNodeList().size());
+        VCardTestUtils.assertSameNodes(expected.getVNodeList(), actual.getVNodeList());
+    }
+}
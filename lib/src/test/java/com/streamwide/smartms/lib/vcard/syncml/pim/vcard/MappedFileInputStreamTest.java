@@ -0,0 +1,136 @@
+/*
+ *
+ * 	StreamWIDE (Team on The Run)
+ *
+ * @createdBy  AndroidTeam on Mon, 19 Oct 2026 00:41:06 +0100
+ * @copyright  Copyright (c) 2026 StreamWIDE UK Ltd (Team on the Run)
+ * @email      support@teamontherun.com
+ *
+ * 	© Copyright 2026 StreamWIDE UK Ltd (Team on the Run). StreamWIDE is the copyright holder
+ * 	of all code contained in this file. Do not redistribute or
+ *  	re-use without permission.
+ *
+ * @lastModifiedOn Mon, 19 Oct 2026 00:41:06 +0100
+ */
+
+package com.streamwide.smartms.lib.vcard.syncml.pim.vcard;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.streamwide.smartms.lib.vcard.syncml.pim.VDataBuilder;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+class MappedFileInputStreamTest {
+
+    private static final byte[] DATA = new byte[1000];
+
+    @TempDir
+    File mDirectory;
+    private File mFile;
+
+    @BeforeAll
+    static void setUpData() {
+        VCardTestUtils.disableLogger();
+        for (int i = 0; i < DATA.length; i++) {
+            DATA[i] = (byte) (i * 31);
+        }
+    }
+
+    @BeforeEach
+    void setUpFile() throws IOException {
+        mFile = new File(mDirectory, "data");
+        Files.write(mFile.toPath(), DATA);
+    }
+
+    private FileChannel open() throws IOException {
+        return FileChannel.open(mFile.toPath(), StandardOpenOption.READ);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 7, 100, 1000, 4096})
+    void testReadAcrossWindows(int windowSize) throws IOException {
+        try (FileChannel channel = open();
+             MappedFileInputStream is = new MappedFileInputStream(channel, 10, 990, windowSize)) {
+            assertEquals(980, is.available());
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[13];
+            int count;
+            while ((count = is.read(buffer, 0, buffer.length)) >= 0) {
+                out.write(buffer, 0, count);
+            }
+            assertArrayEquals(Arrays.copyOfRange(DATA, 10, 990), out.toByteArray());
+            assertEquals(0, is.available());
+            assertEquals(-1, is.read());
+        }
+    }
+
+    @Test
+    void testSingleByteReadAndSkip() throws IOException {
+        try (FileChannel channel = open();
+             MappedFileInputStream is = new MappedFileInputStream(channel, 0, DATA.length, 64)) {
+            assertEquals(DATA[0] & 0xff, is.read());
+            assertEquals(100, is.skip(100));
+            assertEquals(DATA[101] & 0xff, is.read());
+            assertEquals(DATA.length - 102, is.available());
+            assertEquals(DATA.length - 102, is.skip(5000));
+            assertEquals(-1, is.read());
+            assertEquals(0, is.skip(1));
+        }
+    }
+
+    @Test
+    void testInvalidRegion() throws IOException {
+        try (FileChannel channel = open()) {
+            assertThrows(IllegalArgumentException.class, () -> new MappedFileInputStream(channel, -1, 5));
+            assertThrows(IllegalArgumentException.class, () -> new MappedFileInputStream(channel, 5, 4));
+            assertThrows(IllegalArgumentException.class,
+                    () -> new MappedFileInputStream(channel, 0, 5, 1L << 31));
+        }
+    }
+
+    @Test
+    void testCloseKeepsTheChannelOpen() throws IOException {
+        try (FileChannel channel = open()) {
+            MappedFileInputStream is = new MappedFileInputStream(channel, 0, DATA.length, 64);
+            is.read();
+            is.close();
+            assertThrows(IOException.class, is::read);
+            assertThrows(IOException.class, () -> is.read(new byte[4], 0, 4));
+            assertThrows(IOException.class, () -> is.skip(1));
+            assertEquals(0, is.available());
+            assertTrue(channel.isOpen());
+            assertEquals(0, channel.position());
+        }
+    }
+
+    @Test
+    void testParseChannel() throws IOException, VCardException {
+        byte[] bytes = VCardTestUtils.vcard21Entries(50);
+        Files.write(mFile.toPath(), bytes);
+        VDataBuilder builder = new VDataBuilder();
+        try (FileChannel channel = open()) {
+            new VCardParserV21().parse(channel, "UTF-8", builder);
+            assertTrue(channel.isOpen());
+            assertEquals(0, channel.position());
+        }
+        VCardTestUtils.assertSameNodes(VCardTestUtils.parse(new VCardParserV21(), bytes),
+                builder.getVNodeList());
+    }
+}
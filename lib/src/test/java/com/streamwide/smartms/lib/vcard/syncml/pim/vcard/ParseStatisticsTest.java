@@ -0,0 +1,160 @@
+/*
+ *
+ * 	StreamWIDE (Team on The Run)
+ *
+ * @createdBy  AndroidTeam on Mon, 19 Oct 2026 02:14:37 +0100
+ * @copyright  Copyright (c) 2026 StreamWIDE UK Ltd (Team on the Run)
+ * @email      support@teamontherun.com
+ *
+ * 	© Copyright 2026 StreamWIDE UK Ltd (Team on the Run). StreamWIDE is the copyright holder
+ * 	of all code contained in this file. Do not redistribute or
+ *  	re-use without permission.
+ *
+ * @lastModifiedOn Mon, 19 Oct 2026 02:14:37 +0100
+ */
+
+package com.streamwide.smartms.lib.vcard.syncml.pim.vcard;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.streamwide.smartms.lib.vcard.syncml.pim.VDataBuilder;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+class ParseStatisticsTest {
+
+    private static final int COUNT = 30;
+
+    @BeforeAll
+    static void setUpLogger() {
+        VCardTestUtils.disableLogger();
+    }
+
+    private static void parse(VCardParserV21 parser, byte[] bytes) throws IOException, VCardException {
+        parser.parse(new ByteArrayInputStream(bytes), "UTF-8", new VDataBuilder());
+    }
+
+    private static long sum(long[] values) {
+        long sum = 0;
+        for (long value : values) {
+            sum += value;
+        }
+        return sum;
+    }
+
+    @Test
+    void testParseMeasurements() throws IOException, VCardException {
+        byte[] bytes = VCardTestUtils.vcard21Entries(COUNT);
+        ParseStatistics statistics = new ParseStatistics();
+        VCardParserV21 parser = new VCardParserV21();
+        parser.setParseMetrics(statistics);
+        parse(parser, bytes);
+
+        assertEquals(COUNT, statistics.getRecordCount());
+        assertEquals(bytes.length, statistics.getByteCount());
+        assertTrue(statistics.getElapsedNanos() > 0);
+        assertTrue(statistics.getRecordsPerSecond() > 0);
+
+        Map<String, Long> properties = statistics.getPropertyCounts();
+        assertEquals(COUNT, (long) properties.get("N"));
+        assertEquals(COUNT, (long) properties.get("FN"));
+        assertEquals(COUNT, (long) properties.get("TEL"));
+        assertEquals(COUNT / 3, (long) properties.get("NOTE"));
+        assertEquals(COUNT / 5, (long) properties.get("PHOTO"));
+        assertEquals(3, statistics.getDecodeNanos().size());
+        assertTrue(statistics.getDecodeNanos().containsKey("8BIT"));
+        assertTrue(statistics.getDecodeNanos().containsKey("QUOTED-PRINTABLE"));
+        assertTrue(statistics.getDecodeNanos().containsKey("BASE64"));
+
+        assertEquals(COUNT, statistics.getStageCount(ParseMetrics.STAGE_START_RECORD));
+        assertEquals(COUNT, statistics.getStageCount(ParseMetrics.STAGE_END_RECORD));
+        assertEquals(COUNT, statistics.getStageCount(ParseMetrics.STAGE_MULTIPLE_VALUE));
+        for (int stage = 0; stage < ParseMetrics.STAGE_COUNT; stage++) {
+            assertEquals(statistics.getStageCount(stage), sum(statistics.getStageHistogram(stage)));
+        }
+    }
+
+    @Test
+    void testMeasurementsAddUp() throws IOException, VCardException {
+        byte[] bytes = VCardTestUtils.vcard21Entries(COUNT);
+        ParseStatistics statistics = new ParseStatistics();
+        VCardParserV21 parser = new VCardParserV21();
+        parser.setParseMetrics(statistics);
+        parse(parser, bytes);
+        parse(parser, bytes);
+        assertEquals(2 * COUNT, statistics.getRecordCount());
+        assertEquals(2L * bytes.length, statistics.getByteCount());
+        assertEquals(2 * COUNT, (long) statistics.getPropertyCounts().get("FN"));
+    }
+
+    @Test
+    void testVersionDispatcher() throws IOException, VCardException {
+        String v30 = "BEGIN:VCARD\r\nVERSION:3.0\r\nN:a;b\r\nFN:c\r\nEND:VCARD\r\n";
+        byte[] bytes = (new String(VCardTestUtils.vcard21Entries(2), StandardCharsets.UTF_8) + v30)
+                .getBytes(StandardCharsets.UTF_8);
+        ParseStatistics statistics = new ParseStatistics();
+        VCardVersionDispatcher parser = new VCardVersionDispatcher();
+        parser.setParseMetrics(statistics);
+        parse(parser, bytes);
+        assertEquals(3, statistics.getRecordCount());
+        assertEquals(3, (long) statistics.getPropertyCounts().get("FN"));
+        assertEquals(3, statistics.getStageCount(ParseMetrics.STAGE_MULTIPLE_VALUE));
+    }
+
+    @Test
+    void testNoMeasurementsWithoutMetrics() throws IOException, VCardException {
+        ParseStatistics statistics = new ParseStatistics();
+        VCardParserV21 parser = new VCardParserV21();
+        parser.setParseMetrics(statistics);
+        parser.setParseMetrics(null);
+        parse(parser, VCardTestUtils.vcard21Entries(COUNT));
+        assertEquals(0, statistics.getRecordCount());
+        assertEquals(0, statistics.getByteCount());
+        assertTrue(statistics.getPropertyCounts().isEmpty());
+    }
+
+    @Test
+    void testHistogramBuckets() {
+        ParseStatistics statistics = new ParseStatistics();
+        long[] nanos = {0, 1, 2, 3, 4, 1023, 1024, Long.MAX_VALUE};
+        int[] buckets = {0, 0, 1, 1, 2, 9, 10, 62};
+        for (long value : nanos) {
+            statistics.onStage(ParseMetrics.STAGE_SEPARATE_LINE, value);
+        }
+        long[] expected = new long[64];
+        for (int bucket : buckets) {
+            expected[bucket]++;
+        }
+        long[] histogram = statistics.getStageHistogram(ParseMetrics.STAGE_SEPARATE_LINE);
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], histogram[i], "bucket " + i);
+        }
+        assertEquals(nanos.length, statistics.getStageCount(ParseMetrics.STAGE_SEPARATE_LINE));
+        // The copy does not change the statistics.
+        histogram[0] = 100;
+        assertEquals(2, statistics.getStageHistogram(ParseMetrics.STAGE_SEPARATE_LINE)[0]);
+    }
+
+    @Test
+    void testThroughput() {
+        ParseStatistics statistics = new ParseStatistics();
+        assertEquals(0, statistics.getBytesPerSecond());
+        assertEquals(0, statistics.getRecordsPerSecond());
+        statistics.onRecord();
+        statistics.onRecord();
+        statistics.onFinished(3000, 500_000_000L);
+        statistics.onFinished(1000, 500_000_000L);
+        assertEquals(4000, statistics.getBytesPerSecond(), 1e-6);
+        assertEquals(2, statistics.getRecordsPerSecond(), 1e-9);
+        statistics.onDecode("BASE64", 5);
+        statistics.onDecode("BASE64", 7);
+        assertEquals(12, (long) statistics.getDecodeNanos().get("BASE64"));
+    }
+}
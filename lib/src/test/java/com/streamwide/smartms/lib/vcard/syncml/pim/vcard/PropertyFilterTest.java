@@ -0,0 +1,163 @@
+/*
+ *
+ * 	StreamWIDE (Team on The Run)
+ *
+ * @createdBy  AndroidTeam on Mon, 19 Oct 2026 03:12:45 +0100
+ * @copyright  Copyright (c) 2026 StreamWIDE UK Ltd (Team on the Run)
+ * @email      support@teamontherun.com
+ *
+ * 	© Copyright 2026 StreamWIDE UK Ltd (Team on the Run). StreamWIDE is the copyright holder
+ * 	of all code contained in this file. Do not redistribute or
+ *  	re-use without permission.
+ *
+ * @lastModifiedOn Mon, 19 Oct 2026 03:12:45 +0100
+ */
+
+package com.streamwide.smartms.lib.vcard.syncml.pim.vcard;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.streamwide.smartms.lib.vcard.syncml.pim.PropertyNode;
+import com.streamwide.smartms.lib.vcard.syncml.pim.VNode;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+class PropertyFilterTest {
+
+    private static final String VCARD30 = "BEGIN:VCARD\r\n"
+            + "VERSION:3.0\r\n"
+            + "N:Doe;John;;;\r\n"
+            + "FN:John Doe\r\n"
+            + "NOTE:a folded\r\n"
+            + "  note\r\n"
+            + "item1.TEL;TYPE=CELL:+1 555 0100\r\n"
+            + "PHOTO;ENCODING=b;TYPE=GIF:R0lGODlhAQABAIAAAP///wAAACH5BAEAAAAAL\r\n"
+            + " AAAAAABAAEAAAICRAEAOw==\r\n"
+            + "X-Custom:x\r\n"
+            + "END:VCARD\r\n";
+
+    @BeforeAll
+    static void setUpLogger() {
+        VCardTestUtils.disableLogger();
+    }
+
+    private static List<VNode> parse(VCardParserV21 parser, String text) throws IOException, VCardException {
+        return VCardTestUtils.parse(parser, text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** @return the nodes with only the properties of the given names. */
+    private static List<VNode> select(List<VNode> nodes, Collection<String> names) {
+        Set<String> upperCaseNames = new HashSet<>();
+        for (String name : names) {
+            upperCaseNames.add(name.toUpperCase(Locale.ENGLISH));
+        }
+        for (VNode node : nodes) {
+            List<PropertyNode> propertyNodes = new ArrayList<>();
+            for (PropertyNode propertyNode : node.getPropList()) {
+                if (upperCaseNames.contains(propertyNode.getPropName().toUpperCase(Locale.ENGLISH))) {
+                    propertyNodes.add(propertyNode);
+                }
+            }
+            node.getPropList().clear();
+            node.getPropList().addAll(propertyNodes);
+        }
+        return nodes;
+    }
+
+    @Test
+    void testSelectedProperties() throws IOException, VCardException {
+        String text = new String(VCardTestUtils.vcard21Entries(30), StandardCharsets.UTF_8);
+        for (List<String> names : Arrays.asList(Arrays.asList("TEL"), Arrays.asList("fn", "Uid", "N"),
+                Arrays.asList("NOTE", "PHOTO"), Arrays.asList("VERSION"), Arrays.<String>asList())) {
+            VCardParserV21 parser = new VCardParserV21();
+            parser.setPropertyFilter(names);
+            List<VNode> nodes = parse(parser, text);
+            VCardTestUtils.assertSameNodes(select(parse(new VCardParserV21(), text), names), nodes);
+            assertEquals(30, nodes.size());
+        }
+    }
+
+    @Test
+    void testVersionDispatcher() throws IOException, VCardException {
+        String text = new String(VCardTestUtils.vcard21Entries(4), StandardCharsets.UTF_8) + VCARD30
+                + new String(VCardTestUtils.vcard21Entries(4), StandardCharsets.UTF_8);
+        for (List<String> names : Arrays.asList(Arrays.asList("TEL"), Arrays.asList("FN", "X-CUSTOM"),
+                Arrays.asList("NOTE", "PHOTO", "N"))) {
+            VCardParserV21 parser = new VCardVersionDispatcher();
+            parser.setPropertyFilter(names);
+            VCardTestUtils.assertSameNodes(select(parse(new VCardVersionDispatcher(), text), names),
+                    parse(parser, text));
+        }
+    }
+
+    @Test
+    void testNoFilter() throws IOException, VCardException {
+        String text = new String(VCardTestUtils.vcard21Entries(10), StandardCharsets.UTF_8);
+        VCardParserV21 parser = new VCardParserV21();
+        parser.setPropertyFilter(Arrays.asList("TEL"));
+        parser.setPropertyFilter(null);
+        VCardTestUtils.assertSameNodes(parse(new VCardParserV21(), text), parse(parser, text));
+    }
+
+    @Test
+    void testFilterIsCopied() throws IOException, VCardException {
+        List<String> names = new ArrayList<>(Arrays.asList("FN"));
+        VCardParserV21 parser = new VCardParserV21();
+        parser.setPropertyFilter(names);
+        names.add("TEL");
+        List<VNode> nodes = parse(parser, new String(VCardTestUtils.vcard21Entries(1), StandardCharsets.UTF_8));
+        assertEquals(1, nodes.get(0).getPropList().size());
+        assertEquals("FN", nodes.get(0).getPropList().get(0).getPropName());
+    }
+
+    @Test
+    void testUnselectedPropertiesAreNotDecoded() throws IOException, VCardException {
+        // Invalid values which would fail when decoded.
+        String text = "BEGIN:VCARD\r\n"
+                + "VERSION:2.1\r\n"
+                + "NOTE;ENCODING=QUOTED-PRINTABLE;CHARSET=NOT-A-CHARSET:a=\r\n"
+                + "b\r\n"
+                + "PHOTO;ENCODING=BASE64:!!!!\r\n"
+                + " ????\r\n"
+                + "\r\n"
+                + "TEL:1\r\n"
+                + "END:VCARD\r\n";
+        VCardParserV21 parser = new VCardParserV21();
+        parser.setPropertyFilter(Arrays.asList("TEL"));
+        List<VNode> nodes = parse(parser, text);
+        assertEquals(1, nodes.get(0).getPropList().size());
+        assertEquals("1", nodes.get(0).getPropList().get(0).getPropValue());
+    }
+
+    @Test
+    void testStructureIsStillChecked() {
+        VCardParserV21 parser = new VCardParserV21();
+        parser.setPropertyFilter(Arrays.asList("TEL"));
+        // The record is not ended.
+        assertThrows(VCardException.class, () -> parse(parser,
+                "BEGIN:VCARD\r\nVERSION:2.1\r\nNOTE;ENCODING=QUOTED-PRINTABLE:a=\r\n"));
+        assertThrows(VCardException.class, () -> parse(parser,
+                "BEGIN:VCARD\r\nVERSION:2.1\r\nTEL:1\r\nEND:VCALENDAR\r\n"));
+    }
+
+    @Test
+    void testAgentIsAlwaysParsed() {
+        // The parser does not support AGENT values, even when AGENT is not selected.
+        String text = "BEGIN:VCARD\r\nVERSION:2.1\r\nFN:a\r\nAGENT:b\r\nTEL:1\r\nEND:VCARD\r\n";
+        VCardParserV21 parser = new VCardParserV21();
+        parser.setPropertyFilter(Arrays.asList("TEL"));
+        assertThrows(VCardException.class, () -> parse(parser, text));
+    }
+}
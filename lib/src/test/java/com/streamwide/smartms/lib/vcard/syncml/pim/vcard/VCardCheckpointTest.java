@@ -0,0 +1,184 @@
+/*
+ *
+ * 	StreamWIDE (Team on The Run)
+ *
+ * @createdBy  AndroidTeam on Mon, 19 Oct 2026 01:12:33 +0100
+ * @copyright  Copyright (c) 2026 StreamWIDE UK Ltd (Team on the Run)
+ * @email      support@teamontherun.com
+ *
+ * 	© Copyright 2026 StreamWIDE UK Ltd (Team on the Run). StreamWIDE is the copyright holder
+ * 	of all code contained in this file. Do not redistribute or
+ *  	re-use without permission.
+ *
+ * @lastModifiedOn Mon, 19 Oct 2026 01:12:33 +0100
+ */
+
+package com.streamwide.smartms.lib.vcard.syncml.pim.vcard;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.streamwide.smartms.lib.vcard.syncml.pim.VDataBuilder;
+import com.streamwide.smartms.lib.vcard.syncml.pim.VNode;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+class VCardCheckpointTest {
+
+    private static final int COUNT = 12;
+
+    @BeforeAll
+    static void setUpLogger() {
+        VCardTestUtils.disableLogger();
+    }
+
+    private static byte[] entries(String eol) {
+        return new String(VCardTestUtils.vcard21Entries(COUNT), StandardCharsets.UTF_8)
+                .replace("\r\n", eol).getBytes(StandardCharsets.UTF_8);
+    }
+
+    /** @return the checkpoints taken after each entry, the first one being null. */
+    private static List<VCardCheckpoint> checkpoints(byte[] bytes) throws IOException, VCardException {
+        List<VCardCheckpoint> checkpoints = new ArrayList<>();
+        try (VCardReader reader = new VCardReader(new ByteArrayInputStream(bytes), "UTF-8",
+                VCardParser.VERSION_VCARD21_INT)) {
+            checkpoints.add(reader.getCheckpoint());
+            while (reader.next() != null) {
+                checkpoints.add(reader.getCheckpoint());
+            }
+        }
+        return checkpoints;
+    }
+
+    private static VCardCheckpoint serializeAndRead(VCardCheckpoint checkpoint)
+            throws IOException, ClassNotFoundException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ObjectOutputStream oos = new ObjectOutputStream(out)) {
+            oos.writeObject(checkpoint);
+        }
+        try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            return (VCardCheckpoint) ois.readObject();
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"\r\n", "\r", "\n"})
+    void testResumeStream(String eol) throws IOException, VCardException {
+        byte[] bytes = entries(eol);
+        List<VNode> expected = VCardTestUtils.parse(new VCardParserV21(), bytes);
+        List<VCardCheckpoint> checkpoints = checkpoints(bytes);
+        assertNull(checkpoints.get(0));
+        for (int i = 1; i <= COUNT; i++) {
+            VCardCheckpoint checkpoint = checkpoints.get(i);
+            assertEquals(i, checkpoint.getRecordCount());
+            assertEquals("2.1", checkpoint.getVersion());
+
+            VCardParserV21 parser = new VCardParserV21();
+            VDataBuilder builder = new VDataBuilder();
+            parser.parse(new ByteArrayInputStream(bytes), "UTF-8", builder, checkpoint);
+            VCardTestUtils.assertSameNodes(expected.subList(i, COUNT), builder.getVNodeList());
+            assertEquals(COUNT, parser.getCheckpoint().getRecordCount());
+            // The LF of the last CRLF is not read yet.
+            assertEquals(eol.equals("\r\n") ? bytes.length - 1 : bytes.length,
+                    parser.getCheckpoint().getOffset());
+        }
+    }
+
+    @Test
+    void testResumeFileAndReader(@TempDir File directory) throws IOException, VCardException {
+        byte[] bytes = entries("\r\n");
+        File file = new File(directory, "contacts.vcf");
+        Files.write(file.toPath(), bytes);
+        List<VNode> expected = VCardTestUtils.parse(new VCardParserV21(), bytes);
+        VCardCheckpoint checkpoint = checkpoints(bytes).get(5);
+
+        VDataBuilder builder = new VDataBuilder();
+        new VCardParserV21().parse(file, "UTF-8", builder, checkpoint);
+        VCardTestUtils.assertSameNodes(expected.subList(5, COUNT), builder.getVNodeList());
+
+        List<VNode> vnodes = new ArrayList<>();
+        try (VCardReader reader = new VCardReader(new ByteArrayInputStream(bytes), "UTF-8",
+                new VCardParserV21(), new VDataBuilder(), checkpoint)) {
+            VNode vnode;
+            while ((vnode = reader.next()) != null) {
+                vnodes.add(vnode);
+            }
+            assertEquals(COUNT, reader.getCheckpoint().getRecordCount());
+        }
+        VCardTestUtils.assertSameNodes(expected.subList(5, COUNT), vnodes);
+    }
+
+    @Test
+    void testSerializedCheckpoint() throws IOException, VCardException, ClassNotFoundException {
+        byte[] bytes = entries("\r\n");
+        List<VNode> expected = VCardTestUtils.parse(new VCardParserV21(), bytes);
+        VCardCheckpoint checkpoint = serializeAndRead(checkpoints(bytes).get(7));
+
+        VDataBuilder builder = new VDataBuilder();
+        new VCardParserV21().parse(new ByteArrayInputStream(bytes), "UTF-8", builder, checkpoint);
+        VCardTestUtils.assertSameNodes(expected.subList(7, COUNT), builder.getVNodeList());
+    }
+
+    @Test
+    void testCheckpointFromBuilder() throws IOException, VCardException {
+        byte[] bytes = entries("\r\n");
+        VCardParserV21 parser = new VCardParserV21();
+        List<Long> offsets = new ArrayList<>();
+        parser.parse(new ByteArrayInputStream(bytes), "UTF-8", new VDataBuilder() {
+            @Override
+            public void endRecord() {
+                super.endRecord();
+                offsets.add(parser.getCheckpoint().getOffset());
+            }
+        });
+        List<VCardCheckpoint> checkpoints = checkpoints(bytes);
+        for (int i = 0; i < COUNT; i++) {
+            assertEquals(checkpoints.get(i + 1).getOffset(), offsets.get(i));
+        }
+    }
+
+    @Test
+    void testNoCheckpointWhenTranscoding() throws IOException, VCardException {
+        byte[] bytes = new String(entries("\r\n"), StandardCharsets.UTF_8).getBytes(StandardCharsets.UTF_16LE);
+        try (VCardReader reader = new VCardReader(new ByteArrayInputStream(bytes), "UTF-16LE",
+                VCardParser.VERSION_VCARD21_INT)) {
+            assertNotNull(reader.next());
+            assertNull(reader.getCheckpoint());
+        }
+    }
+
+    @Test
+    void testVersionMismatch() throws IOException, VCardException {
+        byte[] bytes = entries("\r\n");
+        VCardCheckpoint checkpoint = checkpoints(bytes).get(1);
+        assertThrows(IllegalArgumentException.class, () -> new VCardParserV30().parse(
+                new ByteArrayInputStream(bytes), "UTF-8", new VDataBuilder(), checkpoint));
+    }
+
+    @Test
+    void testSourceShorterThanCheckpoint() throws IOException, VCardException {
+        byte[] bytes = entries("\r\n");
+        VCardCheckpoint checkpoint = checkpoints(bytes).get(COUNT);
+        byte[] shorter = new byte[(int) checkpoint.getOffset() - 1];
+        assertThrows(EOFException.class, () -> new VCardParserV21().parse(
+                new ByteArrayInputStream(shorter), "UTF-8", new VDataBuilder(), checkpoint));
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ *
+ * 	StreamWIDE (Team on The Run)
+ *
+ * @createdBy  AndroidTeam on Mon, 19 Oct 2026 03:29:52 +0100
+ * @copyright  Copyright (c) 2026 StreamWIDE UK Ltd (Team on the Run)
+ * @email      support@teamontherun.com
+ *
+ * 	© Copyright 2026 StreamWIDE UK Ltd (Team on the Run). StreamWIDE is the copyright holder
+ * 	of all code contained in this file. Do not redistribute or
+ *  	re-use without permission.
+ *
+ * @lastModifiedOn Mon, 19 Oct 2026 03:29:52 +0100
+ */
+
+package com.streamwide.smartms.lib.vcard.syncml.pim.vcard;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.streamwide.smartms.lib.vcard.syncml.pim.VDataBuilder;
+import com.streamwide.smartms.lib.vcard.syncml.pim.VNode;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+class VCardIndexTest {
+
+    private static final int COUNT = 200;
+    private static final String VCARD30 = "BEGIN:VCARD\r\n"
+            + "VERSION:3.0\r\n"
+            + "N:Doe;John;;;\r\n"
+            + "FN:John\r\n"
+            + "  Doe\r\n"
+            + "TEL;TYPE=HOME:(555) 0100\r\n"
+            + "UID: uid-30 \r\n"
+            + "END:VCARD\r\n";
+
+    @TempDir
+    File mDirectory;
+
+    @BeforeAll
+    static void setUpLogger() {
+        VCardTestUtils.disableLogger();
+    }
+
+    private File write(String name, byte[] bytes) throws IOException {
+        File file = new File(mDirectory, name);
+        Files.write(file.toPath(), bytes);
+        return file;
+    }
+
+    private static void assertSameRecords(File file, VCardIndex index, List<VNode> expected)
+            throws IOException, VCardException {
+        assertEquals(expected.size(), index.getRecordCount());
+        for (int i = 0; i < expected.size(); i++) {
+            VCardTestUtils.assertSameNode(expected.get(i), index.readRecord(file, i));
+        }
+    }
+
+    @Test
+    void testReadRecords() throws IOException, VCardException {
+        byte[] bytes = VCardTestUtils.vcard21Entries(COUNT);
+        File file = write("contacts.vcf", bytes);
+        VCardIndex index = VCardIndex.build(file, "UTF-8", VCardParser.VERSION_VCARD21_INT);
+        assertSameRecords(file, index, VCardTestUtils.parse(new VCardParserV21(), bytes));
+        assertNull(index.getCheckpoint(0));
+
+        VDataBuilder builder = new VDataBuilder();
+        VNode node = index.readRecord(file, 42, builder);
+        assertEquals(1, builder.getVNodeList().size());
+        assertEquals(node, builder.getVNodeList().get(0));
+    }
+
+    @Test
+    void testLineFeedsOnly() throws IOException, VCardException {
+        byte[] bytes = new String(VCardTestUtils.vcard21Entries(20), StandardCharsets.UTF_8)
+                .replace("\r\n", "\n").getBytes(StandardCharsets.UTF_8);
+        File file = write("contacts.vcf", bytes);
+        VCardIndex index = VCardIndex.build(file, "UTF-8", VCardParser.VERSION_VCARD21_INT);
+        assertSameRecords(file, index, VCardTestUtils.parse(new VCardParserV21(), bytes));
+    }
+
+    @Test
+    void testVCard30() throws IOException, VCardException {
+        byte[] bytes = (VCARD30 + "\r\n" + VCARD30.replace("uid-30", "other") + VCARD30)
+                .getBytes(StandardCharsets.UTF_8);
+        File file = write("contacts.vcf", bytes);
+        VCardIndex index = VCardIndex.build(file, "UTF-8", VCardParser.VERSION_VCARD30_INT);
+        assertSameRecords(file, index, VCardTestUtils.parse(new VCardParserV30(), bytes));
+        assertArrayEquals(new int[] {0, 2}, index.findByUid("uid-30"));
+        assertArrayEquals(new int[] {0, 1, 2}, index.findByName("John Doe"));
+        assertArrayEquals(new int[] {0, 1, 2}, index.findByPhoneNumber("555-0100"));
+    }
+
+    @Test
+    void testFind() throws IOException, VCardException {
+        File file = write("contacts.vcf", VCardTestUtils.vcard21Entries(COUNT));
+        VCardIndex index = VCardIndex.build(file, "UTF-8", VCardParser.VERSION_VCARD21_INT);
+        assertArrayEquals(new int[] {5}, index.findByUid("uid-5"));
+        assertArrayEquals(new int[] {5}, index.findByUid(" uid-5 "));
+        assertArrayEquals(new int[] {7}, index.findByName("First Name7"));
+        assertArrayEquals(new int[] {5, 105}, index.findByPhoneNumber("+33 (6) 00-00-5"));
+        assertArrayEquals(new int[0], index.findByPhoneNumber("33600005"));
+        assertArrayEquals(new int[0], index.findByUid("uid-" + COUNT));
+        assertArrayEquals(new int[0], index.findByName(""));
+
+        // The arrays are copies.
+        index.findByUid("uid-5")[0] = 6;
+        assertArrayEquals(new int[] {5}, index.findByUid("uid-5"));
+    }
+
+    @Test
+    void testNormalizePhoneNumber() {
+        assertEquals("+33600000001", VCardIndex.normalizePhoneNumber("+33 6 00 00 00 01"));
+        assertEquals("15550100", VCardIndex.normalizePhoneNumber("1 (555) 01-00 ext+"));
+        assertEquals("+1", VCardIndex.normalizePhoneNumber(" +1+"));
+        assertEquals("", VCardIndex.normalizePhoneNumber("none"));
+    }
+
+    @Test
+    void testWriteAndRead() throws IOException, VCardException {
+        byte[] bytes = VCardTestUtils.vcard21Entries(COUNT);
+        File file = write("contacts.vcf", bytes);
+        VCardIndex index = VCardIndex.build(file, "UTF-8", VCardParser.VERSION_VCARD21_INT);
+        File indexFile = new File(mDirectory, "contacts.vcf.idx");
+        index.write(indexFile);
+
+        VCardIndex read = VCardIndex.read(indexFile);
+        assertSameRecords(file, read, VCardTestUtils.parse(new VCardParserV21(), bytes));
+        assertTrue(read.isUpToDate(file));
+        for (int i = 0; i < COUNT; i += 17) {
+            assertArrayEquals(index.findByUid("uid-" + i), read.findByUid("uid-" + i));
+            assertArrayEquals(index.findByName("First Name" + i), read.findByName("First Name" + i));
+            assertArrayEquals(index.findByPhoneNumber("+3360000" + i % 100),
+                    read.findByPhoneNumber("+3360000" + i % 100));
+        }
+    }
+
+    @Test
+    void testIsUpToDate() throws IOException, VCardException {
+        File file = write("contacts.vcf", VCardTestUtils.vcard21Entries(3));
+        VCardIndex index = VCardIndex.build(file, "UTF-8", VCardParser.VERSION_VCARD21_INT);
+        assertTrue(index.isUpToDate(file));
+        Files.write(file.toPath(), VCardTestUtils.vcard21Entries(1), StandardOpenOption.APPEND);
+        assertFalse(index.isUpToDate(file));
+
+        File other = write("other.vcf", VCardTestUtils.vcard21Entries(3));
+        assertTrue(other.setLastModified(file.lastModified() + 2000));
+        assertFalse(index.isUpToDate(other));
+    }
+
+    @Test
+    void testErrors() throws IOException, VCardException {
+        File file = write("contacts.vcf", VCardTestUtils.vcard21Entries(3));
+        VCardIndex index = VCardIndex.build(file, "UTF-8", VCardParser.VERSION_VCARD21_INT);
+        assertThrows(IndexOutOfBoundsException.class, () -> index.getCheckpoint(-1));
+        assertThrows(IndexOutOfBoundsException.class, () -> index.readRecord(file, 3));
+        // Not an index.
+        assertThrows(IOException.class, () -> VCardIndex.read(file));
+        // The file lost its last entries.
+        write("contacts.vcf", VCardTestUtils.vcard21Entries(2));
+        assertNull(index.readRecord(file, 2));
+    }
+}
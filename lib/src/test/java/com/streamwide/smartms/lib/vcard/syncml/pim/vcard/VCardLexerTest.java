@@ -0,0 +1,189 @@
+/*
+ *
+ * 	StreamWIDE (Team on The Run)
+ *
+ * @createdBy  AndroidTeam on Sun, 18 Oct 2026 22:14:05 +0100
+ * @copyright  Copyright (c) 2026 StreamWIDE UK Ltd (Team on the Run)
+ * @email      support@teamontherun.com
+ *
+ * 	© Copyright 2026 StreamWIDE UK Ltd (Team on the Run). StreamWIDE is the copyright holder
+ * 	of all code contained in this file. Do not redistribute or
+ *  	re-use without permission.
+ *
+ * @lastModifiedOn Sun, 18 Oct 2026 22:14:05 +0100
+ */
+
+package com.streamwide.smartms.lib.vcard.syncml.pim.vcard;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+class VCardLexerTest {
+
+    /** Returns at most one byte per read, so that every CRLF is split across two fills. */
+    private static final class OneByteInputStream extends ByteArrayInputStream {
+        OneByteInputStream(byte[] bytes) {
+            super(bytes);
+        }
+
+        @Override
+        public synchronized int read(byte[] b, int off, int len) {
+            return super.read(b, off, Math.min(len, 1));
+        }
+    }
+
+    private static List<String> lines(VCardLexer lexer, boolean unfold) throws IOException {
+        List<String> lines = new ArrayList<>();
+        while (lexer.next(unfold)) {
+            lines.add(lexer.getLine());
+        }
+        return lines;
+    }
+
+    private static List<String> lines(String source, boolean unfold) throws IOException {
+        byte[] bytes = source.getBytes(StandardCharsets.UTF_8);
+        List<String> lines = lines(new VCardLexer(new ByteArrayInputStream(bytes), "UTF-8"), unfold);
+        assertEquals(lines, lines(new VCardLexer(new OneByteInputStream(bytes), "UTF-8"), unfold));
+        return lines;
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"\r", "\n", "\r\n"})
+    void testLineTerminators(String eol) throws IOException {
+        assertEquals(Arrays.asList("BEGIN:VCARD", "", "FN:a", "END:VCARD"),
+                lines("BEGIN:VCARD" + eol + eol + "FN:a" + eol + "END:VCARD" + eol, false));
+        assertEquals(Arrays.asList("FN:a", "N:b"), lines("FN:a" + eol + "N:b", false));
+    }
+
+    @Test
+    void testMixedLineTerminators() throws IOException {
+        assertEquals(Arrays.asList("A", "B", "C", "D", "", "E"),
+                lines("A\r\nB\rC\nD\r\r\nE", false));
+        assertEquals(Arrays.asList("", ""), lines("\n\r", false));
+    }
+
+    @Test
+    void testCrLfSplitAcrossFill() throws IOException {
+        // The CR is the last byte of the first fill of the default 8192 bytes buffer.
+        char[] chars = new char[8191];
+        Arrays.fill(chars, 'x');
+        String longLine = new String(chars);
+        byte[] bytes = (longLine + "\r\nFN:a\r\n").getBytes(StandardCharsets.UTF_8);
+        VCardLexer lexer = new VCardLexer(new ByteArrayInputStream(bytes), "UTF-8");
+
+        assertTrue(lexer.next(false));
+        assertEquals(longLine, lexer.getLine());
+        assertTrue(lexer.isLineFeedPending());
+        assertTrue(lexer.next(false));
+        assertEquals("FN:a", lexer.getLine());
+        assertEquals(8193, lexer.getLineOffset());
+        assertFalse(lexer.next(false));
+        assertEquals(bytes.length, lexer.getPosition());
+    }
+
+    @Test
+    void testLineOffsets() throws IOException {
+        byte[] bytes = "A:1\r\nB:2\rC:3\n".getBytes(StandardCharsets.UTF_8);
+        VCardLexer lexer = new VCardLexer(new OneByteInputStream(bytes), "UTF-8");
+        List<Long> offsets = new ArrayList<>();
+        while (lexer.next(false)) {
+            offsets.add(lexer.getLineOffset());
+        }
+        assertEquals(Arrays.asList(0L, 5L, 9L), offsets);
+    }
+
+    @Test
+    void testUnfold() throws IOException {
+        String source = "NOTE:a\r\n b\r\n\tc\r\nFN:d\n e\nN:f\r";
+        assertEquals(Arrays.asList("NOTE:abc", "FN:de", "N:f"), lines(source, true));
+        assertEquals(Arrays.asList("NOTE:a", " b", "\tc", "FN:d", " e", "N:f"), lines(source, false));
+    }
+
+    @Test
+    void testUnfoldAtEndOfStream() throws IOException {
+        assertEquals(Arrays.asList("NOTE:ab"), lines("NOTE:a\r\n b", true));
+        assertEquals(Arrays.asList("NOTE:a", ""), lines("NOTE:a\r\n\r\n", true));
+    }
+
+    @Test
+    void testPushBack() throws IOException {
+        VCardLexer lexer = new VCardLexer(
+                new ByteArrayInputStream("FN:a\r\nN:b\r\n".getBytes(StandardCharsets.UTF_8)), "UTF-8");
+        assertTrue(lexer.next(false));
+        assertEquals("FN:a", lexer.getLine());
+        lexer.pushBack();
+        assertTrue(lexer.next(false));
+        assertEquals("FN:a", lexer.getLine());
+        assertEquals("FN", lexer.getPropertyName());
+        assertEquals("a", lexer.getValue());
+        assertTrue(lexer.next(false));
+        assertEquals("N:b", lexer.getLine());
+        lexer.pushBack();
+        assertTrue(lexer.next(false));
+        assertEquals("N:b", lexer.getLine());
+        assertFalse(lexer.next(false));
+    }
+
+    @Test
+    void testTokens() throws IOException {
+        VCardLexer lexer = new VCardLexer(new ByteArrayInputStream(
+                "item1.TEL;TYPE=HOME;\"x:y\":+1;2".getBytes(StandardCharsets.UTF_8)), "UTF-8");
+        assertTrue(lexer.next(false));
+        assertEquals(1, lexer.getGroupCount());
+        assertEquals("item1", lexer.getGroup(0));
+        assertEquals("TEL", lexer.getPropertyName());
+        assertEquals(2, lexer.getParamCount());
+        assertEquals("TYPE", lexer.getParamName(0, true));
+        assertEquals("HOME", lexer.getParamValue(0, true));
+        assertEquals("+1;2", lexer.getValue());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"UTF-16LE", "UTF-16BE", "UTF-16"})
+    void testTranscoding(String charset) throws IOException {
+        String source = "BEGIN:VCARD\r\nFN:été\r\nNOTE:日\r\n 本\r\nEND:VCARD\r\n";
+        byte[] bytes = source.getBytes(charset);
+        for (InputStream is : new InputStream[] {
+                new ByteArrayInputStream(bytes), new OneByteInputStream(bytes)}) {
+            VCardLexer lexer = new VCardLexer(is, charset);
+            assertTrue(lexer.isTranscoding());
+            assertEquals(StandardCharsets.UTF_8, lexer.getCharset());
+            assertEquals(Arrays.asList("BEGIN:VCARD", "FN:été", "NOTE:日本", "END:VCARD"),
+                    lines(lexer, true));
+        }
+    }
+
+    @Test
+    void testAsciiCompatibleCharsetIsNotTranscoded() throws IOException {
+        byte[] bytes = "FN:é\r\n".getBytes(StandardCharsets.ISO_8859_1);
+        VCardLexer lexer = new VCardLexer(new ByteArrayInputStream(bytes), "ISO-8859-1");
+        assertFalse(lexer.isTranscoding());
+        assertTrue(lexer.next(false));
+        assertEquals("FN:é", lexer.getLine());
+        assertFalse(lexer.next(false));
+        assertEquals(bytes.length, lexer.getPosition());
+    }
+
+    @Test
+    void testReset() throws IOException {
+        VCardLexer lexer = new VCardLexer(
+                new ByteArrayInputStream("FN:a\r\n".getBytes(StandardCharsets.UTF_8)), "UTF-8");
+        assertTrue(lexer.next(false));
+        lexer.reset(new ByteArrayInputStream("N:b\r".getBytes(StandardCharsets.UTF_8)), "UTF-8");
+        assertEquals(Arrays.asList("N:b"), lines(lexer, false));
+        assertEquals(4, lexer.getPosition());
+    }
+}
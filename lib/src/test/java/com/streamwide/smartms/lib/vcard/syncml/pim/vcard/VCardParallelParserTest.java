@@ -0,0 +1,263 @@
+/*
+ *
+ * 	StreamWIDE (Team on The Run)
+ *
+ * @createdBy  AndroidTeam on Sun, 18 Oct 2026 23:31:12 +0100
+ * @copyright  Copyright (c) 2026 StreamWIDE UK Ltd (Team on the Run)
+ * @email      support@teamontherun.com
+ *
+ * 	© Copyright 2026 StreamWIDE UK Ltd (Team on the Run). StreamWIDE is the copyright holder
+ * 	of all code contained in this file. Do not redistribute or
+ *  	re-use without permission.
+ *
+ * @lastModifiedOn Sun, 18 Oct 2026 23:31:12 +0100
+ */
+
+package com.streamwide.smartms.lib.vcard.syncml.pim.vcard;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.streamwide.smartms.lib.vcard.syncml.pim.PropertyNode;
+import com.streamwide.smartms.lib.vcard.syncml.pim.VDataBuilder;
+import com.streamwide.smartms.lib.vcard.syncml.pim.VNode;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class VCardParallelParserTest {
+
+    // 300 entries on 4 threads: batches of 18 or 19 entries.
+    private static final int COUNT = 300;
+
+    private static ForkJoinPool sPool;
+
+    @BeforeAll
+    static void setUp() {
+        VCardTestUtils.disableLogger();
+        sPool = new ForkJoinPool(4);
+    }
+
+    @AfterAll
+    static void tearDown() {
+        sPool.shutdown();
+    }
+
+    private static VCardParallelParser newParser() {
+        return new VCardParallelParser(VCardParser.VERSION_VCARD21_INT, null, sPool);
+    }
+
+    private static String getValue(VNode vnode, String propertyName) {
+        for (PropertyNode propertyNode : vnode.getPropList()) {
+            if (propertyNode.getPropName().equals(propertyName)) {
+                return propertyNode.getPropValue();
+            }
+        }
+        return null;
+    }
+
+    @Test
+    void testSameAsSequential() throws IOException, VCardException {
+        byte[] bytes = VCardTestUtils.vcard21Entries(COUNT);
+        VDataBuilder builder = new VDataBuilder();
+        assertTrue(newParser().parse(bytes, "UTF-8", builder));
+        VCardTestUtils.assertSameNodes(VCardTestUtils.parse(new VCardParserV21(), bytes),
+                builder.getVNodeList());
+    }
+
+    @Test
+    void testSameAsSequentialFromFile(@TempDir File directory) throws IOException, VCardException {
+        byte[] bytes = VCardTestUtils.vcard21Entries(COUNT);
+        File file = new File(directory, "contacts.vcf");
+        Files.write(file.toPath(), bytes);
+        VDataBuilder builder = new VDataBuilder();
+        assertTrue(newParser().parse(file, "UTF-8", builder));
+        VCardTestUtils.assertSameNodes(VCardTestUtils.parse(new VCardParserV21(), bytes),
+                builder.getVNodeList());
+    }
+
+    @Test
+    void testAppendsToExistingNodes() throws IOException, VCardException {
+        byte[] bytes = VCardTestUtils.vcard21Entries(20);
+        VDataBuilder builder = new VDataBuilder();
+        new VCardParserV21().parse(new ByteArrayInputStream(bytes), "UTF-8", builder);
+        newParser().parse(bytes, "UTF-8", builder);
+        List<VNode> vnodes = builder.getVNodeList();
+        assertEquals(40, vnodes.size());
+        VCardTestUtils.assertSameNodes(vnodes.subList(0, 20), vnodes.subList(20, 40));
+    }
+
+    @Test
+    void testRecordFilterOfTheTarget() throws IOException, VCardException {
+        VDataBuilder.RecordFilter evenUids = new VDataBuilder.RecordFilter() {
+            @Override
+            public int onProperty(VNode record, PropertyNode propertyNode) {
+                if (!propertyNode.getPropName().equals("UID")) {
+                    return UNDECIDED;
+                }
+                int number = Integer.parseInt(propertyNode.getPropValue().substring(4));
+                return number % 2 == 0 ? ACCEPT : REJECT;
+            }
+
+            @Override
+            public boolean acceptRecord(VNode record) {
+                return false;
+            }
+        };
+        byte[] bytes = VCardTestUtils.vcard21Entries(COUNT);
+        VDataBuilder sequential = new VDataBuilder();
+        sequential.setRecordFilter(evenUids);
+        new VCardParserV21().parse(new ByteArrayInputStream(bytes), "UTF-8", sequential);
+        VDataBuilder parallel = new VDataBuilder();
+        parallel.setRecordFilter(evenUids);
+        newParser().parse(bytes, "UTF-8", parallel);
+
+        assertEquals(COUNT / 2, parallel.getVNodeList().size());
+        VCardTestUtils.assertSameNodes(sequential.getVNodeList(), parallel.getVNodeList());
+    }
+
+    @Test
+    void testLazyValueSourceOfTheTarget() throws IOException, VCardException {
+        byte[] bytes = VCardTestUtils.vcard21Entries(COUNT);
+        List<VNode> expected = VCardTestUtils.parse(new VCardParserV21(), bytes);
+        AtomicInteger reads = new AtomicInteger();
+        PropertyNode.ValueSource source = PropertyNode.ValueSource.of(bytes);
+        VDataBuilder builder = new VDataBuilder();
+        builder.setLazyValueSource((start, end) -> {
+            reads.incrementAndGet();
+            return source.read(start, end);
+        });
+        newParser().parse(bytes, "UTF-8", builder);
+
+        List<VNode> vnodes = builder.getVNodeList();
+        assertEquals(0, reads.get());
+        for (int i = 0; i < COUNT; i++) {
+            List<PropertyNode> expectedProperties = expected.get(i).getPropList();
+            List<PropertyNode> properties = vnodes.get(i).getPropList();
+            for (int j = 0; j < expectedProperties.size(); j++) {
+                // Decoded from offsets of the whole source, not of the batch.
+                assertArrayEquals(expectedProperties.get(j).getPropValueBytes(),
+                        properties.get(j).getPropValueBytes());
+            }
+        }
+        assertEquals(COUNT / 5, reads.get());
+    }
+
+    @Test
+    void testSpillThresholdOfTheTarget(@TempDir File directory) throws IOException, VCardException {
+        byte[] bytes = VCardTestUtils.vcard21Entries(COUNT);
+        List<VNode> expected = VCardTestUtils.parse(new VCardParserV21(), bytes);
+        AtomicInteger created = new AtomicInteger();
+        AtomicInteger closed = new AtomicInteger();
+        VCardParallelParser parser = newParser();
+        parser.setBuilderFactory(target -> {
+            created.incrementAndGet();
+            return new VDataBuilder(target) {
+                @Override
+                public synchronized void close() {
+                    closed.incrementAndGet();
+                    super.close();
+                }
+            };
+        });
+        VDataBuilder builder = new VDataBuilder();
+        builder.setSpillThreshold(16, directory);
+        parser.parse(bytes, "UTF-8", builder);
+
+        assertTrue(created.get() > 1);
+        assertEquals(created.get(), closed.get());
+        // One file, the one of the target, whose values are still readable.
+        assertEquals(1, Objects.requireNonNull(directory.list()).length);
+        VCardTestUtils.assertSameNodes(expected, builder.getVNodeList());
+        builder.close();
+        assertEquals(0, Objects.requireNonNull(directory.list()).length);
+    }
+
+    @Test
+    void testPropertyFilter() throws IOException, VCardException {
+        VCardParallelParser parser = newParser();
+        parser.setPropertyFilter(Arrays.asList("fn"));
+        VDataBuilder builder = new VDataBuilder();
+        parser.parse(VCardTestUtils.vcard21Entries(COUNT), "UTF-8", builder);
+
+        List<VNode> vnodes = builder.getVNodeList();
+        assertEquals(COUNT, vnodes.size());
+        for (int i = 0; i < COUNT; i++) {
+            assertEquals(1, vnodes.get(i).getPropList().size());
+            assertEquals("First Name" + i, getValue(vnodes.get(i), "FN"));
+        }
+    }
+
+    @Test
+    void testCancelAppendsAPrefix() throws IOException, VCardException {
+        byte[] bytes = VCardTestUtils.vcard21Entries(COUNT);
+        List<VNode> expected = VCardTestUtils.parse(new VCardParserV21(), bytes);
+        VCardParallelParser parser = newParser();
+        AtomicInteger records = new AtomicInteger();
+        VDataBuilder builder = new VDataBuilder();
+        builder.setRecordFilter(new VDataBuilder.RecordFilter() {
+            @Override
+            public int onProperty(VNode record, PropertyNode propertyNode) {
+                return UNDECIDED;
+            }
+
+            @Override
+            public boolean acceptRecord(VNode record) {
+                if (records.incrementAndGet() == 40) {
+                    parser.cancel();
+                }
+                return true;
+            }
+        });
+
+        assertFalse(parser.parse(bytes, "UTF-8", builder));
+        List<VNode> vnodes = builder.getVNodeList();
+        assertTrue(vnodes.size() < COUNT);
+        VCardTestUtils.assertSameNodes(expected.subList(0, vnodes.size()), vnodes);
+
+        // The next parse is not canceled.
+        builder.setRecordFilter(null);
+        VDataBuilder next = new VDataBuilder();
+        assertTrue(parser.parse(bytes, "UTF-8", next));
+        assertEquals(COUNT, next.getVNodeList().size());
+    }
+
+    @Test
+    void testInvalidRecordAppendsNothing() {
+        String invalid = "BEGIN:VCARD\r\nVERSION:2.1\r\nNO COLON\r\nEND:VCARD\r\n";
+        byte[] valid = VCardTestUtils.vcard21Entries(COUNT);
+        byte[] bytes = Arrays.copyOf(valid, valid.length + invalid.length());
+        System.arraycopy(invalid.getBytes(StandardCharsets.US_ASCII), 0, bytes, valid.length,
+                invalid.length());
+        VDataBuilder builder = new VDataBuilder();
+        VCardException e = assertThrows(VCardException.class,
+                () -> newParser().parse(bytes, "UTF-8", builder));
+        assertNotNull(e.getMessage());
+        assertEquals(0, builder.getVNodeList().size());
+    }
+
+    @Test
+    void testTranscodedCharsetIsRejected() {
+        byte[] bytes = new String(VCardTestUtils.vcard21Entries(3), StandardCharsets.UTF_8)
+                .getBytes(StandardCharsets.UTF_16LE);
+        assertThrows(IllegalArgumentException.class,
+                () -> newParser().parse(bytes, "UTF-16LE", new VDataBuilder()));
+    }
+}
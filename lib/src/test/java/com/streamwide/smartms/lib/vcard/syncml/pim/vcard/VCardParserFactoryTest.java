@@ -0,0 +1,222 @@
+/*
+ *
+ * 	StreamWIDE (Team on The Run)
+ *
+ * @createdBy  AndroidTeam on Mon, 19 Oct 2026 03:47:33 +0100
+ * @copyright  Copyright (c) 2026 StreamWIDE UK Ltd (Team on the Run)
+ * @email      support@teamontherun.com
+ *
+ * 	© Copyright 2026 StreamWIDE UK Ltd (Team on the Run). StreamWIDE is the copyright holder
+ * 	of all code contained in this file. Do not redistribute or
+ *  	re-use without permission.
+ *
+ * @lastModifiedOn Mon, 19 Oct 2026 03:47:33 +0100
+ */
+
+package com.streamwide.smartms.lib.vcard.syncml.pim.vcard;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.streamwide.smartms.lib.vcard.syncml.pim.VDataBuilder;
+import com.streamwide.smartms.lib.vcard.syncml.pim.VNode;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+class VCardParserFactoryTest {
+
+    private static final String VCARD30 = "BEGIN:VCARD\r\n"
+            + "VERSION:3.0\r\n"
+            + "N:Doe;John;;;\r\n"
+            + "FN:John Doe\r\n"
+            + "TEL;TYPE=HOME,VOICE:+1 555 0100\r\n"
+            + "NOTE:a\\, b\\nc\r\n"
+            + "END:VCARD\r\n";
+
+    @BeforeAll
+    static void setUpLogger() {
+        VCardTestUtils.disableLogger();
+    }
+
+    private static List<VNode> parse(VCardParserFactory factory, byte[] bytes) throws IOException, VCardException {
+        VDataBuilder builder = new VDataBuilder();
+        factory.parse(new ByteArrayInputStream(bytes), "UTF-8", builder);
+        return builder.getVNodeList();
+    }
+
+    @Test
+    void testVersions() throws IOException, VCardException {
+        byte[] v21 = VCardTestUtils.vcard21Entries(10);
+        byte[] v30 = VCARD30.getBytes(StandardCharsets.UTF_8);
+        byte[] mixed = (new String(v21, StandardCharsets.UTF_8) + VCARD30).getBytes(StandardCharsets.UTF_8);
+        VCardParserFactory factory21 = new VCardParserFactory(VCardParser.VERSION_VCARD21_INT);
+        VCardParserFactory factory30 = new VCardParserFactory(VCardParser.VERSION_VCARD30_INT);
+        VCardParserFactory detecting = new VCardParserFactory(VCardParserFactory.VERSION_DETECT);
+        for (int i = 0; i < 3; i++) {
+            VCardTestUtils.assertSameNodes(VCardTestUtils.parse(new VCardParserV21(), v21), parse(factory21, v21));
+            VCardTestUtils.assertSameNodes(VCardTestUtils.parse(new VCardParserV30(), v30), parse(factory30, v30));
+            VCardTestUtils.assertSameNodes(VCardTestUtils.parse(new VCardVersionDispatcher(), mixed),
+                    parse(detecting, mixed));
+        }
+        assertEquals(VCardParserV21.class, factory21.newParser().getClass());
+        assertEquals(VCardParserV30.class, factory30.newParser().getClass());
+        assertEquals(VCardVersionDispatcher.class, detecting.newParser().getClass());
+        assertNotSame(detecting.newParser(), detecting.newParser());
+    }
+
+    @Test
+    void testString() throws IOException, VCardException {
+        String text = "BEGIN:VCARD\r\nVERSION:2.1\r\nN:Roe;Jane\r\nEND:VCARD\r\n" + VCARD30;
+        VCardParserFactory factory = new VCardParserFactory(VCardParserFactory.VERSION_DETECT);
+        for (int i = 0; i < 3; i++) {
+            VDataBuilder expected = new VDataBuilder();
+            new VCardParser().parse(text, "UTF-8", expected);
+            VDataBuilder actual = new VDataBuilder();
+            factory.parse(text, "UTF-8", actual);
+            VCardTestUtils.assertSameNodes(expected.getVNodeList(), actual.getVNodeList());
+            assertEquals(2, actual.getVNodeList().size());
+        }
+    }
+
+    @Test
+    void testPropertyFilter() throws IOException, VCardException {
+        List<String> names = new ArrayList<>(Arrays.asList("FN"));
+        VCardParserFactory factory = new VCardParserFactory(VCardParser.VERSION_VCARD21_INT, names);
+        names.add("TEL");
+        List<VNode> nodes = parse(factory, VCardTestUtils.vcard21Entries(3));
+        assertEquals(3, nodes.size());
+        for (VNode node : nodes) {
+            assertEquals(1, node.getPropList().size());
+            assertEquals("FN", node.getPropList().get(0).getPropName());
+        }
+    }
+
+    @Test
+    void testParseAfterError() throws IOException, VCardException {
+        VCardParserFactory factory = new VCardParserFactory(VCardParserFactory.VERSION_DETECT);
+        byte[] truncated = "BEGIN:VCARD\r\nVERSION:2.1\r\nNOTE;ENCODING=QUOTED-PRINTABLE:a=\r\n"
+                .getBytes(StandardCharsets.UTF_8);
+        byte[] v30 = VCARD30.getBytes(StandardCharsets.UTF_8);
+        parse(factory, v30);
+        assertThrows(VCardException.class, () -> parse(factory, truncated));
+        // Each source starts with the rules of vCard 2.1 and no pending line.
+        VCardTestUtils.assertSameNodes(VCardTestUtils.parse(new VCardParserV21(), VCardTestUtils.vcard21Entries(2)),
+                parse(factory, VCardTestUtils.vcard21Entries(2)));
+        VCardTestUtils.assertSameNodes(VCardTestUtils.parse(new VCardParserV30(), v30), parse(factory, v30));
+    }
+
+    @Test
+    void testParseFromBuilder() throws IOException, VCardException {
+        VCardParserFactory factory = new VCardParserFactory(VCardParserFactory.VERSION_DETECT);
+        byte[] inner = VCARD30.getBytes(StandardCharsets.UTF_8);
+        List<List<VNode>> innerNodes = new ArrayList<>();
+        VDataBuilder builder = new VDataBuilder() {
+            @Override
+            public void endRecord() {
+                super.endRecord();
+                try {
+                    innerNodes.add(parse(factory, inner));
+                } catch (IOException | VCardException e) {
+                    throw new AssertionError(e);
+                }
+            }
+        };
+        byte[] outer = VCardTestUtils.vcard21Entries(3);
+        factory.parse(new ByteArrayInputStream(outer), "UTF-8", builder);
+        VCardTestUtils.assertSameNodes(VCardTestUtils.parse(new VCardParserV21(), outer), builder.getVNodeList());
+        assertEquals(3, innerNodes.size());
+        for (List<VNode> nodes : innerNodes) {
+            VCardTestUtils.assertSameNodes(VCardTestUtils.parse(new VCardParserV30(), inner), nodes);
+        }
+    }
+
+    @Test
+    void testThreads() throws Exception {
+        VCardParserFactory factory = new VCardParserFactory(VCardParserFactory.VERSION_DETECT);
+        byte[] bytes = (new String(VCardTestUtils.vcard21Entries(5), StandardCharsets.UTF_8) + VCARD30)
+                .getBytes(StandardCharsets.UTF_8);
+        List<VNode> expected = VCardTestUtils.parse(new VCardVersionDispatcher(), bytes);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(executor.submit(() -> {
+                    for (int j = 0; j < 100; j++) {
+                        VCardTestUtils.assertSameNodes(expected, parse(factory, bytes));
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void testParserReset() throws IOException, VCardException {
+        byte[] bytes = VCardTestUtils.vcard21Entries(5);
+        VCardParserV21 parser = new VCardVersionDispatcher();
+        VCardTestUtils.parse(parser, VCARD30.getBytes(StandardCharsets.UTF_8));
+        parser.cancel();
+        parser.reset();
+        VCardTestUtils.assertSameNodes(VCardTestUtils.parse(new VCardParserV21(), bytes),
+                VCardTestUtils.parse(parser, bytes));
+    }
+
+    @Test
+    void testBuilderReset() throws IOException, VCardException {
+        VDataBuilder builder = new VDataBuilder();
+        new VCardParserV21().parse(new ByteArrayInputStream(VCardTestUtils.vcard21Entries(2)), "UTF-8", builder);
+        List<VNode> first = builder.getVNodeList();
+        builder.reset();
+        assertTrue(builder.getVNodeList().isEmpty());
+        new VCardParserV21().parse(new ByteArrayInputStream(VCardTestUtils.vcard21Entries(3)), "UTF-8", builder);
+        assertEquals(2, first.size());
+        assertEquals(3, builder.getVNodeList().size());
+    }
+
+    @Test
+    void testLexerReset() throws IOException {
+        StringBuilder longLine = new StringBuilder("NOTE:");
+        for (int i = 0; i < 100_000; i++) {
+            longLine.append('a');
+        }
+        VCardLexer lexer = new VCardLexer(new ByteArrayInputStream(
+                (longLine + "\r\nFN:a\r").getBytes(StandardCharsets.UTF_8)), "UTF-8");
+        assertTrue(lexer.next(false));
+        assertEquals(longLine.toString(), lexer.getLine());
+
+        // The pending line feed and the position are not kept.
+        lexer.reset(new ByteArrayInputStream("\nN:b\r\n".getBytes(StandardCharsets.UTF_8)), "ISO-8859-1");
+        assertTrue(lexer.next(false));
+        assertEquals("", lexer.getLine());
+        assertEquals(0, lexer.getLineOffset());
+        assertTrue(lexer.next(false));
+        assertEquals("N:b", lexer.getLine());
+        assertFalse(lexer.next(false));
+        assertSame(StandardCharsets.ISO_8859_1, lexer.getCharset());
+
+        lexer.reset(new ByteArrayInputStream("FN:é\r\n".getBytes(StandardCharsets.UTF_16)), "UTF-16");
+        assertTrue(lexer.next(false));
+        assertEquals("FN:é", lexer.getLine());
+        assertSame(StandardCharsets.UTF_8, lexer.getCharset());
+    }
+}
@@ -0,0 +1,299 @@
+/*
+ *
+ * 	StreamWIDE (Team on The Run)
+ *
+ * @createdBy  AndroidTeam on Mon, 19 Oct 2026 01:34:20 +0100
+ * @copyright  Copyright (c) 2026 StreamWIDE UK Ltd (Team on the Run)
+ * @email      support@teamontherun.com
+ *
+ * 	© Copyright 2026 StreamWIDE UK Ltd (Team on the Run). StreamWIDE is the copyright holder
+ * 	of all code contained in this file. Do not redistribute or
+ *  	re-use without permission.
+ *
+ * @lastModifiedOn Mon, 19 Oct 2026 01:34:20 +0100
+ */
+
+package com.streamwide.smartms.lib.vcard.syncml.pim.vcard;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.streamwide.smartms.lib.vcard.syncml.pim.PropertyNode;
+import com.streamwide.smartms.lib.vcard.syncml.pim.VNode;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+
+class VCardPublisherTest {
+
+    private static final int COUNT = 10;
+
+    // Runs the signals in the calling thread, so that each test is deterministic.
+    private static final Executor DIRECT = Runnable::run;
+
+    /** Records the stream closing. */
+    private static final class Source extends ByteArrayInputStream {
+        boolean mClosed;
+
+        Source(byte[] bytes) {
+            super(bytes);
+        }
+
+        @Override
+        public void close() {
+            mClosed = true;
+        }
+    }
+
+    private static class RecordingSubscriber<T> implements Flow.Subscriber<T> {
+        final List<T> mItems = new ArrayList<>();
+        final long mInitialRequest;
+        Flow.Subscription mSubscription;
+        Throwable mError;
+        int mCompletions;
+
+        RecordingSubscriber(long initialRequest) {
+            mInitialRequest = initialRequest;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            mSubscription = subscription;
+            if (mInitialRequest > 0) {
+                subscription.request(mInitialRequest);
+            }
+        }
+
+        @Override
+        public void onNext(T item) {
+            mItems.add(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            mError = throwable;
+        }
+
+        @Override
+        public void onComplete() {
+            mCompletions++;
+        }
+    }
+
+    @BeforeAll
+    static void setUpLogger() {
+        VCardTestUtils.disableLogger();
+    }
+
+    private static Source source() {
+        return new Source(VCardTestUtils.vcard21Entries(COUNT));
+    }
+
+    private static String uid(VNode node) {
+        for (PropertyNode propertyNode : node.getPropList()) {
+            if (propertyNode.getPropName().equals("UID")) {
+                return propertyNode.getPropValue();
+            }
+        }
+        return null;
+    }
+
+    private static VCardPublisher<String> uids(Source source) {
+        return new VCardPublisher<>(source, "UTF-8", VCardParser.VERSION_VCARD21_INT, DIRECT,
+                VCardPublisherTest::uid);
+    }
+
+    @Test
+    void testAllEntries() {
+        Source source = source();
+        RecordingSubscriber<String> subscriber = new RecordingSubscriber<>(Long.MAX_VALUE);
+        uids(source).subscribe(subscriber);
+
+        assertEquals(COUNT, subscriber.mItems.size());
+        assertEquals("uid-0", subscriber.mItems.get(0));
+        assertEquals("uid-" + (COUNT - 1), subscriber.mItems.get(COUNT - 1));
+        assertEquals(1, subscriber.mCompletions);
+        assertNull(subscriber.mError);
+        assertTrue(source.mClosed);
+    }
+
+    @Test
+    void testBackpressure() {
+        Source source = source();
+        RecordingSubscriber<String> subscriber = new RecordingSubscriber<>(1);
+        uids(source).subscribe(subscriber);
+        assertEquals(1, subscriber.mItems.size());
+
+        subscriber.mSubscription.request(3);
+        assertEquals(4, subscriber.mItems.size());
+        assertFalse(source.mClosed);
+
+        subscriber.mSubscription.request(COUNT);
+        assertEquals(COUNT, subscriber.mItems.size());
+        assertEquals(1, subscriber.mCompletions);
+        assertTrue(source.mClosed);
+    }
+
+    @Test
+    void testSkippedEntriesAreNotCounted() {
+        Source source = source();
+        RecordingSubscriber<String> subscriber = new RecordingSubscriber<>(2);
+        new VCardPublisher<>(source, "UTF-8", VCardParser.VERSION_VCARD21_INT, DIRECT,
+                node -> uid(node).endsWith("3") || uid(node).endsWith("7") ? uid(node) : null)
+                .subscribe(subscriber);
+
+        assertEquals(2, subscriber.mItems.size());
+        assertEquals(0, subscriber.mCompletions);
+        subscriber.mSubscription.request(1);
+        assertEquals(1, subscriber.mCompletions);
+    }
+
+    @Test
+    void testCancel() {
+        Source source = source();
+        RecordingSubscriber<String> subscriber = new RecordingSubscriber<String>(2) {
+            @Override
+            public void onNext(String item) {
+                super.onNext(item);
+                if (mItems.size() == 3) {
+                    mSubscription.cancel();
+                }
+            }
+        };
+        uids(source).subscribe(subscriber);
+        assertFalse(source.mClosed);
+
+        subscriber.mSubscription.request(COUNT);
+        assertTrue(source.mClosed);
+        assertEquals(3, subscriber.mItems.size());
+        assertEquals(0, subscriber.mCompletions);
+        assertNull(subscriber.mError);
+    }
+
+    @Test
+    void testCancelBeforeRequest() {
+        Source source = source();
+        RecordingSubscriber<String> subscriber = new RecordingSubscriber<>(0);
+        uids(source).subscribe(subscriber);
+        subscriber.mSubscription.cancel();
+        subscriber.mSubscription.request(COUNT);
+
+        assertTrue(subscriber.mItems.isEmpty());
+        assertTrue(source.mClosed);
+        assertEquals(0, subscriber.mCompletions);
+    }
+
+    @Test
+    void testParseError() {
+        Source source = new Source(("BEGIN:VCARD\r\nVERSION:2.1\r\nFN:a\r\nEND:VCARD\r\n"
+                + "BEGIN:VCARD\r\nVERSION:2.1\r\nNO COLON\r\nEND:VCARD\r\n")
+                .getBytes(StandardCharsets.US_ASCII));
+        RecordingSubscriber<VNode> subscriber = new RecordingSubscriber<>(Long.MAX_VALUE);
+        new VCardPublisher<>(source, "UTF-8", VCardParser.VERSION_VCARD21_INT, DIRECT, node -> node)
+                .subscribe(subscriber);
+
+        assertEquals(1, subscriber.mItems.size());
+        assertInstanceOf(VCardException.class, subscriber.mError);
+        assertEquals(0, subscriber.mCompletions);
+        assertTrue(source.mClosed);
+    }
+
+    @Test
+    void testMapperError() {
+        Source source = source();
+        IllegalStateException error = new IllegalStateException("mapper");
+        RecordingSubscriber<String> subscriber = new RecordingSubscriber<>(Long.MAX_VALUE);
+        new VCardPublisher<String>(source, "UTF-8", VCardParser.VERSION_VCARD21_INT, DIRECT, node -> {
+            if (uid(node).equals("uid-2")) {
+                throw error;
+            }
+            return uid(node);
+        }).subscribe(subscriber);
+
+        assertEquals(2, subscriber.mItems.size());
+        assertSame(error, subscriber.mError);
+        assertTrue(source.mClosed);
+    }
+
+    @Test
+    void testSubscriberError() {
+        Source source = source();
+        IllegalStateException error = new IllegalStateException("subscriber");
+        RecordingSubscriber<String> subscriber = new RecordingSubscriber<String>(Long.MAX_VALUE) {
+            @Override
+            public void onNext(String item) {
+                super.onNext(item);
+                throw error;
+            }
+        };
+        uids(source).subscribe(subscriber);
+
+        assertEquals(1, subscriber.mItems.size());
+        assertSame(error, subscriber.mError);
+        assertTrue(source.mClosed);
+        subscriber.mSubscription.request(1);
+        assertEquals(1, subscriber.mItems.size());
+        assertEquals(0, subscriber.mCompletions);
+    }
+
+    @Test
+    void testNonPositiveRequest() {
+        Source source = source();
+        RecordingSubscriber<String> subscriber = new RecordingSubscriber<>(0);
+        uids(source).subscribe(subscriber);
+        subscriber.mSubscription.request(0);
+
+        assertInstanceOf(IllegalArgumentException.class, subscriber.mError);
+        assertTrue(source.mClosed);
+    }
+
+    @Test
+    void testSecondSubscriber() {
+        VCardPublisher<String> publisher = uids(source());
+        RecordingSubscriber<String> first = new RecordingSubscriber<>(0);
+        RecordingSubscriber<String> second = new RecordingSubscriber<>(1);
+        publisher.subscribe(first);
+        publisher.subscribe(second);
+
+        assertNull(first.mError);
+        assertInstanceOf(IllegalStateException.class, second.mError);
+        assertTrue(second.mItems.isEmpty());
+    }
+
+    @Test
+    void testCommonPool() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(1);
+        RecordingSubscriber<VNode> subscriber = new RecordingSubscriber<VNode>(Long.MAX_VALUE) {
+            @Override
+            public void onComplete() {
+                super.onComplete();
+                done.countDown();
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                super.onError(throwable);
+                done.countDown();
+            }
+        };
+        VCardPublisher.ofVNodes(source(), "UTF-8", VCardParser.VERSION_VCARD21_INT)
+                .subscribe(subscriber);
+
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertNull(subscriber.mError);
+        assertEquals(COUNT, subscriber.mItems.size());
+    }
+}
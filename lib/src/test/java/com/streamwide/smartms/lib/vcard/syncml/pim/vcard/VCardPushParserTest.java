@@ -0,0 +1,247 @@
+/*
+ *
+ * 	StreamWIDE (Team on The Run)
+ *
+ * @createdBy  AndroidTeam on Sun, 18 Oct 2026 22:14:05 +0100
+ * @copyright  Copyright (c) 2026 StreamWIDE UK Ltd (Team on the Run)
+ * @email      support@teamontherun.com
+ *
+ * 	© Copyright 2026 StreamWIDE UK Ltd (Team on the Run). StreamWIDE is the copyright holder
+ * 	of all code contained in this file. Do not redistribute or
+ *  	re-use without permission.
+ *
+ * @lastModifiedOn Sun, 18 Oct 2026 22:14:05 +0100
+ */
+
+package com.streamwide.smartms.lib.vcard.syncml.pim.vcard;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.streamwide.smartms.lib.vcard.syncml.pim.VDataBuilder;
+import com.streamwide.smartms.lib.vcard.syncml.pim.VNode;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Random;
+
+class VCardPushParserTest {
+
+    private static final String VCARD21 = "BEGIN:VCARD\r\n"
+            + "VERSION:2.1\r\n"
+            + "N:Doe;John;;;\r\n"
+            + "FN:John Doe\r\n"
+            + "TEL;HOME;VOICE:+1 555 0100\r\n"
+            + "NOTE;ENCODING=QUOTED-PRINTABLE;CHARSET=UTF-8:caf=C3=A9 =\r\n"
+            + "au lait\r\n"
+            + "PHOTO;ENCODING=BASE64;TYPE=GIF:R0lGODlhAQABAIAAAP///wAAACH5BAEAAAAALAAAAAABAAEAAAICRAEAOw==\r\n"
+            + "\r\n"
+            + "END:VCARD\r\n"
+            + "\r\n"
+            + "BEGIN:VCARD\r\n"
+            + "VERSION:2.1\r\n"
+            + "N:Roe;Jane\r\n"
+            + "item1.EMAIL;INTERNET:jane@example.com\n"
+            + "ADR;WORK:;;1 Main St\\; Suite 2;Springfield;;;\r"
+            + "END:VCARD\r\n";
+
+    private static final String VCARD30 = "BEGIN:VCARD\r\n"
+            + "VERSION:3.0\r\n"
+            + "N:Doe;John;;;\r\n"
+            + "FN:John\r\n"
+            + "  Doe\r\n"
+            + "TEL;TYPE=HOME,VOICE:+1 555 0100\r\n"
+            + "NOTE:a\\, b\\nc\r\n"
+            + "END:VCARD\r\n"
+            + "BEGIN:VCARD\r\n"
+            + "VERSION:3.0\r\n"
+            + "FN:Jane\r\n"
+            + "END:VCARD\r\n";
+
+    @BeforeAll
+    static void setUpLogger() {
+        VCardTestUtils.disableLogger();
+    }
+
+    private static List<VNode> parsePushed(VCardParserV21 parser, byte[] bytes, int chunkSize)
+            throws IOException, VCardException {
+        VDataBuilder builder = new VDataBuilder();
+        VCardPushParser pushParser = new VCardPushParser(parser, "UTF-8", builder);
+        for (int i = 0; i < bytes.length; i += chunkSize) {
+            pushParser.feed(ByteBuffer.wrap(bytes, i, Math.min(chunkSize, bytes.length - i)));
+        }
+        pushParser.endOfInput();
+        return builder.getVNodeList();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 3, 7})
+    void testChunksV21(int chunkSize) throws IOException, VCardException {
+        byte[] bytes = VCARD21.getBytes(StandardCharsets.UTF_8);
+        List<VNode> expected = VCardTestUtils.parse(new VCardParserV21(), bytes);
+        assertEquals(2, expected.size());
+        VCardTestUtils.assertSameNodes(expected, parsePushed(new VCardParserV21(), bytes, chunkSize));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 3, 7})
+    void testChunksV30(int chunkSize) throws IOException, VCardException {
+        byte[] bytes = VCARD30.getBytes(StandardCharsets.UTF_8);
+        List<VNode> expected = VCardTestUtils.parse(new VCardParserV30(), bytes);
+        assertEquals(2, expected.size());
+        VCardTestUtils.assertSameNodes(expected, parsePushed(new VCardParserV30(), bytes, chunkSize));
+    }
+
+    private static VCardParserV21 fomaParser() {
+        VCardSourceDetector detector = new VCardSourceDetector();
+        detector.propertyName("X-SD-VERN");
+        return new VCardParserV21(detector);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 3, 7, 1000})
+    void testNestedVCard(int chunkSize) {
+        byte[] bytes = ("BEGIN:VCARD\r\nVERSION:2.1\r\nFN:a\r\n"
+                + "BEGIN:VCARD\r\nFN:b\r\nEND:VCARD\r\n"
+                + "FN:c\r\nEND:VCARD\r\n"
+                + "BEGIN:VCARD\r\nFN:d\r\nEND:VCARD\r\n").getBytes(StandardCharsets.US_ASCII);
+        assertThrows(VCardNestedException.class,
+                () -> parsePushed(new VCardParserV21(), bytes, chunkSize));
+        assertThrows(VCardNestedException.class,
+                () -> parsePushed(new VCardParserV30(), bytes, chunkSize));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 3, 7, 1000})
+    void testOuterVCard(int chunkSize) throws IOException, VCardException {
+        byte[] bytes = ("BEGIN:VCARD\r\nX-SD-VERN:1\r\n"
+                + "BEGIN:VCARD\r\nVERSION:2.1\r\nFN:a\r\nEND:VCARD\r\n"
+                + "BEGIN:VCARD\r\nVERSION:2.1\r\nFN:b\r\nEND:VCARD\r\n"
+                + "X-DCM-X:1\r\nEND:VCARD\r\n").getBytes(StandardCharsets.US_ASCII);
+        List<VNode> expected = VCardTestUtils.parse(fomaParser(), bytes);
+        assertEquals(2, expected.size());
+        VCardTestUtils.assertSameNodes(expected, parsePushed(fomaParser(), bytes, chunkSize));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 3, 7, 1000})
+    void testEndVCardInsideValue(int chunkSize) throws IOException, VCardException {
+        // Neither line ends the entry for the parser.
+        byte[] bytes = ("BEGIN:VCARD\r\nVERSION:2.1\r\n"
+                + "NOTE;ENCODING=QUOTED-PRINTABLE:a=\r\nEND:VCARD\r\n"
+                + "NOTE:b\r\n END:VCARD\r\n"
+                + "END:VCARD\r\n"
+                + "BEGIN:VCARD\r\nVERSION:2.1\r\nFN:c\r\nEND:VCARD\r\n")
+                .getBytes(StandardCharsets.US_ASCII);
+        List<VNode> expected = VCardTestUtils.parse(new VCardParserV21(), bytes);
+        assertEquals(2, expected.size());
+        VCardTestUtils.assertSameNodes(expected, parsePushed(new VCardParserV21(), bytes, chunkSize));
+    }
+
+    @Test
+    void testTranscodedCharsetIsRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new VCardPushParser(new VCardParserV21(), "UTF-16LE", new VDataBuilder()));
+    }
+
+    @Test
+    void testRandomChunks() throws IOException, VCardException {
+        byte[] bytes = VCardTestUtils.vcard21Entries(50);
+        List<VNode> expected = VCardTestUtils.parse(new VCardParserV21(), bytes);
+        Random random = new Random(42);
+        VDataBuilder builder = new VDataBuilder();
+        VCardPushParser pushParser = new VCardPushParser(new VCardParserV21(), "UTF-8", builder);
+        for (int i = 0; i < bytes.length; ) {
+            int size = Math.min(1 + random.nextInt(200), bytes.length - i);
+            pushParser.feed(ByteBuffer.wrap(bytes, i, size));
+            i += size;
+        }
+        pushParser.endOfInput();
+        VCardTestUtils.assertSameNodes(expected, builder.getVNodeList());
+    }
+
+    @Test
+    void testEntriesAreParsedOnceComplete() throws IOException, VCardException {
+        String text = new String(VCardTestUtils.vcard21Entries(10), StandardCharsets.UTF_8);
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        VDataBuilder builder = new VDataBuilder();
+        VCardPushParser pushParser = new VCardPushParser(new VCardParserV21(), "UTF-8", builder);
+        int fed = 0;
+        int count = 0;
+        for (int end = text.indexOf("END:VCARD\r\n"); end >= 0; end = text.indexOf("END:VCARD\r\n", end + 1)) {
+            // One more byte is needed to know that the line is not folded.
+            int lineEnd = end + "END:VCARD\r\n".length();
+            pushParser.feed(ByteBuffer.wrap(bytes, fed, lineEnd - fed));
+            fed = lineEnd;
+            assertEquals(count, builder.getVNodeList().size());
+            if (fed == bytes.length) {
+                break;
+            }
+            pushParser.feed(ByteBuffer.wrap(bytes, fed, 1));
+            fed++;
+            count++;
+            assertEquals(count, builder.getVNodeList().size());
+            assertEquals(count, pushParser.getCheckpoint().getRecordCount());
+        }
+        pushParser.feed(ByteBuffer.wrap(bytes, fed, bytes.length - fed));
+        pushParser.endOfInput();
+        assertEquals(9, count);
+        assertEquals(10, builder.getVNodeList().size());
+    }
+
+    @Test
+    void testCancel() throws IOException, VCardException {
+        byte[] bytes = VCardTestUtils.vcard21Entries(10);
+        VDataBuilder builder = new VDataBuilder();
+        VCardPushParser pushParser = new VCardPushParser(new VCardParserV21(), "UTF-8", builder);
+        pushParser.feed(ByteBuffer.wrap(bytes, 0, bytes.length / 2));
+        int count = builder.getVNodeList().size();
+        pushParser.cancel();
+
+        ByteBuffer rest = ByteBuffer.wrap(bytes, bytes.length / 2, bytes.length - bytes.length / 2);
+        pushParser.feed(rest);
+        assertFalse(rest.hasRemaining());
+        pushParser.endOfInput();
+        assertEquals(count, builder.getVNodeList().size());
+    }
+
+    @Test
+    void testEndOfInput() throws IOException, VCardException {
+        int[] ends = new int[1];
+        VDataBuilder builder = new VDataBuilder() {
+            @Override
+            public void end() {
+                super.end();
+                ends[0]++;
+            }
+        };
+        VCardPushParser pushParser = new VCardPushParser(new VCardParserV21(), "UTF-8", builder);
+        assertNull(pushParser.getCheckpoint());
+        // The last line has no terminator.
+        pushParser.feed(ByteBuffer.wrap("BEGIN:VCARD\r\nVERSION:2.1\r\nFN:a\r\nEND:VCARD"
+                .getBytes(StandardCharsets.US_ASCII)));
+        assertEquals(0, builder.getVNodeList().size());
+        pushParser.endOfInput();
+        pushParser.endOfInput();
+        assertEquals(1, builder.getVNodeList().size());
+        assertEquals(1, ends[0]);
+        assertThrows(IllegalStateException.class, () -> pushParser.feed(ByteBuffer.allocate(1)));
+    }
+
+    @Test
+    void testTruncatedEntry() throws IOException, VCardException {
+        VCardPushParser pushParser = new VCardPushParser(new VCardParserV21(), "UTF-8", new VDataBuilder());
+        pushParser.feed(ByteBuffer.wrap("BEGIN:VCARD\r\nVERSION:2.1\r\nFN:a\r\n"
+                .getBytes(StandardCharsets.US_ASCII)));
+        assertThrows(VCardException.class, pushParser::endOfInput);
+    }
+}
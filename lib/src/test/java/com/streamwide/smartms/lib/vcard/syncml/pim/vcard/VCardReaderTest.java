@@ -0,0 +1,156 @@
+/*
+ *
+ * 	StreamWIDE (Team on The Run)
+ *
+ * @createdBy  AndroidTeam on Mon, 19 Oct 2026 00:24:51 +0100
+ * @copyright  Copyright (c) 2026 StreamWIDE UK Ltd (Team on the Run)
+ * @email      support@teamontherun.com
+ *
+ * 	© Copyright 2026 StreamWIDE UK Ltd (Team on the Run). StreamWIDE is the copyright holder
+ * 	of all code contained in this file. Do not redistribute or
+ *  	re-use without permission.
+ *
+ * @lastModifiedOn Mon, 19 Oct 2026 00:24:51 +0100
+ */
+
+package com.streamwide.smartms.lib.vcard.syncml.pim.vcard;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.streamwide.smartms.lib.vcard.syncml.pim.VDataBuilder;
+import com.streamwide.smartms.lib.vcard.syncml.pim.VNode;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+class VCardReaderTest {
+
+    private static final int COUNT = 30;
+
+    @BeforeAll
+    static void setUpLogger() {
+        VCardTestUtils.disableLogger();
+    }
+
+    private static List<VNode> readAll(VCardReader reader) throws IOException, VCardException {
+        List<VNode> vnodes = new ArrayList<>();
+        VNode vnode;
+        while ((vnode = reader.next()) != null) {
+            vnodes.add(vnode);
+        }
+        return vnodes;
+    }
+
+    @Test
+    void testSameAsParse() throws IOException, VCardException {
+        byte[] bytes = VCardTestUtils.vcard21Entries(COUNT);
+        try (VCardReader reader = new VCardReader(new ByteArrayInputStream(bytes), "UTF-8",
+                VCardParser.VERSION_VCARD21_INT)) {
+            VCardTestUtils.assertSameNodes(VCardTestUtils.parse(new VCardParserV21(), bytes),
+                    readAll(reader));
+            assertNull(reader.next());
+        }
+    }
+
+    @Test
+    void testOnlyTheCurrentEntryIsHeld() throws IOException, VCardException {
+        VDataBuilder builder = new VDataBuilder();
+        try (VCardReader reader = new VCardReader(
+                new ByteArrayInputStream(VCardTestUtils.vcard21Entries(COUNT)), "UTF-8",
+                new VCardParserV21(), builder)) {
+            while (reader.next() != null) {
+                assertEquals(1, builder.getVNodeList().size());
+            }
+        }
+    }
+
+    @Test
+    void testBuilderResetBetweenEntries() throws IOException, VCardException {
+        byte[] bytes = VCardTestUtils.vcard21Entries(COUNT);
+        VDataBuilder builder = new VDataBuilder();
+        List<VNode> vnodes = new ArrayList<>();
+        try (VCardReader reader = new VCardReader(new ByteArrayInputStream(bytes), "UTF-8",
+                new VCardParserV21(), builder)) {
+            VNode vnode;
+            while ((vnode = reader.next()) != null) {
+                vnodes.add(vnode);
+                builder.reset();
+            }
+        }
+        VCardTestUtils.assertSameNodes(VCardTestUtils.parse(new VCardParserV21(), bytes), vnodes);
+    }
+
+    @Test
+    void testCancel() throws IOException, VCardException {
+        try (VCardReader reader = new VCardReader(
+                new ByteArrayInputStream(VCardTestUtils.vcard21Entries(COUNT)), "UTF-8",
+                VCardParser.VERSION_VCARD21_INT)) {
+            for (int i = 0; i < 3; i++) {
+                assertNotNull(reader.next());
+            }
+            reader.cancel();
+            assertNull(reader.next());
+            assertNull(reader.next());
+        }
+    }
+
+    @Test
+    void testInvalidEntry() throws IOException, VCardException {
+        byte[] bytes = ("BEGIN:VCARD\r\nVERSION:2.1\r\nFN:a\r\nEND:VCARD\r\n"
+                + "BEGIN:VCARD\r\nVERSION:2.1\r\nNO COLON\r\nEND:VCARD\r\n")
+                .getBytes(StandardCharsets.US_ASCII);
+        try (VCardReader reader = new VCardReader(new ByteArrayInputStream(bytes), "UTF-8",
+                VCardParser.VERSION_VCARD21_INT)) {
+            assertNotNull(reader.next());
+            assertThrows(VCardException.class, reader::next);
+        }
+    }
+
+    @Test
+    void testTruncatedEntry() throws IOException {
+        byte[] bytes = "BEGIN:VCARD\r\nVERSION:2.1\r\nFN:a\r\n".getBytes(StandardCharsets.US_ASCII);
+        try (VCardReader reader = new VCardReader(new ByteArrayInputStream(bytes), "UTF-8",
+                VCardParser.VERSION_VCARD21_INT)) {
+            assertThrows(VCardException.class, reader::next);
+        }
+    }
+
+    @Test
+    void testVersion30() throws IOException, VCardException {
+        byte[] bytes = ("BEGIN:VCARD\r\nVERSION:3.0\r\nFN:a\r\n  b\r\nEND:VCARD\r\n"
+                + "BEGIN:VCARD\r\nVERSION:3.0\r\nFN:c\r\nEND:VCARD\r\n")
+                .getBytes(StandardCharsets.US_ASCII);
+        List<String> names = new ArrayList<>();
+        try (VCardReader reader = new VCardReader(new ByteArrayInputStream(bytes), "UTF-8",
+                VCardParser.VERSION_VCARD30_INT)) {
+            for (VNode vnode : readAll(reader)) {
+                names.add(vnode.getPropList().get(1).getPropValue());
+            }
+        }
+        assertEquals(Arrays.asList("a b", "c"), names);
+    }
+
+    @Test
+    void testCloseClosesTheStream() throws IOException {
+        boolean[] closed = {false};
+        ByteArrayInputStream is = new ByteArrayInputStream(new byte[0]) {
+            @Override
+            public void close() {
+                closed[0] = true;
+            }
+        };
+        new VCardReader(is, "UTF-8", VCardParser.VERSION_VCARD21_INT).close();
+        assertTrue(closed[0]);
+    }
+}
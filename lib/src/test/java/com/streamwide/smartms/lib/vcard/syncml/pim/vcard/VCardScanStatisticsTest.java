@@ -0,0 +1,140 @@
+/*
+ *
+ * 	StreamWIDE (Team on The Run)
+ *
+ * @createdBy  AndroidTeam on Mon, 19 Oct 2026 03:38:16 +0100
+ * @copyright  Copyright (c) 2026 StreamWIDE UK Ltd (Team on the Run)
+ * @email      support@teamontherun.com
+ *
+ * 	© Copyright 2026 StreamWIDE UK Ltd (Team on the Run). StreamWIDE is the copyright holder
+ * 	of all code contained in this file. Do not redistribute or
+ *  	re-use without permission.
+ *
+ * @lastModifiedOn Mon, 19 Oct 2026 03:38:16 +0100
+ */
+
+package com.streamwide.smartms.lib.vcard.syncml.pim.vcard;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.streamwide.smartms.lib.vcard.syncml.pim.PropertyNode;
+import com.streamwide.smartms.lib.vcard.syncml.pim.VNode;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+class VCardScanStatisticsTest {
+
+    private static final int COUNT = 100;
+    private static final String VCARD30 = "BEGIN:VCARD\r\n"
+            + "VERSION:3.0\r\n"
+            + "not a property\r\n"
+            + "FN:John\r\n"
+            + "  Doe\r\n"
+            + "x-custom;CHARSET=iso-8859-1:a\r\n"
+            + "NOTE;ENCODING=quoted-printable:a=\r\n"
+            + "FAKE:b=\r\n"
+            + "END:VCARD\r\n"
+            + "PHOTO;ENCODING=b;TYPE=GIF:R0lGODlhAQABAIAAAP///wAAACH5BAEAAAAAL\r\n"
+            + " AAAAAABAAEAAAICRAEAOw==\r\n"
+            + "END:VCARD\r\n";
+
+    @TempDir
+    File mDirectory;
+
+    @BeforeAll
+    static void setUpLogger() {
+        VCardTestUtils.disableLogger();
+    }
+
+    private static VCardScanStatistics scan(byte[] bytes) throws IOException {
+        return VCardScanStatistics.scan(new ByteArrayInputStream(bytes), "UTF-8");
+    }
+
+    @Test
+    void testSameFiguresAsParse() throws IOException, VCardException {
+        byte[] bytes = VCardTestUtils.vcard21Entries(COUNT);
+        Map<String, Long> propertyCounts = new HashMap<>();
+        long binaryByteCount = 0;
+        for (VNode node : VCardTestUtils.parse(new VCardParserV21(), bytes)) {
+            for (PropertyNode propertyNode : node.getPropList()) {
+                propertyCounts.merge(propertyNode.getPropName(), 1L, Long::sum);
+                if (propertyNode.getPropValueBytes() != null) {
+                    binaryByteCount += propertyNode.getPropValueBytes().length;
+                }
+            }
+        }
+        int maxLineLength = 0;
+        for (String line : new String(bytes, StandardCharsets.UTF_8).split("\r\n")) {
+            maxLineLength = Math.max(maxLineLength, line.length());
+        }
+
+        VCardScanStatistics statistics = scan(bytes);
+        assertEquals(COUNT, statistics.getRecordCount());
+        assertEquals(propertyCounts, statistics.getPropertyCounts());
+        assertEquals(20 * 43, binaryByteCount);
+        assertEquals(binaryByteCount, statistics.getBinaryByteCount());
+        assertEquals(maxLineLength, statistics.getMaxLineLength());
+        assertEquals(bytes.length, statistics.getByteCount());
+
+        Map<String, Long> encodingCounts = new HashMap<>();
+        encodingCounts.put("QUOTED-PRINTABLE", 34L);
+        encodingCounts.put("BASE64", 20L);
+        assertEquals(encodingCounts, statistics.getEncodingCounts());
+        assertEquals(Collections.singletonMap("UTF-8", 34L), statistics.getCharsetCounts());
+    }
+
+    @Test
+    void testContinuationLines() throws IOException {
+        VCardScanStatistics statistics = scan(VCARD30.getBytes(StandardCharsets.UTF_8));
+        assertEquals(1, statistics.getRecordCount());
+        Map<String, Long> propertyCounts = new HashMap<>();
+        for (String name : new String[] {"VERSION", "FN", "X-CUSTOM", "NOTE", "PHOTO"}) {
+            propertyCounts.put(name, 1L);
+        }
+        assertEquals(propertyCounts, statistics.getPropertyCounts());
+        Map<String, Long> encodingCounts = new HashMap<>();
+        encodingCounts.put("QUOTED-PRINTABLE", 1L);
+        encodingCounts.put("B", 1L);
+        assertEquals(encodingCounts, statistics.getEncodingCounts());
+        assertEquals(Collections.singletonMap("ISO-8859-1", 1L), statistics.getCharsetCounts());
+        assertEquals(43, statistics.getBinaryByteCount());
+        assertEquals("PHOTO;ENCODING=b;TYPE=GIF:R0lGODlhAQABAIAAAP///wAAACH5BAEAAAAAL".length(),
+                statistics.getMaxLineLength());
+    }
+
+    @Test
+    void testValueAtTheEnd() throws IOException {
+        VCardScanStatistics statistics = scan(
+                "BEGIN:VCARD\r\nPHOTO;ENCODING=BASE64:AAAA\r\n BBBB".getBytes(StandardCharsets.UTF_8));
+        assertEquals(6, statistics.getBinaryByteCount());
+        assertEquals(0, scan(new byte[0]).getRecordCount());
+        assertTrue(scan(new byte[0]).getPropertyCounts().isEmpty());
+    }
+
+    @Test
+    void testFile() throws IOException {
+        byte[] bytes = VCardTestUtils.vcard21Entries(COUNT);
+        File file = new File(mDirectory, "contacts.vcf");
+        Files.write(file.toPath(), bytes);
+        assertEquals(scan(bytes).toString(), VCardScanStatistics.scan(file, "UTF-8").toString());
+    }
+
+    @Test
+    void testCountsAreCopies() throws IOException {
+        VCardScanStatistics statistics = scan(VCardTestUtils.vcard21Entries(1));
+        statistics.getPropertyCounts().put("FN", 10L);
+        assertEquals(1, (long) statistics.getPropertyCounts().get("FN"));
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ *
+ * 	StreamWIDE (Team on The Run)
+ *
+ * @createdBy  AndroidTeam on Mon, 19 Oct 2026 02:56:02 +0100
+ * @copyright  Copyright (c) 2026 StreamWIDE UK Ltd (Team on the Run)
+ * @email      support@teamontherun.com
+ *
+ * 	© Copyright 2026 StreamWIDE UK Ltd (Team on the Run). StreamWIDE is the copyright holder
+ * 	of all code contained in this file. Do not redistribute or
+ *  	re-use without permission.
+ *
+ * @lastModifiedOn Mon, 19 Oct 2026 02:56:02 +0100
+ */
+
+package com.streamwide.smartms.lib.vcard.syncml.pim.vcard;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.streamwide.smartms.lib.vcard.syncml.pim.VDataBuilder;
+import com.streamwide.smartms.lib.vcard.syncml.pim.VNode;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+class VCardSourceDetectorTest {
+
+    private static final String APPLE = "BEGIN:VCARD\r\nVERSION:3.0\r\nFN:Apple\r\nX-ABUID:1\r\nEND:VCARD\r\n";
+
+    @TempDir
+    File mDirectory;
+
+    @BeforeAll
+    static void setUpLogger() {
+        VCardTestUtils.disableLogger();
+    }
+
+    private static byte[] concat(byte[]... parts) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (byte[] part : parts) {
+            out.write(part, 0, part.length);
+        }
+        return out.toByteArray();
+    }
+
+    /** @return count entries in Shift_JIS, the last one with a sign of Japanese mobile phones. */
+    private static byte[] japaneseEntries(int count) {
+        String entries = new String(VCardTestUtils.vcard21Entries(count - 1), StandardCharsets.UTF_8)
+                + "BEGIN:VCARD\r\nVERSION:2.1\r\nFN:日本\r\nX-GNO:1\r\nEND:VCARD\r\n";
+        return entries.getBytes(Charset.forName("Shift_JIS"));
+    }
+
+    @Test
+    void testDetectFromTheFirstRecords() throws IOException {
+        byte[] bytes = concat(VCardTestUtils.vcard21Entries(9), APPLE.getBytes(StandardCharsets.UTF_8));
+        assertNull(VCardSourceDetector.detect(new ByteArrayInputStream(bytes), bytes.length, 9)
+                .getEstimatedCharset());
+        assertEquals("UTF-8", VCardSourceDetector.detect(new ByteArrayInputStream(bytes), bytes.length, 10)
+                .getEstimatedCharset());
+        assertEquals("UTF-8", VCardSourceDetector.detect(new ByteArrayInputStream(bytes), bytes.length, 0)
+                .getEstimatedCharset());
+        assertEquals("UTF-8", VCardSourceDetector.detect(new ByteArrayInputStream(bytes),
+                VCardSourceDetector.DEFAULT_SAMPLE_SIZE, 0).getEstimatedCharset());
+    }
+
+    @Test
+    void testDetectFromTheFirstBytes() throws IOException {
+        byte[] entries = VCardTestUtils.vcard21Entries(9);
+        byte[] bytes = concat(entries, APPLE.getBytes(StandardCharsets.UTF_8));
+        ByteArrayInputStream is = new ByteArrayInputStream(bytes);
+        assertNull(VCardSourceDetector.detect(is, entries.length, 0).getEstimatedCharset());
+        // Only the sample was read.
+        assertEquals(bytes.length - entries.length, is.available());
+
+        // The sign is before the end of the sample, in a record which is cut.
+        int sampleSize = bytes.length - "END:VCARD\r\n".length() - 1;
+        assertEquals("UTF-8", VCardSourceDetector.detect(new ByteArrayInputStream(bytes), sampleSize, 0)
+                .getEstimatedCharset());
+        // The line of the sign is cut.
+        sampleSize = bytes.length - "1\r\nEND:VCARD\r\n".length();
+        assertNull(VCardSourceDetector.detect(new ByteArrayInputStream(bytes), sampleSize, 0)
+                .getEstimatedCharset());
+    }
+
+    @Test
+    void testSpecifiedCharset() throws IOException {
+        String foma = "BEGIN:VCARD\r\nVERSION:2.1\r\nX-SD-CHAR_CODE:EUC-JP\r\nFN:a\r\nEND:VCARD\r\n";
+        VCardSourceDetector detector = VCardSourceDetector.detect(
+                new ByteArrayInputStream(foma.getBytes(StandardCharsets.US_ASCII)), 1024, 0);
+        assertEquals(VCardSourceDetector.TYPE_FOMA, detector.getType());
+        assertEquals("EUC-JP", detector.getEstimatedCharset("UTF-8"));
+
+        for (String charset : new String[] {"NOT-A-CHARSET", "not a charset"}) {
+            detector = VCardSourceDetector.detect(new ByteArrayInputStream(
+                    foma.replace("EUC-JP", charset).getBytes(StandardCharsets.US_ASCII)), 1024, 0);
+            assertEquals(charset, detector.getEstimatedCharset());
+            assertEquals("UTF-8", detector.getEstimatedCharset("UTF-8"));
+        }
+        assertEquals("ISO-8859-1", new VCardSourceDetector().getEstimatedCharset("ISO-8859-1"));
+    }
+
+    @Test
+    void testParseDetectingSource() throws IOException, VCardException {
+        byte[] bytes = japaneseEntries(5);
+        VDataBuilder expected = new VDataBuilder();
+        new VCardParserV21().parse(new ByteArrayInputStream(bytes), "SHIFT_JIS", expected);
+        VDataBuilder actual = new VDataBuilder();
+        new VCardParserV21().parseDetectingSource(new ByteArrayInputStream(bytes), "UTF-8", actual);
+        VCardTestUtils.assertSameNodes(expected.getVNodeList(), actual.getVNodeList());
+        assertEquals("日本", actual.getVNodeList().get(4).getPropList().get(1).getPropValue());
+
+        File file = new File(mDirectory, "japanese.vcf");
+        Files.write(file.toPath(), bytes);
+        actual = new VDataBuilder();
+        new VCardParserV21().parseDetectingSource(file, "UTF-8", actual);
+        VCardTestUtils.assertSameNodes(expected.getVNodeList(), actual.getVNodeList());
+    }
+
+    @Test
+    void testParseDetectingSourceBeyondTheSample() throws IOException, VCardException {
+        byte[] bytes = VCardTestUtils.vcard21Entries(1000);
+        assertTrue(bytes.length > 2 * VCardSourceDetector.DEFAULT_SAMPLE_SIZE);
+        List<VNode> expected = VCardTestUtils.parse(new VCardParserV21(), bytes);
+        VDataBuilder actual = new VDataBuilder();
+        new VCardVersionDispatcher().parseDetectingSource(new ByteArrayInputStream(bytes), "UTF-8", actual);
+        VCardTestUtils.assertSameNodes(expected, actual.getVNodeList());
+
+        // The sign is after the sample: the default charset is used.
+        bytes = japaneseEntries(1000);
+        VDataBuilder builder = new VDataBuilder();
+        new VCardParserV21().parseDetectingSource(new ByteArrayInputStream(bytes), "ISO-8859-1", builder);
+        assertEquals(new String("日本".getBytes(Charset.forName("Shift_JIS")), StandardCharsets.ISO_8859_1),
+                builder.getVNodeList().get(999).getPropList().get(1).getPropValue());
+    }
+
+    @Test
+    void testDetectorAsBuilder() throws IOException, VCardException {
+        VCardSourceDetector detector = new VCardSourceDetector();
+        new VCardParserV21().parse(new ByteArrayInputStream(japaneseEntries(3)), "ISO-8859-1", detector, false);
+        assertEquals(VCardSourceDetector.TYPE_JAPANESE_MOBILE_PHONE, detector.getType());
+        assertEquals("SHIFT_JIS", detector.getEstimatedCharset());
+    }
+}
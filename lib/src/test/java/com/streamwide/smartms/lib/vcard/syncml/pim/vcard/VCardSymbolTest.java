@@ -0,0 +1,158 @@
+/*
+ *
+ * 	StreamWIDE (Team on The Run)
+ *
+ * @createdBy  AndroidTeam on Mon, 19 Oct 2026 01:58:45 +0100
+ * @copyright  Copyright (c) 2026 StreamWIDE UK Ltd (Team on the Run)
+ * @email      support@teamontherun.com
+ *
+ * 	© Copyright 2026 StreamWIDE UK Ltd (Team on the Run). StreamWIDE is the copyright holder
+ * 	of all code contained in this file. Do not redistribute or
+ *  	re-use without permission.
+ *
+ * @lastModifiedOn Mon, 19 Oct 2026 01:58:45 +0100
+ */
+
+package com.streamwide.smartms.lib.vcard.syncml.pim.vcard;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+class VCardSymbolTest {
+
+    // The sets of names which VCardParserV21 and VCardParserV30 used before the symbol table.
+    private static final List<String> KNOWN_TYPES = Arrays.asList("DOM", "INTL", "POSTAL",
+            "PARCEL", "HOME", "WORK", "PREF", "VOICE", "FAX", "MSG", "CELL", "PAGER", "BBS",
+            "MODEM", "CAR", "ISDN", "VIDEO", "AOL", "APPLELINK", "ATTMAIL", "CIS", "EWORLD",
+            "INTERNET", "IBMMAIL", "MCIMAIL", "POWERSHARE", "PRODIGY", "TLX", "X400", "GIF",
+            "CGM", "WMF", "BMP", "MET", "PMB", "DIB", "PICT", "TIFF", "PDF", "PS", "JPEG",
+            "QTIME", "MPEG", "MPEG2", "AVI", "WAVE", "AIFF", "PCM", "X509", "PGP");
+    private static final List<String> KNOWN_VALUES = Arrays.asList("INLINE", "URL", "CONTENT-ID",
+            "CID");
+    private static final List<String> PROPERTY_NAMES_V21 = Arrays.asList("BEGIN", "LOGO", "PHOTO",
+            "LABEL", "FN", "TITLE", "SOUND", "VERSION", "TEL", "EMAIL", "TZ", "GEO", "NOTE", "URL",
+            "BDAY", "ROLE", "REV", "UID", "KEY", "MAILER");
+    private static final List<String> PROPERTY_NAMES_V30 = Arrays.asList("BEGIN", "LOGO", "PHOTO",
+            "LABEL", "FN", "TITLE", "SOUND", "VERSION", "TEL", "EMAIL", "TZ", "GEO", "NOTE", "URL",
+            "BDAY", "ROLE", "REV", "UID", "KEY", "MAILER", "NAME", "PROFILE", "SOURCE", "NICKNAME",
+            "CLASS", "SORT-STRING", "CATEGORIES", "PRODID");
+    private static final List<String> ENCODINGS_V21 = Arrays.asList("7BIT", "8BIT",
+            "QUOTED-PRINTABLE", "BASE64", "B");
+    private static final List<String> ENCODINGS_V30 = Arrays.asList("7BIT", "8BIT", "BASE64", "B");
+
+    private static final List<String> OTHER_NAMES = Arrays.asList("", "X-FOO", "BEGI", "BEGINX",
+            "ADR", "ORG", "N", "AGENT", "END", "TYPE", "VALUE", "ENCODING", "CHARSET", "LANGUAGE",
+            "X-QUOTED-PRINTABLE", "QUOTED_PRINTABLE", "FN ", "É");
+
+    private static Set<String> allNames() {
+        Set<String> names = new HashSet<>();
+        for (List<String> list : Arrays.asList(KNOWN_TYPES, KNOWN_VALUES, PROPERTY_NAMES_V21,
+                PROPERTY_NAMES_V30, ENCODINGS_V21, ENCODINGS_V30, OTHER_NAMES)) {
+            names.addAll(list);
+        }
+        return names;
+    }
+
+    private static String mixedCase(String name) {
+        StringBuilder builder = new StringBuilder(name.toLowerCase(Locale.ENGLISH));
+        for (int i = 0; i < builder.length(); i += 2) {
+            builder.setCharAt(i, Character.toUpperCase(builder.charAt(i)));
+        }
+        return builder.toString();
+    }
+
+    /** Looks the name up from the middle of a larger array, as the lexer does. */
+    private static int lookupBytes(String name, boolean exact) {
+        byte[] bytes = ("xx;" + name + ":yy").getBytes(StandardCharsets.UTF_8);
+        int end = bytes.length - 3;
+        return exact ? VCardSymbol.lookupExact(bytes, 3, end) : VCardSymbol.lookup(bytes, 3, end);
+    }
+
+    private static void assertFlag(List<String> expectedNames, int flag) {
+        for (String name : allNames()) {
+            boolean expected = expectedNames.contains(name);
+            for (String variant : new String[] {name, name.toLowerCase(Locale.ENGLISH), mixedCase(name)}) {
+                assertEquals(expected, VCardSymbol.hasFlag(VCardSymbol.lookup(variant), flag), variant);
+                assertEquals(expected, VCardSymbol.hasFlag(lookupBytes(variant, false), flag), variant);
+            }
+        }
+    }
+
+    @Test
+    void testFlagsMatchTheFormerSets() {
+        assertFlag(KNOWN_TYPES, VCardSymbol.FLAG_TYPE);
+        assertFlag(KNOWN_VALUES, VCardSymbol.FLAG_VALUE);
+        assertFlag(PROPERTY_NAMES_V21, VCardSymbol.FLAG_PROPERTY_V21);
+        assertFlag(PROPERTY_NAMES_V30, VCardSymbol.FLAG_PROPERTY_V30);
+        assertFlag(ENCODINGS_V21, VCardSymbol.FLAG_ENCODING_V21);
+        assertFlag(ENCODINGS_V30, VCardSymbol.FLAG_ENCODING_V30);
+    }
+
+    @Test
+    void testNamedSymbols() {
+        assertEquals(VCardSymbol.BEGIN, VCardSymbol.lookup("begin"));
+        assertEquals(VCardSymbol.END, VCardSymbol.lookup("End"));
+        assertEquals(VCardSymbol.ADR, VCardSymbol.lookup("ADR"));
+        assertEquals(VCardSymbol.ORG, VCardSymbol.lookup("org"));
+        assertEquals(VCardSymbol.N, VCardSymbol.lookup("n"));
+        assertEquals(VCardSymbol.AGENT, VCardSymbol.lookup("AGENT"));
+        assertEquals(VCardSymbol.TYPE, VCardSymbol.lookup("type"));
+        assertEquals(VCardSymbol.VALUE, VCardSymbol.lookup("VALUE"));
+        assertEquals(VCardSymbol.ENCODING, VCardSymbol.lookup("Encoding"));
+        assertEquals(VCardSymbol.CHARSET, VCardSymbol.lookup("CHARSET"));
+        assertEquals(VCardSymbol.LANGUAGE, VCardSymbol.lookup("LANGUAGE"));
+        assertEquals(VCardSymbol.ENCODING_7BIT, VCardSymbol.lookup("7bit"));
+        assertEquals(VCardSymbol.ENCODING_8BIT, VCardSymbol.lookup("8BIT"));
+        assertEquals(VCardSymbol.ENCODING_QUOTED_PRINTABLE, VCardSymbol.lookup("quoted-printable"));
+        assertEquals(VCardSymbol.ENCODING_BASE64, VCardSymbol.lookup("Base64"));
+        assertEquals(VCardSymbol.ENCODING_B, VCardSymbol.lookup("b"));
+    }
+
+    @Test
+    void testNamesAreDistinct() {
+        Set<Integer> symbols = new HashSet<>();
+        for (String name : allNames()) {
+            int symbol = VCardSymbol.lookup(name);
+            assertEquals(symbol, lookupBytes(name, false), name);
+            if (symbol != VCardSymbol.NONE) {
+                assertEquals(name, VCardSymbol.getName(symbol));
+                assertTrue(symbols.add(symbol), name);
+            }
+        }
+    }
+
+    @Test
+    void testExactLookup() {
+        for (String name : allNames()) {
+            int symbol = VCardSymbol.lookup(name);
+            assertEquals(symbol, VCardSymbol.lookupExact(name), name);
+            assertEquals(symbol, lookupBytes(name, true), name);
+            if (symbol != VCardSymbol.NONE && !name.toLowerCase(Locale.ENGLISH).equals(name)) {
+                assertEquals(VCardSymbol.NONE, VCardSymbol.lookupExact(name.toLowerCase(Locale.ENGLISH)));
+                assertEquals(VCardSymbol.NONE, lookupBytes(name.toLowerCase(Locale.ENGLISH), true));
+            }
+        }
+    }
+
+    @Test
+    void testUnknownNames() {
+        for (String name : new String[] {"", "X-FOO", "BEGI", "BEGINX", "FN ", "É"}) {
+            assertEquals(VCardSymbol.NONE, VCardSymbol.lookup(name), name);
+            assertEquals(VCardSymbol.NONE, lookupBytes(name, false), name);
+        }
+        assertFalse(VCardSymbol.hasFlag(VCardSymbol.NONE, VCardSymbol.FLAG_PROPERTY_V21));
+        // Non-ASCII bytes are not folded.
+        assertNotEquals(VCardSymbol.BEGIN, VCardSymbol.lookup(new byte[] {'B', 'E', 'G', 'I', (byte) 0xEE}, 0, 5));
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ *
+ * 	StreamWIDE (Team on The Run)
+ *
+ * @createdBy  AndroidTeam on Sun, 18 Oct 2026 23:31:12 +0100
+ * @copyright  Copyright (c) 2026 StreamWIDE UK Ltd (Team on the Run)
+ * @email      support@teamontherun.com
+ *
+ * 	© Copyright 2026 StreamWIDE UK Ltd (Team on the Run). StreamWIDE is the copyright holder
+ * 	of all code contained in this file. Do not redistribute or
+ *  	re-use without permission.
+ *
+ * @lastModifiedOn Sun, 18 Oct 2026 23:31:12 +0100
+ */
+
+package com.streamwide.smartms.lib.vcard.syncml.pim.vcard;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.streamwide.smartms.lib.vcard.logger.Logger;
+import com.streamwide.smartms.lib.vcard.syncml.pim.VDataBuilder;
+import com.streamwide.smartms.lib.vcard.syncml.pim.VNode;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/** Sources and assertions shared by the parser tests. */
+final class VCardTestUtils {
+
+    private VCardTestUtils() {
+    }
+
+    /** The parsers log unsupported properties, and there is no LogCat in unit tests. */
+    static void disableLogger() {
+        Logger.setLogLevel(Logger.LogLevel.OFF);
+    }
+
+    /**
+     * @return count vCard 2.1 entries, with a BASE64 PHOTO in every 5th one and a
+     *         QUOTED-PRINTABLE NOTE in every 3rd one.
+     */
+    static byte[] vcard21Entries(int count) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            builder.append("BEGIN:VCARD\r\n")
+                    .append("VERSION:2.1\r\n")
+                    .append("N:Name").append(i).append(";First;;;\r\n")
+                    .append("FN:First Name").append(i).append("\r\n")
+                    .append("TEL;CELL:+33 6 00 00 ").append(i % 100).append("\r\n")
+                    .append("UID:uid-").append(i).append("\r\n");
+            if (i % 3 == 0) {
+                builder.append("NOTE;ENCODING=QUOTED-PRINTABLE;CHARSET=UTF-8:caf=C3=A9 =\r\n")
+                        .append("number ").append(i).append("\r\n");
+            }
+            if (i % 5 == 0) {
+                builder.append("PHOTO;ENCODING=BASE64;TYPE=GIF:\r\n")
+                        .append(" R0lGODlhAQABAIAAAP///wAAACH5BAEAAAAALAAAAAABAAEAAAICRAEAOw==\r\n")
+                        .append("\r\n");
+            }
+            builder.append("END:VCARD\r\n");
+            if (i % 7 == 0) {
+                builder.append("\r\n");
+            }
+        }
+        return builder.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    static List<VNode> parse(VCardParserV21 parser, byte[] bytes) throws IOException, VCardException {
+        VDataBuilder builder = new VDataBuilder();
+        parser.parse(new ByteArrayInputStream(bytes), "UTF-8", builder);
+        return builder.getVNodeList();
+    }
+
+    static void assertSameNodes(List<VNode> expected, List<VNode> actual) {
+        assertEquals(expected.size(), actual.size(), "VNode count");
+        for (int i = 0; i < expected.size(); i++) {
+            assertSameNode(expected.get(i), actual.get(i));
+        }
+    }
+
+    static void assertSameNode(VNode expected, VNode actual) {
+        assertEquals(expected.getVName(), actual.getVName());
+        assertEquals(expected.getPropList(), actual.getPropList());
+    }
+}
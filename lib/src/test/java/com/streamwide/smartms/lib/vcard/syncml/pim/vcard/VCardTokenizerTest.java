@@ -0,0 +1,213 @@
+/*
+ *
+ * 	StreamWIDE (Team on The Run)
+ *
+ * @createdBy  AndroidTeam on Mon, 19 Oct 2026 02:06:12 +0100
+ * @copyright  Copyright (c) 2026 StreamWIDE UK Ltd (Team on the Run)
+ * @email      support@teamontherun.com
+ *
+ * 	© Copyright 2026 StreamWIDE UK Ltd (Team on the Run). StreamWIDE is the copyright holder
+ * 	of all code contained in this file. Do not redistribute or
+ *  	re-use without permission.
+ *
+ * @lastModifiedOn Mon, 19 Oct 2026 02:06:12 +0100
+ */
+
+package com.streamwide.smartms.lib.vcard.syncml.pim.vcard;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.streamwide.smartms.lib.vcard.syncml.pim.VBuilder;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/** Checks the calls made by the parsers for each kind of property line, as they were before. */
+class VCardTokenizerTest {
+
+    /** Records the calls made for the properties following VERSION. */
+    private static class RecordingBuilder implements VBuilder {
+        final List<String> mCalls = new ArrayList<>();
+        final List<String> mParamValues = new ArrayList<>();
+        final List<List<String>> mValueLists = new ArrayList<>();
+        private boolean mRecording;
+
+        @Override
+        public void start() {
+        }
+
+        @Override
+        public void end() {
+        }
+
+        @Override
+        public void startRecord(String type) {
+        }
+
+        @Override
+        public void endRecord() {
+        }
+
+        @Override
+        public void startProperty() {
+        }
+
+        @Override
+        public void endProperty() {
+        }
+
+        @Override
+        public void propertyGroup(String group) {
+            mCalls.add("group " + group);
+        }
+
+        @Override
+        public void propertyName(String name) {
+            if (mRecording) {
+                mCalls.add("name " + name);
+            }
+            mRecording = true;
+        }
+
+        @Override
+        public void propertyParamType(String type) {
+            mCalls.add("type " + type);
+        }
+
+        @Override
+        public void propertyParamValue(String value) {
+            mCalls.add("value " + value);
+            mParamValues.add(value);
+        }
+
+        @Override
+        public void propertyValues(List<String> values) {
+            if (!mCalls.isEmpty()) {
+                mCalls.add("values " + values);
+                mValueLists.add(values);
+            }
+        }
+    }
+
+    @BeforeAll
+    static void setUpLogger() {
+        VCardTestUtils.disableLogger();
+    }
+
+    private static RecordingBuilder parse(VCardParserV21 parser, String version, String... lines)
+            throws IOException, VCardException {
+        StringBuilder vcard = new StringBuilder("BEGIN:VCARD\r\nVERSION:").append(version).append("\r\n");
+        for (String line : lines) {
+            vcard.append(line).append("\r\n");
+        }
+        vcard.append("END:VCARD\r\n");
+        RecordingBuilder builder = new RecordingBuilder();
+        parser.parse(new ByteArrayInputStream(vcard.toString().getBytes(StandardCharsets.UTF_8)),
+                "UTF-8", builder, false);
+        return builder;
+    }
+
+    private static List<String> calls21(String line) throws IOException, VCardException {
+        return parse(new VCardParserV21(), "2.1", line).mCalls;
+    }
+
+    private static List<String> calls30(String line) throws IOException, VCardException {
+        return parse(new VCardParserV30(), "3.0", line).mCalls;
+    }
+
+    @Test
+    void testValuesV21() throws IOException, VCardException {
+        assertEquals(Arrays.asList("name N", "values [Doe, John, , Dr., ]"), calls21("N:Doe;John;;Dr.;"));
+        assertEquals(Arrays.asList("name N", "values [Doe;Jr, John]"), calls21("N:Doe\\;Jr;John"));
+        assertEquals(Arrays.asList("name ORG", "values [Acme, Sales;Dept, ]"),
+                calls21("ORG:Acme;Sales\\;Dept;"));
+        assertEquals(Arrays.asList("name FN", "values []"), calls21("FN:"));
+        assertEquals(Arrays.asList("name NOTE", "values [a\\nb\\\\c\\,d]"), calls21("NOTE:a\\nb\\\\c\\,d"));
+        assertEquals(Arrays.asList("name NOTE", "values [café]"), calls21("NOTE:café"));
+    }
+
+    @Test
+    void testParamsV21() throws IOException, VCardException {
+        assertEquals(Arrays.asList("name ADR", "type TYPE", "value HOME", "type TYPE", "value WORK",
+                "values [, , 1 Main St, Town, , 12345, FR]"),
+                calls21("ADR;HOME;WORK:;;1 Main St;Town;;12345;FR"));
+        assertEquals(Arrays.asList("group a", "group b", "name EMAIL", "type TYPE", "value INTERNET",
+                "values [x@y]"), calls21("a.b.EMAIL;INTERNET:x@y"));
+        assertEquals(Arrays.asList("name NOTE", "type LANGUAGE", "value fr-CA", "type CHARSET",
+                "value UTF-8", "values [x]"), calls21("NOTE;LANGUAGE=fr-CA;CHARSET=UTF-8:x"));
+        assertEquals(Arrays.asList("name X-FOO", "type X-PARAM", "value bar", "type TYPE", "value HOME",
+                "values [v]"), calls21("X-FOO;X-PARAM=bar;HOME:v"));
+        assertEquals(Arrays.asList("name LABEL", "type VALUE", "value URL", "values [http://x]"),
+                calls21("LABEL;VALUE=URL:http://x"));
+        // The value is decoded by the builder.
+        assertEquals(Arrays.asList("name NOTE", "type ENCODING", "value QUOTED-PRINTABLE", "values [a=3Db]"),
+                calls21("NOTE;ENCODING=QUOTED-PRINTABLE:a=3Db"));
+        // Neither the spaces around a param nor unknown types are rejected.
+        assertEquals(Arrays.asList("name TEL", "type TYPE", "value  CELL ", "values [+3]"),
+                calls21("TEL; CELL :+3"));
+        assertEquals(Arrays.asList("name TEL", "type TYPE", "value FOO", "values [+5]"),
+                calls21("TEL;FOO:+5"));
+        assertEquals(Arrays.asList("name TEL", "type TYPE", "value FOO", "values [+6]"),
+                calls21("TEL;TYPE=FOO:+6"));
+    }
+
+    @Test
+    void testUnknownParamV21() {
+        assertThrows(VCardException.class, () -> calls21("home.TEL;type=cell:+1"));
+    }
+
+    @Test
+    void testValuesV30() throws IOException, VCardException {
+        assertEquals(Arrays.asList("name N", "values [Doe, John, , Dr., ]"), calls30("N:Doe;John;;Dr.;"));
+        assertEquals(Arrays.asList("name ORG", "values [Acme, Sales;Dept]"), calls30("ORG:Acme;Sales\\;Dept"));
+        assertEquals(Arrays.asList("name NOTE", "values [line1\r\nline2, x;y\\z]"),
+                calls30("NOTE:line1\\nline2\\, x\\;y\\\\z"));
+        assertEquals(Arrays.asList("name CATEGORIES", "values [a,b,c]"), calls30("CATEGORIES:a,b\\,c"));
+        assertEquals(Arrays.asList("name ADR", "type TYPE", "value home", "value work",
+                "values [, , 1 Main, St, Town]"), calls30("ADR;TYPE=home,work:;;1 Main\\, St;Town"));
+    }
+
+    @Test
+    void testParamsV30() throws IOException, VCardException {
+        assertEquals(Arrays.asList("name TEL", "type TYPE", "value \"cell", "value voice\"", "values [+1]"),
+                calls30("TEL;TYPE=\"cell,voice\":+1"));
+        assertEquals(Arrays.asList("name TEL", "type TYPE", "value CELL", "type TYPE", "value pref",
+                "values [+2]"), calls30("TEL;TYPE=CELL;TYPE=pref:+2"));
+        assertEquals(Arrays.asList("name EMAIL", "type type", "value INTERNET,", "values [x@y]"),
+                calls30("EMAIL;type=INTERNET,:x@y"));
+        assertEquals(Arrays.asList("name TEL", "type TYPE", "value CELL", "values [+4]"),
+                calls30("TEL;CELL:+4"));
+        assertEquals(Arrays.asList("group item1", "name URL", "type CHARSET", "value UTF-8",
+                "values [http://x]"), calls30("item1.URL;CHARSET=UTF-8:http://x"));
+        assertEquals(Arrays.asList("name X-FOO", "type X-P", "value 1", "values [v]"), calls30("X-FOO;X-P=1:v"));
+    }
+
+    @Test
+    void testNewValueListForEachProperty() throws IOException, VCardException {
+        RecordingBuilder builder = parse(new VCardParserV21(), "2.1", "N:a;b", "ORG:c;d", "FN:e");
+        assertEquals(3, builder.mValueLists.size());
+        assertNotSame(builder.mValueLists.get(0), builder.mValueLists.get(1));
+        assertNotSame(builder.mValueLists.get(1), builder.mValueLists.get(2));
+        assertEquals(Arrays.asList("a", "b"), builder.mValueLists.get(0));
+        assertEquals(Arrays.asList("c", "d"), builder.mValueLists.get(1));
+        assertEquals(Arrays.asList("e"), builder.mValueLists.get(2));
+    }
+
+    @Test
+    void testKnownParamValuesAreShared() throws IOException, VCardException {
+        RecordingBuilder builder = parse(new VCardParserV21(), "2.1", "TEL;HOME:1", "TEL;TYPE=HOME:2",
+                "NOTE;ENCODING=QUOTED-PRINTABLE:a", "NOTE;ENCODING=QUOTED-PRINTABLE:b");
+        assertSame(builder.mParamValues.get(0), builder.mParamValues.get(1));
+        assertSame(builder.mParamValues.get(2), builder.mParamValues.get(3));
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ *
+ * 	StreamWIDE (Team on The Run)
+ *
+ * @createdBy  AndroidTeam on Mon, 19 Oct 2026 02:23:51 +0100
+ * @copyright  Copyright (c) 2026 StreamWIDE UK Ltd (Team on the Run)
+ * @email      support@teamontherun.com
+ *
+ * 	© Copyright 2026 StreamWIDE UK Ltd (Team on the Run). StreamWIDE is the copyright holder
+ * 	of all code contained in this file. Do not redistribute or
+ *  	re-use without permission.
+ *
+ * @lastModifiedOn Mon, 19 Oct 2026 02:23:51 +0100
+ */
+
+package com.streamwide.smartms.lib.vcard.syncml.pim.vcard;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.streamwide.smartms.lib.vcard.syncml.pim.PropertyNode;
+import com.streamwide.smartms.lib.vcard.syncml.pim.VDataBuilder;
+import com.streamwide.smartms.lib.vcard.syncml.pim.VNode;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+class VCardVersionDispatcherTest {
+
+    private static final String VCARD30 = "BEGIN:VCARD\r\n"
+            + "VERSION:3.0\r\n"
+            + "N:Doe;John;;;\r\n"
+            + "FN:John\r\n"
+            + "  Doe\r\n"
+            + "TEL;TYPE=HOME,VOICE:+1 555 0100\r\n"
+            + "NOTE:a\\, b\\nc\r\n"
+            + "END:VCARD\r\n";
+
+    @BeforeAll
+    static void setUpLogger() {
+        VCardTestUtils.disableLogger();
+    }
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String vcard21(int count) {
+        return new String(VCardTestUtils.vcard21Entries(count), StandardCharsets.UTF_8);
+    }
+
+    private static String note(VNode node) {
+        for (PropertyNode propertyNode : node.getPropList()) {
+            if (propertyNode.getPropName().equals("NOTE")) {
+                return propertyNode.getPropValue();
+            }
+        }
+        return null;
+    }
+
+    @Test
+    void testMixedVersions() throws IOException, VCardException {
+        String v21 = vcard21(4);
+        List<VNode> expected = new ArrayList<>();
+        expected.addAll(VCardTestUtils.parse(new VCardParserV21(), bytes(v21)));
+        expected.addAll(VCardTestUtils.parse(new VCardParserV30(), bytes(VCARD30)));
+        expected.addAll(VCardTestUtils.parse(new VCardParserV21(), bytes(v21)));
+        expected.addAll(VCardTestUtils.parse(new VCardParserV30(), bytes(VCARD30)));
+        assertEquals(10, expected.size());
+
+        byte[] mixed = bytes(v21 + VCARD30 + v21 + VCARD30);
+        VCardTestUtils.assertSameNodes(expected, VCardTestUtils.parse(new VCardVersionDispatcher(), mixed));
+    }
+
+    @Test
+    void testSingleVersion() throws IOException, VCardException {
+        byte[] v21 = VCardTestUtils.vcard21Entries(20);
+        VCardTestUtils.assertSameNodes(VCardTestUtils.parse(new VCardParserV21(), v21),
+                VCardTestUtils.parse(new VCardVersionDispatcher(), v21));
+        byte[] v30 = bytes(VCARD30 + VCARD30);
+        VCardTestUtils.assertSameNodes(VCardTestUtils.parse(new VCardParserV30(), v30),
+                VCardTestUtils.parse(new VCardVersionDispatcher(), v30));
+    }
+
+    @Test
+    void testItemsBeforeVersion() throws IOException, VCardException {
+        String noteFirst = "BEGIN:VCARD\r\nNOTE:x\\,y\r\nVERSION:2.1\r\nNOTE:x\\,y\r\nEND:VCARD\r\n";
+        List<VNode> nodes = VCardTestUtils.parse(new VCardVersionDispatcher(), bytes(noteFirst + VCARD30 + noteFirst));
+        assertEquals(3, nodes.size());
+        // The first entry starts with the rules of vCard 2.1, the last one with those of vCard 3.0.
+        assertEquals("x\\,y", nodes.get(0).getPropList().get(0).getPropValue());
+        assertEquals("x\\,y", nodes.get(0).getPropList().get(2).getPropValue());
+        assertEquals("x,y", nodes.get(2).getPropList().get(0).getPropValue());
+        assertEquals("x\\,y", nodes.get(2).getPropList().get(2).getPropValue());
+    }
+
+    @Test
+    void testResetStartsWithVersion21() throws IOException, VCardException {
+        String noVersion = "BEGIN:VCARD\r\nNOTE:x\\,y\r\nEND:VCARD\r\n";
+        VCardVersionDispatcher parser = new VCardVersionDispatcher();
+        assertEquals("a, b\r\nc", note(VCardTestUtils.parse(parser, bytes(VCARD30)).get(0)));
+        parser.reset();
+        assertEquals("x\\,y", note(VCardTestUtils.parse(parser, bytes(noVersion)).get(0)));
+    }
+
+    @Test
+    void testVCardParser() throws IOException, VCardException {
+        // VCardParser repairs the lines of a String, which changes folded lines.
+        String vcard30 = VCARD30.replace("\r\n  Doe", " Doe");
+        VCardParser parser = new VCardParser();
+        VDataBuilder builder = new VDataBuilder();
+        parser.parse(vcard30, "UTF-8", builder);
+        VCardTestUtils.assertSameNodes(VCardTestUtils.parse(new VCardParserV30(), bytes(vcard30)),
+                builder.getVNodeList());
+
+        String vcard21 = "BEGIN:VCARD\r\nVERSION:2.1\r\nN:Roe;Jane\r\nNOTE:x\\,y\r\nEND:VCARD\r\n";
+        String mixed = vcard21 + vcard30 + vcard21;
+        builder = new VDataBuilder();
+        parser.parse(mixed, "UTF-8", builder);
+        VCardTestUtils.assertSameNodes(VCardTestUtils.parse(new VCardVersionDispatcher(), bytes(mixed)),
+                builder.getVNodeList());
+        assertEquals(3, builder.getVNodeList().size());
+    }
+}